@@ -0,0 +1,125 @@
+package ch.njol.skript.lang;
+
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.util.ContextlessEvent;
+import ch.njol.util.Kleenean;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.skriptlang.skript.benchmark.BenchmarkEnvironment;
+
+import java.util.Locale;
+
+/**
+ * Benchmarks {@link TriggerItem#walk(TriggerItem, Event)} over a linear chain of cheap effects,
+ * measuring the interpreter's per-item overhead.
+ */
+@State(Scope.Thread)
+public class TriggerItemWalkBenchmark {
+
+	/**
+	 * The amount of effects in the chain.
+	 */
+	@Param({"10", "100"})
+	public int length;
+
+	private TriggerItem start;
+	private Event event;
+
+	@Setup
+	public void setup() {
+		BenchmarkEnvironment.init();
+		Counter counter = new Counter();
+		TriggerItem previous = null;
+		for (int i = 0; i < length; i++) {
+			// use several classes to get the megamorphic call sites of real triggers
+			TriggerItem item = switch (i % 3) {
+				case 0 -> new Increment(counter);
+				case 1 -> new Decrement(counter);
+				default -> new Reset(counter);
+			};
+			if (previous == null) {
+				start = item;
+			} else {
+				previous.setNext(item);
+			}
+			previous = item;
+		}
+		event = ContextlessEvent.get();
+	}
+
+	@Benchmark
+	public boolean walk() {
+		return TriggerItem.walk(start, event);
+	}
+
+	private static final class Counter {
+
+		private int value;
+
+	}
+
+	private abstract static class CounterEffect extends Effect {
+
+		protected final Counter counter;
+
+		private CounterEffect(Counter counter) {
+			this.counter = counter;
+		}
+
+		@Override
+		public boolean init(Expression<?>[] expressions, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+			return true;
+		}
+
+		@Override
+		public String toString(@Nullable Event event, boolean debug) {
+			return getClass().getSimpleName().toLowerCase(Locale.ENGLISH);
+		}
+
+	}
+
+	private static final class Increment extends CounterEffect {
+
+		private Increment(Counter counter) {
+			super(counter);
+		}
+
+		@Override
+		protected void execute(Event event) {
+			counter.value++;
+		}
+
+	}
+
+	private static final class Decrement extends CounterEffect {
+
+		private Decrement(Counter counter) {
+			super(counter);
+		}
+
+		@Override
+		protected void execute(Event event) {
+			counter.value--;
+		}
+
+	}
+
+	private static final class Reset extends CounterEffect {
+
+		private Reset(Counter counter) {
+			super(counter);
+		}
+
+		@Override
+		protected void execute(Event event) {
+			counter.value = 0;
+		}
+
+	}
+
+}
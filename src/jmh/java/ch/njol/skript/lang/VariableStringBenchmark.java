@@ -0,0 +1,82 @@
+package ch.njol.skript.lang;
+
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.util.ContextlessEvent;
+import ch.njol.skript.lang.util.SimpleExpression;
+import ch.njol.skript.util.StringMode;
+import ch.njol.util.Kleenean;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.skriptlang.skript.benchmark.BenchmarkEnvironment;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Benchmarks {@link VariableString#toString(Event)} for a variable name like {@code stats::%uuid%::kills},
+ * which is rendered on every access of such a variable.
+ */
+@State(Scope.Thread)
+public class VariableStringBenchmark {
+
+	private VariableString variableName;
+	private Event event;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException {
+		BenchmarkEnvironment.init();
+		Constructor<VariableString> constructor =
+			VariableString.class.getDeclaredConstructor(String.class, Object[].class, StringMode.class);
+		constructor.setAccessible(true);
+		Object[] parts = {"stats::", new ConstantString("0f6c1c6e-3f2b-4bde-8f4e-2b1c6d0e9a11"), "::kills"};
+		variableName = constructor.newInstance("stats::%uuid%::kills", parts, StringMode.VARIABLE_NAME);
+		event = ContextlessEvent.get();
+	}
+
+	@Benchmark
+	public String render() {
+		return variableName.toString(event);
+	}
+
+	/**
+	 * An expression always returning the same string, standing in for e.g. {@code %player's uuid%}.
+	 */
+	private static final class ConstantString extends SimpleExpression<String> {
+
+		private final String[] value;
+
+		private ConstantString(String value) {
+			this.value = new String[] {value};
+		}
+
+		@Override
+		protected String @Nullable [] get(Event event) {
+			return value;
+		}
+
+		@Override
+		public boolean isSingle() {
+			return true;
+		}
+
+		@Override
+		public Class<? extends String> getReturnType() {
+			return String.class;
+		}
+
+		@Override
+		public boolean init(Expression<?>[] expressions, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+			return true;
+		}
+
+		@Override
+		public String toString(@Nullable Event event, boolean debug) {
+			return value[0];
+		}
+
+	}
+
+}
@@ -0,0 +1,58 @@
+package ch.njol.skript.patterns;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link SkriptPattern#match(String)}, which {@link ch.njol.skript.lang.SkriptParser} runs
+ * for every pattern of every candidate syntax while parsing a line.
+ * Only literal patterns are used, as type patterns require registered class infos.
+ */
+@State(Scope.Thread)
+public class PatternMatchBenchmark {
+
+	private static final String[] PATTERNS = {
+		"(stop|abort) [the] (server|game)",
+		"cancel [the] [current] event",
+		"[the] (world|server) time of day",
+		"(hide|conceal) [the] (boss|health) bar[s] [for everyone]",
+		"make [the] sun (rise|set) [slowly|quickly]",
+		"reload [all] [the] (scripts|aliases|config)",
+	};
+
+	private SkriptPattern[] patterns;
+
+	@Setup
+	public void setup() {
+		patterns = new SkriptPattern[PATTERNS.length];
+		for (int i = 0; i < PATTERNS.length; i++)
+			patterns[i] = PatternCompiler.compile(PATTERNS[i]);
+	}
+
+	/**
+	 * A line that is rejected by the keyword pre-filter of most patterns.
+	 */
+	@Benchmark
+	public void reject(Blackhole blackhole) {
+		for (SkriptPattern pattern : patterns)
+			blackhole.consume(pattern.match("send \"hello\" to the player"));
+	}
+
+	/**
+	 * A line that matches the last pattern, after failing to match the others.
+	 */
+	@Benchmark
+	public void match(Blackhole blackhole) {
+		for (SkriptPattern pattern : patterns)
+			blackhole.consume(pattern.match("reload all the scripts"));
+	}
+
+	@Benchmark
+	public SkriptPattern compile() {
+		return PatternCompiler.compile(PATTERNS[3]);
+	}
+
+}
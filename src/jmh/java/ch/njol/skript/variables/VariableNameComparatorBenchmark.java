@@ -0,0 +1,46 @@
+package ch.njol.skript.variables;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link VariablesMap#VARIABLE_NAME_COMPARATOR},
+ * which orders every insertion into and lookup from a list variable.
+ */
+@State(Scope.Thread)
+public class VariableNameComparatorBenchmark {
+
+	private String[] integers;
+	private String[] mixed;
+
+	@Setup
+	public void setup() {
+		integers = new String[1024];
+		mixed = new String[1024];
+		for (int i = 0; i < integers.length; i++) {
+			integers[i] = String.valueOf(i + 1);
+			mixed[i] = switch (i % 4) {
+				case 0 -> "player" + i;
+				case 1 -> "-" + i + "." + (i % 7);
+				case 2 -> "00" + i;
+				default -> "a" + i + "b" + (i * 31);
+			};
+		}
+	}
+
+	@Benchmark
+	public void integerIndices(Blackhole blackhole) {
+		for (int i = 1; i < integers.length; i++)
+			blackhole.consume(VariablesMap.VARIABLE_NAME_COMPARATOR.compare(integers[i - 1], integers[i]));
+	}
+
+	@Benchmark
+	public void mixedIndices(Blackhole blackhole) {
+		for (int i = 1; i < mixed.length; i++)
+			blackhole.consume(VariablesMap.VARIABLE_NAME_COMPARATOR.compare(mixed[i - 1], mixed[i]));
+	}
+
+}
@@ -0,0 +1,140 @@
+package ch.njol.skript.variables;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compares the global variable map guarded by a single fair lock, as used by default in {@link Variables},
+ * to the {@link ShardedVariablesMap}, with concurrent readers and writers.
+ */
+@State(Scope.Benchmark)
+public class VariablesMapBenchmark {
+
+	/**
+	 * The amount of distinct top-level variable names.
+	 */
+	@Param({"16", "1024"})
+	public int names;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock(true);
+	private VariablesMap lockedMap;
+	private ShardedVariablesMap shardedMap;
+
+	private String[] singleNames;
+	private String[] listNames;
+	private String[] elementNames;
+
+	@Setup
+	public void setup() {
+		lockedMap = new VariablesMap();
+		shardedMap = new ShardedVariablesMap();
+		singleNames = new String[names];
+		listNames = new String[names];
+		elementNames = new String[names];
+		for (int i = 0; i < names; i++) {
+			singleNames[i] = "single" + i;
+			listNames[i] = "list" + i + "::*";
+			elementNames[i] = "list" + i + "::";
+			lockedMap.setVariable(singleNames[i], i);
+			shardedMap.setVariable(singleNames[i], i, null);
+			for (int j = 1; j <= 16; j++) {
+				lockedMap.setVariable(elementNames[i] + j, j);
+				shardedMap.setVariable(elementNames[i] + j, j, null);
+			}
+		}
+	}
+
+	private int random() {
+		return ThreadLocalRandom.current().nextInt(names);
+	}
+
+	@Benchmark
+	@Group("locked")
+	@GroupThreads(3)
+	public Object lockedRead() {
+		lock.readLock().lock();
+		try {
+			return lockedMap.getVariable(singleNames[random()]);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Benchmark
+	@Group("locked")
+	@GroupThreads(1)
+	public void lockedWrite() {
+		int index = random();
+		lock.writeLock().lock();
+		try {
+			lockedMap.setVariable(singleNames[index], index);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Benchmark
+	@Group("sharded")
+	@GroupThreads(3)
+	public Object shardedRead() {
+		return shardedMap.getVariable(singleNames[random()]);
+	}
+
+	@Benchmark
+	@Group("sharded")
+	@GroupThreads(1)
+	public void shardedWrite() {
+		int index = random();
+		shardedMap.setVariable(singleNames[index], index, null);
+	}
+
+	@Benchmark
+	@Group("lockedList")
+	@GroupThreads(3)
+	public Object lockedListRead() {
+		lock.readLock().lock();
+		try {
+			return lockedMap.getVariable(listNames[random()]);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Benchmark
+	@Group("lockedList")
+	@GroupThreads(1)
+	public void lockedListWrite() {
+		int index = random();
+		lock.writeLock().lock();
+		try {
+			lockedMap.setVariable(elementNames[index] + 1, index);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Benchmark
+	@Group("shardedList")
+	@GroupThreads(3)
+	public Object shardedListRead() {
+		return shardedMap.getVariable(listNames[random()]);
+	}
+
+	@Benchmark
+	@Group("shardedList")
+	@GroupThreads(1)
+	public void shardedListWrite() {
+		int index = random();
+		shardedMap.setVariable(elementNames[index] + 1, index, null);
+	}
+
+}
@@ -0,0 +1,68 @@
+package org.skriptlang.skript.benchmark;
+
+import ch.njol.skript.Skript;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.objenesis.ObjenesisStd;
+import org.skriptlang.skript.lang.comparator.Comparators;
+import org.skriptlang.skript.lang.comparator.Relation;
+import org.skriptlang.skript.lang.converter.Converters;
+
+import java.lang.reflect.Field;
+
+/**
+ * Sets up just enough of Skript for benchmarks to run without a server.
+ * <p>
+ * A {@link Skript} instance is created without running its constructor, so that registries which check
+ * {@link Skript#isAcceptRegistrations()} can be used. A small set of converters and comparators is registered,
+ * after which registrations are closed like they are after Skript has enabled.
+ * Class infos are not registered, so values are stringified using {@link Object#toString()}.
+ */
+public final class BenchmarkEnvironment {
+
+	private BenchmarkEnvironment() { }
+
+	private static boolean initialized = false;
+
+	/**
+	 * Initializes the environment, if it hasn't been initialized in this JVM yet.
+	 */
+	public static synchronized void init() {
+		if (initialized)
+			return;
+		initialized = true;
+
+		try {
+			Skript skript = new ObjenesisStd().newInstance(Skript.class);
+			setField(Skript.class, null, "instance", skript);
+
+			// registrations are accepted while the plugin is enabled
+			setField(JavaPlugin.class, skript, "isEnabled", true);
+			registerConverters();
+			registerComparators();
+			Converters.createChainedConverters();
+			setField(JavaPlugin.class, skript, "isEnabled", false);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Failed to set up the benchmark environment", e);
+		}
+	}
+
+	private static void registerConverters() {
+		Converters.registerConverter(Integer.class, Long.class, Integer::longValue);
+		Converters.registerConverter(Long.class, Double.class, Long::doubleValue);
+		Converters.registerConverter(Number.class, String.class, String::valueOf);
+	}
+
+	private static void registerComparators() {
+		Comparators.registerComparator(Number.class, Number.class,
+				(first, second) -> Relation.get(Double.compare(first.doubleValue(), second.doubleValue())));
+		Comparators.registerComparator(String.class, String.class,
+				(first, second) -> Relation.get(first.compareToIgnoreCase(second)));
+	}
+
+	private static void setField(Class<?> owner, Object instance, String name, Object value) throws ReflectiveOperationException {
+		Field field = owner.getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(instance, value);
+	}
+
+}
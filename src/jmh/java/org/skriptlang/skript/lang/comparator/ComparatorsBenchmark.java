@@ -0,0 +1,44 @@
+package org.skriptlang.skript.lang.comparator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.skriptlang.skript.benchmark.BenchmarkEnvironment;
+
+/**
+ * Benchmarks {@link Comparators#compare(Object, Object)} for exact, supertype and missing comparators.
+ */
+@State(Scope.Thread)
+public class ComparatorsBenchmark {
+
+	private Object first;
+	private Object second;
+	private Object firstString;
+	private Object secondString;
+
+	@Setup
+	public void setup() {
+		BenchmarkEnvironment.init();
+		first = 5;
+		second = 7.5;
+		firstString = "alpha";
+		secondString = "Beta";
+	}
+
+	@Benchmark
+	public Relation numbers() {
+		return Comparators.compare(first, second);
+	}
+
+	@Benchmark
+	public Relation strings() {
+		return Comparators.compare(firstString, secondString);
+	}
+
+	@Benchmark
+	public Relation missing() {
+		return Comparators.compare(first, firstString);
+	}
+
+}
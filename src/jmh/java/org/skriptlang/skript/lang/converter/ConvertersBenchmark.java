@@ -0,0 +1,45 @@
+package org.skriptlang.skript.lang.converter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.skriptlang.skript.benchmark.BenchmarkEnvironment;
+
+/**
+ * Benchmarks {@link Converters#convert(Object, Class)} for direct, chained, missing and no-op conversions.
+ */
+@State(Scope.Thread)
+public class ConvertersBenchmark {
+
+	private Object integer;
+	private Object string;
+
+	@Setup
+	public void setup() {
+		BenchmarkEnvironment.init();
+		integer = 42;
+		string = "42";
+	}
+
+	@Benchmark
+	public Object direct() {
+		return Converters.convert(integer, Long.class);
+	}
+
+	@Benchmark
+	public Object chained() {
+		return Converters.convert(integer, Double.class);
+	}
+
+	@Benchmark
+	public Object missing() {
+		return Converters.convert(string, Long.class);
+	}
+
+	@Benchmark
+	public Object assignable() {
+		return Converters.convert(integer, Number.class);
+	}
+
+}
@@ -1,16 +1,19 @@
 package ch.njol.skript;
 
 import ch.njol.skript.config.Config;
+import ch.njol.skript.config.EntryNode;
 import ch.njol.skript.config.Node;
 import ch.njol.skript.config.SectionNode;
 import ch.njol.skript.config.SimpleNode;
 import ch.njol.skript.events.bukkit.PreScriptLoadEvent;
 import ch.njol.skript.lang.*;
+import ch.njol.skript.lang.parser.ParseCache;
 import ch.njol.skript.lang.parser.ParserInstance;
 import ch.njol.skript.log.CountingLogHandler;
 import ch.njol.skript.log.LogEntry;
 import ch.njol.skript.log.RetainingLogHandler;
 import ch.njol.skript.log.SkriptLogger;
+import ch.njol.skript.structures.StructEvent;
 import ch.njol.skript.structures.StructOptions.OptionsData;
 import ch.njol.skript.test.runner.TestMode;
 import ch.njol.skript.util.ExceptionUtils;
@@ -25,6 +28,7 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnknownNullability;
 import org.skriptlang.skript.bukkit.text.TextComponentParser;
 import org.skriptlang.skript.lang.script.Script;
+import org.skriptlang.skript.lang.script.ScriptData;
 import org.skriptlang.skript.lang.script.ScriptWarning;
 import org.skriptlang.skript.lang.structure.Structure;
 import org.skriptlang.skript.util.event.EventRegistry;
@@ -55,10 +59,11 @@ public class ScriptLoader {
 	 * <ul>
 	 *     <li>The amount of files</li>
 	 *     <li>The amount of structures</li>
+	 *     <li>The amount of structures that were kept loaded during an incremental reload</li>
 	 * </ul>
 	 */
 	public static class ScriptInfo {
-		public int files, structures;
+		public int files, structures, reused;
 
 		public ScriptInfo() {
 
@@ -76,21 +81,24 @@ public class ScriptLoader {
 		public ScriptInfo(ScriptInfo other) {
 			files = other.files;
 			structures = other.structures;
+			reused = other.reused;
 		}
 
 		public void add(ScriptInfo other) {
 			files += other.files;
 			structures += other.structures;
+			reused += other.reused;
 		}
 
 		public void subtract(ScriptInfo other) {
 			files -= other.files;
 			structures -= other.structures;
+			reused -= other.reused;
 		}
 
 		@Override
 		public String toString() {
-			return "ScriptInfo{files=" + files + ",structures=" + structures + "}";
+			return "ScriptInfo{files=" + files + ",structures=" + structures + ",reused=" + reused + "}";
 		}
 	}
 
@@ -495,17 +503,22 @@ public class ScriptLoader {
 
 		ScriptInfo scriptInfo = new ScriptInfo();
 
-		List<LoadingScriptInfo> scripts = new ArrayList<>();
+		// scripts may be loaded by multiple threads, so they are stored by index to keep their order deterministic
+		LoadingScriptInfo[] loadingScripts = new LoadingScriptInfo[configs.size()];
 
 		List<CompletableFuture<Void>> scriptInfoFutures = new ArrayList<>();
-		for (Config config : configs) {
+		for (int i = 0; i < configs.size(); i++) {
+			Config config = configs.get(i);
 			if (config == null)
 				throw new NullPointerException();
 
+			int index = i;
 			CompletableFuture<Void> future = makeFuture(() -> {
 				LoadingScriptInfo info = loadScript(config);
-				scripts.add(info);
-				scriptInfo.add(new ScriptInfo(1, info.structures.size()));
+				loadingScripts[index] = info;
+				synchronized (scriptInfo) {
+					scriptInfo.add(new ScriptInfo(1, info.structures.size()));
+				}
 				return null;
 			}, openCloseable);
 
@@ -514,100 +527,17 @@ public class ScriptLoader {
 
 		return CompletableFuture.allOf(scriptInfoFutures.toArray(new CompletableFuture[0]))
 			.thenApply(unused -> {
-				// TODO in the future this won't work when parallel loading is fixed
-				// It does now though so let's avoid calling getParser() a bunch.
+				// the pre-loading and post-loading stages, as well as loading structures that do not support parallel loading,
+				// happen on this thread only, so let's avoid calling getParser() a bunch.
 				ParserInstance parser = getParser();
+				List<LoadingScriptInfo> scripts = Arrays.stream(loadingScripts)
+					.filter(Objects::nonNull)
+					.toList();
 
 				try {
 					openCloseable.open();
 
-					// build sorted list
-					// this nest of pairs is terrible, but we need to keep the reference to the modifiable structures list
-					record LoadingStructure (LoadingScriptInfo loadingScriptInfo, Structure structure) {}
-					List<LoadingStructure> loadingStructures = scripts.stream()
-							.flatMap(info -> { // Flatten each entry down to a stream of Script-Structure pairs
-								return info.structures.stream()
-										.map(structure -> new LoadingStructure(info, structure));
-							})
-							.sorted(Comparator.comparing(pair -> pair.structure().getPriority()))
-							.collect(Collectors.toCollection(ArrayList::new));
-
-					// pre-loading
-					loadingStructures.removeIf(loadingStructure -> {
-						LoadingScriptInfo loadingInfo = loadingStructure.loadingScriptInfo();
-						Structure structure = loadingStructure.structure();
-
-						parser.setActive(loadingInfo.script);
-						parser.setCurrentStructure(structure);
-						parser.setNode(loadingInfo.nodeMap.get(structure));
-
-						try {
-							if (!structure.preLoad()) {
-								loadingInfo.structures.remove(structure);
-								return true;
-							}
-						} catch (Exception e) {
-							//noinspection ThrowableNotThrown
-							Skript.exception(e, "An error occurred while trying to preLoad a Structure.");
-							loadingInfo.structures.remove(structure);
-							return true;
-						}
-						return false;
-					});
-					parser.setInactive();
-
-					// TODO in the future, Structure#load/Structure#postLoad should be split across multiple threads if parallel loading is enabled.
-					// However, this is not possible right now as reworks in multiple areas will be needed.
-					// For example, the "Commands" class still uses a static list for currentArguments that is cleared between loads.
-					// Until these reworks happen, limiting main loading to asynchronous (not parallel) is the only choice we have.
-
-					// loading
-					loadingStructures.removeIf(loadingStructure -> {
-						LoadingScriptInfo loadingInfo = loadingStructure.loadingScriptInfo();
-						Structure structure = loadingStructure.structure();
-
-						parser.setActive(loadingInfo.script);
-						parser.setCurrentStructure(structure);
-						parser.setNode(loadingInfo.nodeMap.get(structure));
-
-						try {
-							if (!structure.load()) {
-								loadingInfo.structures.remove(structure);
-								return true;
-							}
-						} catch (Exception e) {
-							//noinspection ThrowableNotThrown
-							Skript.exception(e, "An error occurred while trying to load a Structure.");
-							loadingInfo.structures.remove(structure);
-							return true;
-						}
-						return false;
-					});
-					parser.setInactive();
-
-					// post-loading
-					loadingStructures.removeIf(loadingStructure -> {
-						LoadingScriptInfo loadingInfo = loadingStructure.loadingScriptInfo();
-						Structure structure = loadingStructure.structure();
-
-						parser.setActive(loadingInfo.script);
-						parser.setCurrentStructure(structure);
-						parser.setNode(loadingInfo.nodeMap.get(structure));
-
-						try {
-							if (!structure.postLoad()) {
-								loadingInfo.structures.remove(structure);
-								return true;
-							}
-						} catch (Exception e) {
-							//noinspection ThrowableNotThrown
-							Skript.exception(e, "An error occurred while trying to postLoad a Structure.");
-							loadingInfo.structures.remove(structure);
-							return true;
-						}
-						return false;
-					});
-					parser.setInactive();
+					runLoadingStages(parser, scripts, openCloseable);
 
 					// trigger events
 					scripts.forEach(loadingInfo -> {
@@ -623,6 +553,8 @@ public class ScriptLoader {
 					});
 					parser.setInactive();
 
+					ParseCache.save();
+
 					return scriptInfo;
 				} catch (Exception e) {
 					// Something went wrong, we need to make sure the exception is printed
@@ -637,6 +569,215 @@ public class ScriptLoader {
 			});
 	}
 
+	/**
+	 * Runs the {@link Structure#preLoad()}, {@link Structure#load()} and {@link Structure#postLoad()} stages
+	 *  for the structures of the given scripts, in order of their priority.
+	 * Structures that fail to load are removed from the structures of their {@link LoadingScriptInfo}.
+	 * @param parser The parser of the current thread.
+	 * @param scripts The scripts whose structures to load.
+	 * @param openCloseable The {@link OpenCloseable} of the scripts being loaded.
+	 */
+	private static void runLoadingStages(ParserInstance parser, List<LoadingScriptInfo> scripts, OpenCloseable openCloseable) {
+		// build sorted list
+		// this nest of pairs is terrible, but we need to keep the reference to the modifiable structures list
+		List<LoadingStructure> loadingStructures = scripts.stream()
+				.flatMap(info -> { // Flatten each entry down to a stream of Script-Structure pairs
+					return info.structures.stream()
+							.map(structure -> new LoadingStructure(info, structure));
+				})
+				.sorted(Comparator.comparing(pair -> pair.structure().getPriority()))
+				.collect(Collectors.toCollection(ArrayList::new));
+
+		// pre-loading
+		loadingStructures.removeIf(loadingStructure -> {
+			LoadingScriptInfo loadingInfo = loadingStructure.loadingScriptInfo();
+			Structure structure = loadingStructure.structure();
+
+			parser.setActive(loadingInfo.script);
+			parser.setCurrentStructure(structure);
+			parser.setNode(loadingInfo.nodeMap.get(structure));
+
+			try {
+				if (!structure.preLoad()) {
+					loadingInfo.structures.remove(structure);
+					return true;
+				}
+			} catch (Exception e) {
+				//noinspection ThrowableNotThrown
+				Skript.exception(e, "An error occurred while trying to preLoad a Structure.");
+				loadingInfo.structures.remove(structure);
+				return true;
+			}
+			return false;
+		});
+		parser.setInactive();
+
+		// loading
+		// Structures that support it are loaded by multiple threads if parallel loading is enabled.
+		// Pre-loading and post-loading, which e.g. register function signatures and triggers, always happen on this thread.
+		boolean[] loaded = new boolean[loadingStructures.size()];
+		int start = 0;
+		while (start < loadingStructures.size()) {
+			int end = start;
+			if (isParallel()) {
+				Structure first = loadingStructures.get(start).structure();
+				while (end < loadingStructures.size() && canLoadInParallel(first, loadingStructures.get(end).structure()))
+					end++;
+			}
+			if (end - start > 1) {
+				loadInParallel(loadingStructures.subList(start, end), loaded, start, openCloseable);
+				start = end;
+			} else {
+				loaded[start] = loadStructure(parser, loadingStructures.get(start));
+				start++;
+			}
+		}
+		parser.setInactive();
+
+		// remove the structures that failed to load, in order
+		Iterator<LoadingStructure> iterator = loadingStructures.iterator();
+		for (boolean success : loaded) {
+			LoadingStructure loadingStructure = iterator.next();
+			if (!success) {
+				loadingStructure.loadingScriptInfo().structures.remove(loadingStructure.structure());
+				iterator.remove();
+			}
+		}
+
+		// post-loading
+		loadingStructures.removeIf(loadingStructure -> {
+			LoadingScriptInfo loadingInfo = loadingStructure.loadingScriptInfo();
+			Structure structure = loadingStructure.structure();
+
+			parser.setActive(loadingInfo.script);
+			parser.setCurrentStructure(structure);
+			parser.setNode(loadingInfo.nodeMap.get(structure));
+
+			try {
+				if (!structure.postLoad()) {
+					loadingInfo.structures.remove(structure);
+					return true;
+				}
+			} catch (Exception e) {
+				//noinspection ThrowableNotThrown
+				Skript.exception(e, "An error occurred while trying to postLoad a Structure.");
+				loadingInfo.structures.remove(structure);
+				return true;
+			}
+			return false;
+		});
+		parser.setInactive();
+	}
+
+	/**
+	 * @param first The first structure of a run of structures to load in parallel.
+	 * @param structure The structure to add to the run.
+	 * @return Whether <code>structure</code> may be loaded in parallel with <code>first</code>,
+	 *  which requires it to support parallel loading and to be of the same priority.
+	 */
+	static boolean canLoadInParallel(Structure first, Structure structure) {
+		return structure.supportsParallelLoading() && structure.getPriority().compareTo(first.getPriority()) == 0;
+	}
+
+	/**
+	 * Loads a structure during the loading stage of {@link #loadScripts(List, OpenCloseable)}.
+	 * @param parser The parser of the current thread.
+	 * @param loadingStructure The structure to load.
+	 * @return Whether the structure was loaded successfully.
+	 */
+	private static boolean loadStructure(ParserInstance parser, LoadingStructure loadingStructure) {
+		LoadingScriptInfo loadingInfo = loadingStructure.loadingScriptInfo();
+		Structure structure = loadingStructure.structure();
+
+		parser.setActive(loadingInfo.script);
+		parser.setCurrentStructure(structure);
+		parser.setNode(loadingInfo.nodeMap.get(structure));
+
+		try {
+			return structure.load();
+		} catch (Exception e) {
+			//noinspection ThrowableNotThrown
+			Skript.exception(e, "An error occurred while trying to load a Structure.");
+			return false;
+		}
+	}
+
+	/**
+	 * Loads the given structures, which all {@link Structure#supportsParallelLoading() support parallel loading},
+	 *  using the current thread and the threads of the {@link #getExecutor() executor}.
+	 * Every thread uses its own {@link ParserInstance}, and thus its own hint manager and log handlers.
+	 * The given {@link OpenCloseable} is opened on a helping thread once it has claimed a structure to load,
+	 *  and closed before that structure counts as loaded.
+	 * This method returns once all the given structures have been loaded.
+	 * @param loadingStructures The structures to load.
+	 * @param loaded The array to store whether each structure was loaded successfully in.
+	 * @param offset The index in <code>loaded</code> of the first structure.
+	 * @param openCloseable The {@link OpenCloseable} of the scripts being loaded.
+	 */
+	private static void loadInParallel(List<LoadingStructure> loadingStructures, boolean[] loaded, int offset, OpenCloseable openCloseable) {
+		AtomicInteger next = new AtomicInteger();
+		CountDownLatch done = new CountDownLatch(loadingStructures.size());
+
+		int helpers = Math.min(asyncLoaderSize, loadingStructures.size()) - 1;
+		for (int i = 0; i < helpers; i++) {
+			executor.execute(() -> {
+				int first = next.getAndIncrement();
+				if (first >= loadingStructures.size())
+					return; // all structures have been claimed already, so this thread has nothing to do
+				int[] count = new int[1];
+				openCloseable.open();
+				try {
+					loadClaimed(first, next, loadingStructures, loaded, offset, count);
+				} finally {
+					openCloseable.close();
+					// only count down once closed, so loading doesn't move on while this thread still uses the OpenCloseable
+					for (int j = 0; j < count[0]; j++)
+						done.countDown();
+				}
+			});
+		}
+
+		int[] count = new int[1];
+		try {
+			loadClaimed(next.getAndIncrement(), next, loadingStructures, loaded, offset, count);
+		} finally {
+			for (int j = 0; j < count[0]; j++)
+				done.countDown();
+		}
+
+		try {
+			done.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while waiting for structures to load", e);
+		}
+	}
+
+	/**
+	 * Loads structures for {@link #loadInParallel(List, boolean[], int, OpenCloseable)},
+	 *  starting with an already claimed one and claiming more until all of them have been claimed.
+	 * @param first The index of the first structure to load, which has already been claimed.
+	 * @param next The index of the next structure to claim.
+	 * @param count Where the amount of structures this method attempted to load is stored, even if it throws.
+	 */
+	private static void loadClaimed(int first, AtomicInteger next, List<LoadingStructure> loadingStructures,
+									boolean[] loaded, int offset, int[] count) {
+		ParserInstance parser = getParser();
+		for (int index = first; index < loadingStructures.size(); index = next.getAndIncrement()) {
+			count[0]++;
+			try {
+				loaded[offset + index] = loadStructure(parser, loadingStructures.get(index));
+			} finally {
+				parser.setInactive();
+			}
+		}
+	}
+
+	/**
+	 * A structure that is being loaded, along with the info of the script it belongs to.
+	 */
+	private record LoadingStructure(LoadingScriptInfo loadingScriptInfo, Structure structure) { }
+
 	private static class LoadingScriptInfo {
 
 		public final Script script;
@@ -675,25 +816,7 @@ public class ScriptLoader {
 
 			try (CountingLogHandler ignored = new CountingLogHandler(SkriptLogger.SEVERE).start()) {
 				for (Node node : config.getMainNode()) {
-					if (!(node instanceof SimpleNode) && !(node instanceof SectionNode)) {
-						// unlikely to occur, but just in case
-						Skript.error("could not interpret line as a structure");
-						continue;
-					}
-
-					String line = node.getKey();
-					if (line == null)
-						continue;
-					line = replaceOptions(line); // replace options here before validation
-
-					if (!SkriptParser.validateLine(line))
-						continue;
-
-					if (Skript.logVeryHigh() && !Skript.debug())
-						Skript.info("loading trigger '" + line + "'");
-
-					Structure structure = Structure.parse(line, node, "Can't understand this structure: " + line);
-
+					Structure structure = parseStructure(node);
 					if (structure == null)
 						continue;
 
@@ -739,9 +862,42 @@ public class ScriptLoader {
 			}
 		}
 
+		script.addData(new StructureNodes(nodeMap));
+
 		return new LoadingScriptInfo(script, structures, nodeMap);
 	}
 
+	/**
+	 * Parses a top-level node of a script as a structure. The script must be active in the {@link ParserInstance}.
+	 * @param node The node to parse.
+	 * @return The parsed structure, or null if the node is not a valid structure.
+	 */
+	private static @Nullable Structure parseStructure(Node node) {
+		if (!(node instanceof SimpleNode) && !(node instanceof SectionNode)) {
+			// unlikely to occur, but just in case
+			Skript.error("could not interpret line as a structure");
+			return null;
+		}
+
+		String line = node.getKey();
+		if (line == null)
+			return null;
+		line = replaceOptions(line); // replace options here before validation
+
+		if (!SkriptParser.validateLine(line))
+			return null;
+
+		if (Skript.logVeryHigh() && !Skript.debug())
+			Skript.info("loading trigger '" + line + "'");
+
+		return Structure.parse(line, node, "Can't understand this structure: " + line);
+	}
+
+	/**
+	 * The nodes the structures of a loaded script were parsed from, used to reload it incrementally.
+	 */
+	private record StructureNodes(Map<Structure, Node> nodes) implements ScriptData { }
+
 	/*
 	 * Script Structure Loading Methods
 	 */
@@ -949,12 +1105,46 @@ public class ScriptLoader {
 
 	/**
 	 * Reloads all provided Scripts.
+	 * If {@link SkriptConfig#incrementalScriptReloading} is enabled,
+	 *  only the structures of a script that changed are reloaded where possible.
 	 * @param scripts The Scripts to reload.
 	 * @param openCloseable An {@link OpenCloseable} that will be called before and after
 	 *                         each individual Script load (see {@link #makeFuture(Supplier, OpenCloseable)}).
 	 * @return Info on the loaded Scripts.
 	 */
 	public static CompletableFuture<ScriptInfo> reloadScripts(Set<Script> scripts, OpenCloseable openCloseable) {
+		if (!SkriptConfig.incrementalScriptReloading.value())
+			return reloadScriptsCompletely(scripts, openCloseable);
+
+		List<CompletableFuture<ScriptInfo>> futures = new ArrayList<>();
+		Set<Script> remaining = new LinkedHashSet<>();
+		for (Script script : scripts) {
+			CompletableFuture<ScriptInfo> future = reloadIncrementally(script, openCloseable);
+			if (future != null) {
+				futures.add(future);
+			} else {
+				remaining.add(script);
+			}
+		}
+		if (!remaining.isEmpty())
+			futures.add(reloadScriptsCompletely(remaining, openCloseable));
+
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+			.thenApply(unused -> {
+				ScriptInfo info = new ScriptInfo();
+				futures.forEach(future -> info.add(future.join()));
+				return info;
+			});
+	}
+
+	/**
+	 * Unloads all provided Scripts, and loads them again.
+	 * @param scripts The Scripts to reload.
+	 * @param openCloseable An {@link OpenCloseable} that will be called before and after
+	 *                         each individual Script load (see {@link #makeFuture(Supplier, OpenCloseable)}).
+	 * @return Info on the loaded Scripts.
+	 */
+	private static CompletableFuture<ScriptInfo> reloadScriptsCompletely(Set<Script> scripts, OpenCloseable openCloseable) {
 		unloadScripts(scripts);
 
 		List<Config> configs = new ArrayList<>();
@@ -969,6 +1159,151 @@ public class ScriptLoader {
 		return loadScripts(configs, openCloseable);
 	}
 
+	/**
+	 * Reloads only the structures of a script whose nodes changed since it was loaded, keeping all other structures loaded.
+	 * Nodes are compared by their text and line, including all nodes within them,
+	 *  as loaded structures keep referring to the lines of their nodes, e.g. in errors.
+	 * This is only possible if every changed, added or removed structure is an event,
+	 *  as other structures such as functions, commands and options may affect the rest of the script, or other scripts.
+	 * Unlike a complete reload, this does not call the script's unload and load events, as the script stays loaded.
+	 * @param script The script to reload.
+	 * @param openCloseable An {@link OpenCloseable} that will be called before and after
+	 *                         loading the changed structures (see {@link #makeFuture(Supplier, OpenCloseable)}).
+	 * @return Info on the reloaded script, or null if the script has to be reloaded completely.
+	 */
+	private static @Nullable CompletableFuture<ScriptInfo> reloadIncrementally(Script script, OpenCloseable openCloseable) {
+		StructureNodes structureNodes = script.getData(StructureNodes.class);
+		File file = script.getConfig().getFile();
+		if (structureNodes == null || file == null || !file.exists())
+			return null;
+
+		// the loaded structures, by the content of their nodes
+		Map<String, Structure> previous = new HashMap<>();
+		List<Structure> removed = new ArrayList<>();
+		for (Structure structure : script.getStructures()) {
+			Node node = structureNodes.nodes().get(structure);
+			if (node == null) {
+				removed.add(structure);
+			} else {
+				previous.put(nodeContent(node), structure);
+			}
+		}
+
+		Config config = loadStructure(file);
+		if (config == null) { // the error has already been printed
+			unloadScript(script);
+			return CompletableFuture.completedFuture(new ScriptInfo());
+		}
+
+		ParserInstance parser = getParser();
+		List<Structure> structures = new ArrayList<>();
+		List<Structure> added = new ArrayList<>();
+		Map<Structure, Node> nodeMap = new HashMap<>();
+		try (RetainingLogHandler log = SkriptLogger.startRetainingLog()) {
+			parser.setActive(script);
+			for (Node node : config.getMainNode()) {
+				Structure structure = previous.remove(nodeContent(node));
+				if (structure != null) {
+					structures.add(structure);
+					nodeMap.put(structure, structureNodes.nodes().get(structure));
+					continue;
+				}
+
+				structure = parseStructure(node);
+				if (structure == null)
+					continue;
+				if (!(structure instanceof StructEvent))
+					return null; // the retained errors will be printed again by the complete reload
+				structures.add(structure);
+				added.add(structure);
+				nodeMap.put(structure, node);
+			}
+
+			removed.addAll(previous.values());
+			for (Structure structure : removed) {
+				if (!(structure instanceof StructEvent))
+					return null;
+			}
+
+			log.printLog();
+		} finally {
+			parser.setInactive();
+		}
+
+		// unload the changed and removed structures
+		for (Structure structure : removed) {
+			parser.setActive(script);
+			structure.unload();
+		}
+		for (Structure structure : removed) {
+			parser.setActive(script);
+			structure.postUnload();
+		}
+		parser.setInactive();
+
+		if (SkriptConfig.keepConfigsLoaded.value()) {
+			SkriptConfig.configs.remove(script.getConfig());
+			SkriptConfig.configs.add(config);
+		}
+
+		int reused = structures.size() - added.size();
+		LoadingScriptInfo loadingInfo = new LoadingScriptInfo(script, new ArrayList<>(added), nodeMap);
+		return makeFuture(() -> {
+			ParserInstance loadingParser = getParser();
+			try {
+				runLoadingStages(loadingParser, Collections.singletonList(loadingInfo), openCloseable);
+			} finally {
+				loadingParser.setInactive();
+			}
+
+			// keep the order of the file, without the structures that failed to load
+			Set<Structure> failed = new HashSet<>(added);
+			loadingInfo.structures.forEach(failed::remove);
+			structures.removeAll(failed);
+			nodeMap.keySet().removeAll(failed);
+			// the structures of a loaded script may be accessed on the main thread at any time
+			Task.callSync(() -> {
+				script.update(config, structures);
+				script.addData(new StructureNodes(nodeMap));
+				return null;
+			});
+
+			ParseCache.save();
+
+			ScriptInfo info = new ScriptInfo(1, structures.size());
+			info.reused = reused;
+			if (Skript.logNormal()) {
+				int reloaded = loadingInfo.structures.size();
+				Skript.info("reloaded " + reloaded + " structure" + (reloaded == 1 ? "" : "s") + " of '" + config.getFileName()
+					+ "' and kept " + reused + " unchanged structure" + (reused == 1 ? "" : "s"));
+			}
+			return info;
+		}, openCloseable);
+	}
+
+	/**
+	 * @return A representation of the given node and all nodes within it, including the lines they are on.
+	 */
+	private static String nodeContent(Node node) {
+		StringBuilder builder = new StringBuilder();
+		appendNodeContent(builder, node, 0);
+		return builder.toString();
+	}
+
+	private static void appendNodeContent(StringBuilder builder, Node node, int depth) {
+		String key = node.getKey();
+		if (key == null) // comments and empty lines
+			return;
+		builder.append(depth).append(':').append(node.getLine()).append(':').append(key);
+		if (node instanceof EntryNode entryNode)
+			builder.append('\0').append(entryNode.getValue());
+		builder.append('\n');
+		if (node instanceof SectionNode sectionNode) {
+			for (Node child : sectionNode)
+				appendNodeContent(builder, child, depth + 1);
+		}
+	}
+
 	/*
 	 * Code Loading Methods
 	 */
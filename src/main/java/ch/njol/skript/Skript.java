@@ -12,6 +12,7 @@ import ch.njol.skript.hooks.Hook;
 import ch.njol.skript.lang.*;
 import ch.njol.skript.lang.Condition.ConditionType;
 import ch.njol.skript.lang.Effect;
+import ch.njol.skript.lang.parser.ParseCache;
 import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.skript.localization.Language;
 import ch.njol.skript.localization.Message;
@@ -710,6 +711,9 @@ public final class Skript extends JavaPlugin implements Listener {
 				Date start = new Date();
 				CountingLogHandler logHandler = new CountingLogHandler(Level.SEVERE);
 
+				if (SkriptConfig.parseCache.value())
+					ParseCache.load(new File(getDataFolder(), "parse-cache.dat"));
+
 				File scriptsFolder = getScriptsFolder();
 				ScriptLoader.updateDisabledScripts(scriptsFolder.toPath());
 				ScriptLoader.loadScripts(scriptsFolder, logHandler)
@@ -73,7 +73,18 @@ public final class SkriptAddon implements org.skriptlang.skript.addon.SkriptAddo
 	 * @return This SkriptAddon
 	 */
 	public SkriptAddon loadClasses(String basePackage, String... subPackages) throws IOException {
-		Utils.getClasses(plugin, basePackage, subPackages);
+		org.skriptlang.skript.util.ClassLoader loader = org.skriptlang.skript.util.ClassLoader.builder()
+			.basePackage(basePackage)
+			.addSubPackages(subPackages)
+			.deep(true)
+			.initialize(true)
+			.build();
+		File jarFile = getFile();
+		if (jarFile != null) {
+			loader.loadClasses(plugin.getClass(), jarFile);
+		} else {
+			loader.loadClasses(plugin.getClass());
+		}
 		return this;
 	}
 
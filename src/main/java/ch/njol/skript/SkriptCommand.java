@@ -1,10 +1,12 @@
 package ch.njol.skript;
 
+import ch.njol.skript.ScriptLoader.ScriptInfo;
 import ch.njol.skript.aliases.Aliases;
 import ch.njol.skript.command.CommandHelp;
 import ch.njol.skript.doc.Documentation;
 import ch.njol.skript.doc.HTMLGenerator;
 import ch.njol.skript.doc.JSONGenerator;
+import ch.njol.skript.lang.simplification.SimplificationReport;
 import ch.njol.skript.localization.ArgsMessage;
 import ch.njol.skript.localization.Language;
 import ch.njol.skript.localization.PluralizingArgsMessage;
@@ -39,6 +41,7 @@ import java.io.FileFilter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
@@ -65,6 +68,8 @@ public class SkriptCommand implements CommandExecutor {
 			).add(new CommandHelp("update", SkriptColor.DARK_RED)
 				.add("check")
 				.add("changes")
+			).add(new CommandHelp("optimizations", SkriptColor.DARK_RED)
+				.add("<script>")
 			)
 			.add("list")
 			.add("show")
@@ -184,10 +189,11 @@ public class SkriptCommand implements CommandExecutor {
 						reloading(sender, "script", logHandler, scriptFile.getName());
 
 						Script script = ScriptLoader.getScript(scriptFile);
-						if (script != null)
-							ScriptLoader.unloadScript(script);
-						ScriptLoader.loadScripts(scriptFile, OpenCloseable.combine(logHandler, timingLogHandler))
-							.thenAccept(scriptInfo ->
+						OpenCloseable openCloseable = OpenCloseable.combine(logHandler, timingLogHandler);
+						CompletableFuture<ScriptInfo> future = script != null
+							? ScriptLoader.reloadScript(script, openCloseable)
+							: ScriptLoader.loadScripts(scriptFile, openCloseable);
+						future.thenAccept(scriptInfo ->
 								reloaded(sender, logHandler, timingLogHandler, "script", scriptFile.getName())
 							);
 					} else {
@@ -472,6 +478,24 @@ public class SkriptCommand implements CommandExecutor {
 						.map(File::getPath)
 						.map(path -> path.substring(Skript.getInstance().getScriptsFolder().getPath().length() + 1))
 						.forEach(path -> info(sender, "list.disabled.element", path));
+			} else if (args[0].equalsIgnoreCase("optimizations")) {
+				File scriptFile = getScriptFromArgs(sender, args);
+				if (scriptFile == null)
+					return true;
+				String fileName = scriptFile.getName();
+				Script script = scriptFile.isFile() ? ScriptLoader.getScript(scriptFile) : null;
+				if (script == null) {
+					info(sender, "optimizations.not loaded", fileName);
+					return true;
+				}
+				List<SimplificationReport.Entry> entries = SimplificationReport.getEntriesOf(script);
+				if (entries == null) {
+					info(sender, "optimizations.none", fileName);
+					return true;
+				}
+				info(sender, "optimizations.header", fileName);
+				for (SimplificationReport.Entry entry : entries)
+					info(sender, "optimizations.element", entry.line(), entry.description());
 			} else if (args[0].equalsIgnoreCase("help")) {
 				SKRIPT_COMMAND_HELP.showHelp(sender);
 			}
@@ -28,7 +28,7 @@ public class SkriptCommandTabCompleter implements TabCompleter {
 		if (args[0].equalsIgnoreCase("update") && args.length == 2) {
 			options.add("check");
 			options.add("changes");
-		} else if (args[0].matches("(?i)(reload|disable|enable|test)") && args.length >= 2) {
+		} else if (args[0].matches("(?i)(reload|disable|enable|test|optimizations)") && args.length >= 2) {
 			boolean useTestDirectory = args[0].equalsIgnoreCase("test") && TestMode.DEV_MODE;
 			File scripts = useTestDirectory ? TestMode.TEST_DIR.toFile() : Skript.getInstance().getScriptsFolder();
 			String scriptsPathString = scripts.toPath().toString();
@@ -83,7 +83,7 @@ public class SkriptCommandTabCompleter implements TabCompleter {
 			}
 			
 			// These will be added even if there are incomplete script arg
-			if (args.length == 2) {
+			if (args.length == 2 && !args[0].equalsIgnoreCase("optimizations")) {
 				options.add("all");
 				if (args[0].equalsIgnoreCase("reload")) {
 					options.add("config");
@@ -101,6 +101,7 @@ public class SkriptCommandTabCompleter implements TabCompleter {
 			options.add("list");
 			options.add("show");
 			options.add("info");
+			options.add("optimizations");
 			if (Documentation.getDocsTemplateDirectory().exists())
 				options.add("gen-docs");
 			if (TestMode.DEV_MODE)
@@ -314,6 +314,9 @@ public class SkriptConfig {
 	public static final Option<Boolean> loadDefaultAliases = new Option<>("load default aliases", true)
 			.optional(true);
 
+	public static final Option<Boolean> aliasSnapshot = new Option<>("alias snapshot", true)
+			.optional(true);
+
 	public static final Option<Boolean> executeFunctionsWithMissingParams = new Option<>("execute functions with missing parameters", true)
 			.optional(true)
 			.setter(t -> Function.executeWithNulls = t);
@@ -386,6 +389,31 @@ public class SkriptConfig {
 	public static final Option<Integer> variableChangesUntilSave = new Option<>("variable changes until save", 1000)
 		.setter(FlatFileStorage::setRequiredChangesForResave);
 
+	// only read once when variables are loaded
+	public static final Option<Boolean> shardedGlobalVariables = new Option<>("sharded global variables", false)
+		.optional(true);
+
+	// only read once when variables are loaded
+	public static final Option<Integer> variableSerializationThreads = new Option<>("variable serialization threads", 0)
+		.optional(true);
+
+	// only read once when variables are loaded
+	public static final Option<Timespan> variableSaveWindow = new Option<>("variable save window", new Timespan(0))
+		.optional(true);
+
+	public static final Option<Boolean> compileHotTriggers = new Option<>("compile hot triggers", false)
+		.optional(true);
+
+	public static final Option<Boolean> incrementalScriptReloading = new Option<>("incremental script reloading", false)
+		.optional(true);
+
+	public static final Option<Boolean> mergeEntityQueries = new Option<>("merge entity queries", false)
+		.optional(true);
+
+	// only read once when Skript enables
+	public static final Option<Boolean> parseCache = new Option<>("parse cache", false)
+		.optional(true);
+
 	// intentionally not present in the config presented to the user. Users must manually add this option to disable it.
 	public static final Option<Boolean> simplifySyntaxesOnParse = new Option<>("simplify syntax on parse", true)
 		.optional(true);
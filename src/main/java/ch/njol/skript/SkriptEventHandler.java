@@ -18,6 +18,7 @@ import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public final class SkriptEventHandler {
@@ -57,9 +58,230 @@ public final class SkriptEventHandler {
 	/**
 	 * A Multimap tracking what Triggers are paired with what Events.
 	 * Each Event effectively maps to an ArrayList of Triggers.
+	 * Modifications must be followed by a call to {@link #invalidateDispatchTables()}.
 	 */
 	private static final Multimap<Class<? extends Event>, Trigger> triggers = ArrayListMultimap.create();
 
+	/**
+	 * The Triggers to run for one concrete Event class, pre-split by {@link EventPriority}
+	 * and by whether they should run when the Event is cancelled.
+	 * Instances are immutable and shared between all threads firing the Event.
+	 */
+	private static final class EventTriggers {
+
+		private static final Trigger[] NO_TRIGGERS = new Trigger[0];
+
+		/**
+		 * The Triggers to run when the Event is not cancelled, indexed by {@link EventPriority#ordinal()}.
+		 */
+		private final TriggerIndex[] uncancelled;
+
+		/**
+		 * The Triggers to run when the Event is cancelled, indexed by {@link EventPriority#ordinal()}.
+		 */
+		private final TriggerIndex[] cancelled;
+
+		/**
+		 * Whether there is any Trigger registered for the Event, regardless of priority.
+		 */
+		private final boolean isEmpty;
+
+		private EventTriggers(List<Trigger> triggers) {
+			int priorities = EventPriority.values().length;
+			List<List<Trigger>> uncancelled = new ArrayList<>(priorities);
+			List<List<Trigger>> cancelled = new ArrayList<>(priorities);
+			for (int i = 0; i < priorities; i++) {
+				uncancelled.add(new ArrayList<>());
+				cancelled.add(new ArrayList<>());
+			}
+
+			for (Trigger trigger : triggers) {
+				SkriptEvent triggerEvent = trigger.getEvent();
+				int priority = triggerEvent.getEventPriority().ordinal();
+				SkriptEvent.ListeningBehavior behavior = triggerEvent.getListeningBehavior();
+				if (behavior.matches(false))
+					uncancelled.get(priority).add(trigger);
+				if (behavior.matches(true))
+					cancelled.get(priority).add(trigger);
+			}
+
+			this.uncancelled = new TriggerIndex[priorities];
+			this.cancelled = new TriggerIndex[priorities];
+			for (int i = 0; i < priorities; i++) {
+				this.uncancelled[i] = new TriggerIndex(uncancelled.get(i));
+				this.cancelled[i] = new TriggerIndex(cancelled.get(i));
+			}
+			this.isEmpty = triggers.isEmpty();
+		}
+
+		private static Trigger[] toArray(List<Trigger> triggers) {
+			return triggers.isEmpty() ? NO_TRIGGERS : triggers.toArray(NO_TRIGGERS);
+		}
+
+		/**
+		 * @param event The fired Event.
+		 * @param priority The priority the Event is being handled at.
+		 * @param isCancelled Whether the Event should be treated as cancelled.
+		 * @return The Triggers that may match the Event, in registration order. Must not be modified.
+		 */
+		private Trigger[] get(Event event, EventPriority priority, boolean isCancelled) {
+			return (isCancelled ? cancelled[priority.ordinal()] : uncancelled[priority.ordinal()]).get(event);
+		}
+
+	}
+
+	/**
+	 * The Triggers of one priority and cancel state of an Event, indexed by the
+	 * {@link SkriptEvent#getDiscriminator(Event) discriminators} of their SkriptEvents.
+	 * <p>
+	 * Only the SkriptEvent class with the most Triggers that have discriminators is indexed,
+	 * as discriminators of different classes can't be compared.
+	 * All other Triggers, including those with empty discriminators, are part of every bucket.
+	 */
+	static final class TriggerIndex {
+
+		/**
+		 * All Triggers, which are run if the discriminator of an Event is unknown.
+		 */
+		private final Trigger[] all;
+
+		/**
+		 * The SkriptEvent computing the discriminators of fired Events, or null if the Triggers aren't indexed.
+		 */
+		private final @Nullable SkriptEvent discriminatorSource;
+
+		/**
+		 * The Triggers to run for each discriminator.
+		 */
+		private final Map<Object, Trigger[]> buckets;
+
+		/**
+		 * The Triggers to run for discriminators that no indexed Trigger can match.
+		 */
+		private final Trigger[] unindexed;
+
+		TriggerIndex(List<Trigger> triggers) {
+			this.all = EventTriggers.toArray(triggers);
+
+			Map<Class<? extends SkriptEvent>, Integer> indexable = new HashMap<>();
+			for (Trigger trigger : triggers) {
+				SkriptEvent event = trigger.getEvent();
+				if (getDiscriminators(event) != null)
+					indexable.merge(event.getClass(), 1, Integer::sum);
+			}
+			Class<? extends SkriptEvent> indexed = indexable.entrySet().stream()
+				.max(Entry.comparingByValue())
+				.map(Entry::getKey)
+				.orElse(null);
+
+			if (indexed == null) {
+				this.discriminatorSource = null;
+				this.buckets = Collections.emptyMap();
+				this.unindexed = all;
+				return;
+			}
+
+			// collect the discriminators first, so the buckets can be filled in registration order
+			SkriptEvent discriminatorSource = null;
+			List<@Nullable Collection<?>> triggerDiscriminators = new ArrayList<>(triggers.size());
+			Map<Object, List<Trigger>> bucketLists = new HashMap<>();
+			for (Trigger trigger : triggers) {
+				SkriptEvent event = trigger.getEvent();
+				Collection<?> eventDiscriminators = event.getClass() == indexed ? getDiscriminators(event) : null;
+				triggerDiscriminators.add(eventDiscriminators);
+				if (eventDiscriminators == null)
+					continue;
+				if (discriminatorSource == null)
+					discriminatorSource = event;
+				for (Object discriminator : eventDiscriminators)
+					bucketLists.putIfAbsent(discriminator, new ArrayList<>());
+			}
+
+			List<Trigger> unindexed = new ArrayList<>();
+			for (int i = 0; i < triggers.size(); i++) {
+				Trigger trigger = triggers.get(i);
+				Collection<?> eventDiscriminators = triggerDiscriminators.get(i);
+				if (eventDiscriminators == null) {
+					unindexed.add(trigger);
+					for (List<Trigger> bucket : bucketLists.values())
+						bucket.add(trigger);
+				} else {
+					for (Object discriminator : eventDiscriminators) {
+						List<Trigger> bucket = bucketLists.get(discriminator);
+						// a trigger with duplicate discriminators must only be added once
+						if (bucket.isEmpty() || bucket.get(bucket.size() - 1) != trigger)
+							bucket.add(trigger);
+					}
+				}
+			}
+
+			Map<Object, Trigger[]> buckets = new HashMap<>();
+			for (Entry<Object, List<Trigger>> entry : bucketLists.entrySet())
+				buckets.put(entry.getKey(), EventTriggers.toArray(entry.getValue()));
+
+			this.discriminatorSource = discriminatorSource;
+			this.buckets = buckets;
+			this.unindexed = EventTriggers.toArray(unindexed);
+		}
+
+		/**
+		 * @param event A SkriptEvent.
+		 * @return The discriminators of the SkriptEvent, or null if its Trigger can't be indexed by them.
+		 */
+		private static @Nullable Collection<?> getDiscriminators(SkriptEvent event) {
+			Collection<?> discriminators = event.getDiscriminators();
+			// an event that matches no discriminator, such as one for an entity data without entity types, is checked for all of them
+			return discriminators == null || discriminators.isEmpty() ? null : discriminators;
+		}
+
+		/**
+		 * @param event The fired Event.
+		 * @return The Triggers that may match the Event, in registration order. Must not be modified.
+		 */
+		Trigger[] get(Event event) {
+			SkriptEvent discriminatorSource = this.discriminatorSource;
+			// the discriminator is computed on the firing thread, which SkriptEvents that require the main thread might not support
+			if (discriminatorSource == null || (event.isAsynchronous() && !discriminatorSource.canExecuteAsynchronously()))
+				return all;
+			Object discriminator = discriminatorSource.getDiscriminator(event);
+			if (discriminator == null)
+				return all;
+			return buckets.getOrDefault(discriminator, unindexed);
+		}
+
+	}
+
+	/**
+	 * The dispatch table mapping concrete Event classes to their Triggers.
+	 * Entries are computed the first time an Event class is fired, and the whole table is replaced
+	 * whenever {@link #triggers} changes, so firing an Event only costs a lookup once the table is warm.
+	 */
+	private static volatile Map<Class<? extends Event>, EventTriggers> dispatchTable = new ConcurrentHashMap<>();
+
+	/**
+	 * Discards all computed dispatch entries. Must be called after every modification of {@link #triggers}.
+	 */
+	private static void invalidateDispatchTables() {
+		dispatchTable = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Gets the dispatch entry for the provided Event class, computing it if needed.
+	 * @param event The concrete class of a fired Event.
+	 * @return The Triggers registered for the provided Event class.
+	 */
+	private static EventTriggers getEventTriggers(Class<? extends Event> event) {
+		Map<Class<? extends Event>, EventTriggers> table = dispatchTable;
+		EventTriggers eventTriggers = table.get(event);
+		if (eventTriggers == null) {
+			eventTriggers = new EventTriggers(getTriggers(event));
+			EventTriggers existing = table.putIfAbsent(event, eventTriggers);
+			if (existing != null)
+				eventTriggers = existing;
+		}
+		return eventTriggers;
+	}
+
 	/**
 	 * A utility method to get all Triggers registered under the provided Event class.
 	 * @param event The event to find pairs from.
@@ -68,10 +290,12 @@ public final class SkriptEventHandler {
 	private static List<Trigger> getTriggers(Class<? extends Event> event) {
 		HandlerList eventHandlerList = getHandlerList(event);
 		assert eventHandlerList != null; // It had one at some point so this should remain true
-		return triggers.asMap().entrySet().stream()
-				.filter(entry -> entry.getKey().isAssignableFrom(event) && getHandlerList(entry.getKey()) == eventHandlerList)
-				.flatMap(entry -> entry.getValue().stream())
-				.collect(Collectors.toList()); // forces evaluation now and prevents us from having to call getTriggers again if very high logging is enabled
+		synchronized (triggers) {
+			return triggers.asMap().entrySet().stream()
+					.filter(entry -> entry.getKey().isAssignableFrom(event) && getHandlerList(entry.getKey()) == eventHandlerList)
+					.flatMap(entry -> entry.getValue().stream())
+					.collect(Collectors.toList());
+		}
 	}
 
 	/**
@@ -83,8 +307,8 @@ public final class SkriptEventHandler {
 	 */
 	private static void check(Event event, EventPriority priority) {
 		// get all triggers for this event, return if none
-		List<Trigger> triggers = getTriggers(event.getClass());
-		if (triggers.isEmpty())
+		EventTriggers eventTriggers = getEventTriggers(event.getClass());
+		if (eventTriggers.isEmpty)
 			return;
 
 		// Check if this event should be treated as cancelled
@@ -95,20 +319,9 @@ public final class SkriptEventHandler {
 		// So the time will be logged even if no triggers pass check(), which is still useful information.
 		logEventStart(event, priority);
 
-		for (Trigger trigger : triggers) {
-			SkriptEvent triggerEvent = trigger.getEvent();
-
-			// check if the trigger is at the right priority
-			if (triggerEvent.getEventPriority() != priority)
-				continue;
-
-			// check if the cancel state of the event is correct
-			if (!triggerEvent.getListeningBehavior().matches(isCancelled))
-				continue;
-
-			// execute the trigger
+		// only contains the triggers at the right priority, with a matching cancel state and a matching discriminator
+		for (Trigger trigger : eventTriggers.get(event, priority, isCancelled))
 			execute(trigger, event);
-		}
 
 		logEventEnd();
 	}
@@ -161,27 +374,33 @@ public final class SkriptEventHandler {
 	 * @param event The Event to execute the Trigger with.
 	 */
 	private static void execute(Trigger trigger, Event event) {
-		// these methods need to be run on whatever thread the trigger is
-		Runnable execute = () -> {
-			logTriggerStart(trigger);
-			Object timing = SkriptTimings.start(trigger.getDebugLabel());
-			trigger.execute(event);
-			SkriptTimings.stop(timing);
-			logTriggerEnd(trigger);
-		};
-
 		if (trigger.getEvent().canExecuteAsynchronously()) {
 			if (trigger.getEvent().check(event))
-				execute.run();
+				run(trigger, event);
 		} else { // Ensure main thread
 			Task.callSync(() -> {
 				if (trigger.getEvent().check(event))
-					execute.run();
+					run(trigger, event);
 				return null; // we don't care about a return value
 			});
 		}
 	}
 
+	/**
+	 * Runs the provided Trigger with timings and logging.
+	 * This method needs to be run on whatever thread the Trigger is.
+	 *
+	 * @param trigger The Trigger to run.
+	 * @param event The Event to run the Trigger with.
+	 */
+	private static void run(Trigger trigger, Event event) {
+		logTriggerStart(trigger);
+		Object timing = SkriptTimings.start(trigger.getDebugLabel());
+		trigger.execute(event);
+		SkriptTimings.stop(timing);
+		logTriggerEnd(trigger);
+	}
+
 
 	private static long startEvent;
 
@@ -286,7 +505,10 @@ public final class SkriptEventHandler {
 		if (handlerList == null)
 			return;
 
-		triggers.put(event, trigger);
+		synchronized (triggers) {
+			triggers.put(event, trigger);
+			invalidateDispatchTables();
+		}
 
 		EventPriority priority = trigger.getEvent().getEventPriority();
 
@@ -301,6 +523,13 @@ public final class SkriptEventHandler {
 	 * @param trigger The Trigger to unregister events for.
 	 */
 	public static void unregisterBukkitEvents(Trigger trigger) {
+		synchronized (triggers) {
+			unregisterBukkitEvents_i(trigger);
+			invalidateDispatchTables();
+		}
+	}
+
+	private static void unregisterBukkitEvents_i(Trigger trigger) {
 		Iterator<Entry<Class<? extends Event>, Trigger>> entryIterator = triggers.entries().iterator();
 		entryLoop: while (entryIterator.hasNext()) {
 			Entry<Class<? extends Event>, Trigger> entry = entryIterator.next();
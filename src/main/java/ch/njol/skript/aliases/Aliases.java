@@ -11,6 +11,7 @@ import ch.njol.skript.entity.EntityData;
 import ch.njol.skript.lang.parser.ParserInstance;
 import ch.njol.skript.localization.*;
 import ch.njol.skript.log.BlockingLogHandler;
+import ch.njol.skript.log.CountingLogHandler;
 import ch.njol.skript.util.EnchantmentType;
 import ch.njol.skript.util.Utils;
 import ch.njol.skript.util.Version;
@@ -28,10 +29,13 @@ import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.*;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -474,13 +478,14 @@ public abstract class Aliases {
 		// Load aliases.zip OR aliases from jar (never both)
 		Path zipPath = dataFolder.resolve("aliases-english.zip");
 		if (!SkriptConfig.loadDefaultAliases.value()) {
-			// Or do nothing, if user requested that default aliases are not loaded
+			// Or only load user aliases, if user requested that default aliases are not loaded
+			loadAliasFiles(dataFolder, null);
 		} else if (Files.exists(zipPath)) { // Load if it exists
 			try (FileSystem zipFs = FileSystems.newFileSystem(zipPath, Skript.class.getClassLoader())) {
 				assert zipFs != null; // It better not be...
 				Path aliasesPath = zipFs.getPath("/");
 				assert aliasesPath != null;
-				loadDirectory(aliasesPath);
+				loadAliasFiles(dataFolder, aliasesPath);
 			}
 		} else { // Fall back to jar loading
 			try {
@@ -489,7 +494,7 @@ public abstract class Aliases {
 					assert zipFs != null;
 					Path aliasesPath = zipFs.getPath("/", "aliases-english");
 					assert aliasesPath != null;
-					loadDirectory(aliasesPath);
+					loadAliasFiles(dataFolder, aliasesPath);
 				}
 			} catch (URISyntaxException e) {
 				assert false;
@@ -497,13 +502,6 @@ public abstract class Aliases {
 
 		}
 
-		// Load everything from aliases folder (user aliases)
-		Path aliasesFolder = dataFolder.resolve("aliases");
-		if (Files.exists(aliasesFolder)) {
-			assert aliasesFolder != null;
-			loadDirectory(aliasesFolder);
-		}
-
 		// generate aliases from item names for any missing items
 		loadMissingAliases();
 
@@ -519,6 +517,67 @@ public abstract class Aliases {
 		}
 	}
 
+	/**
+	 * Loads the default aliases and the user aliases, or adds the aliases of the alias snapshot
+	 * if none of the alias files have changed since it was saved.
+	 * @param dataFolder Skript's data folder.
+	 * @param defaultAliases Directory of the default aliases, or null if they should not be loaded.
+	 * @throws IOException If something goes wrong with loading.
+	 */
+	private static void loadAliasFiles(Path dataFolder, @Nullable Path defaultAliases) throws IOException {
+		List<Path> directories = new ArrayList<>(2);
+		if (defaultAliases != null)
+			directories.add(defaultAliases);
+		// Load everything from aliases folder (user aliases)
+		Path aliasesFolder = dataFolder.resolve("aliases");
+		if (Files.exists(aliasesFolder))
+			directories.add(aliasesFolder);
+
+		if (!SkriptConfig.aliasSnapshot.value()) {
+			for (Path directory : directories)
+				loadDirectory(directory);
+			return;
+		}
+
+		Path snapshotFile = dataFolder.resolve("aliases-snapshot.dat");
+		String fingerprint = AliasesSnapshot.fingerprint(directories);
+		List<AliasesSnapshot.Entry> snapshot = null;
+		try {
+			snapshot = AliasesSnapshot.read(snapshotFile, fingerprint);
+		} catch (IOException e) {
+			Skript.warning("Could not read the alias snapshot, the alias files will be loaded instead: " + e.getMessage());
+		}
+		if (snapshot != null) {
+			try {
+				AliasesSnapshot.apply(snapshot, provider);
+				Skript.debug("Loaded aliases from the alias snapshot");
+				return;
+			} catch (InvalidMinecraftIdException e) { // the server doesn't know an item it knew when the snapshot was saved
+				Skript.debug("Discarding the alias snapshot, as the id '" + e.getId() + "' is invalid");
+				provider.clearAliases();
+			}
+		}
+
+		// Only save the snapshot if the alias files loaded cleanly, as loading the snapshot doesn't repeat any errors
+		provider.startRecording();
+		int problems;
+		List<AliasesSnapshot.Entry> entries;
+		try (CountingLogHandler handler = new CountingLogHandler(Level.WARNING).start()) {
+			for (Path directory : directories)
+				loadDirectory(directory);
+			problems = handler.getCount();
+		} finally {
+			entries = provider.stopRecording();
+		}
+		if (problems == 0) {
+			try {
+				AliasesSnapshot.write(snapshotFile, fingerprint, entries);
+			} catch (IOException e) {
+				Skript.warning("Could not save the alias snapshot: " + e.getMessage());
+			}
+		}
+	}
+
 	/**
 	 * Loads aliases from given directory.
 	 * @param dir Directory of aliases.
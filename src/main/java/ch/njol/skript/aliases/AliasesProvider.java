@@ -53,6 +53,12 @@ public class AliasesProvider {
 	 */
 	private final AliasesMap aliasesMap;
 
+	/**
+	 * The aliases added since {@link #startRecording()} was called, or null if they are not being recorded.
+	 */
+	@Nullable
+	private List<AliasesSnapshot.Entry> recorded;
+
 	/**
 	 * Constructs a new aliases provider with no data.
 	 */
@@ -112,6 +118,9 @@ public class AliasesProvider {
 	 * @param blockStates Block states.
 	 */
 	public void addAlias(AliasName name, String id, @Nullable Map<String, Object> tags, Map<String, String> blockStates) {
+		if (recorded != null) // block states are modified below
+			recorded.add(new AliasesSnapshot.Entry(name, id, tags, new HashMap<>(blockStates)));
+
 		// First, try to find if aliases already has a type with this id
 		// (so that aliases can refer to each other)
 		ItemType typeOfId = getAlias(id);
@@ -254,6 +263,24 @@ public class AliasesProvider {
 		return null;
 	}
 
+	/**
+	 * Starts recording the aliases added to this provider, so they can be saved in an {@link AliasesSnapshot}.
+	 */
+	void startRecording() {
+		recorded = new ArrayList<>();
+	}
+
+	/**
+	 * Stops recording the aliases added to this provider.
+	 * @return The aliases added since {@link #startRecording()} was called, in the order they were added.
+	 */
+	List<AliasesSnapshot.Entry> stopRecording() {
+		List<AliasesSnapshot.Entry> recorded = this.recorded;
+		assert recorded != null;
+		this.recorded = null;
+		return recorded;
+	}
+
 	public void clearAliases() {
 		aliases.clear();
 		materials.clear();
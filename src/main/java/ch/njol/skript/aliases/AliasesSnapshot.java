@@ -0,0 +1,197 @@
+package ch.njol.skript.aliases;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.aliases.AliasesProvider.AliasName;
+import com.google.gson.Gson;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A snapshot of the aliases added to an {@link AliasesProvider} while parsing alias files, stored on disk between restarts.
+ * <p>
+ * It contains the names, ids, tags and block states the aliases were added with, after their patterns and variations
+ *  were expanded, so they can be added again in the same order without parsing the alias files.
+ * A snapshot is only used if the alias files, the server's version and Skript's version are unchanged since it was saved.
+ */
+final class AliasesSnapshot {
+
+	private static final int VERSION = 1;
+
+	/**
+	 * Tags are stored in the JSON format they were parsed from.
+	 */
+	private static final Gson GSON = new Gson();
+
+	/**
+	 * An alias, as it was passed to {@link AliasesProvider#addAlias(AliasName, String, Map, Map)}.
+	 */
+	record Entry(AliasName name, String id, @Nullable Map<String, Object> tags, Map<String, String> blockStates) { }
+
+	private AliasesSnapshot() { }
+
+	/**
+	 * @param directories The directories the aliases are loaded from, in the order they are loaded.
+	 * @return A hash of everything that affects which aliases are added when the given directories are loaded.
+	 */
+	static String fingerprint(List<Path> directories) throws IOException {
+		MessageDigest digest = sha256();
+		update(digest, Skript.getVersion().toString());
+		update(digest, Bukkit.getVersion()); // the server's implementation and Minecraft version
+		for (Path directory : directories) {
+			update(digest, directory.toString());
+			List<Path> files;
+			try (Stream<Path> stream = Files.walk(directory)) {
+				files = stream.filter(file -> file.getFileName() != null && file.getFileName().toString().endsWith(".sk"))
+					.sorted()
+					.toList();
+			}
+			for (Path file : files) {
+				byte[] content = Files.readAllBytes(file);
+				update(digest, directory.relativize(file).toString());
+				update(digest, String.valueOf(content.length));
+				digest.update(content);
+			}
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static void update(MessageDigest digest, String string) {
+		digest.update(string.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e); // every Java platform supports SHA-256
+		}
+	}
+
+	/**
+	 * Reads the aliases of a snapshot.
+	 * @param file The file the snapshot was saved to.
+	 * @param fingerprint The current {@link #fingerprint(List)}.
+	 * @return The aliases in the order they were added, or null if there is no snapshot or it is outdated.
+	 */
+	static @Nullable List<Entry> read(Path file, String fingerprint) throws IOException {
+		if (!Files.exists(file))
+			return null;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != VERSION || !in.readUTF().equals(fingerprint))
+				return null; // outdated, load the alias files instead
+			String[] strings = new String[in.readInt()];
+			for (int i = 0; i < strings.length; i++)
+				strings[i] = in.readUTF();
+
+			int count = in.readInt();
+			List<Entry> entries = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				AliasName name = new AliasName(strings[in.readInt()], strings[in.readInt()], in.readInt());
+				String id = strings[in.readInt()].intern(); // the parser interns ids as well
+				int tags = in.readInt();
+				int states = in.readInt();
+				Map<String, String> blockStates = new HashMap<>(states);
+				for (int j = 0; j < states; j++)
+					blockStates.put(strings[in.readInt()], strings[in.readInt()]);
+				entries.add(new Entry(name, id, tags == -1 ? null : parseTags(strings[tags]), blockStates));
+			}
+			return entries;
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("corrupted snapshot", e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> parseTags(String json) {
+		Map<String, Object> tags = (Map<String, Object>) GSON.fromJson(json, Object.class);
+		// Gson reads every number as a double, but the damage of an item is an integer
+		if (tags.get("Damage") instanceof Number damage)
+			tags.put("Damage", damage.intValue());
+		return tags;
+	}
+
+	/**
+	 * Saves aliases as a snapshot, replacing the existing one.
+	 * @param file The file to save the snapshot to.
+	 * @param fingerprint The {@link #fingerprint(List)} of the alias files the aliases were parsed from.
+	 * @param entries The aliases in the order they were added.
+	 */
+	static void write(Path file, String fingerprint, List<Entry> entries) throws IOException {
+		// names, ids and block states repeat a lot, so each distinct string is only stored once
+		Map<String, Integer> strings = new LinkedHashMap<>();
+		int[][] indices = new int[entries.size()][];
+		for (int i = 0; i < entries.size(); i++) {
+			Entry entry = entries.get(i);
+			int[] entryIndices = new int[4 + 2 * entry.blockStates.size()];
+			entryIndices[0] = index(strings, entry.name.singular);
+			entryIndices[1] = index(strings, entry.name.plural);
+			entryIndices[2] = index(strings, entry.id);
+			entryIndices[3] = entry.tags == null ? -1 : index(strings, GSON.toJson(entry.tags));
+			int j = 4;
+			for (Map.Entry<String, String> state : entry.blockStates.entrySet()) {
+				entryIndices[j++] = index(strings, state.getKey());
+				entryIndices[j++] = index(strings, state.getValue());
+			}
+			indices[i] = entryIndices;
+		}
+
+		Path temp = file.resolveSibling(file.getFileName() + ".temp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+			out.writeInt(VERSION);
+			out.writeUTF(fingerprint);
+			out.writeInt(strings.size());
+			for (String string : strings.keySet())
+				out.writeUTF(string);
+
+			out.writeInt(entries.size());
+			for (int i = 0; i < entries.size(); i++) {
+				int[] entryIndices = indices[i];
+				out.writeInt(entryIndices[0]);
+				out.writeInt(entryIndices[1]);
+				out.writeInt(entries.get(i).name.gender);
+				out.writeInt(entryIndices[2]);
+				out.writeInt(entryIndices[3]);
+				out.writeInt((entryIndices.length - 4) / 2);
+				for (int j = 4; j < entryIndices.length; j++)
+					out.writeInt(entryIndices[j]);
+			}
+		}
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private static int index(Map<String, Integer> strings, String string) {
+		return strings.computeIfAbsent(string, key -> strings.size());
+	}
+
+	/**
+	 * Adds the aliases of a snapshot to a provider, as the alias files they were parsed from would.
+	 * @param entries The aliases of the snapshot.
+	 * @param provider The provider to add the aliases to.
+	 * @throws InvalidMinecraftIdException If the id of an alias is not known to the server.
+	 */
+	static void apply(List<Entry> entries, AliasesProvider provider) {
+		for (Entry entry : entries)
+			provider.addAlias(entry.name, entry.id, entry.tags, entry.blockStates);
+	}
+
+}
@@ -496,7 +496,14 @@ public class ItemData implements Cloneable, YggdrasilExtendedSerializable {
 	public Material getType() {
 		return type;
 	}
-	
+
+	/**
+	 * @return whether this represents all possible items, regardless of their {@link #getType() type}.
+	 */
+	public boolean isAnything() {
+		return isAnything;
+	}
+
 	@Nullable
 	public BlockValues getBlockValues() {
 		return blockValues;
@@ -0,0 +1,152 @@
+package ch.njol.skript.aliases;
+
+import ch.njol.skript.bukkitutil.block.BlockValues;
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Matches items against the {@link ItemData}s of an {@link ItemType}, as {@link ItemData#equals(Object)} would,
+ * but without creating an {@link ItemData} for the matched item in the common cases.
+ * <p>
+ * Items of a material that no entry has are rejected by a lookup in a set of materials.
+ * Items without item meta are matched by an entry of their material that has no item meta or block states either,
+ * as such entries match any item of their material that doesn't have them.
+ * Only the remaining entries of the material of an item are compared with {@link ItemData#equals(Object)}.
+ * <p>
+ * A matcher is immutable, but the item meta and block values of its entries are read whenever an item is matched,
+ * so it only has to be replaced if the entries of the item type change.
+ */
+final class ItemMatcher {
+
+	private final ItemData[] entries;
+
+	/**
+	 * The materials of all entries.
+	 */
+	private final Set<Material> materials = EnumSet.noneOf(Material.class);
+
+	/**
+	 * Whether one of the entries represents all items.
+	 */
+	private final boolean anything;
+
+	ItemMatcher(List<ItemData> entries) {
+		this.entries = entries.toArray(new ItemData[0]);
+		boolean anything = false;
+		for (ItemData entry : this.entries) {
+			if (entry.isAnything)
+				anything = true;
+			if (entry.type != null) // types that failed to deserialize
+				materials.add(entry.type);
+		}
+		this.anything = anything;
+	}
+
+	/**
+	 * @see ItemType#isOfType(ItemStack)
+	 */
+	boolean matches(ItemStack item) {
+		if (anything)
+			return true;
+		Material type = item.getType();
+		if (!materials.contains(type))
+			return false;
+		boolean hasMeta = item.hasItemMeta();
+		ItemData data = null;
+		for (ItemData entry : entries) {
+			if (entry.type != type)
+				continue;
+			if (!hasMeta && isBare(entry, type))
+				return true;
+			if (data == null)
+				data = new ItemData(item);
+			if (entry.equals(data))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @see ItemType#isOfType(Material)
+	 */
+	boolean matches(Material type) {
+		if (anything)
+			return true;
+		if (!materials.contains(type))
+			return false;
+		ItemData data = null;
+		for (ItemData entry : entries) {
+			if (entry.type != type)
+				continue;
+			// an ItemData of a material that isn't an item doesn't have a stack to compare durabilities with
+			if (type.isItem() && isBare(entry, type))
+				return true;
+			if (data == null)
+				data = new ItemData(type, (String) null);
+			if (entry.equals(data))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @see ItemType#isOfType(BlockData)
+	 */
+	boolean matches(BlockData blockData) {
+		if (anything)
+			return true;
+		Material type = blockData.getMaterial();
+		if (!materials.contains(type))
+			return false;
+		ItemData data = null;
+		for (ItemData entry : entries) {
+			if (entry.type != type)
+				continue;
+			if (data == null)
+				data = new ItemData(blockData);
+			if (entry.equals(data))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @see ItemType#isOfType(ItemData)
+	 */
+	boolean matches(ItemData data) {
+		if (data.isAnything)
+			return entries.length != 0;
+		if (anything)
+			return true;
+		if (data.type != null && !materials.contains(data.type))
+			return false;
+		for (ItemData entry : entries) {
+			if (entry.type == data.type && entry.equals(data))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether an entry matches any item of its material that doesn't have item meta or block states,
+	 * i.e. whether the entry doesn't have these either.
+	 *
+	 * @param entry an entry of the given material.
+	 * @param type the material of the entry.
+	 * @return whether the entry doesn't have item meta or block states.
+	 */
+	private static boolean isBare(ItemData entry, Material type) {
+		ItemStack stack = entry.stack;
+		if (stack == null || stack.hasItemMeta())
+			return false;
+		BlockValues values = entry.blockValues;
+		// items of block materials have the default block values, which an entry without block values doesn't match
+		return values != null ? values.isDefault() : !type.isBlock();
+	}
+
+}
@@ -118,6 +118,13 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	@Nullable
 	private ItemMeta globalMeta;
 
+	/**
+	 * Matches items against {@link #types}, created when an item is matched for the first time.
+	 * Must be reset whenever {@link #types} changes.
+	 */
+	@Nullable
+	private transient ItemMatcher matcher;
+
 	void setItem(final @Nullable ItemType item) {
 		if (equals(item)) { // can happen if someone defines a 'x' and 'x item/block' alias that have the same value, e.g. 'dirt' and 'dirt block'
 			this.item = null;
@@ -211,6 +218,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 		for (final ItemData d : i) {
 			types.add(d.clone());
 		}
+		matcher = null;
 	}
 
 	public ItemType(Block block) {
@@ -272,7 +280,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	public boolean isOfType(@Nullable ItemStack item) {
 		if (item == null)
 			return isOfType(Material.AIR, null);
-		return isOfType(new ItemData(item));
+		return getMatcher().matches(item);
 	}
 
 	/**
@@ -286,8 +294,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	public boolean isOfType(@Nullable BlockData blockData) {
 		if (blockData == null)
 			return isOfType(Material.AIR, null);
-
-		return isOfType(new ItemData(blockData));
+		return getMatcher().matches(blockData);
 	}
 
 	public boolean isOfType(@Nullable Block block) {
@@ -297,12 +304,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	}
 
 	public boolean isOfType(ItemData type) {
-		for (final ItemData myType : types) {
-			if (myType.equals(type)) {
-				return true;
-			}
-		}
-		return false;
+		return getMatcher().matches(type);
 	}
 
 	public boolean isOfType(Material id, @Nullable String tags) {
@@ -310,8 +312,14 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	}
 
 	public boolean isOfType(Material id) {
-		// TODO avoid object creation
-		return isOfType(new ItemData(id, (String) null));
+		return getMatcher().matches(id);
+	}
+
+	private ItemMatcher getMatcher() {
+		ItemMatcher matcher = this.matcher;
+		if (matcher == null)
+			this.matcher = matcher = new ItemMatcher(types);
+		return matcher;
 	}
 
 	/**
@@ -517,18 +525,21 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 		if (type != null) {
 			types.add(type);
 			//numItems += type.numItems();
+			matcher = null;
 			modified();
 		}
 	}
 
 	public void addAll(Collection<ItemData> types) {
 		this.types.addAll(types);
+		matcher = null;
 		modified();
 	}
 
 	public void remove(ItemData type) {
 		if (types.remove(type)) {
 			//numItems -= type.numItems();
+			matcher = null;
 			modified();
 		}
 	}
@@ -536,6 +547,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	void remove(int index) {
 		types.remove(index);
 		//numItems -= type.numItems();
+		matcher = null;
 		modified();
 	}
 
@@ -1276,6 +1288,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 				}
 			}
 		}
+		matcher = null;
 	}
 
 	/**
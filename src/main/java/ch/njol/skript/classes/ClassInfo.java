@@ -56,6 +56,7 @@ public class ClassInfo<T> implements Debuggable {
 	private Serializer<? super T> serializer = null;
 	@Nullable
 	private Class<?> serializeAs = null;
+	private boolean threadSafeSerialization = false;
 
 	@Nullable
 	private Class<?> mathRelativeType = null;
@@ -183,6 +184,18 @@ public class ClassInfo<T> implements Debuggable {
 		return this;
 	}
 
+	/**
+	 * Declares that values of this class can be serialized by any thread while they are used by others,
+	 * e.g. because they are immutable. This allows variables holding them to be serialized off the main thread
+	 * without cloning them first.
+	 * <p>
+	 * This only applies to values of exactly this class, not to values of its subclasses.
+	 */
+	public ClassInfo<T> threadSafeSerialization() {
+		this.threadSafeSerialization = true;
+		return this;
+	}
+
 	public ClassInfo<T> changer(final Changer<? super T> changer) {
 		assert this.changer == null;
 		this.changer = changer;
@@ -318,6 +331,14 @@ public class ClassInfo<T> implements Debuggable {
 		return cloner == null ? t : cloner.clone(t);
 	}
 
+	/**
+	 * @return Whether values of this class can be serialized by any thread.
+	 * @see #threadSafeSerialization()
+	 */
+	public boolean hasThreadSafeSerialization() {
+		return threadSafeSerialization;
+	}
+
 	public Pattern @Nullable [] getUserInputPatterns() {
 		return userInputPatterns;
 	}
@@ -121,13 +121,15 @@ public class JavaClasses {
 				.before("integer", "short", "byte")
 				.defaultExpression(new SimpleLiteral<>((long) 1, true))
 				.parser(new LongParser())
-				.serializer(new LongSerializer()));
+				.serializer(new LongSerializer())
+				.threadSafeSerialization());
 
 		Classes.registerClass(new ClassInfo<>(Integer.class, "integer")
 				.name(ClassInfo.NO_DOC)
 				.defaultExpression(new SimpleLiteral<>(1, true))
 				.parser(new IntegerParser())
-				.serializer(new IntegerSerializer()));
+				.serializer(new IntegerSerializer())
+				.threadSafeSerialization());
 
 		Classes.registerClass(new ClassInfo<>(Double.class, "double")
 				.name(ClassInfo.NO_DOC)
@@ -135,15 +137,18 @@ public class JavaClasses {
 				.after("long")
 				.before("float", "integer", "short", "byte")
 				.parser(new DoubleParser())
-				.serializer(new DoubleSerializer()));
+				.serializer(new DoubleSerializer())
+				.threadSafeSerialization());
 
 		Classes.registerClass(new ClassInfo<>(Float.class, "float")
 				.name(ClassInfo.NO_DOC)
 				.defaultExpression(new SimpleLiteral<>(1f, true))
 				.parser(new FloatParser())
-				.serializer(new FloatSerializer()));
+				.serializer(new FloatSerializer())
+				.threadSafeSerialization());
 
 		Classes.registerClass(new ClassInfo<>(Boolean.class, "boolean")
+				.threadSafeSerialization()
 				.user("booleans?")
 				.name("Boolean")
 				.description("A boolean is a value that is either true or false. Other accepted names are 'on' and 'yes' for true, and 'off' and 'no' for false.")
@@ -212,15 +217,18 @@ public class JavaClasses {
 				.name(ClassInfo.NO_DOC)
 				.defaultExpression(new SimpleLiteral<>((short) 1, true))
 				.parser(new ShortParser())
-				.serializer(new ShortSerializer()));
+				.serializer(new ShortSerializer())
+				.threadSafeSerialization());
 
 		Classes.registerClass(new ClassInfo<>(Byte.class, "byte")
 				.name(ClassInfo.NO_DOC)
 				.defaultExpression(new SimpleLiteral<>((byte) 1, true))
 				.parser(new ByteParser())
-				.serializer(new ByteSerializer()));
+				.serializer(new ByteSerializer())
+				.threadSafeSerialization());
 
 		Classes.registerClass(new ClassInfo<>(String.class, "string")
+				.threadSafeSerialization()
 				.user("(text|string)s?")
 				.name("Text")
 				.description("Text is simply text, i.e. a sequence of characters, which can optionally contain expressions which will be replaced with a meaningful representation " +
@@ -335,6 +343,7 @@ public class JavaClasses {
 			.since("2.11")
 			.parser(new UUIDParser())
 			.serializer(new UUIDSerializer())
+			.threadSafeSerialization()
 		);
 	}
 
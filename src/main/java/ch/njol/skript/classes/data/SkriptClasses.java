@@ -173,6 +173,7 @@ public class SkriptClasses {
 				}).serializer(new YggdrasilSerializer<>()));
 
 		Classes.registerClass(new ClassInfo<>(Timespan.class, "timespan")
+				.threadSafeSerialization()
 				.user("time ?spans?")
 				.name("Timespan")
 				.description("A timespan is a difference of two different dates or times, " +
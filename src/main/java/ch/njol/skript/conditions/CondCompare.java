@@ -28,6 +28,7 @@ import org.skriptlang.skript.lang.comparator.Comparator;
 import org.skriptlang.skript.lang.comparator.ComparatorInfo;
 import org.skriptlang.skript.lang.comparator.Comparators;
 import org.skriptlang.skript.lang.comparator.Relation;
+import org.skriptlang.skript.lang.comparator.RuntimeComparator;
 import org.skriptlang.skript.lang.util.Cyclical;
 
 import java.util.function.Predicate;
@@ -89,6 +90,12 @@ public class CondCompare extends Condition implements VerboseAssert {
 	@SuppressWarnings("rawtypes")
 	private Comparator comparator;
 
+	/**
+	 * Used instead of {@link #comparator} if no comparator was found while parsing,
+	 * so that a comparator is only looked up again when the types of the compared values change.
+	 */
+	private final RuntimeComparator runtimeComparator = new RuntimeComparator();
+
 	@Override
 	public boolean init(final Expression<?>[] vars, final int matchedPattern, final Kleenean isDelayed, final ParseResult parser) {
 		first = vars[0];
@@ -328,7 +335,7 @@ public class CondCompare extends Condition implements VerboseAssert {
 		return first.check(event, (Predicate<Object>) o1 ->
 			second.check(event, (Predicate<Object>) o2 -> {
 				if (third == null)
-					return relation.isImpliedBy(comparator != null ? comparator.compare(o1, o2) : Comparators.compare(o1, o2));
+					return relation.isImpliedBy(comparator != null ? comparator.compare(o1, o2) : runtimeComparator.compare(o1, o2));
 				return third.check(event, (Predicate<Object>) o3 -> {
 					boolean isBetween;
 					if (comparator != null) {
@@ -345,15 +352,15 @@ public class CondCompare extends Condition implements VerboseAssert {
 						}
 					} else {
 						if (o1 instanceof Cyclical<?> && o2 instanceof Cyclical<?> && o3 instanceof Cyclical<?>) {
-							if (Relation.GREATER_OR_EQUAL.isImpliedBy(Comparators.compare(o2, o3)))
-								isBetween = Relation.GREATER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o2)) || Relation.SMALLER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o3));
+							if (Relation.GREATER_OR_EQUAL.isImpliedBy(runtimeComparator.compare(o2, o3)))
+								isBetween = Relation.GREATER_OR_EQUAL.isImpliedBy(runtimeComparator.compare(o1, o2)) || Relation.SMALLER_OR_EQUAL.isImpliedBy(runtimeComparator.compare(o1, o3));
 							else
-								isBetween = Relation.GREATER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o2)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o3));
+								isBetween = Relation.GREATER_OR_EQUAL.isImpliedBy(runtimeComparator.compare(o1, o2)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(runtimeComparator.compare(o1, o3));
 						} else {
 							isBetween =
-									(Relation.GREATER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o2)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o3)))
+									(Relation.GREATER_OR_EQUAL.isImpliedBy(runtimeComparator.compare(o1, o2)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(runtimeComparator.compare(o1, o3)))
 									// Check OPPOSITE (switching o2 / o3)
-									|| (Relation.GREATER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o3)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o2)));
+									|| (Relation.GREATER_OR_EQUAL.isImpliedBy(runtimeComparator.compare(o1, o3)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(runtimeComparator.compare(o1, o2)));
 						}
 					}
 					return relation == Relation.NOT_EQUAL ^ isBetween;
@@ -392,7 +399,7 @@ public class CondCompare extends Condition implements VerboseAssert {
 		if (first.length != second.length)
 			return !shouldMatch;
 		for (int i = 0; i < first.length; i++) {
-			if (!relation.isImpliedBy(comparator != null ? comparator.compare(first[i], second[i]) : Comparators.compare(first[i], second[i])))
+			if (!relation.isImpliedBy(comparator != null ? comparator.compare(first[i], second[i]) : runtimeComparator.compare(first[i], second[i])))
 				return !shouldMatch;
 		}
 		return shouldMatch;
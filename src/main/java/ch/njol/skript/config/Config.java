@@ -22,6 +22,10 @@ import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -55,6 +59,11 @@ public class Config implements Comparable<Config>, Validated, NodeNavigator, Any
 	@Nullable Path file = null;
 	private final Validated validator = Validated.validator();
 
+	/**
+	 * The SHA-256 hash of the content this config was loaded from, or null if it has no content.
+	 */
+	private @Nullable String contentHash;
+
 	public Config(InputStream source, String fileName, @Nullable File file,
 				  boolean simple, boolean allowEmptySections, String defaultSeparator) throws IOException {
 		try (source) {
@@ -75,9 +84,16 @@ public class Config implements Comparable<Config>, Validated, NodeNavigator, Any
 			if (Skript.logVeryHigh())
 				Skript.info("loading '" + fileName + "'");
 
-			try (ConfigReader reader = new ConfigReader(source)) {
+			MessageDigest digest;
+			try {
+				digest = MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e); // every Java platform supports SHA-256
+			}
+			try (ConfigReader reader = new ConfigReader(new DigestInputStream(source, digest))) {
 				main = SectionNode.load(this, reader);
 			}
+			contentHash = HexFormat.of().formatHex(digest.digest());
 		}
 	}
 
@@ -164,6 +180,14 @@ public class Config implements Comparable<Config>, Validated, NodeNavigator, Any
 		return main;
 	}
 
+	/**
+	 * @return The SHA-256 hash of the content this config was loaded from, as a hexadecimal string,
+	 * 	or null if it was not loaded from any content.
+	 */
+	public @Nullable String getContentHash() {
+		return contentHash;
+	}
+
 	public String getFileName() {
 		return fileName;
 	}
@@ -6,6 +6,7 @@ import ch.njol.skript.doc.Example;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.lang.Effect;
+import ch.njol.skript.lang.ExecutionFrame;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
@@ -75,12 +76,12 @@ public class Delay extends Effect {
 			Object localVars = Variables.removeLocals(event);
 			
 			Bukkit.getScheduler().scheduleSyncDelayedTask(Skript.getInstance(), () -> {
-				addDelayedEvent(event);
 				Skript.debug(getIndentation() + "... continuing after " + (System.nanoTime() - start) / 1_000_000_000. + "s");
 
 				// Re-set local variables
 				if (localVars != null)
 					Variables.setLocalVariables(event, localVars);
+				addDelayedEvent(event);
 
 				Object timing = null; // Timings reference must be kept so that it can be stopped after TriggerItem execution
 				if (SkriptTimings.enabled()) { // getTrigger call is not free, do it only if we must
@@ -108,24 +109,44 @@ public class Delay extends Effect {
 		return "wait for " + duration.toString(event, debug) + (event == null ? "" : "...");
 	}
 
+	/**
+	 * The delayed events that are executed without an {@link ExecutionFrame}.
+	 * The delays of all other events are marked in their frame.
+	 */
 	private static final Set<Event> DELAYED =
 		Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
 
+	/**
+	 * Whether any event was added to {@link #DELAYED}, so that it doesn't have to be checked otherwise.
+	 */
+	private static volatile boolean delayedWithoutFrame = false;
+
 	/**
 	 * The main method for checking if the execution of {@link TriggerItem}s has been delayed.
 	 * @param event The event to check for a delay.
 	 * @return Whether {@link TriggerItem} execution has been delayed.
 	 */
 	public static boolean isDelayed(Event event) {
-		return DELAYED.contains(event);
+		ExecutionFrame frame = ExecutionFrame.get(event);
+		if (frame != null && frame.isDelayed())
+			return true;
+		return delayedWithoutFrame && DELAYED.contains(event);
 	}
 
 	/**
 	 * The main method for marking the execution of {@link TriggerItem}s as delayed.
+	 * Should be called after the local variables of the event have been restored,
+	 * so that the delay is marked in its {@link ExecutionFrame}.
 	 * @param event The event to mark as delayed.
 	 */
 	public static void addDelayedEvent(Event event) {
-		DELAYED.add(event);
+		ExecutionFrame frame = ExecutionFrame.get(event);
+		if (frame != null) {
+			frame.setDelayed();
+		} else {
+			delayedWithoutFrame = true;
+			DELAYED.add(event);
+		}
 	}
 
 }
@@ -44,27 +44,27 @@ public class EffKill extends Effect {
 
 	@Override
 	protected void execute(Event event) {
-		for (Entity entity : entities.getArray(event)) {
+		entities.forEach(event, EffKill::kill);
+	}
 
-			if (entity instanceof EnderDragonPart part)
-				entity = part.getParent();
+	private static void kill(Entity entity) {
+		if (entity instanceof EnderDragonPart part)
+			entity = part.getParent();
 
-			if (entity instanceof Damageable damageable) {
-				if (SUPPORTS_DAMAGE_SOURCE) {
-					EntityDamageEvent.DamageCause cause = EntityDamageEvent.DamageCause.KILL;
-					HealthUtils.damage(damageable, Double.POSITIVE_INFINITY, DamageUtils.getDamageSourceFromCause(cause));
-				} else {
-					HealthUtils.setHealth(damageable, 0);
-					HealthUtils.damage(damageable, 1);
-				}
+		if (entity instanceof Damageable damageable) {
+			if (SUPPORTS_DAMAGE_SOURCE) {
+				EntityDamageEvent.DamageCause cause = EntityDamageEvent.DamageCause.KILL;
+				HealthUtils.damage(damageable, Double.POSITIVE_INFINITY, DamageUtils.getDamageSourceFromCause(cause));
+			} else {
+				HealthUtils.setHealth(damageable, 0);
+				HealthUtils.damage(damageable, 1);
 			}
-
-			// if everything done so far has failed to kill this thing
-			// We also don't want to remove a player as this would remove the player's data from the server.
-			if (entity.isValid() && !(entity instanceof Player))
-				entity.remove();
-
 		}
+
+		// if everything done so far has failed to kill this thing
+		// We also don't want to remove a player as this would remove the player's data from the server.
+		if (entity.isValid() && !(entity instanceof Player))
+			entity.remove();
 	}
 
 	@Override
@@ -135,16 +135,16 @@ public class EffTeleport extends Effect {
 
 		// This will either fetch the chunk instantly if on Spigot or already loaded or fetch it async if on Paper.
 		PaperLib.getChunkAtAsync(location).thenAccept(chunk -> {
+			// Re-set local variables
+			if (localVars != null)
+				Variables.setLocalVariables(event, localVars);
 			Delay.addDelayedEvent(event);
+
 			// The following is now on the main thread
 			SkriptTeleportFlag[] teleportFlags = this.teleportFlags == null ? null : this.teleportFlags.getArray(event);
 			for (Entity entity : entityArray) {
 				teleport(entity, fixed, teleportFlags);
 			}
-
-			// Re-set local variables
-			if (localVars != null)
-				Variables.setLocalVariables(event, localVars);
 			
 			// Continue the rest of the trigger if there is one
 			Object timing = null;
@@ -31,14 +31,15 @@ public class IndeterminateDelay extends Delay {
 			Object localVars = Variables.removeLocals(event);
 			
 			Bukkit.getScheduler().scheduleSyncDelayedTask(Skript.getInstance(), () -> {
-				Delay.addDelayedEvent(event);
 				Skript.debug(getIndentation() + "... continuing after " + (System.nanoTime() - start) / 1_000_000_000. + "s");
 
 				// Re-set local variables
 				if (localVars != null)
 					Variables.setLocalVariables(event, localVars);
+				Delay.addDelayedEvent(event);
 
 				TriggerItem.walk(next, event);
+				Variables.removeLocals(event); // Clean up local vars, we may be exiting now
 			}, duration.getAs(Timespan.TimePeriod.TICK));
 		}
 
@@ -23,7 +23,6 @@ import ch.njol.skript.localization.Noun;
 import ch.njol.skript.registrations.Classes;
 import ch.njol.skript.variables.Variables;
 import ch.njol.util.Kleenean;
-import ch.njol.util.coll.CollectionUtils;
 import ch.njol.util.coll.iterator.SingleItemIterator;
 import ch.njol.yggdrasil.FieldHandler;
 import ch.njol.yggdrasil.Fields;
@@ -38,7 +37,6 @@ import org.bukkit.RegionAccessor;
 import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
-import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -720,50 +718,22 @@ public abstract class EntityData<E extends Entity> implements SyntaxElement, Ygg
 	 * @param type
 	 * @param worlds worlds or null for all
 	 * @return All entities of this type in the given worlds
+	 * @see EntityQuery
 	 */
-	@SuppressWarnings({"null", "unchecked"})
 	public static <E extends Entity> E[] getAll(EntityData<?>[] types, Class<E> type, World @Nullable [] worlds) {
 		assert types.length > 0;
-		if (type == Player.class) {
-			if (worlds == null)
-				return (E[]) Bukkit.getOnlinePlayers().toArray(new Player[0]);
-			List<Player> list = new ArrayList<>();
-			for (Player player : Bukkit.getOnlinePlayers()) {
-				if (CollectionUtils.contains(worlds, player.getWorld()))
-					list.add(player);
-			}
-			return (E[]) list.toArray(new Player[list.size()]);
-		}
-		List<E> list = new ArrayList<>();
-		if (worlds == null)
-			worlds = Bukkit.getWorlds().toArray(new World[0]);
-		for (World world : worlds) {
-			for (E entity : world.getEntitiesByClass(type)) {
-				for (EntityData<?> entityData : types) {
-					if (entityData.isInstance(entity)) {
-						list.add(entity);
-						break;
-					}
-				}
-			}
-		}
-		return list.toArray((E[]) Array.newInstance(type, list.size()));
+		return toArray(EntityQuery.of(types, type).in(worlds), type);
 	}
 
-	@SuppressWarnings("unchecked")
 	public static <E extends Entity> E[] getAll(EntityData<?>[] types, Class<E> type, Chunk[] chunks) {
 		assert types.length > 0;
+		return toArray(EntityQuery.of(types, type).in(chunks), type);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E extends Entity> E[] toArray(Iterator<E> entities, Class<E> type) {
 		List<E> list = new ArrayList<>();
-		for (Chunk chunk : chunks) {
-			for (Entity entity : chunk.getEntities()) {
-				for (EntityData<?> entityData : types) {
-					if (entityData.isInstance(entity)) {
-						list.add(((E) entity));
-						break;
-					}
-				}
-			}
-		}
+		entities.forEachRemaining(list::add);
 		return list.toArray((E[]) Array.newInstance(type, list.size()));
 	}
 
@@ -0,0 +1,326 @@
+package ch.njol.skript.entity;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
+import ch.njol.util.coll.iterator.CheckedIterator;
+import com.google.common.collect.Iterators;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntitySpawnEvent;
+import org.bukkit.event.entity.EntityTeleportEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.util.BoundingBox;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * A query for the entities that are an instance of any of some {@link EntityData}s.
+ * <p>
+ * Entities are looked up by the most specific class that all entity datas share, so other entities are skipped without testing them,
+ * and spatial queries test the entity datas while Bukkit collects the nearby entities.
+ * Players in whole worlds are looked up in the online players instead of the entities of their worlds.
+ * If the returned type is {@link Player}, every online player in the worlds is returned without testing the entity datas,
+ *  as {@link EntityData#getAll(EntityData[], Class, World[])} has always done.
+ * Radius and cuboid queries take the nearby entities from Bukkit for players as well,
+ *  so they also find player entities that aren't online players, e.g. NPCs of other plugins.
+ * All results are iterators, which only load the entities of a world or chunk once the previous ones have been iterated.
+ * <p>
+ * If {@link SkriptConfig#mergeEntityQueries} is enabled, spatial queries for the same class of entities in the same world
+ * are merged when many of them are made during one tick: the entities of that class are collected once and indexed by chunk,
+ * and every following query of the tick only looks at the chunks it overlaps.
+ *
+ * @param <E> the type of the returned entities.
+ */
+public final class EntityQuery<E extends Entity> {
+
+	/**
+	 * How many spatial queries for the same class of entities in the same world have to be made during a tick
+	 * before the entities of that class are indexed for the rest of the tick.
+	 */
+	private static final int MERGE_THRESHOLD = 8;
+
+	private final EntityData<?>[] types;
+
+	/**
+	 * The most specific class shared by all entities this query can return.
+	 */
+	private final Class<? extends E> filter;
+
+	/**
+	 * Whether the returned type is {@link Player}, in which case world queries return all online players of the worlds.
+	 */
+	private final boolean allPlayers;
+
+	private EntityQuery(EntityData<?>[] types, Class<? extends E> filter, boolean allPlayers) {
+		this.types = types;
+		this.filter = filter;
+		this.allPlayers = allPlayers;
+	}
+
+	/**
+	 * @param types the entity datas to query the entities of. Must not be empty.
+	 * @param type the type of the returned entities. Entities that are not an instance of it are never returned.
+	 * @return a query for the entities of the given types.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E extends Entity> EntityQuery<E> of(EntityData<?>[] types, Class<E> type) {
+		assert types.length > 0;
+		Class<? extends Entity> common = types[0].getType();
+		for (int i = 1; i < types.length; i++)
+			common = getCommonType(common, types[i].getType());
+		Class<? extends E> filter = type.isAssignableFrom(common) ? (Class<? extends E>) common : type;
+		return new EntityQuery<>(types, filter, type == Player.class);
+	}
+
+	/**
+	 * @return the most specific class or interface that both given entity classes are assignable to.
+	 */
+	private static Class<? extends Entity> getCommonType(Class<? extends Entity> first, Class<? extends Entity> second) {
+		if (first.isAssignableFrom(second))
+			return first;
+		if (second.isAssignableFrom(first))
+			return second;
+		// breadth-first, so the closest supertype of the first class is found first
+		Deque<Class<?>> supertypes = new ArrayDeque<>();
+		Set<Class<?>> visited = new HashSet<>();
+		supertypes.add(first);
+		while (!supertypes.isEmpty()) {
+			Class<?> supertype = supertypes.poll();
+			if (!visited.add(supertype))
+				continue;
+			if (Entity.class.isAssignableFrom(supertype) && supertype.isAssignableFrom(second))
+				return supertype.asSubclass(Entity.class);
+			if (supertype.getSuperclass() != null)
+				supertypes.add(supertype.getSuperclass());
+			Collections.addAll(supertypes, supertype.getInterfaces());
+		}
+		return Entity.class;
+	}
+
+	/**
+	 * @param entity an entity.
+	 * @return whether the given entity is returned by this query, regardless of its location.
+	 */
+	public boolean matches(Entity entity) {
+		if (!filter.isInstance(entity))
+			return false;
+		for (EntityData<?> type : types) {
+			if (type.isInstance(entity))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @param worlds the worlds to get the entities of, or null for all worlds.
+	 * @return the matching entities in the given worlds.
+	 */
+	public Iterator<E> in(World @Nullable ... worlds) {
+		if (Player.class.isAssignableFrom(filter)) {
+			Set<World> worldSet = worlds != null ? new HashSet<>(Arrays.asList(worlds)) : null;
+			return players(player -> (worldSet == null || worldSet.contains(player.getWorld())) && (allPlayers || matches(player)));
+		}
+		List<World> worldList = worlds != null ? Arrays.asList(worlds) : Bukkit.getWorlds();
+		Iterator<E> entities = Iterators.concat(Iterators.<World, Iterator<? extends E>>transform(worldList.iterator(),
+			world -> world.getEntitiesByClass(filter).iterator()));
+		return new CheckedIterator<>(entities, this::matches);
+	}
+
+	/**
+	 * @param chunks the chunks to get the entities of.
+	 * @return the matching entities in the given chunks.
+	 */
+	@SuppressWarnings("unchecked")
+	public Iterator<E> in(Chunk... chunks) {
+		Iterator<Entity> entities = Iterators.concat(Iterators.<Chunk, Iterator<Entity>>transform(Arrays.asList(chunks).iterator(),
+			chunk -> Arrays.asList(chunk.getEntities()).iterator()));
+		return (Iterator<E>) new CheckedIterator<>(entities, this::matches);
+	}
+
+	/**
+	 * @param center the center of the sphere.
+	 * @param radius the radius of the sphere.
+	 * @return the matching entities whose location is within the given sphere.
+	 */
+	public Iterator<E> inRadius(Location center, double radius) {
+		World world = center.getWorld();
+		if (world == null)
+			return Collections.emptyIterator();
+		double radiusSquared = radius * radius * Skript.EPSILON_MULT;
+		Location location = new Location(null, 0, 0, 0);
+		Predicate<Entity> inRadius = entity -> entity.getLocation(location).distanceSquared(center) <= radiusSquared;
+		Predicate<Entity> predicate = inRadius.and(this::matches);
+		Snapshot snapshot = getSnapshot(world, filter);
+		if (snapshot != null)
+			return snapshot.query(BoundingBox.of(center, radius, radius, radius), predicate);
+		return cast(world.getNearbyEntities(center, radius, radius, radius, predicate).iterator());
+	}
+
+	/**
+	 * @param corner1 a corner of the cuboid.
+	 * @param corner2 the opposite corner of the cuboid.
+	 * @return the matching entities whose bounding box overlaps the given cuboid.
+	 */
+	public Iterator<E> within(Location corner1, Location corner2) {
+		World world = corner1.getWorld();
+		if (world == null)
+			world = corner2.getWorld();
+		if (world == null)
+			return Collections.emptyIterator();
+		BoundingBox box = BoundingBox.of(corner1, corner2);
+		Snapshot snapshot = getSnapshot(world, filter);
+		if (snapshot != null)
+			return snapshot.query(box, entity -> box.overlaps(entity.getBoundingBox()) && matches(entity));
+		return cast(world.getNearbyEntities(box, this::matches).iterator());
+	}
+
+	@SuppressWarnings("unchecked")
+	private Iterator<E> players(Predicate<Player> predicate) {
+		Iterator<Player> players = new ArrayList<Player>(Bukkit.getOnlinePlayers()).iterator();
+		return (Iterator<E>) new CheckedIterator<>(players, player -> player != null && predicate.test(player));
+	}
+
+	/**
+	 * Only used for entities that matched this query, which are all instances of {@link #filter}.
+	 */
+	@SuppressWarnings("unchecked")
+	private Iterator<E> cast(Iterator<? extends Entity> entities) {
+		return (Iterator<E>) entities;
+	}
+
+	/**
+	 * The queries and snapshots of the current tick.
+	 */
+	private static final Map<SnapshotKey, Integer> QUERY_COUNTS = new HashMap<>();
+	private static final Map<SnapshotKey, Snapshot> SNAPSHOTS = new HashMap<>();
+
+	private static boolean clearScheduled;
+
+	private static final AtomicBoolean REGISTERED_LISTENERS = new AtomicBoolean();
+
+	private record SnapshotKey(World world, Class<? extends Entity> type) { }
+
+	/**
+	 * Counts a spatial query, and returns the snapshot to answer it with if enough queries of the same kind were made this tick.
+	 *
+	 * @return the snapshot of the entities of the given class in the given world, or null if the query should not be merged.
+	 */
+	private static @Nullable Snapshot getSnapshot(World world, Class<? extends Entity> type) {
+		if (!SkriptConfig.mergeEntityQueries.value() || !Bukkit.isPrimaryThread())
+			return null;
+		if (!clearScheduled) { // first query of this tick
+			clearScheduled = true;
+			Bukkit.getScheduler().runTask(Skript.getInstance(), () -> {
+				clearScheduled = false;
+				clearSnapshots();
+			});
+		}
+		SnapshotKey key = new SnapshotKey(world, type);
+		if (QUERY_COUNTS.merge(key, 1, Integer::sum) < MERGE_THRESHOLD)
+			return null;
+		Snapshot snapshot = SNAPSHOTS.get(key);
+		if (snapshot == null) {
+			registerListeners();
+			snapshot = new Snapshot(world.getEntitiesByClass(type));
+			SNAPSHOTS.put(key, snapshot);
+		}
+		return snapshot;
+	}
+
+	private static void clearSnapshots() {
+		QUERY_COUNTS.clear();
+		SNAPSHOTS.clear();
+	}
+
+	/**
+	 * Registers the listeners discarding the snapshots when entities are added to a world or teleported,
+	 * as they would be missing from or misplaced in the snapshots of the current tick.
+	 * The query counts are reset as well, so a tick with many such events doesn't take a snapshot for every query.
+	 */
+	private static void registerListeners() {
+		if (!REGISTERED_LISTENERS.compareAndSet(false, true))
+			return;
+		Listener listener = new Listener() {};
+		EventExecutor executor = (ignored, event) -> {
+			if (Bukkit.isPrimaryThread())
+				clearSnapshots();
+		};
+		List<Class<? extends Event>> events = List.of(EntitySpawnEvent.class, EntitiesLoadEvent.class, EntityTeleportEvent.class,
+			PlayerTeleportEvent.class, PlayerJoinEvent.class, PlayerRespawnEvent.class);
+		for (Class<? extends Event> event : events)
+			Bukkit.getPluginManager().registerEvent(event, listener, EventPriority.MONITOR, executor, Skript.getInstance(), true);
+	}
+
+	/**
+	 * The entities of one class in one world, indexed by the chunk they were in when the snapshot was taken.
+	 * Entities are tested with their current location and bounding box when a query is answered,
+	 * and the chunks around the chunks of a query are included to find entities that moved since.
+	 */
+	private static final class Snapshot {
+
+		private final Map<Long, List<Entity>> chunks = new HashMap<>();
+
+		private Snapshot(Collection<? extends Entity> entities) {
+			Location location = new Location(null, 0, 0, 0);
+			for (Entity entity : entities) {
+				entity.getLocation(location);
+				chunks.computeIfAbsent(getKey(location.getBlockX() >> 4, location.getBlockZ() >> 4), key -> new ArrayList<>()).add(entity);
+			}
+		}
+
+		private static long getKey(int chunkX, int chunkZ) {
+			return (long) chunkX << 32 | chunkZ & 0xFFFFFFFFL;
+		}
+
+		private <E extends Entity> Iterator<E> query(BoundingBox box, Predicate<Entity> predicate) {
+			int minX = ((int) Math.floor(box.getMinX()) >> 4) - 1;
+			int minZ = ((int) Math.floor(box.getMinZ()) >> 4) - 1;
+			int maxX = ((int) Math.floor(box.getMaxX()) >> 4) + 1;
+			int maxZ = ((int) Math.floor(box.getMaxZ()) >> 4) + 1;
+			Iterator<List<Entity>> lists;
+			if ((long) (maxX - minX + 1) * (maxZ - minZ + 1) >= chunks.size()) {
+				lists = chunks.values().iterator();
+			} else {
+				List<List<Entity>> overlapping = new ArrayList<>();
+				for (int x = minX; x <= maxX; x++) {
+					for (int z = minZ; z <= maxZ; z++) {
+						List<Entity> entities = chunks.get(getKey(x, z));
+						if (entities != null)
+							overlapping.add(entities);
+					}
+				}
+				lists = overlapping.iterator();
+			}
+			Iterator<Entity> entities = Iterators.concat(Iterators.<List<Entity>, Iterator<Entity>>transform(lists, List::iterator));
+			//noinspection unchecked
+			return (Iterator<E>) new CheckedIterator<>(entities, entity -> entity != null && entity.isValid() && predicate.test(entity));
+		}
+
+	}
+
+}
@@ -1,5 +1,6 @@
 package ch.njol.skript.events;
 
+import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
 import org.bukkit.block.data.BlockData;
@@ -10,9 +11,11 @@ import org.bukkit.event.hanging.HangingEvent;
 import org.bukkit.event.hanging.HangingPlaceEvent;
 import org.bukkit.event.player.PlayerBucketEmptyEvent;
 import org.bukkit.event.player.PlayerBucketFillEvent;
+import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.Nullable;
 
 import ch.njol.skript.Skript;
+import ch.njol.skript.aliases.ItemData;
 import ch.njol.skript.aliases.ItemType;
 import org.jetbrains.annotations.NotNull;
 import org.skriptlang.skript.lang.comparator.Relation;
@@ -23,6 +26,10 @@ import ch.njol.skript.lang.SkriptEvent;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.registrations.Classes;
 
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * @author Peter Güttinger
  */
@@ -82,13 +89,64 @@ public class EvtBlock extends SkriptEvent {
 	private Literal<Object> types;
 	
 	private boolean mine = false;
+
+	/**
+	 * The materials of the blocks this event can match, or null if it can match any block.
+	 */
+	@Nullable
+	private Set<Material> materials;
 	
 	@Override
 	public boolean init(final Literal<?>[] args, final int matchedPattern, final ParseResult parser) {
 		types = (Literal<Object>) args[0];
 		mine = parser.mark == 1;
+		if (types != null)
+			materials = getMaterials(types.getAll());
 		return true;
 	}
+
+	/**
+	 * @param types item types and block datas.
+	 * @return the materials of the blocks matched by the given types, or null if they can match any block.
+	 */
+	@Nullable
+	static Set<Material> getMaterials(Object[] types) {
+		Set<Material> materials = EnumSet.noneOf(Material.class);
+		for (Object type : types) {
+			if (type instanceof ItemType itemType) {
+				for (ItemData data : itemType) {
+					if (data.isAnything())
+						return null;
+					materials.add(data.getType());
+				}
+			} else if (type instanceof BlockData blockData) {
+				materials.add(blockData.getMaterial());
+			}
+		}
+		return materials;
+	}
+
+	@Override
+	public @Nullable Collection<?> getDiscriminators() {
+		return materials;
+	}
+
+	@Override
+	public @Nullable Object getDiscriminator(Event event) {
+		// must be the material of the block or item that check() compares the types against
+		if (event instanceof BlockFormEvent blockFormEvent)
+			return blockFormEvent.getNewState().getType();
+		if (event instanceof BlockEvent blockEvent)
+			return blockEvent.getBlock().getType();
+		if (event instanceof PlayerBucketFillEvent playerBucketFillEvent)
+			return playerBucketFillEvent.getBlockClicked().getType();
+		if (event instanceof PlayerBucketEmptyEvent playerBucketEmptyEvent) {
+			ItemStack itemStack = playerBucketEmptyEvent.getItemStack();
+			return itemStack != null ? itemStack.getType() : null;
+		}
+		// hanging entities are compared as entities
+		return null;
+	}
 	
 	@SuppressWarnings("null")
 	@Override
@@ -9,6 +9,7 @@ import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SkriptEvent;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.util.coll.CollectionUtils;
+import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.ArmorStand;
@@ -26,6 +27,8 @@ import org.bukkit.inventory.PlayerInventory;
 import org.jetbrains.annotations.Nullable;
 import org.skriptlang.skript.lang.comparator.Relation;
 
+import java.util.Collection;
+import java.util.Set;
 import java.util.function.Predicate;
 
 public class EvtClick extends SkriptEvent {
@@ -75,6 +78,12 @@ public class EvtClick extends SkriptEvent {
 	 */
 	private int click = ANY;
 
+	/**
+	 * The materials of the blocks this event can match, or null if it can match any block.
+	 * Entities are not part of this, so clicks on entities are always checked.
+	 */
+	private @Nullable Set<Material> materials;
+
 	@Override
 	@SuppressWarnings("unchecked")
 	public boolean init(Literal<?>[] args, int matchedPattern, ParseResult parseResult) {
@@ -100,9 +109,25 @@ public class EvtClick extends SkriptEvent {
 			}
 		}
 		tools = (Literal<ItemType>) args[1 - matchedPattern];
+		if (type != null)
+			materials = EvtBlock.getMaterials(type.getAll());
 		return true;
 	}
 
+	@Override
+	public @Nullable Collection<?> getDiscriminators() {
+		return materials;
+	}
+
+	@Override
+	public @Nullable Object getDiscriminator(Event event) {
+		if (event instanceof PlayerInteractEvent interactEvent) {
+			Block block = interactEvent.getClickedBlock();
+			return block != null ? block.getType() : null;
+		}
+		return null;
+	}
+
 	@Override
 	public boolean check(Event event) {
 		Block block;
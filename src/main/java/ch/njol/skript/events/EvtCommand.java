@@ -13,6 +13,10 @@ import ch.njol.util.StringUtils;
 import ch.njol.util.coll.CollectionUtils;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
 
 public class EvtCommand extends SkriptEvent { // TODO condition to check whether a given command exists, & a conditon to check whether it's a custom skript command
 	static {
@@ -25,6 +29,11 @@ public class EvtCommand extends SkriptEvent { // TODO condition to check whether
 	private String @Nullable [] commands = null;
 	private Literal<String> commandsLit;
 
+	/**
+	 * The labels of the commands this event can match, or null if it can match any command.
+	 */
+	private @Nullable Set<String> labels;
+
 	@Override
 	@SuppressWarnings("null")
 	public boolean init(final Literal<?>[] args, final int matchedPattern, final ParseResult parser) {
@@ -36,10 +45,48 @@ public class EvtCommand extends SkriptEvent { // TODO condition to check whether
 				if (commands[i].startsWith("/"))
 					commands[i] = commands[i].substring(1);
 			}
+			labels = new HashSet<>();
+			for (String command : commands) {
+				String label = getLabel(command);
+				if (label == null) {
+					labels = null;
+					break;
+				}
+				labels.add(label);
+			}
 		}
 		return true;
 	}
 
+	/**
+	 * @param command a command without the leading slash.
+	 * @return the label of the command in lowercase, or null if it contains non-ASCII characters,
+	 * 			which {@link StringUtils#startsWithIgnoreCase(String, String)} might not compare like their lowercase form.
+	 */
+	private static @Nullable String getLabel(String command) {
+		int end = 0;
+		while (end < command.length() && !Character.isWhitespace(command.charAt(end))) {
+			if (command.charAt(end) > 127)
+				return null;
+			end++;
+		}
+		return command.substring(0, end).toLowerCase(Locale.ENGLISH);
+	}
+
+	@Override
+	public @Nullable Collection<?> getDiscriminators() {
+		return labels;
+	}
+
+	@Override
+	public @Nullable Object getDiscriminator(Event event) {
+		if (event instanceof PlayerCommandPreprocessEvent playerCommandPreprocessEvent) {
+			String message = playerCommandPreprocessEvent.getMessage();
+			return message.startsWith("/") ? getLabel(message.substring(1)) : null;
+		}
+		return getLabel(((ServerCommandEvent) event).getCommand());
+	}
+
 	@Override
 	@SuppressWarnings("null")
 	public boolean check(Event event) {
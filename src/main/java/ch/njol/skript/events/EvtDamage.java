@@ -2,6 +2,7 @@ package ch.njol.skript.events;
 
 import org.bukkit.entity.EnderDragon;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.event.Event;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
@@ -15,6 +16,9 @@ import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SkriptEvent;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 
+import java.util.Collection;
+import java.util.Set;
+
 /**
  * @author Peter Güttinger
  */
@@ -30,13 +34,31 @@ public class EvtDamage extends SkriptEvent {
 	
 	@Nullable
 	private Literal<EntityData<?>> ofTypes, byTypes;
+
+	/**
+	 * The types of the damaged entities this event can match, or null if it can match any entity.
+	 */
+	@Nullable
+	private Set<EntityType> entityTypes;
 	
 	@Override
 	public boolean init(Literal<?>[] args, int matchedPattern, ParseResult parser) {
 		ofTypes = (Literal<EntityData<?>>) args[0];
 		byTypes = (Literal<EntityData<?>>) args[1];
+		if (ofTypes != null)
+			entityTypes = EvtEntity.getEntityTypes(ofTypes.getAll());
 		return true;
 	}
+
+	@Override
+	public @Nullable Collection<?> getDiscriminators() {
+		return entityTypes;
+	}
+
+	@Override
+	public @Nullable Object getDiscriminator(Event event) {
+		return EvtEntity.getDiscriminator(((EntityDamageEvent) event).getEntity());
+	}
 	
 	@Override
 	public boolean check(Event evt) {
@@ -1,6 +1,7 @@
 package ch.njol.skript.events;
 
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.event.Event;
@@ -17,6 +18,10 @@ import ch.njol.skript.log.ErrorQuality;
 import ch.njol.skript.registrations.Classes;
 import ch.njol.util.StringUtils;
 
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * @author Peter Güttinger
  */
@@ -43,6 +48,12 @@ public final class EvtEntity extends SkriptEvent {
 	private EntityData<?>[] types;
 	
 	private boolean spawn;
+
+	/**
+	 * The types of the entities this event can match, or null if it can match any entity.
+	 */
+	@Nullable
+	private Set<EntityType> entityTypes;
 	
 	@SuppressWarnings("null")
 	@Override
@@ -65,9 +76,46 @@ public final class EvtEntity extends SkriptEvent {
 					}
 				}
 			}
+			entityTypes = getEntityTypes(types);
 		}
 		return true;
 	}
+
+	/**
+	 * @param types entity datas.
+	 * @return the types of all entities that can be an instance of one of the given entity datas.
+	 */
+	static Set<EntityType> getEntityTypes(EntityData<?>[] types) {
+		Set<EntityType> entityTypes = EnumSet.noneOf(EntityType.class);
+		for (EntityData<?> data : types) {
+			for (EntityType entityType : EntityType.values()) {
+				Class<? extends Entity> entityClass = entityType.getEntityClass();
+				if (entityClass != null && data.getType().isAssignableFrom(entityClass))
+					entityTypes.add(entityType);
+			}
+		}
+		return entityTypes;
+	}
+
+	/**
+	 * @param entity an entity.
+	 * @return the type of the given entity as a discriminator, or null if its type has no entity class.
+	 */
+	@Nullable
+	static EntityType getDiscriminator(Entity entity) {
+		EntityType entityType = entity.getType();
+		return entityType.getEntityClass() != null ? entityType : null;
+	}
+
+	@Override
+	public @Nullable Collection<?> getDiscriminators() {
+		return entityTypes;
+	}
+
+	@Override
+	public @Nullable Object getDiscriminator(Event event) {
+		return getDiscriminator(event instanceof EntityDeathEvent ? ((EntityDeathEvent) event).getEntity() : ((EntitySpawnEvent) event).getEntity());
+	}
 	
 	@SuppressWarnings("null")
 	@Override
@@ -6,6 +6,7 @@ import ch.njol.skript.doc.Example;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.entity.EntityData;
+import ch.njol.skript.entity.EntityQuery;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.Literal;
@@ -15,13 +16,11 @@ import ch.njol.skript.log.BlockingLogHandler;
 import ch.njol.skript.log.LogHandler;
 import ch.njol.util.Kleenean;
 import ch.njol.util.StringUtils;
-import ch.njol.util.coll.iterator.CheckedIterator;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.event.Event;
-import org.bukkit.util.BoundingBox;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnknownNullability;
 
@@ -65,6 +64,12 @@ public class ExprEntities extends SimpleExpression<Entity> {
 	private Expression<Location> to;
 
 	private Class<? extends Entity> returnType = Entity.class;
+
+	/**
+	 * The query for the entity types if they are a literal, or null if it has to be created for every execution.
+	 */
+	private @Nullable EntityQuery<? extends Entity> query;
+
 	private boolean isUsingRadius;
 	private boolean isUsingCuboid;
 
@@ -95,9 +100,18 @@ public class ExprEntities extends SimpleExpression<Entity> {
 		}
 		if (types instanceof Literal && ((Literal<EntityData<?>>) types).getAll().length == 1)
 			returnType = ((Literal<EntityData<?>>) types).getSingle().getType();
+		if (types instanceof Literal<?>)
+			query = EntityQuery.of(((Literal<EntityData<?>>) types).getAll(), returnType);
 		return true;
 	}
 
+	private @Nullable EntityQuery<? extends Entity> getQuery(Event event) {
+		if (query != null)
+			return query;
+		EntityData<?>[] entityTypes = types.getAll(event);
+		return entityTypes.length != 0 ? EntityQuery.of(entityTypes, returnType) : null;
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	public boolean isLoopOf(String s) {
@@ -118,22 +132,14 @@ public class ExprEntities extends SimpleExpression<Entity> {
 	}
 
 	@Override
-	@SuppressWarnings("null")
 	protected Entity @Nullable [] get(Event event) {
-		if (isUsingRadius || isUsingCuboid) {
-			Iterator<? extends Entity> iter = iterator(event);
-			if (iter == null || !iter.hasNext())
-				return null;
-
-			List<Entity> list = new ArrayList<>();
-			while (iter.hasNext())
-				list.add(iter.next());
-			return list.toArray((Entity[]) Array.newInstance(returnType, list.size()));
+		Iterator<? extends Entity> iter;
+		if (isUsingRadius || isUsingCuboid || worldsOrChunks == null) {
+			iter = iterator(event);
 		} else {
-			EntityData<?>[] types = this.types.getAll(event);
-			if (worldsOrChunks == null) {
-				return EntityData.getAll(types, returnType, (World[]) null);
-			}
+			EntityQuery<? extends Entity> query = getQuery(event);
+			if (query == null)
+				return null;
 			List<Chunk> chunks = new ArrayList<>();
 			List<World> worlds = new ArrayList<>();
 			for (Object obj : worldsOrChunks.getArray(event)) {
@@ -144,20 +150,21 @@ public class ExprEntities extends SimpleExpression<Entity> {
 				}
 			}
 			Set<Entity> entities = new HashSet<>();
-			if (!chunks.isEmpty()) {
-				entities.addAll(Arrays.asList(EntityData.getAll(types, returnType, chunks.toArray(new Chunk[0]))));
-			}
-			if (!worlds.isEmpty()) {
-				entities.addAll(Arrays.asList(EntityData.getAll(types, returnType, worlds.toArray(new World[0]))));
-			}
+			if (!chunks.isEmpty())
+				query.in(chunks.toArray(new Chunk[0])).forEachRemaining(entities::add);
+			if (!worlds.isEmpty())
+				query.in(worlds.toArray(new World[0])).forEachRemaining(entities::add);
 			return entities.toArray((Entity[]) Array.newInstance(returnType, entities.size()));
 		}
+		if (iter == null)
+			return null;
+		List<Entity> list = new ArrayList<>();
+		iter.forEachRemaining(list::add);
+		return list.toArray((Entity[]) Array.newInstance(returnType, list.size()));
 	}
 
 	@Override
-	@Nullable
-	@SuppressWarnings("null")
-	public Iterator<? extends Entity> iterator(Event event) {
+	public @Nullable Iterator<? extends Entity> iterator(Event event) {
 		if (isUsingRadius) {
 			Location location = center.getSingle(event);
 			if (location == null)
@@ -165,23 +172,12 @@ public class ExprEntities extends SimpleExpression<Entity> {
 			Number number = radius.getSingle(event);
 			if (number == null)
 				return null;
-			double rad = number.doubleValue();
-
 			if (location.getWorld() == null) // safety
 				return null;
-
-			Collection<Entity> nearbyEntities = location.getWorld().getNearbyEntities(location, rad, rad, rad);
-			double radiusSquared = rad * rad * Skript.EPSILON_MULT;
-			EntityData<?>[] entityTypes = types.getAll(event);
-			return new CheckedIterator<>(nearbyEntities.iterator(), entity -> {
-					if (entity == null || entity.getLocation().distanceSquared(location) > radiusSquared)
-						return false;
-					for (EntityData<?> entityType : entityTypes) {
-						if (entityType.isInstance(entity))
-							return true;
-					}
-					return false;
-				});
+			EntityQuery<? extends Entity> query = getQuery(event);
+			if (query == null)
+				return null;
+			return query.inRadius(location, number.doubleValue());
 		} else if (isUsingCuboid) {
 			Location corner1 = from.getSingle(event);
 			if (corner1 == null)
@@ -189,23 +185,17 @@ public class ExprEntities extends SimpleExpression<Entity> {
 			Location corner2 = to.getSingle(event);
 			if (corner2 == null)
 				return null;
-			EntityData<?>[] entityTypes = types.getAll(event);
-			World world = corner1.getWorld();
-			if (world == null)
-				world = corner2.getWorld();
-			if (world == null)
+			EntityQuery<? extends Entity> query = getQuery(event);
+			if (query == null)
 				return null;
-			Collection<Entity> entities = corner1.getWorld().getNearbyEntities(BoundingBox.of(corner1, corner2));
-			return new CheckedIterator<>(entities.iterator(), entity -> {
-				if (entity == null)
-					return false;
-				for (EntityData<?> entityType : entityTypes) {
-					if (entityType.isInstance(entity))
-						return true;
-				}
-				return false;
-			});
+			return query.within(corner1, corner2);
+		} else if (worldsOrChunks == null) {
+			EntityQuery<? extends Entity> query = getQuery(event);
+			if (query == null)
+				return null;
+			return query.in((World[]) null);
 		} else {
+			// entities in both a chunk and a world have to be deduplicated
 			return super.iterator(event);
 		}
 	}
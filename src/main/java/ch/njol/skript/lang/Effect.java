@@ -62,7 +62,7 @@ public abstract class Effect extends Statement implements SyntaxRuntimeErrorProd
 			}
 			log.clear();
 
-			var iterator = Skript.instance().syntaxRegistry().syntaxes(org.skriptlang.skript.registration.SyntaxRegistry.EFFECT).iterator();
+			var iterator = Skript.instance().syntaxRegistry().candidates(org.skriptlang.skript.registration.SyntaxRegistry.EFFECT, input).iterator();
 			//noinspection unchecked,rawtypes
 			Effect effect = (Effect) SkriptParser.parse(input, (Iterator) iterator, defaultError);
 			if (effect != null) {
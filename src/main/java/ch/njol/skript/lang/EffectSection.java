@@ -84,7 +84,7 @@ public abstract class EffectSection extends Section {
 		effectSectionContext.isNodeForEffectSection = isNodeForEffectSection;
 
 		EffectSection effectSection = sectionContext.modify(sectionNode, triggerItems, () -> {
-			var iterator = Skript.instance().syntaxRegistry().syntaxes(org.skriptlang.skript.registration.SyntaxRegistry.SECTION).stream()
+			var iterator = Skript.instance().syntaxRegistry().candidates(org.skriptlang.skript.registration.SyntaxRegistry.SECTION, input).stream()
 				.filter(info -> EffectSection.class.isAssignableFrom(info.type()))
 				.iterator();
 			//noinspection unchecked,rawtypes
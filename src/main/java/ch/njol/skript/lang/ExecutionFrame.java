@@ -0,0 +1,325 @@
+package ch.njol.skript.lang;
+
+import ch.njol.skript.lang.parser.ParserInstance;
+import ch.njol.skript.variables.Variables;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import org.skriptlang.skript.lang.structure.Structure;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The state of a single execution of trigger items for an event, such as its local variables and the state of its loops.
+ * <p>
+ * A frame is bound to the thread executing it, from {@link #enter(Event)} until {@link #exit()}.
+ * Syntax elements store their state in {@link Slot}s of the frame, which are assigned while parsing,
+ * instead of in maps keyed by the event.
+ * <p>
+ * An execution that is continued later, e.g. after a delay, keeps its frame:
+ * {@link Variables#removeLocals(Event)} detaches it from the thread,
+ * and {@link Variables#setLocalVariables(Event, Object)} binds it to the thread continuing the execution.
+ * The frame is detached again once {@link TriggerItem#walk(TriggerItem, Event)} has continued the execution,
+ * even if {@link Variables#removeLocals(Event)} isn't called afterwards.
+ */
+public final class ExecutionFrame {
+
+	private static final ThreadLocal<@Nullable ExecutionFrame> CURRENT = new ThreadLocal<>();
+
+	private static final Object[] NO_SLOTS = new Object[0];
+
+	static {
+		ParserInstance.registerData(SlotData.class, SlotData::new);
+	}
+
+	private final Event event;
+
+	/**
+	 * The frame that was bound to the thread before this one, if this frame is bound.
+	 */
+	private @Nullable ExecutionFrame outer;
+
+	/**
+	 * The thread this frame is bound to, or null if it is not bound.
+	 */
+	private @Nullable Thread thread;
+
+	/**
+	 * Whether this frame was bound again by {@link #bind()} to continue its execution, instead of by {@link #enter(Event)}.
+	 */
+	private boolean resumed;
+
+	/**
+	 * Whether {@link TriggerItem#walk(TriggerItem, Event)} is continuing the execution of this resumed frame.
+	 */
+	private boolean continuing;
+
+	private boolean delayed;
+
+	private @Nullable Object locals;
+
+	private Object[] slots = NO_SLOTS;
+
+	private ExecutionFrame(Event event) {
+		this.event = event;
+	}
+
+	/**
+	 * Creates a new frame for the given event and binds it to the current thread.
+	 * It must be {@link #exit() exited} by the same thread once the execution stops.
+	 * <p>
+	 * If the event is already being executed by this thread, the new frame shares its local variables.
+	 * Otherwise, it takes over the local variables that were set for the event before, e.g. the parameters of a function.
+	 *
+	 * @param event the event to execute.
+	 * @return the new frame.
+	 */
+	public static ExecutionFrame enter(Event event) {
+		ExecutionFrame frame = new ExecutionFrame(event);
+		ExecutionFrame enclosing = get(event);
+		frame.locals = enclosing != null ? enclosing.locals : Variables.removeLocals(event);
+		frame.push();
+		return frame;
+	}
+
+	/**
+	 * @param event the event to get the frame of.
+	 * @return the frame executing the given event on the current thread, or null if the event is executed without a frame.
+	 */
+	public static @Nullable ExecutionFrame get(@Nullable Event event) {
+		ExecutionFrame frame = CURRENT.get();
+		while (frame != null && frame.event != event)
+			frame = frame.outer;
+		return frame;
+	}
+
+	/**
+	 * Binds this frame to the current thread, to continue an execution that was {@link #exit() exited} before.
+	 * Does nothing if this frame is already bound.
+	 */
+	public void bind() {
+		if (thread != null)
+			return;
+		// frames that were resumed but aren't being continued were left behind by a finished continuation
+		ExecutionFrame frame = CURRENT.get();
+		while (frame != null) {
+			ExecutionFrame next = frame.outer;
+			if (frame.resumed && !frame.continuing)
+				frame.exit();
+			frame = next;
+		}
+		push();
+		resumed = true;
+	}
+
+	private void push() {
+		outer = CURRENT.get();
+		CURRENT.set(this);
+		thread = Thread.currentThread();
+	}
+
+	/**
+	 * Detaches this frame from the current thread. Its state is kept, so the execution can be continued with {@link #bind()}.
+	 * Does nothing if this frame is not bound to the current thread,
+	 * e.g. because it was already detached to continue the execution on another thread.
+	 */
+	public void exit() {
+		if (thread != Thread.currentThread())
+			return;
+		thread = null;
+		if (CURRENT.get() == this) {
+			CURRENT.set(outer);
+		} else {
+			// an inner frame was not exited, unlink this frame from the chain
+			ExecutionFrame inner = CURRENT.get();
+			while (inner != null && inner.outer != this)
+				inner = inner.outer;
+			if (inner != null)
+				inner.outer = outer;
+		}
+		outer = null;
+		resumed = false;
+		continuing = false;
+	}
+
+	/**
+	 * Marks the frame of the given event as being continued, if it was {@link #bind() resumed} on the current thread.
+	 * Only to be used by {@link TriggerItem#walk(TriggerItem, Event)}.
+	 *
+	 * @param event the event whose execution is continued.
+	 * @return the frame that must be passed to {@link #endContinuation(ExecutionFrame)} once the execution stops,
+	 * 			or null if the execution isn't continued from a resumed frame.
+	 */
+	static @Nullable ExecutionFrame startContinuation(Event event) {
+		ExecutionFrame frame = get(event);
+		if (frame == null || !frame.resumed || frame.continuing)
+			return null;
+		frame.continuing = true;
+		return frame;
+	}
+
+	/**
+	 * Detaches a frame from the current thread once its continued execution stops,
+	 * unless it was already detached, e.g. by another delay.
+	 *
+	 * @param frame the frame returned by {@link #startContinuation(Event)}, if any.
+	 */
+	static void endContinuation(@Nullable ExecutionFrame frame) {
+		if (frame != null)
+			frame.exit();
+	}
+
+	/**
+	 * @return the event this frame executes.
+	 */
+	public Event getEvent() {
+		return event;
+	}
+
+	/**
+	 * @return whether the execution of this frame has been continued after a delay.
+	 * @see ch.njol.skript.effects.Delay#isDelayed(Event)
+	 */
+	public boolean isDelayed() {
+		return delayed;
+	}
+
+	/**
+	 * Marks the execution of this frame as delayed.
+	 * @see ch.njol.skript.effects.Delay#addDelayedEvent(Event)
+	 */
+	public void setDelayed() {
+		delayed = true;
+	}
+
+	/**
+	 * @return the local variables of this frame. Only to be used by {@link Variables}.
+	 */
+	@ApiStatus.Internal
+	public @Nullable Object getLocals() {
+		return locals;
+	}
+
+	/**
+	 * @param locals the new local variables of this frame. Only to be used by {@link Variables}.
+	 */
+	@ApiStatus.Internal
+	public void setLocals(@Nullable Object locals) {
+		this.locals = locals;
+	}
+
+	private @Nullable Object getSlot(int index) {
+		return index < slots.length ? slots[index] : null;
+	}
+
+	private void setSlot(int index, @Nullable Object value) {
+		if (index >= slots.length) {
+			if (value == null)
+				return;
+			slots = Arrays.copyOf(slots, Math.max(index + 1, slots.length * 2));
+		}
+		slots[index] = value;
+	}
+
+	/**
+	 * Creates a new slot for the structure that is currently being parsed.
+	 * Slots should be created while a syntax element is initialised, and stored in a field of it.
+	 *
+	 * @return a new slot of the frames executing the current structure.
+	 * @param <T> the type of the values stored in the slot.
+	 */
+	public static <T> Slot<T> newSlot() {
+		ParserInstance parser = ParserInstance.get();
+		Structure structure = parser.isActive() ? parser.getCurrentStructure() : null;
+		return new Slot<>(structure != null ? parser.getData(SlotData.class).nextIndex(structure) : -1);
+	}
+
+	/**
+	 * A value stored separately for every execution of a syntax element.
+	 * The value is stored in the {@link ExecutionFrame} of the event if it has one,
+	 * which is the case for all triggers executed by Skript.
+	 * Otherwise, e.g. if the element was created outside a structure or is executed by an addon without a frame,
+	 * it is stored in a map keyed by the event.
+	 *
+	 * @param <T> the type of the stored values.
+	 */
+	public static final class Slot<T> {
+
+		/**
+		 * The index of this slot in the frames, or -1 if values are always stored in {@link #fallback}.
+		 */
+		private final int index;
+
+		private final Map<Event, T> fallback = Collections.synchronizedMap(new WeakHashMap<>());
+
+		private Slot(int index) {
+			this.index = index;
+		}
+
+		/**
+		 * @param event the event being executed.
+		 * @return the value of this slot for the given event, or null if it has no value.
+		 */
+		@SuppressWarnings("unchecked")
+		public @Nullable T get(Event event) {
+			ExecutionFrame frame = index != -1 ? ExecutionFrame.get(event) : null;
+			if (frame != null)
+				return (T) frame.getSlot(index);
+			return fallback.get(event);
+		}
+
+		/**
+		 * @param event the event being executed.
+		 * @param value the new value of this slot for the given event, or null to remove its value.
+		 */
+		public void set(Event event, @Nullable T value) {
+			ExecutionFrame frame = index != -1 ? ExecutionFrame.get(event) : null;
+			if (frame != null) {
+				frame.setSlot(index, value);
+			} else if (value != null) {
+				fallback.put(event, value);
+			} else {
+				fallback.remove(event);
+			}
+		}
+
+		/**
+		 * Removes the value of this slot for the given event.
+		 *
+		 * @param event the event being executed.
+		 * @return the removed value, or null if the slot had no value.
+		 */
+		@SuppressWarnings("unchecked")
+		public @Nullable T remove(Event event) {
+			ExecutionFrame frame = index != -1 ? ExecutionFrame.get(event) : null;
+			if (frame != null) {
+				T value = (T) frame.getSlot(index);
+				frame.setSlot(index, null);
+				return value;
+			}
+			return fallback.remove(event);
+		}
+
+	}
+
+	/**
+	 * Counts the slots created for each structure.
+	 */
+	private static final class SlotData extends ParserInstance.Data {
+
+		private final Map<Structure, Integer> slotCounts = new WeakHashMap<>();
+
+		private SlotData(ParserInstance parserInstance) {
+			super(parserInstance);
+		}
+
+		private int nextIndex(Structure structure) {
+			return slotCounts.merge(structure, 1, Integer::sum) - 1;
+		}
+
+	}
+
+}
@@ -19,6 +19,7 @@ import org.jetbrains.annotations.Nullable;
 import org.skriptlang.skript.lang.converter.Converter;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -81,6 +82,22 @@ public interface Expression<T> extends SyntaxElement, Debuggable, Loopable<T>, S
 	 */
 	T[] getAll(Event event);
 
+	/**
+	 * Passes each value of this expression to the given action, i.e. the same values as {@link #getArray(Event)} in the same order.
+	 * Unlike {@link #getArray(Event)}, implementations can pass the values without copying them into a new array,
+	 * which makes this the preferred way for effects to evaluate an expression whose values are only used once.
+	 * <p>
+	 * The action must not change this expression's values.
+	 * Do not use this in conditions, use {@link #check(Event, Predicate, boolean)} instead.
+	 *
+	 * @param event The event
+	 * @param action The action to pass each non-null value to
+	 */
+	default void forEach(Event event, Consumer<? super T> action) {
+		for (T value : getArray(event))
+			action.accept(value);
+	}
+
 	/**
 	 * Gets a non-null stream of this expression's values.
 	 *
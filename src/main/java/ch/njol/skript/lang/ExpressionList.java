@@ -13,6 +13,7 @@ import org.jetbrains.annotations.Nullable;
 import java.lang.reflect.Array;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -93,6 +94,25 @@ public class ExpressionList<T> implements Expression<T> {
 		return values.toArray((T[]) Array.newInstance(returnType, values.size()));
 	}
 
+	@Override
+	public void forEach(Event event, Consumer<? super T> action) {
+		if (!and) {
+			Expression<? extends T> expression = CollectionUtils.getRandom(expressions);
+			if (expression != null)
+				expression.forEach(event, action);
+			return;
+		}
+		for (Expression<? extends T> expr : expressions) {
+			if (expr.getAnd()) {
+				expr.forEach(event, action);
+			} else {
+				// like getAll, all values of an 'or' expression are part of this list, not just a random one
+				for (T value : expr.getAll(event))
+					action.accept(value);
+			}
+		}
+	}
+
 	@Override
 	public @Nullable Iterator<? extends T> iterator(Event event) {
 		if (!and) {
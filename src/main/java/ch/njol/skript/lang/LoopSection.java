@@ -13,16 +13,35 @@ import java.util.WeakHashMap;
  */
 public abstract class LoopSection extends Section implements SyntaxElement, Debuggable, SectionExitHandler {
 
+	/**
+	 * @deprecated Loop counters are stored in the {@link ExecutionFrame} of the event.
+	 * Use {@link #getLoopCounter(Event)} and {@link #incrementLoopCounter(Event)} instead.
+	 */
+	@Deprecated(since = "2.15", forRemoval = true)
 	protected final transient Map<Event, Long> currentLoopCounter = new WeakHashMap<>();
 
+	private final ExecutionFrame.Slot<Long> loopCounter = ExecutionFrame.newSlot();
+
 	/**
 	 * @param event The event where the loop is used to return its loop iterations
 	 * @return The loop iteration number
 	 */
 	public long getLoopCounter(Event event) {
+		Long counter = loopCounter.get(event);
+		if (counter != null)
+			return counter;
 		return currentLoopCounter.getOrDefault(event, 1L);
 	}
 
+	/**
+	 * Increments the loop iteration number, called when the loop starts a new iteration.
+	 * @param event The event where the loop is used
+	 */
+	protected void incrementLoopCounter(Event event) {
+		Long counter = loopCounter.get(event);
+		loopCounter.set(event, counter != null ? counter + 1 : 1L);
+	}
+
 	/**
 	 * @return The next {@link TriggerItem} after the loop
 	 */
@@ -34,6 +53,7 @@ public abstract class LoopSection extends Section implements SyntaxElement, Debu
 	 */
 	@Override
 	public void exit(Event event) {
+		loopCounter.remove(event);
 		currentLoopCounter.remove(event);
 	}
 
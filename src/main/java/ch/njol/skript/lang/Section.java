@@ -195,7 +195,7 @@ public abstract class Section extends TriggerSection implements SyntaxElement, S
 	public static Section parse(String expr, @Nullable String defaultError, SectionNode sectionNode, List<TriggerItem> triggerItems) {
 		SectionContext sectionContext = ParserInstance.get().getData(SectionContext.class);
 		return sectionContext.modify(sectionNode, triggerItems, () -> {
-			var iterator = Skript.instance().syntaxRegistry().syntaxes(org.skriptlang.skript.registration.SyntaxRegistry.SECTION).iterator();
+			var iterator = Skript.instance().syntaxRegistry().candidates(org.skriptlang.skript.registration.SyntaxRegistry.SECTION, expr).iterator();
 			//noinspection unchecked,rawtypes
 			return (Section) SkriptParser.parse(expr, (Iterator) iterator, defaultError);
 		});
@@ -22,6 +22,7 @@ import org.skriptlang.skript.lang.entry.EntryContainer;
 import org.skriptlang.skript.lang.script.Script;
 import org.skriptlang.skript.lang.structure.Structure;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 
@@ -144,6 +145,19 @@ public abstract class SkriptEvent extends Structure {
 		return true;
 	}
 
+	/**
+	 * The default implementation of {@link #load()} only parses the trigger, which is registered in {@link #postLoad()},
+	 *  so events that do not override {@link #load()} can be loaded in parallel.
+	 */
+	@Override
+	public boolean supportsParallelLoading() {
+		try {
+			return getClass().getMethod("load").getDeclaringClass() == SkriptEvent.class;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
 	/**
 	 * This method handles the registration of this event with Skript and Bukkit.
 	 * Only override this method if you know what you are doing!
@@ -185,6 +199,36 @@ public abstract class SkriptEvent extends Structure {
 	 */
 	public abstract boolean check(Event event);
 
+	/**
+	 * Events that only match some values of a property of the Bukkit event, such as the material of a block or the type of an entity,
+	 * can expose that property as a discriminator, so that {@link SkriptEventHandler} only checks the triggers whose discriminators
+	 * contain the discriminator of a fired event.
+	 * <p>
+	 * An event overriding this method must also override {@link #getDiscriminator(Event)},
+	 * and {@link #check(Event)} may only return true if {@link #getDiscriminator(Event)} returns null
+	 * or a value contained in the returned collection.
+	 *
+	 * @return the discriminators of the Bukkit events this event can match,
+	 * 			or null if it can match any Bukkit event (the default).
+	 * 			An empty collection is treated like null.
+	 */
+	public @Nullable Collection<?> getDiscriminators() {
+		return null;
+	}
+
+	/**
+	 * Gets the discriminator of a fired Bukkit event. See {@link #getDiscriminators()}.
+	 * <p>
+	 * The handler only calls this method on one instance of each class, so it must not depend on the state of the instance.
+	 *
+	 * @param event a Bukkit event this event is registered for.
+	 * @return the discriminator of the given event, or null if it can't be determined,
+	 * 			in which case all triggers of this event are checked.
+	 */
+	public @Nullable Object getDiscriminator(Event event) {
+		return null;
+	}
+
 	/**
 	 * Script loader checks this before loading items in event. If false is
 	 * returned, they are not parsed and the event is not registered.
@@ -19,6 +19,7 @@ import ch.njol.skript.lang.parser.ExpressionParseCache;
 import ch.njol.skript.lang.parser.ParserInstance;
 import ch.njol.skript.lang.parser.ParsingStack;
 import ch.njol.skript.lang.simplification.Simplifiable;
+import ch.njol.skript.lang.simplification.SimplificationReport;
 import ch.njol.skript.lang.util.SimpleLiteral;
 import ch.njol.skript.localization.Language;
 import ch.njol.skript.localization.Message;
@@ -56,7 +57,6 @@ import org.skriptlang.skript.registration.SyntaxRegistry;
 import java.lang.reflect.Array;
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.regex.MatchResult;
@@ -315,6 +315,8 @@ public final class SkriptParser {
 				.ifPresent(warning -> Skript.warning(warning.error()));
 			if (error.get())
 				return null;
+			if (simplified != element && element instanceof Debuggable debuggable)
+				SimplificationReport.recordSimplification(debuggable, simplified);
 			return simplified;
 		}
 	}
@@ -474,7 +476,7 @@ public final class SkriptParser {
 		if (expr.startsWith("\"") && expr.length() != 1 && nextQuote(expr, 1) == expr.length() - 1) {
 			return VariableString.newInstance("" + expr.substring(1, expr.length() - 1));
 		} else {
-			var iterator = new CheckedIterator<>(Skript.instance().syntaxRegistry().syntaxes(SyntaxRegistry.EXPRESSION).iterator(), info -> {
+			var iterator = new CheckedIterator<>(Skript.instance().syntaxRegistry().candidates(SyntaxRegistry.EXPRESSION, expr).iterator(), info -> {
 				if (info == null || info.returnType() == Object.class)
 					return true;
 				for (Class<?> returnType : types) {
@@ -1546,10 +1548,8 @@ public final class SkriptParser {
 		return -1;
 	}
 
-	private static final Map<String, SkriptPattern> patterns = new ConcurrentHashMap<>();
-
 	private @Nullable ParseResult parse_i(String pattern) {
-		SkriptPattern skriptPattern = patterns.computeIfAbsent(pattern, PatternCompiler::compile);
+		SkriptPattern skriptPattern = PatternCompiler.compileCached(pattern);
 		ch.njol.skript.patterns.MatchResult matchResult = skriptPattern.match(expr, flags, context);
 		if (matchResult == null)
 			return null;
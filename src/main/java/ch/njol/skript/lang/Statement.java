@@ -1,12 +1,15 @@
 package ch.njol.skript.lang;
 
 import ch.njol.skript.Skript;
+import ch.njol.skript.config.Node;
 import ch.njol.skript.config.SectionNode;
 import ch.njol.skript.lang.function.EffFunctionCall;
+import ch.njol.skript.lang.parser.ParseCache;
 import ch.njol.skript.lang.parser.ParserInstance;
 import ch.njol.skript.log.ParseLogHandler;
 import ch.njol.skript.log.SkriptLogger;
 import org.jetbrains.annotations.Nullable;
+import org.skriptlang.skript.lang.script.Script;
 
 import java.util.Iterator;
 import java.util.List;
@@ -61,22 +64,30 @@ public abstract class Statement extends TriggerItem implements SyntaxElement {
 			log.clear();
 
 			Statement statement;
-			var iterator = Skript.instance().syntaxRegistry().syntaxes(org.skriptlang.skript.registration.SyntaxRegistry.STATEMENT).iterator();
-			if (node != null) {
-				var wrappedIterator = new Iterator<>() {
-					@Override
-					public boolean hasNext() {
-						return iterator.hasNext();
-					}
+			ParserInstance parser = ParserInstance.get();
+			Script script = parser.isActive() ? parser.getCurrentScript() : null;
+			Node currentNode = parser.getNode();
+			var candidates = Skript.instance().syntaxRegistry().candidates(org.skriptlang.skript.registration.SyntaxRegistry.STATEMENT, input);
+			var iterator = ParseCache.order(script, currentNode, input, candidates).iterator();
+			var wrappedIterator = new Iterator<>() {
+				// the info that was tried last, which is the one that was parsed if parsing succeeds
+				org.skriptlang.skript.registration.SyntaxInfo<? extends Statement> last;
+
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
 
-					@Override
-					public org.skriptlang.skript.registration.SyntaxInfo<? extends Statement> next() {
-						// it is possible that the section would have been claimed during the attempt to parse the previous info
-						// as a result, we need to "unclaim" it
+				@Override
+				public org.skriptlang.skript.registration.SyntaxInfo<? extends Statement> next() {
+					// it is possible that the section would have been claimed during the attempt to parse the previous info
+					// as a result, we need to "unclaim" it
+					if (node != null)
 						sectionContext.owner = null;
-						return iterator.next();
-					}
-				};
+					return last = iterator.next();
+				}
+			};
+			if (node != null) {
 				statement = sectionContext.modify(node, items, () -> {
 						//noinspection unchecked,rawtypes
 						Statement parsed = (Statement) SkriptParser.parse(input, (Iterator) wrappedIterator, defaultError);
@@ -89,10 +100,13 @@ public abstract class Statement extends TriggerItem implements SyntaxElement {
 			} else {
 				statement = sectionContext.modify(null, null, () -> {
 					//noinspection unchecked,rawtypes
-					return (Statement) SkriptParser.parse(input, (Iterator) iterator, defaultError);
+					return (Statement) SkriptParser.parse(input, (Iterator) wrappedIterator, defaultError);
 				});
 			}
 
+			if (statement != null && wrappedIterator.last != null)
+				ParseCache.record(script, currentNode, input, wrappedIterator.last);
+
 			if (statement != null) {
 				log.printLog();
 				return statement;
@@ -16,6 +16,8 @@ public class Trigger extends TriggerSection {
 	private int line = -1; // -1 is default: it means there is no line number available
 	private String debugLabel;
 
+	final TriggerCompiler.State compilerState = new TriggerCompiler.State();
+
 	public Trigger(@Nullable Script script, String name, SkriptEvent event, List<TriggerItem> items) {
 		super(items);
 		this.script = script;
@@ -30,10 +32,17 @@ public class Trigger extends TriggerSection {
 	 * @return false if an exception occurred.
 	 */
 	public boolean execute(Event event) {
-		boolean success = TriggerItem.walk(this, event);
-
-		// Clear local variables
-		Variables.removeLocals(event);
+		boolean success;
+		ExecutionFrame frame = ExecutionFrame.enter(event);
+		try {
+			success = TriggerCompiler.isEnabled() ? TriggerCompiler.execute(this, event) : TriggerItem.walk(this, event);
+		} finally {
+			frame.exit();
+		}
+
+		// Clear local variables, unless an enclosing execution of the same event still uses them
+		if (ExecutionFrame.get(event) == null)
+			Variables.removeLocals(event);
 		/*
 		 * Local variables can be used in delayed effects by backing reference
 		 * of VariablesMap up. Basically:
@@ -44,6 +53,9 @@ public class Trigger extends TriggerSection {
 		 *
 		 * Variables.setLocalVariables(event, localVars);
 		 *
+		 * This also detaches and restores the ExecutionFrame of the event,
+		 * which holds the state of its loops and sections.
+		 *
 		 * See Delay effect for reference.
 		 */
 
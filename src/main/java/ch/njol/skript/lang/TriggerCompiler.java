@@ -0,0 +1,348 @@
+package ch.njol.skript.lang;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.Nullable;
+import org.skriptlang.skript.lang.script.Script;
+
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassHierarchyResolver;
+import java.lang.classfile.Label;
+import java.lang.classfile.TypeKind;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDescs;
+import java.lang.constant.DynamicConstantDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiles the items of frequently executed {@link Trigger}s to a hidden class,
+ * if enabled with {@link SkriptConfig#compileHotTriggers}.
+ * <p>
+ * Only the leading run of plain {@link Effect}s and {@link Condition}s of a trigger is compiled,
+ * i.e. items which do not override {@link TriggerItem#walk(Event)}.
+ * The generated code calls {@link Effect#execute(Event)} and {@link Condition#check(Event)} directly on constants,
+ * which lets the JVM inline them, and hands execution back to the interpreter at the first item it could not compile.
+ * <p>
+ * Bytecode is generated with the class-file API, which is only available on Java 24 and newer.
+ * On older versions, while debugging, or if a trigger cannot be compiled, triggers are simply interpreted.
+ */
+final class TriggerCompiler {
+
+	private TriggerCompiler() { }
+
+	/**
+	 * The amount of times a trigger has to be executed before it is compiled.
+	 */
+	private static final int THRESHOLD = 1000;
+
+	/**
+	 * The amount of executions timed before and after compilation to report the speedup.
+	 */
+	private static final int SAMPLES = 100;
+
+	/**
+	 * The maximum amount of items compiled into one method, to keep it small enough to be optimized by the JIT.
+	 */
+	private static final int MAX_ITEMS = 512;
+
+	private static final boolean SUPPORTED = Runtime.version().feature() >= 24;
+
+	/**
+	 * The compiled items of a trigger.
+	 */
+	public interface CompiledSequence {
+
+		/**
+		 * Runs the compiled items.
+		 * @param event The event to run the items with
+		 * @return True if all items were run, or false if a condition failed
+		 * @see TriggerItem#run(Event)
+		 */
+		boolean run(Event event);
+
+	}
+
+	/**
+	 * The compilation state of a single trigger. Triggers of asynchronous events may be executed by several threads at once.
+	 */
+	static final class State {
+
+		private final AtomicInteger executions = new AtomicInteger();
+		private volatile boolean done;
+		private volatile @Nullable CompiledTriggerItem compiled;
+
+		private final AtomicInteger interpretedSamples = new AtomicInteger();
+		private final AtomicInteger compiledSamples = new AtomicInteger();
+		private final AtomicLong interpretedNanos = new AtomicLong();
+		private final AtomicLong compiledNanos = new AtomicLong();
+
+	}
+
+	/**
+	 * @return Whether triggers should be compiled once they are hot.
+	 */
+	static boolean isEnabled() {
+		return SUPPORTED && SkriptConfig.compileHotTriggers.value();
+	}
+
+	/**
+	 * Executes the given trigger, using and creating its compiled form where possible.
+	 * @param trigger The trigger to execute
+	 * @param event The event to execute the trigger with
+	 * @return false if an exception occurred
+	 * @see TriggerItem#walk(TriggerItem, Event)
+	 */
+	static boolean execute(Trigger trigger, Event event) {
+		if (Skript.debug())
+			return TriggerItem.walk(trigger, event);
+
+		State state = trigger.compilerState;
+		CompiledTriggerItem compiled = state.compiled;
+		if (compiled != null) {
+			if (state.compiledSamples.get() >= SAMPLES)
+				return TriggerItem.walk(compiled, event);
+			long start = System.nanoTime();
+			boolean success = TriggerItem.walk(compiled, event);
+			// the time is added before the sample is counted, so all samples are included once the last one is counted
+			state.compiledNanos.addAndGet(System.nanoTime() - start);
+			if (state.compiledSamples.incrementAndGet() == SAMPLES)
+				report(trigger, state);
+			return success;
+		}
+
+		if (state.done)
+			return TriggerItem.walk(trigger, event);
+
+		int executions = state.executions.incrementAndGet();
+		if (executions <= THRESHOLD - SAMPLES)
+			return TriggerItem.walk(trigger, event);
+
+		long start = System.nanoTime();
+		boolean success = TriggerItem.walk(trigger, event);
+		state.interpretedNanos.addAndGet(System.nanoTime() - start);
+		state.interpretedSamples.incrementAndGet();
+		if (executions >= THRESHOLD)
+			compile(trigger, state);
+		return success;
+	}
+
+	private static synchronized void compile(Trigger trigger, State state) {
+		if (state.done)
+			return;
+		state.done = true;
+		state.compiled = compile(trigger);
+	}
+
+	/**
+	 * Compiles the leading items of the given trigger, regardless of how often it was executed.
+	 * @param trigger The trigger to compile
+	 * @return An item running the compiled items, followed by the first item that was not compiled,
+	 * 			or null if no items could be compiled
+	 */
+	static @Nullable CompiledTriggerItem compile(Trigger trigger) {
+		if (!SUPPORTED)
+			return null;
+		List<TriggerItem> items = new ArrayList<>();
+		TriggerItem item = trigger.first;
+		while (item != null && items.size() < MAX_ITEMS && item.getParent() == trigger && isCompilable(item)) {
+			items.add(item);
+			item = item.getNext();
+		}
+		if (items.isEmpty())
+			return null;
+
+		try {
+			CompiledSequence sequence = Generator.define(items);
+			return new CompiledTriggerItem(trigger, sequence, List.copyOf(items), item);
+		} catch (Exception | LinkageError e) {
+			Skript.warning("Failed to compile the trigger " + describe(trigger) + ", it will be interpreted instead: " + e);
+			return null;
+		}
+	}
+
+	private static boolean isCompilable(TriggerItem item) {
+		if (!(item instanceof Effect) && !(item instanceof Condition))
+			return false;
+		Class<?> type = item.getClass();
+		while (type != Effect.class && type != Condition.class) {
+			try {
+				type.getDeclaredMethod("walk", Event.class);
+				return false;
+			} catch (NoSuchMethodException ignored) { }
+			type = type.getSuperclass();
+		}
+		return true;
+	}
+
+	private static void report(Trigger trigger, State state) {
+		CompiledTriggerItem compiled = state.compiled;
+		assert compiled != null;
+		double interpreted = (double) state.interpretedNanos.get() / Math.max(1, state.interpretedSamples.get());
+		double compiledAverage = (double) state.compiledNanos.get() / SAMPLES;
+		if (Skript.logNormal()) {
+			Skript.info(String.format(Locale.ENGLISH, "Compiled %d items of the trigger %s: %.3f ms -> %.3f ms per execution (%.2fx)",
+				compiled.items.size(), describe(trigger),
+				interpreted / 1_000_000, compiledAverage / 1_000_000, interpreted / Math.max(1, compiledAverage)));
+		}
+	}
+
+	private static String describe(Trigger trigger) {
+		Script script = trigger.getScript();
+		return "'" + trigger.getDebugLabel() + "'" + (script == null ? "" : " in " + script.nameAndPath() + " (line " + trigger.getLineNumber() + ")");
+	}
+
+	/**
+	 * Thrown by a {@link CompiledSequence} if one of its items threw an exception,
+	 * so that the exception can be reported for that item like the interpreter would.
+	 */
+	static final class ItemException extends RuntimeException {
+
+		private final int index;
+
+		/**
+		 * Called by the generated code.
+		 * @param cause The exception thrown by the item
+		 * @param index The index of the item in the compiled sequence
+		 */
+		ItemException(Exception cause, int index) {
+			super(null, cause, false, false);
+			this.index = index;
+		}
+
+	}
+
+	/**
+	 * Runs a {@link CompiledSequence} as part of a trigger,
+	 * so that its errors are handled by {@link TriggerItem#walk(TriggerItem, Event)}.
+	 * Like any other item, it is followed by its next item if it was run, i.e. the first item that was not compiled,
+	 * and by the item following the trigger if a condition failed.
+	 */
+	static final class CompiledTriggerItem extends TriggerItem {
+
+		private final CompiledSequence sequence;
+		private final List<TriggerItem> items;
+
+		CompiledTriggerItem(Trigger trigger, CompiledSequence sequence, List<TriggerItem> items, @Nullable TriggerItem next) {
+			super(trigger);
+			this.sequence = sequence;
+			this.items = items;
+			setNext(next);
+		}
+
+		@Override
+		protected boolean run(Event event) {
+			try {
+				return sequence.run(event);
+			} catch (ItemException e) {
+				Exception cause = (Exception) e.getCause();
+				if (cause.getStackTrace().length == 0) // already reported, and neither is this exception
+					throw e;
+				// reported for the item that failed, so its line is shown
+				throw Skript.exception(cause, items.get(e.index));
+			}
+		}
+
+		@Override
+		public String toString(@Nullable Event event, boolean debug) {
+			assert parent != null;
+			return "compiled " + parent.toString(event, debug);
+		}
+
+	}
+
+	/**
+	 * Generates the hidden classes. This class is only loaded on Java 24 and newer.
+	 */
+	private static final class Generator {
+
+		private static final ClassDesc CD_EVENT = ClassDesc.of(Event.class.getName());
+		private static final ClassDesc CD_EFFECT = ClassDesc.of(Effect.class.getName());
+		private static final ClassDesc CD_CONDITION = ClassDesc.of(Condition.class.getName());
+		private static final ClassDesc CD_SEQUENCE = ClassDesc.of(CompiledSequence.class.getName());
+		private static final ClassDesc CD_ITEM_EXCEPTION = ClassDesc.of(ItemException.class.getName());
+
+		private static final MethodTypeDesc MTD_RUN = MethodTypeDesc.of(ConstantDescs.CD_boolean, CD_EVENT);
+		private static final MethodTypeDesc MTD_EXECUTE = MethodTypeDesc.of(ConstantDescs.CD_void, CD_EVENT);
+		private static final MethodTypeDesc MTD_CHECK = MethodTypeDesc.of(ConstantDescs.CD_boolean, CD_EVENT);
+		private static final MethodTypeDesc MTD_ITEM_EXCEPTION = MethodTypeDesc.of(ConstantDescs.CD_void, ConstantDescs.CD_Exception, ConstantDescs.CD_int);
+
+		/**
+		 * @param items The items to compile
+		 * @return An instance of the new hidden class
+		 */
+		static CompiledSequence define(List<TriggerItem> items) throws Exception {
+			ClassDesc self = ClassDesc.of(TriggerCompiler.class.getPackageName(), "CompiledTrigger");
+			byte[] bytes = ClassFile.of(ClassFile.ClassHierarchyResolverOption.of(
+					ClassHierarchyResolver.ofClassLoading(TriggerCompiler.class.getClassLoader())))
+				.build(self, builder -> builder
+					.withFlags(ClassFile.ACC_FINAL | ClassFile.ACC_SYNTHETIC)
+					.withSuperclass(ConstantDescs.CD_Object)
+					.withInterfaceSymbols(CD_SEQUENCE)
+					.withMethodBody(ConstantDescs.INIT_NAME, ConstantDescs.MTD_void, ClassFile.ACC_PUBLIC, code -> code
+						.aload(0)
+						.invokespecial(ConstantDescs.CD_Object, ConstantDescs.INIT_NAME, ConstantDescs.MTD_void)
+						.return_())
+					.withMethodBody("run", MTD_RUN, ClassFile.ACC_PUBLIC, code -> {
+						// the index of the item being run, to report an exception for that item
+						int index = code.allocateLocal(TypeKind.INT);
+						code.iconst_0()
+							.istore(index)
+							.trying(block -> {
+								for (int i = 0; i < items.size(); i++) {
+									block.loadConstant(i)
+										.istore(index);
+									if (items.get(i) instanceof Condition) {
+										Label passed = block.newLabel();
+										block.ldc(classDataAt(CD_CONDITION, i))
+											.aload(1)
+											.invokevirtual(CD_CONDITION, "check", MTD_CHECK)
+											.ifne(passed)
+											.iconst_0()
+											.ireturn()
+											.labelBinding(passed);
+									} else {
+										block.ldc(classDataAt(CD_EFFECT, i))
+											.aload(1)
+											.invokevirtual(CD_EFFECT, "execute", MTD_EXECUTE);
+									}
+								}
+								block.iconst_1()
+									.ireturn();
+							}, catches -> catches.catching(ConstantDescs.CD_Exception, handler -> {
+								int exception = handler.allocateLocal(TypeKind.REFERENCE);
+								handler.astore(exception)
+									.new_(CD_ITEM_EXCEPTION)
+									.dup()
+									.aload(exception)
+									.iload(index)
+									.invokespecial(CD_ITEM_EXCEPTION, ConstantDescs.INIT_NAME, MTD_ITEM_EXCEPTION)
+									.athrow();
+							}));
+					}));
+
+			// the items are passed as class data, from which the generated code loads them as constants
+			MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClassWithClassData(bytes, List.copyOf(items), true);
+			try {
+				return (CompiledSequence) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+			} catch (Exception | Error e) {
+				throw e;
+			} catch (Throwable throwable) {
+				throw new IllegalStateException(throwable);
+			}
+		}
+
+		private static DynamicConstantDesc<?> classDataAt(ClassDesc type, int index) {
+			return DynamicConstantDesc.ofNamed(ConstantDescs.BSM_CLASS_DATA_AT, ConstantDescs.DEFAULT_NAME, type, index);
+		}
+
+	}
+
+}
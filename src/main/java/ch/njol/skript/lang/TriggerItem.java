@@ -61,6 +61,15 @@ public abstract class TriggerItem implements Debuggable {
 	 * @return false if an exception occurred
 	 */
 	public static boolean walk(TriggerItem start, Event event) {
+		ExecutionFrame continued = ExecutionFrame.startContinuation(event);
+		try {
+			return walkItems(start, event);
+		} finally {
+			ExecutionFrame.endContinuation(continued);
+		}
+	}
+
+	private static boolean walkItems(TriggerItem start, Event event) {
 		TriggerItem triggerItem = start;
 		try {
 			while (triggerItem != null)
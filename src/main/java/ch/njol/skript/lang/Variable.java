@@ -15,7 +15,10 @@ import ch.njol.skript.structures.StructVariables.DefaultVariables;
 import ch.njol.skript.util.StringMode;
 import ch.njol.skript.util.Utils;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import org.skriptlang.skript.util.IndexTrackingTreeMap;
+import ch.njol.skript.variables.LocalVariableSlots;
 import ch.njol.skript.variables.Variables;
 import ch.njol.util.Kleenean;
 import ch.njol.util.Pair;
@@ -62,6 +65,11 @@ public class Variable<T> implements Expression<T>, KeyReceiverExpression<T>, Key
 	 */
 	private final VariableString name;
 
+	/**
+	 * The name of this variable, split into segments when parsed.
+	 */
+	private final VariablePath path;
+
 	private final Class<T> superType;
 	private final Class<? extends T>[] types;
 
@@ -70,7 +78,17 @@ public class Variable<T> implements Expression<T>, KeyReceiverExpression<T>, Key
 	private final boolean list;
 
 	private final @Nullable Variable<?> source;
-	private final Map<Event, String[]> cache = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * The slots of the structure this variable was parsed in, if it is a local variable with a constant name that has a slot.
+	 */
+	private final @Nullable LocalVariableSlots localSlots;
+	private final int localSlot;
+	private final @Nullable String localSlotName;
+	/**
+	 * The keys of the values last returned by {@link #getArray(Event)}, until they are requested by {@link #getArrayKeys(Event)}.
+	 */
+	private final ExecutionFrame.Slot<String[]> cache = ExecutionFrame.newSlot();
 
 	private ListProvider listProvider = new ShallowListProvider();
 
@@ -89,11 +107,23 @@ public class Variable<T> implements Expression<T>, KeyReceiverExpression<T>, Key
 		this.list = list;
 
 		this.name = name;
+		this.path = VariablePath.compile(name);
 
 		this.types = types;
 		this.superType = (Class<T>) Classes.getSuperClassInfo(types).getC();
 
 		this.source = source;
+
+		String slotName = local && !list && !ephemeral && name.isSimple() ? name.toString(null) : null;
+		LocalVariableSlots localSlots = null;
+		if (slotName != null && !slotName.contains(SEPARATOR) && !slotName.endsWith("*")) {
+			if (Variables.caseInsensitiveVariables)
+				slotName = slotName.toLowerCase(Locale.ENGLISH);
+			localSlots = LocalVariableSlots.current();
+		}
+		this.localSlots = localSlots;
+		this.localSlot = localSlots != null ? localSlots.slotOf(slotName) : -1;
+		this.localSlotName = localSlots != null ? slotName : null;
 	}
 
 	/**
@@ -343,6 +373,16 @@ public class Variable<T> implements Expression<T>, KeyReceiverExpression<T>, Key
 	 */
 	public @Nullable Object getRaw(Event event) {
 		DefaultVariables data = script == null ? null : script.getData(DefaultVariables.class);
+		if (localSlots != null && data == null) {
+			assert localSlotName != null;
+			return convertIfOldPlayer(localSlotName, true, event, Variables.getLocalVariable(event, localSlots, localSlot, localSlotName));
+		}
+		if (list && data == null) {
+			// without default variables, lists can be looked up by their path without rendering the whole name
+			String[] path = this.path.resolve(event);
+			if (path != null)
+				return Variables.getVariable(path, event, local);
+		}
 		if (data != null)
 			data.enterScope();
 		try {
@@ -442,17 +482,44 @@ public class Variable<T> implements Expression<T>, KeyReceiverExpression<T>, Key
 
 		KeyedValue.UnzippedKeyValues<T> unzipped = KeyedValue.unzip(mappedValues);
 
-		cache.put(event, unzipped.keys().toArray(new String[0]));
+		cache.set(event, unzipped.keys().toArray(new String[0]));
 		//noinspection unchecked
 		return unzipped.values().toArray((T[]) Array.newInstance(superType, 0));
 	}
 
+	/**
+	 * @return The segments of this variable's name, or null if the name has to be rendered as a whole.
+	 */
+	private String @Nullable [] resolvePath(Event event) {
+		// rendering the name records the types of its expressions for default variables
+		if (script != null && script.getData(DefaultVariables.class) != null)
+			return null;
+		return path.resolve(event);
+	}
+
 	private void set(Event event, @Nullable Object value) {
+		if (localSlots != null) {
+			assert localSlotName != null;
+			Variables.setLocalVariable(event, localSlots, localSlot, localSlotName, value);
+			return;
+		}
+		String[] path = resolvePath(event);
+		if (path != null) {
+			Variables.setVariable(path, value, event, local);
+			return;
+		}
 		Variables.setVariable(name.toString(event), value, event, local);
 	}
 
 	private void setIndex(Event event, String index, @Nullable Object value) {
 		assert list;
+		String[] path = resolvePath(event);
+		if (path != null && !index.contains(SEPARATOR)) {
+			String[] indexPath = Arrays.copyOf(path, path.length);
+			indexPath[indexPath.length - 1] = index;
+			Variables.setVariable(indexPath, value, event, local);
+			return;
+		}
 		String name = this.name.toString(event);
 		assert name.endsWith(SEPARATOR + "*") : name + "; " + this.name;
 		Variables.setVariable(name.substring(0, name.length() - 1) + index, value, event, local);
@@ -704,9 +771,10 @@ public class Variable<T> implements Expression<T>, KeyReceiverExpression<T>, Key
 	public @NotNull String @NotNull [] getArrayKeys(Event event) throws SkriptAPIException {
 		if (!list)
 			throw new SkriptAPIException("Invalid call to getArrayKeys on non-list");
-		if (!cache.containsKey(event))
+		String[] keys = cache.remove(event);
+		if (keys == null)
 			throw new IllegalStateException();
-		return cache.remove(event);
+		return keys;
 	}
 
 	@Override
@@ -814,6 +882,13 @@ public class Variable<T> implements Expression<T>, KeyReceiverExpression<T>, Key
 		return true;
 	}
 
+	/**
+	 * @return The name of this list variable without the trailing {@code *}, only rendered when first needed.
+	 */
+	private Supplier<String> listPrefix(Event event) {
+		return Suppliers.memoize(() -> StringUtils.substring(name.toString(event), 0, -1));
+	}
+
 	private interface ListProvider {
 
 		KeyedValue<?>[] getValues(Event event);
@@ -832,7 +907,7 @@ public class Variable<T> implements Expression<T>, KeyReceiverExpression<T>, Key
 				return new KeyedValue[0];
 
 			List<KeyedValue<?>> keyedValues = new ArrayList<>();
-			String name = StringUtils.substring(Variable.this.name.toString(event), 0, -1);
+			Supplier<String> name = listPrefix(event);
 			//noinspection unchecked
 			for (Entry<String, ?> variable : ((Map<String, ?>) rawValue).entrySet()) {
 				if (variable.getKey() == null || variable.getValue() == null)
@@ -845,7 +920,8 @@ public class Variable<T> implements Expression<T>, KeyReceiverExpression<T>, Key
 					value = variable.getValue();
 				}
 
-				value = convertIfOldPlayer(name + variable.getKey(), local, event, value);
+				if (value instanceof Player)
+					value = convertIfOldPlayer(name.get() + variable.getKey(), local, event, value);
 				if (value != null)
 					keyedValues.add(new KeyedValue<>(variable.getKey(), value));
 			}
@@ -867,20 +943,19 @@ public class Variable<T> implements Expression<T>, KeyReceiverExpression<T>, Key
 				return new KeyedValue[0];
 
 			List<KeyedValue<?>> keyedValues = new ArrayList<>();
-			String name = StringUtils.substring(Variable.this.name.toString(event), 0, -1);
+			Supplier<String> name = listPrefix(event);
 			getValuesRecursive(event, (Map<?, ?>) rawValue, name, "", keyedValues);
 
 			return keyedValues.toArray(new KeyedValue[0]);
 		}
 
-		private void getValuesRecursive(Event event, Map<?, ?> variable, String root, String prefix, List<KeyedValue<?>> values) {
+		private void getValuesRecursive(Event event, Map<?, ?> variable, Supplier<String> root, String prefix, List<KeyedValue<?>> values) {
 			//noinspection unchecked
 			for (Entry<String, ?> entry : ((Map<String, ?>) variable).entrySet()) {
 				if (entry.getKey() == null || entry.getValue() == null)
 					continue;
 
 				String relativeKey = prefix + entry.getKey();
-				String absoluteKey = root + relativeKey;
 				Object value;
 				if (entry.getValue() instanceof Map<?, ?> sublist) {
 					getValuesRecursive(event, (Map<?, ?>) entry.getValue(), root, relativeKey + SEPARATOR, values);
@@ -889,7 +964,8 @@ public class Variable<T> implements Expression<T>, KeyReceiverExpression<T>, Key
 					value = entry.getValue();
 				}
 
-				value = convertIfOldPlayer(absoluteKey, local, event, value);
+				if (value instanceof Player)
+					value = convertIfOldPlayer(root.get() + relativeKey, local, event, value);
 				if (value != null)
 					values.add(new KeyedValue<>(relativeKey, value));
 			}
@@ -0,0 +1,125 @@
+package ch.njol.skript.lang;
+
+import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.util.StringMode;
+import ch.njol.skript.variables.Variables;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The name of a {@link Variable}, split into its segments when the variable is parsed.
+ * <p>
+ * Segments without expressions are constants, so resolving the path only renders the segments containing expressions,
+ * instead of rendering the whole name with {@link VariableString#toString(Event)}
+ * and splitting it again with {@link Variables#splitVariableName(String)}.
+ */
+final class VariablePath {
+
+	/**
+	 * The segments of the name, each being either a constant {@link String}
+	 * or an {@code Object[]} of strings and expressions.
+	 */
+	private final Object[] segments;
+
+	/**
+	 * The resolved segments if they are all constant, which is then returned by every call to {@link #resolve(Event)}.
+	 */
+	private final String @Nullable [] constant;
+
+	private VariablePath(Object[] segments) {
+		this.segments = segments;
+		for (Object segment : segments) {
+			if (!(segment instanceof String)) {
+				this.constant = null;
+				return;
+			}
+		}
+		String[] constant = new String[segments.length];
+		for (int i = 0; i < segments.length; i++)
+			constant[i] = (String) segments[i];
+		this.constant = constant;
+	}
+
+	/**
+	 * @param name The name of a variable.
+	 * @return The path of the given name.
+	 */
+	static VariablePath compile(VariableString name) {
+		Object[] parts = name.getParts();
+		if (parts == null)
+			return new VariablePath(Variables.splitVariableName(name.toString(null)));
+
+		List<Object> segments = new ArrayList<>();
+		List<Object> current = new ArrayList<>();
+		for (Object part : parts) {
+			if (part instanceof Expression<?>) {
+				current.add(part);
+				continue;
+			}
+			String[] split = Variables.splitVariableName(String.valueOf(part));
+			current.add(split[0]);
+			for (int i = 1; i < split.length; i++) {
+				segments.add(toSegment(current));
+				current.clear();
+				current.add(split[i]);
+			}
+		}
+		segments.add(toSegment(current));
+		return new VariablePath(segments.toArray());
+	}
+
+	private static Object toSegment(List<Object> parts) {
+		StringBuilder builder = new StringBuilder();
+		for (Object part : parts) {
+			if (part instanceof Expression<?>)
+				return parts.toArray();
+			builder.append(part);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Resolves the segments of this path, as {@link Variables#splitVariableName(String)} would split the rendered name.
+	 * <b>The returned array must not be modified.</b>
+	 *
+	 * @param event The event to evaluate the expressions of the name with.
+	 * @return The segments of the name, or null if an expression rendered to a string
+	 * 			that changes where the name is split, in which case the name has to be rendered as a whole.
+	 */
+	String @Nullable [] resolve(Event event) {
+		if (constant != null)
+			return constant;
+		String[] resolved = new String[segments.length];
+		for (int i = 0; i < segments.length; i++) {
+			Object segment = segments[i];
+			if (segment instanceof String string) {
+				resolved[i] = string;
+				continue;
+			}
+			String string = render((Object[]) segment, event);
+			// a separator from an expression, or a colon next to the following separator, would split the name elsewhere
+			if (string.contains(Variable.SEPARATOR) || (i < segments.length - 1 && string.endsWith(":")))
+				return null;
+			resolved[i] = string;
+		}
+		return resolved;
+	}
+
+	private static String render(Object[] parts, Event event) {
+		if (parts.length == 1)
+			return Classes.toString(((Expression<?>) parts[0]).getArray(event), true, StringMode.VARIABLE_NAME);
+		StringBuilder builder = new StringBuilder();
+		for (Object part : parts) {
+			if (part instanceof Expression<?> expression) {
+				builder.append(Classes.toString(expression.getArray(event), true, StringMode.VARIABLE_NAME));
+			} else {
+				builder.append(part);
+			}
+		}
+		return builder.toString();
+	}
+
+}
@@ -463,6 +463,13 @@ public class VariableString implements Expression<String> {
 		return isSimple;
 	}
 
+	/**
+	 * @return The constant strings and expressions this string consists of, or null if it is simple.
+	 */
+	Object @Nullable [] getParts() {
+		return strings;
+	}
+
 	public StringMode getMode() {
 		return mode;
 	}
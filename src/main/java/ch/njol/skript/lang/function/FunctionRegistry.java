@@ -629,6 +629,20 @@ public final class FunctionRegistry implements Registry<Function<?>> {
 		}
 	}
 
+	/**
+	 * Gets every global signature, including those of functions registered using Java.
+	 *
+	 * @return A set of all global signatures.
+	 */
+	public @Unmodifiable @NotNull Set<Signature<?>> getGlobalSignatures() {
+		Namespace global = namespaces.get(GLOBAL_NAMESPACE);
+		if (global == null)
+			return Set.of();
+		synchronized (global) {
+			return Set.copyOf(global.signatures.values());
+		}
+	}
+
 	/**
 	 * An identifier for a function namespace.
 	 */
@@ -89,7 +89,7 @@ public class Signature<T> implements org.skriptlang.skript.common.function.Signa
 			this.returns = getReturns(single, returnType.getC());
 		}
 		this.contract = contract;
-		this.calls = Collections.newSetFromMap(new WeakHashMap<>());
+		this.calls = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
 		this.originClassPath = "";
 	}
 
@@ -119,7 +119,7 @@ public class Signature<T> implements org.skriptlang.skript.common.function.Signa
 			this.single = true;
 		}
 		this.contract = contract;
-		this.calls = Collections.newSetFromMap(new WeakHashMap<>());
+		this.calls = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
 	}
 
 	public Signature(@Nullable String script, String name, Parameters parameters, Class<T> returnType, boolean local) {
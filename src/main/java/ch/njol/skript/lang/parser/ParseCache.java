@@ -0,0 +1,295 @@
+package ch.njol.skript.lang.parser;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptAddon;
+import ch.njol.skript.config.Node;
+import ch.njol.skript.lang.function.FunctionRegistry;
+import org.jetbrains.annotations.Nullable;
+import org.skriptlang.skript.lang.experiment.Experiment;
+import org.skriptlang.skript.lang.script.Script;
+import org.skriptlang.skript.registration.SyntaxInfo;
+import org.skriptlang.skript.registration.SyntaxRegistry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of which statement syntax each line of a script was parsed as, stored on disk between restarts.
+ * <p>
+ * When a script is parsed again while its content, Skript's version, the loaded addons, the experiments
+ *  and the registered syntaxes are unchanged, the syntax that matched a line before is tried first, instead of trying
+ *  all candidates in order until one matches. If it does not match anymore, all other candidates are tried as usual.
+ * Decisions are stored per line number, so a line is only ever parsed as the syntax that matched at the same position
+ *  of the same content, where the same earlier candidates failed to match.
+ * As candidates may also match depending on the global functions declared in other scripts,
+ *  the entries of a script are discarded as soon as its content or the signatures of the global functions change,
+ *  and the whole cache is discarded if anything else it depends on changes.
+ */
+public final class ParseCache {
+
+	private static final int VERSION = 3;
+
+	static volatile @Nullable ParseCache instance;
+
+	/**
+	 * Loads the cache from the given file, and enables it.
+	 * This must be called after all syntaxes have been registered.
+	 * @param file The file to load the cache from and save it to.
+	 */
+	public static void load(File file) {
+		ParseCache cache = new ParseCache(file, fingerprint());
+		try {
+			cache.read();
+		} catch (IOException e) {
+			Skript.warning("Could not read the parse cache, it will be rebuilt: " + e.getMessage());
+			cache.stored.clear();
+		}
+		instance = cache;
+	}
+
+	/**
+	 * Saves the cache, if it is enabled.
+	 */
+	public static void save() {
+		ParseCache cache = instance;
+		if (cache == null)
+			return;
+		try {
+			cache.write();
+		} catch (IOException e) {
+			Skript.warning("Could not save the parse cache: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Orders the candidates to parse a line as, such that the syntax it was parsed as before comes first.
+	 * @param script The script the line belongs to.
+	 * @param node The node of the line.
+	 * @param input The line.
+	 * @param candidates The syntaxes to parse the line as, in the order they are tried.
+	 * @return The candidates, possibly with one of them moved to the front.
+	 */
+	public static <I extends SyntaxInfo<?>> Collection<I> order(@Nullable Script script, @Nullable Node node, String input, Collection<I> candidates) {
+		ParseCache cache = instance;
+		if (cache == null || script == null || node == null)
+			return candidates;
+		ScriptEntry entry = cache.entry(script);
+		if (entry == null)
+			return candidates;
+		String type = entry.previous.get(key(node, input));
+		if (type == null)
+			return candidates;
+
+		I cached = null;
+		for (I candidate : candidates) {
+			if (candidate.type().getName().equals(type)) {
+				cached = candidate;
+				break;
+			}
+		}
+		if (cached == null)
+			return candidates;
+
+		List<I> ordered = new ArrayList<>(candidates.size());
+		ordered.add(cached);
+		for (I candidate : candidates) {
+			if (candidate != cached)
+				ordered.add(candidate);
+		}
+		return ordered;
+	}
+
+	/**
+	 * Records the syntax a line was successfully parsed as.
+	 * @param script The script the line belongs to.
+	 * @param node The node of the line.
+	 * @param input The line.
+	 * @param info The syntax the line was parsed as.
+	 */
+	public static void record(@Nullable Script script, @Nullable Node node, String input, SyntaxInfo<?> info) {
+		ParseCache cache = instance;
+		if (cache == null || script == null || node == null)
+			return;
+		ScriptEntry entry = cache.entry(script);
+		if (entry != null)
+			entry.current.put(key(node, input), info.type().getName());
+	}
+
+	/**
+	 * @return The key of the decision for the given input at the position of the given node.
+	 *  The input is part of the key as well, as options are replaced in it.
+	 */
+	private static String key(Node node, String input) {
+		return node.getLine() + ":" + input;
+	}
+
+	/**
+	 * @return A hash of everything apart from a script's content that affects how its lines are parsed.
+	 */
+	private static String fingerprint() {
+		MessageDigest digest = sha256();
+		update(digest, Skript.getVersion().toString());
+		for (SkriptAddon addon : Skript.getAddons())
+			update(digest, addon.getName() + ' ' + addon.plugin.getDescription().getVersion());
+		for (Experiment experiment : Skript.experiments().registered())
+			update(digest, experiment.codeName() + ' ' + experiment.phase());
+		SyntaxRegistry registry = Skript.instance().syntaxRegistry();
+		for (SyntaxRegistry.Key<?> key : List.of(SyntaxRegistry.STATEMENT, SyntaxRegistry.SECTION, SyntaxRegistry.EXPRESSION)) {
+			update(digest, key.name());
+			for (SyntaxInfo<?> info : registry.syntaxes(key)) {
+				update(digest, info.type().getName());
+				if (info instanceof SyntaxInfo.Expression<?, ?> expressionInfo)
+					update(digest, expressionInfo.returnType().getName());
+				info.patterns().forEach(pattern -> update(digest, pattern));
+			}
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	/**
+	 * @return A hash of the signatures of all global functions, which lines of any script may call.
+	 */
+	private static String functionsHash() {
+		MessageDigest digest = sha256();
+		FunctionRegistry.getRegistry().getGlobalSignatures().stream()
+			.map(signature -> signature.toString(true, false))
+			.sorted()
+			.forEach(signature -> update(digest, signature));
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static void update(MessageDigest digest, String string) {
+		digest.update(string.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e); // every Java platform supports SHA-256
+		}
+	}
+
+	/**
+	 * The decisions of a script, by line.
+	 * @param script The script instance the current decisions are being made for, or null if read from the cache file.
+	 * @param hash The hash of the script's content and of the global functions it was parsed with.
+	 * @param previous The decisions made the last time the script was parsed with the same content.
+	 * @param current The decisions made while the script is parsed this time.
+	 */
+	private record ScriptEntry(@Nullable Script script, String hash, Map<String, String> previous, Map<String, String> current) { }
+
+	private final File file;
+	private final String fingerprint;
+
+	/**
+	 * Entries read from the cache file, by script path.
+	 */
+	private final Map<String, ScriptEntry> stored = new HashMap<>();
+
+	/**
+	 * Entries of the scripts parsed since the cache was loaded, by script path.
+	 */
+	private final Map<String, ScriptEntry> parsed = new ConcurrentHashMap<>();
+
+	private ParseCache(File file, String fingerprint) {
+		this.file = file;
+		this.fingerprint = fingerprint;
+	}
+
+	private @Nullable ScriptEntry entry(Script script) {
+		File scriptFile = script.getConfig().getFile();
+		if (scriptFile == null)
+			return null;
+		String path = scriptFile.getAbsolutePath();
+		ScriptEntry entry = parsed.get(path);
+		if (entry != null && entry.script == script)
+			return entry;
+		// the script is being parsed for the first time since it was (re)loaded
+		return parsed.compute(path, (key, existing) -> {
+			if (existing != null && existing.script == script)
+				return existing;
+			// the hash of the content the script was parsed from, not of the file, which may have changed since
+			String contentHash = script.getConfig().getContentHash();
+			if (contentHash == null)
+				return null;
+			String hash = contentHash + ':' + functionsHash();
+			ScriptEntry last = existing;
+			if (last == null) {
+				synchronized (stored) {
+					last = stored.get(path);
+				}
+			}
+			Map<String, String> previous = last != null && last.hash.equals(hash) ? last.current : Map.of();
+			return new ScriptEntry(script, hash, previous, new ConcurrentHashMap<>());
+		});
+	}
+
+	private void read() throws IOException {
+		if (!file.exists())
+			return;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+			if (in.readInt() != VERSION || !in.readUTF().equals(fingerprint))
+				return; // outdated, start over
+			int scripts = in.readInt();
+			synchronized (stored) {
+				for (int i = 0; i < scripts; i++) {
+					String path = in.readUTF();
+					String hash = in.readUTF();
+					int lines = in.readInt();
+					Map<String, String> decisions = new HashMap<>(lines);
+					for (int j = 0; j < lines; j++)
+						decisions.put(in.readUTF(), in.readUTF());
+					stored.put(path, new ScriptEntry(null, hash, Map.of(), decisions));
+				}
+			}
+		}
+	}
+
+	private synchronized void write() throws IOException {
+		Map<String, ScriptEntry> entries;
+		synchronized (stored) {
+			stored.putAll(parsed);
+			stored.keySet().removeIf(path -> !new File(path).exists());
+			entries = new HashMap<>(stored);
+		}
+
+		File temp = new File(file.getPath() + ".temp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp.toPath())))) {
+			out.writeInt(VERSION);
+			out.writeUTF(fingerprint);
+			out.writeInt(entries.size());
+			for (Map.Entry<String, ScriptEntry> entry : entries.entrySet()) {
+				// lines too long for writeUTF are simply not cached
+				Map<String, String> decisions = new HashMap<>(entry.getValue().current);
+				decisions.keySet().removeIf(line -> line.length() > 16384);
+				out.writeUTF(entry.getKey());
+				out.writeUTF(entry.getValue().hash);
+				out.writeInt(decisions.size());
+				for (Map.Entry<String, String> decision : decisions.entrySet()) {
+					out.writeUTF(decision.getKey());
+					out.writeUTF(decision.getValue());
+				}
+			}
+		}
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+}
@@ -0,0 +1,109 @@
+package ch.njol.skript.lang.simplification;
+
+import ch.njol.skript.config.Node;
+import ch.njol.skript.lang.Debuggable;
+import ch.njol.skript.lang.Literal;
+import ch.njol.skript.lang.SimplifiedCondition;
+import ch.njol.skript.lang.parser.ParserInstance;
+import ch.njol.skript.lang.util.ContextlessEvent;
+import ch.njol.skript.registrations.Classes;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import org.skriptlang.skript.lang.script.Script;
+import org.skriptlang.skript.lang.script.ScriptData;
+import org.skriptlang.skript.lang.structure.Structure;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Records which parts of a script were simplified or optimised while it was loaded,
+ * so that they can be listed with {@code /skript optimizations <script>}.
+ */
+public final class SimplificationReport implements ScriptData {
+
+	/**
+	 * A single optimisation of a script.
+	 *
+	 * @param line the line of the script the optimised syntax is on, or -1 if it is unknown.
+	 * @param description a description of what was optimised.
+	 */
+	public record Entry(int line, String description) { }
+
+	/**
+	 * The optimisations of each structure of the script. Structures that failed to load or were removed by a reload
+	 * are not part of the script anymore, so their entries are ignored and eventually discarded.
+	 */
+	private final Map<Structure, List<Entry>> entries = new WeakHashMap<>();
+
+	/**
+	 * Records that the given element was simplified while parsing the current line.
+	 *
+	 * @param original the element before it was simplified.
+	 * @param simplified the element it was simplified to.
+	 */
+	public static void recordSimplification(Debuggable original, Object simplified) {
+		String description = "'" + original.toString(null, false) + "'";
+		if (simplified instanceof SimplifiedCondition condition) {
+			description += " is always " + condition.getResult();
+		} else if (simplified instanceof Literal<?> literal) {
+			description += " was evaluated to " + Classes.toString(literal.getAll(ContextlessEvent.get()), literal.getAnd());
+		} else {
+			description += " was simplified";
+		}
+		record(description);
+	}
+
+	/**
+	 * Records an optimisation of the line that is currently being parsed.
+	 * Does nothing if no structure of a script is being parsed.
+	 *
+	 * @param description a description of what was optimised.
+	 */
+	public static void record(String description) {
+		ParserInstance parser = ParserInstance.get();
+		if (!parser.isActive())
+			return;
+		Structure structure = parser.getCurrentStructure();
+		if (structure == null)
+			return;
+		Node node = parser.getNode();
+		Entry entry = new Entry(node != null ? node.getLine() : -1, description);
+		parser.getCurrentScript().getData(SimplificationReport.class, SimplificationReport::new).add(structure, entry);
+	}
+
+	private synchronized void add(Structure structure, Entry entry) {
+		entries.computeIfAbsent(structure, key -> new ArrayList<>()).add(entry);
+	}
+
+	/**
+	 * @param script the script this report belongs to.
+	 * @return the optimisations of the currently loaded structures of the script, ordered by line.
+	 */
+	public synchronized @Unmodifiable List<Entry> getEntries(Script script) {
+		List<Entry> result = new ArrayList<>();
+		for (Structure structure : script.getStructures()) {
+			List<Entry> structureEntries = entries.get(structure);
+			if (structureEntries != null)
+				result.addAll(structureEntries);
+		}
+		result.sort(Comparator.comparingInt(Entry::line));
+		return List.copyOf(result);
+	}
+
+	/**
+	 * @param script the script to get the optimisations of.
+	 * @return the optimisations of the given script, or null if nothing was optimised.
+	 */
+	public static @Nullable @Unmodifiable List<Entry> getEntriesOf(Script script) {
+		SimplificationReport report = script.getData(SimplificationReport.class);
+		if (report == null)
+			return null;
+		List<Entry> entries = report.getEntries(script);
+		return entries.isEmpty() ? null : entries;
+	}
+
+}
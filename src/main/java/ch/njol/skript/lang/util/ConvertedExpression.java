@@ -15,8 +15,10 @@ import org.jetbrains.annotations.Nullable;
 import org.skriptlang.skript.lang.converter.Converter;
 import org.skriptlang.skript.lang.converter.ConverterInfo;
 import org.skriptlang.skript.lang.converter.Converters;
+import org.skriptlang.skript.lang.converter.RuntimeConverter;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -48,6 +50,7 @@ public class ConvertedExpression<F, T> implements Expression<T> {
 		this.to = to;
 		//noinspection unchecked
 		this.toExact = new Class[]{to};
+		info = withOwnCache(info);
 		this.converter = info.getConverter();
 		this.converterInfos = Collections.singleton(info);
 		//noinspection unchecked
@@ -78,7 +81,10 @@ public class ConvertedExpression<F, T> implements Expression<T> {
 		//noinspection unchecked
 		this.to = (Class<T>) Utils.getSuperType(toExact);
 		this.toExact = toExact;
-		this.converterInfos = infos;
+		List<ConverterInfo<? super F, ? extends T>> converterInfos = new ArrayList<>(infos.size());
+		for (ConverterInfo<? super F, ? extends T> info : infos)
+			converterInfos.add(withOwnCache(info));
+		this.converterInfos = converterInfos;
 		//noinspection unchecked
 		this.returnTypes = converterInfos.stream().map(ConverterInfo::getTo).distinct().toArray(Class[]::new);
 		this.converter = fromObject -> {
@@ -93,6 +99,18 @@ public class ConvertedExpression<F, T> implements Expression<T> {
 		};
 	}
 
+	/**
+	 * Converters looking up the converter for the type of each value at runtime are shared by all expressions converting to the same type.
+	 * Each converted expression uses its own, so that it only has to look up a converter again when the type of its values changes.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <F, T> ConverterInfo<F, T> withOwnCache(ConverterInfo<F, T> info) {
+		if (!(info.getConverter() instanceof RuntimeConverter<?> runtimeConverter))
+			return info;
+		Converter<F, T> converter = (Converter<F, T>) (Converter<?, ?>) new RuntimeConverter<>(runtimeConverter.getTo());
+		return new ConverterInfo<>(info.getFrom(), info.getTo(), converter, info.getFlags());
+	}
+
 	@SafeVarargs
 	public static <F, T> @Nullable ConvertedExpression<F, T> newInstance(Expression<F> from, Class<T>... to) {
 		assert !CollectionUtils.containsSuperclass(to, from.getReturnType());
@@ -218,6 +236,15 @@ public class ConvertedExpression<F, T> implements Expression<T> {
 		return Converters.convert(source.getAll(event), to, converter);
 	}
 
+	@Override
+	public void forEach(Event event, Consumer<? super T> action) {
+		source.forEach(event, value -> {
+			T convertedValue = converter.convert(value);
+			if (convertedValue != null)
+				action.accept(convertedValue);
+		});
+	}
+
 	@Override
 	public boolean check(Event event, Predicate<? super T> checker, boolean negated) {
 		return negated ^ check(event, checker);
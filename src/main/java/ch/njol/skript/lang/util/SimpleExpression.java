@@ -24,6 +24,7 @@ import org.skriptlang.skript.log.runtime.SyntaxRuntimeErrorProducer;
 import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
@@ -46,12 +47,23 @@ public abstract class SimpleExpression<T> implements Expression<T>, SyntaxRuntim
 
 	@Override
 	public final @Nullable T getSingle(Event event) {
-		T[] values = getArray(event);
-		if (values.length == 0)
+		T[] values = get(event);
+		if (values == null)
 			return null;
-		if (values.length > 1)
+		T single = null;
+		int numNonNull = 0;
+		for (T value : values) {
+			if (value != null) {
+				if (numNonNull == 0)
+					single = value;
+				numNonNull++;
+			}
+		}
+		if (numNonNull <= 1)
+			return single;
+		if (getAnd())
 			throw new SkriptAPIException("Call to getSingle() on a non-single expression");
-		return values[0];
+		return random(values, numNonNull);
 	}
 
 	@Override
@@ -99,19 +111,10 @@ public abstract class SimpleExpression<T> implements Expression<T>, SyntaxRuntim
 		if (!getAnd()) {
 			if (values.length == 1 && values[0] != null)
 				return Arrays.copyOf(values, 1);
-			int rand = Utils.random(0, numNonNull);
 			//noinspection unchecked
 			T[] valueArray = (T[]) Array.newInstance(getReturnType(), 1);
-			for (T value : values) {
-				if (value != null) {
-					if (rand == 0) {
-						valueArray[0] = value;
-						return valueArray;
-					}
-					rand--;
-				}
-			}
-			assert false;
+			valueArray[0] = random(values, numNonNull);
+			return valueArray;
 		}
 
 		if (numNonNull == values.length)
@@ -125,6 +128,48 @@ public abstract class SimpleExpression<T> implements Expression<T>, SyntaxRuntim
 		return valueArray;
 	}
 
+	/**
+	 * Passes the values returned by {@link #get(Event)} to the given action, skipping nulls,
+	 * without copying them into a new array like {@link #getArray(Event)} does.
+	 */
+	@Override
+	public void forEach(Event event, Consumer<? super T> action) {
+		T[] values = get(event);
+		if (values == null || values.length == 0)
+			return;
+
+		if (!getAnd()) {
+			int numNonNull = 0;
+			for (T value : values)
+				if (value != null)
+					numNonNull++;
+			if (numNonNull > 0)
+				action.accept(random(values, numNonNull));
+			return;
+		}
+
+		for (T value : values)
+			if (value != null)
+				action.accept(value);
+	}
+
+	/**
+	 * @param values The values to choose from, which may contain nulls.
+	 * @param numNonNull The amount of non-null values, which must be at least 1.
+	 * @return A random non-null value of the given values.
+	 */
+	private static <T> T random(T[] values, int numNonNull) {
+		int rand = Utils.random(0, numNonNull);
+		for (T value : values) {
+			if (value != null) {
+				if (rand == 0)
+					return value;
+				rand--;
+			}
+		}
+		throw new IllegalArgumentException("numNonNull is larger than the amount of non-null values");
+	}
+
 	/**
 	 * This is the internal method to get an expression's values.<br>
 	 * To get the expression's value from the outside use {@link #getSingle(Event)} or {@link #getArray(Event)}.
@@ -20,6 +20,7 @@ import org.skriptlang.skript.lang.converter.Converters;
 
 import java.lang.reflect.Array;
 import java.util.Arrays;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
@@ -109,6 +110,12 @@ public class SimpleLiteral<T> implements Literal<T>, DefaultExpression<T> {
 		return this.data();
 	}
 
+	@Override
+	public void forEach(Event event, Consumer<? super T> action) {
+		for (T value : data)
+			action.accept(value);
+	}
+
 	@Override
 	public T getSingle() {
 		return CollectionUtils.getRandom(data);
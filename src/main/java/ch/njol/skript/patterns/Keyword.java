@@ -3,11 +3,13 @@ package ch.njol.skript.patterns;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableSet;
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -124,6 +126,32 @@ abstract class Keyword {
 		return keywords.toArray(new Keyword[0]);
 	}
 
+	/**
+	 * Determines the strings that an input has to start with to contain all the given keywords.
+	 * @param keywords The keywords of a pattern.
+	 * @return A set of strings, of which any input containing <b>keywords</b> starts with at least one,
+	 * 	or null if the keywords do not require a specific start.
+	 */
+	static @Nullable Set<String> requiredPrefixes(Keyword[] keywords) {
+		for (Keyword keyword : keywords) {
+			if (keyword instanceof SimpleKeyword simpleKeyword && simpleKeyword.starting)
+				return ImmutableSet.of(simpleKeyword.keyword);
+		}
+		choices: for (Keyword keyword : keywords) {
+			if (!(keyword instanceof ChoiceKeyword choiceKeyword))
+				continue;
+			Set<String> prefixes = new HashSet<>();
+			for (Set<Keyword> choice : choiceKeyword.choices) {
+				Set<String> choicePrefixes = requiredPrefixes(choice.toArray(new Keyword[0]));
+				if (choicePrefixes == null)
+					continue choices;
+				prefixes.addAll(choicePrefixes);
+			}
+			return ImmutableSet.copyOf(prefixes);
+		}
+		return null;
+	}
+
 	/**
 	 * A keyword implementation that requires a specific string to be present.
 	 */
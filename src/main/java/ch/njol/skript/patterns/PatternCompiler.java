@@ -3,6 +3,8 @@ package ch.njol.skript.patterns;
 import ch.njol.skript.lang.SkriptParser;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -15,6 +17,8 @@ import java.util.regex.PatternSyntaxException;
  */
 public class PatternCompiler {
 
+	private static final Map<String, SkriptPattern> compiledPatterns = new ConcurrentHashMap<>();
+
 	/**
 	 * @return an empty {@link PatternElement}
 	 */
@@ -39,6 +43,15 @@ public class PatternCompiler {
 		}
 	}
 
+	/**
+	 * Parses a pattern String into a {@link SkriptPattern}, reusing the result of earlier calls with the same pattern.
+	 *
+	 * @throws MalformedPatternException when the given pattern is malformed.
+	 */
+	public static SkriptPattern compileCached(String pattern) throws MalformedPatternException {
+		return compiledPatterns.computeIfAbsent(pattern, PatternCompiler::compile);
+	}
+
 	/**
 	 * Compiles the given pattern String into a pattern.<br>
 	 * The {@code expressionOffset} is to keep track of which index the next
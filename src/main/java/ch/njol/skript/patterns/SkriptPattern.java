@@ -9,6 +9,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 public class SkriptPattern {
 
@@ -16,6 +17,7 @@ public class SkriptPattern {
 	private final int expressionAmount;
 
 	private final Keyword[] keywords;
+	private final @Nullable Set<String> requiredPrefixes;
 	private final int minLength;
 	@Nullable
 	private List<TypePatternElement> types;
@@ -24,6 +26,7 @@ public class SkriptPattern {
 		this.first = first;
 		this.expressionAmount = expressionAmount;
 		keywords = Keyword.buildKeywords(first);
+		requiredPrefixes = Keyword.requiredPrefixes(keywords);
 		minLength = Keyword.computeMinLength(first);
 	}
 
@@ -54,6 +57,15 @@ public class SkriptPattern {
 		return match(expr, SkriptParser.ALL_FLAGS, ParseContext.DEFAULT);
 	}
 
+	/**
+	 * Returns the strings of which any input matching this pattern starts with at least one.
+	 * Inputs are compared in lower case, after removing leading whitespace with {@link String#trim()}.
+	 * @return The required prefixes, or null if inputs starting with anything may match this pattern.
+	 */
+	public @Nullable Set<String> getRequiredPrefixes() {
+		return requiredPrefixes;
+	}
+
 	/**
 	 * @return the size of the {@link MatchResult#expressions} array
 	 * from a match.
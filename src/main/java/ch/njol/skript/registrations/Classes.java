@@ -749,9 +749,6 @@ public abstract class Classes {
 		if (object == null)
 			return null;
 
-		// temporary
-		assert Bukkit.isPrimaryThread();
-		
 		ClassInfo<?> classInfo = getSuperClassInfo(object.getClass());
 		if (classInfo.getSerializeAs() != null) {
 			classInfo = getExactClassInfo(classInfo.getSerializeAs());
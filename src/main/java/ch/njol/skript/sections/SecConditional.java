@@ -2,6 +2,7 @@ package ch.njol.skript.sections;
 
 import ch.njol.skript.ScriptLoader;
 import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
 import ch.njol.skript.config.Node;
 import ch.njol.skript.config.SectionNode;
 import ch.njol.skript.doc.Description;
@@ -11,6 +12,7 @@ import ch.njol.skript.doc.Since;
 import ch.njol.skript.lang.*;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.lang.parser.ParserInstance;
+import ch.njol.skript.lang.simplification.SimplificationReport;
 import ch.njol.skript.lang.util.ContextlessEvent;
 import ch.njol.skript.patterns.PatternCompiler;
 import ch.njol.skript.patterns.SkriptPattern;
@@ -55,6 +57,7 @@ import java.util.List;
 public class SecConditional extends Section {
 
 	private static final SkriptPattern THEN_PATTERN = PatternCompiler.compile("then [run]");
+	private static final SkriptPattern ELSE_PATTERN = PatternCompiler.compile("else [<.+>]");
 	private static final Patterns<ConditionalType> CONDITIONAL_PATTERNS = new Patterns<>(new Object[][] {
 		{"else", ConditionalType.ELSE},
 		{"else [:parse] if <.+>", ConditionalType.ELSE_IF},
@@ -82,6 +85,17 @@ public class SecConditional extends Section {
 	private boolean parseIfPassed;
 	private boolean multiline;
 
+	/**
+	 * The result of the conditions if it is already known while parsing, in which case they are not evaluated at runtime.
+	 */
+	private Kleenean constantResult = Kleenean.UNKNOWN;
+
+	/**
+	 * The single-line 'if' that is the only item of this section, if its conditions were merged into the conditions of this section.
+	 * Its code is run directly when the conditions of this section are met.
+	 */
+	private @Nullable SecConditional flattened;
+
 	private @Nullable Kleenean hasDelayBefore; // available for ConditionalType.IF
 	private @Nullable Kleenean shouldDelayAfter; // whether the code after this conditional chain, at this point, should be delayed
 	private @Nullable ExecutionIntent executionIntent;
@@ -223,7 +237,13 @@ public class SecConditional extends Section {
 					Skript.debug(indentation + TextComponentParser.instance().escape(condition.toString(null, true)));
 			}
 
+			if (SkriptConfig.simplifySyntaxesOnParse.value())
+				constantResult = foldConstantConditions(conditionals);
 			conditional = Conditional.compound(ifAny ? Operator.OR : Operator.AND, conditionals);
+			if (!constantResult.isUnknown()) {
+				SimplificationReport.record("'" + this + "' is always " + constantResult.isTrue()
+					+ ", its section " + (constantResult.isTrue() ? "always runs" : "never runs"));
+			}
 		}
 
 		// ([else] parse if) If condition is valid and false, do not parse the section
@@ -237,6 +257,8 @@ public class SecConditional extends Section {
 		if (!multiline || type == ConditionalType.THEN) {
 			boolean considerDelayUpdate = !parser.getHasDelayBefore().isTrue();
 			loadCode(sectionNode);
+			if (SkriptConfig.simplifySyntaxesOnParse.value() && !Skript.debug() && !sectionNode.debug())
+				flattenNestedConditional(sectionNode, parser);
 
 			// only need to account for changing the delay if it wasn't already delayed before this chain
 			if (considerDelayUpdate) {
@@ -305,6 +327,13 @@ public class SecConditional extends Section {
 			TriggerItem skippedNext = getSkippedNext();
 			if (sectionToRun.last != null)
 				sectionToRun.last.setNext(skippedNext);
+			// the conditions of a flattened 'if' have already been checked, so its code is run directly
+			while (sectionToRun.flattened != null) {
+				sectionToRun = sectionToRun.flattened;
+				skippedNext = sectionToRun.getSkippedNext();
+				if (sectionToRun.last != null)
+					sectionToRun.last.setNext(skippedNext);
+			}
 			return sectionToRun.first != null ? sectionToRun.first : skippedNext;
 		} else {
 			return getActualNext();
@@ -411,9 +440,56 @@ public class SecConditional extends Section {
 	}
 
 	private boolean checkConditions(Event event) {
+		if (!constantResult.isUnknown())
+			return constantResult.isTrue();
 		return conditional == null || conditional.evaluate(event).isTrue();
 	}
 
+	/**
+	 * Removes the conditions whose result was already known while parsing from the given conditions,
+	 * unless they decide the result of this conditional on their own.
+	 *
+	 * @param conditionals the conditions of this conditional.
+	 * @return the result of the conditions, if it is known while parsing.
+	 */
+	private Kleenean foldConstantConditions(List<Conditional<Event>> conditionals) {
+		for (Conditional<Event> conditional : conditionals) {
+			// a true condition decides an 'if any', and a false condition decides an 'if all'
+			if (conditional instanceof SimplifiedCondition simplified && simplified.getResult() == ifAny)
+				return Kleenean.get(ifAny);
+		}
+		if (conditionals.stream().allMatch(SimplifiedCondition.class::isInstance))
+			return Kleenean.get(!ifAny);
+		// the remaining constant conditions don't change the result
+		if (conditionals.removeIf(SimplifiedCondition.class::isInstance))
+			SimplificationReport.record("conditions that are always " + !ifAny + " were removed from '" + this + "'");
+		return Kleenean.UNKNOWN;
+	}
+
+	/**
+	 * Merges the conditions of a single-line 'if' into the conditions of this section if it is the only item of this section,
+	 * so that both are checked at once.
+	 * This is not done if an 'else' or 'else if' follows this section, as it must not run when only the merged 'if' is false.
+	 */
+	private void flattenNestedConditional(SectionNode sectionNode, ParserInstance parser) {
+		if (type != ConditionalType.IF && type != ConditionalType.ELSE_IF)
+			return;
+		if (multiline || parseIf || !constantResult.isUnknown())
+			return;
+		if (first != last || !(first instanceof SecConditional nested))
+			return;
+		if (nested.type != ConditionalType.IF || nested.multiline || nested.parseIf || !nested.constantResult.isUnknown())
+			return;
+		Node nextNode = getNextNode(sectionNode, parser);
+		if (nextNode instanceof SectionNode && nextNode.getKey() != null
+				&& ELSE_PATTERN.match(ScriptLoader.replaceOptions(nextNode.getKey())) != null)
+			return;
+		String description = "'" + nested + "' was merged into '" + this + "'";
+		conditional = Conditional.builderDNF(conditional).and(nested.conditional).build();
+		flattened = nested;
+		SimplificationReport.record(description);
+	}
+
 	private @Nullable Node getNextNode(Node precedingNode, ParserInstance parser) {
 		// iterating over the parent node causes the current node to change, so we need to store it to reset it later
 		Node originalCurrentNode = parser.getNode();
@@ -79,9 +79,18 @@ public class SecLoop extends LoopSection {
 
 	protected @UnknownNullability Expression<?> expression;
 
-	private final transient Map<Event, Object> current = new WeakHashMap<>();
-	private final transient Map<Event, Iterator<?>> iteratorMap = new WeakHashMap<>();
-	private final transient Map<Event, Object> previous = new WeakHashMap<>();
+	/**
+	 * The state of a single execution of a loop.
+	 */
+	private static final class Iteration {
+
+		private @Nullable Iterator<?> iterator;
+		private @Nullable Object current;
+		private @Nullable Object previous;
+
+	}
+
+	private final transient ExecutionFrame.Slot<Iteration> iteration = ExecutionFrame.newSlot();
 
 	protected @Nullable TriggerItem actualNext;
 	private boolean guaranteedToLoop;
@@ -132,7 +141,8 @@ public class SecLoop extends LoopSection {
 
 	@Override
 	protected @Nullable TriggerItem walk(Event event) {
-		Iterator<?> iter = iteratorMap.get(event);
+		Iteration iteration = iteration(event);
+		Iterator<?> iter = iteration.iterator;
 		if (iter == null) {
 			if (iterableSingle) {
 				Object value = expression.getSingle(event);
@@ -149,7 +159,7 @@ public class SecLoop extends LoopSection {
 					? ((KeyedIterableExpression<?>) expression).keyedIterator(event)
 					: expression.iterator(event);
 				if (iter != null && iter.hasNext()) {
-					iteratorMap.put(event, iter);
+					iteration.iterator = iter;
 				} else {
 					iter = null;
 				}
@@ -161,7 +171,7 @@ public class SecLoop extends LoopSection {
 			debug(event, false);
 			return actualNext;
 		} else {
-			previous.put(event, current.get(event));
+			iteration.previous = iteration.current;
 			if (nextValue != null) {
 				this.store(event, nextValue);
 				nextValue = null;
@@ -173,8 +183,20 @@ public class SecLoop extends LoopSection {
 	}
 
 	protected void store(Event event, Object next) {
-		this.current.put(event, next);
-		this.currentLoopCounter.put(event, (currentLoopCounter.getOrDefault(event, 0L)) + 1);
+		iteration(event).current = next;
+		incrementLoopCounter(event);
+	}
+
+	/**
+	 * @return the state of the loop for the given event, which is created if the loop hasn't started yet.
+	 */
+	private Iteration iteration(Event event) {
+		Iteration iteration = this.iteration.get(event);
+		if (iteration == null) {
+			iteration = new Iteration();
+			this.iteration.set(event, iteration);
+		}
+		return iteration;
 	}
 
 	@Override
@@ -188,13 +210,15 @@ public class SecLoop extends LoopSection {
 	}
 
 	public @Nullable Object getCurrent(Event event) {
-		return current.get(event);
+		Iteration iteration = this.iteration.get(event);
+		return iteration != null ? iteration.current : null;
 	}
 
 	public @Nullable Object getNext(Event event) {
 		if (!loopPeeking)
 			return null;
-		Iterator<?> iter = iteratorMap.get(event);
+		Iteration iteration = this.iteration.get(event);
+		Iterator<?> iter = iteration != null ? iteration.iterator : null;
 		if (iter == null || !iter.hasNext())
 			return null;
 		if (iter instanceof PeekingIterator<?> peekingIterator)
@@ -204,7 +228,8 @@ public class SecLoop extends LoopSection {
 	}
 
 	public @Nullable Object getPrevious(Event event) {
-		return previous.get(event);
+		Iteration iteration = this.iteration.get(event);
+		return iteration != null ? iteration.previous : null;
 	}
 
 	public Expression<?> getLoopedExpression() {
@@ -236,9 +261,7 @@ public class SecLoop extends LoopSection {
 
 	@Override
 	public void exit(Event event) {
-		current.remove(event);
-		iteratorMap.remove(event);
-		previous.remove(event);
+		iteration.remove(event);
 		nextValue = null;
 		super.exit(event);
 	}
@@ -12,10 +12,7 @@ import ch.njol.util.Kleenean;
 import org.bukkit.event.Event;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Set;
-import java.util.WeakHashMap;
 
 @Name("While Loop")
 @Description("While Loop sections are loops that will just keep repeating as long as a condition is met.")
@@ -51,7 +48,7 @@ public class SecWhile extends LoopSection {
 	private TriggerItem actualNext;
 
 	private boolean doWhile;
-	private final Set<Event> ranDoWhile = Collections.newSetFromMap(new WeakHashMap<>());
+	private final ExecutionFrame.Slot<Boolean> ranDoWhile = ExecutionFrame.newSlot();
 
 	@Override
 	public boolean init(Expression<?>[] exprs,
@@ -75,8 +72,11 @@ public class SecWhile extends LoopSection {
 	@Nullable
 	@Override
 	protected TriggerItem walk(Event event) {
-		if ((doWhile && ranDoWhile.add(event)) || condition.check(event)) {
-			currentLoopCounter.put(event, (currentLoopCounter.getOrDefault(event, 0L)) + 1);
+		boolean firstRun = doWhile && ranDoWhile.get(event) == null;
+		if (firstRun)
+			ranDoWhile.set(event, true);
+		if (firstRun || condition.check(event)) {
+			incrementLoopCounter(event);
 			return walk(event, true);
 		} else {
 			exit(event);
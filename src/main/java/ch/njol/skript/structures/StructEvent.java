@@ -111,6 +111,11 @@ public class StructEvent extends Structure {
 		return event.postLoad();
 	}
 
+	@Override
+	public boolean supportsParallelLoading() {
+		return event.supportsParallelLoading();
+	}
+
 	@Override
 	public void unload() {
 		event.unload();
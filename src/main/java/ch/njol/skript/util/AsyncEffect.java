@@ -7,6 +7,7 @@ import org.jetbrains.annotations.Nullable;
 import ch.njol.skript.Skript;
 import ch.njol.skript.effects.Delay;
 import ch.njol.skript.lang.Effect;
+import ch.njol.skript.lang.ExecutionFrame;
 import ch.njol.skript.lang.Trigger;
 import ch.njol.skript.lang.TriggerItem;
 import ch.njol.skript.timings.SkriptTimings;
@@ -33,16 +34,30 @@ public abstract class AsyncEffect extends Effect {
 		if (!Skript.getInstance().isEnabled()) // See https://github.com/SkriptLang/Skript/issues/3702
 			return null;
 
-		Bukkit.getScheduler().runTaskAsynchronously(Skript.getInstance(), () -> {
+		Bukkit.getScheduler().runTaskAsynchronously(Skript.getInstance(), () -> runAsync(e, localVars));
+		return null;
+	}
+
+	/**
+	 * Executes this effect on the current async thread, and continues the execution on the main thread.
+	 * @param e The event.
+	 * @param localVars The local variables backed up on the main thread.
+	 */
+	void runAsync(Event e, @Nullable Object localVars) {
+		// Re-set local variables
+		if (localVars != null)
+			Variables.setLocalVariables(e, localVars);
+		try {
 			Delay.addDelayedEvent(e); // Mark this event as delayed
-			// Re-set local variables
-			if (localVars != null)
-				Variables.setLocalVariables(e, localVars);
-			
+
 			execute(e); // Execute this effect
-			
+
 			if (getNext() != null) {
+				Object continuedLocalVars = Variables.removeLocals(e); // Back up local variables again for the main thread
 				Bukkit.getScheduler().runTask(Skript.getInstance(), () -> { // Walk to next item synchronously
+					if (continuedLocalVars != null)
+						Variables.setLocalVariables(e, continuedLocalVars);
+
 					Object timing = null;
 					if (SkriptTimings.enabled()) { // getTrigger call is not free, do it only if we must
 						Trigger trigger = getTrigger();
@@ -50,17 +65,21 @@ public abstract class AsyncEffect extends Effect {
 							timing = SkriptTimings.start(trigger.getDebugLabel());
 						}
 					}
-					
+
 					TriggerItem.walk(getNext(), e);
-					
+
 					Variables.removeLocals(e); // Clean up local vars, we may be exiting now
-					
+
 					SkriptTimings.stop(timing); // Stop timing if it was even started
 				});
 			} else {
 				Variables.removeLocals(e);
 			}
-		});
-		return null;
+		} finally {
+			// Don't leave the execution bound to this pool thread, e.g. if the effect failed
+			ExecutionFrame frame = ExecutionFrame.get(e);
+			if (frame != null)
+				frame.exit();
+		}
 	}
 }
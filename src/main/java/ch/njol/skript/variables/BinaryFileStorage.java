@@ -0,0 +1,646 @@
+package ch.njol.skript.variables;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.config.SectionNode;
+import ch.njol.skript.lang.Variable;
+import ch.njol.skript.log.SkriptLogger;
+import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.util.ExceptionUtils;
+import ch.njol.skript.util.FileUtils;
+import ch.njol.skript.util.Task;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A variable storage that stores its content in an append-only binary journal.
+ * <p>
+ * Every change is appended to the file as a length-prefixed record.
+ * Records are buffered and written to the file once all queued changes have been written
+ *  (or at least every {@link #MAX_FLUSH_DELAY} milliseconds while changes keep coming in),
+ *  instead of after every single change.
+ * When the journal contains more outdated records than current ones,
+ *  it is compacted by rewriting it with only the current value of every variable.
+ * <p>
+ * The file is memory-mapped when loading. If the file is a CSV file of a {@link FlatFileStorage},
+ *  its variables are loaded from it and it is converted to a journal, keeping a backup of the CSV file.
+ */
+public class BinaryFileStorage extends VariablesStorage {
+
+	/**
+	 * The bytes every journal starts with.
+	 */
+	private static final int MAGIC = 0x534B564A; // SKVJ
+
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * The size of the header of a journal, i.e. the magic bytes and the format version.
+	 */
+	private static final int HEADER_SIZE = 8;
+
+	private static final byte RECORD_SET = 0;
+	private static final byte RECORD_DELETE = 1;
+
+	/**
+	 * The maximum amount of bytes mapped into memory at once while loading.
+	 */
+	private static final int MAP_WINDOW = 64 * 1024 * 1024;
+
+	/**
+	 * The maximum time in milliseconds changes are buffered before they are written to the file.
+	 */
+	private static final long MAX_FLUSH_DELAY = 1000;
+
+	/**
+	 * The delay for the compaction task.
+	 */
+	private static final long COMPACTION_TASK_DELAY = 5 * 60 * 20;
+
+	/**
+	 * The period for the compaction task, how long (in ticks) between each check.
+	 */
+	private static final long COMPACTION_TASK_PERIOD = 5 * 60 * 20;
+
+	/**
+	 * The stream records are appended to, or null while disconnected.
+	 * Only accessed while holding {@link #connectionLock}.
+	 */
+	private @Nullable DataOutputStream journal;
+
+	/**
+	 * The time the {@link #journal} was last flushed, as given by {@link System#nanoTime()}.
+	 */
+	private long lastFlush;
+
+	/**
+	 * Whether the storage has been loaded.
+	 */
+	private volatile boolean loaded = false;
+
+	/**
+	 * The amount of records appended since the journal was last compacted.
+	 */
+	private final AtomicInteger changes = new AtomicInteger(0);
+
+	/**
+	 * The amount of records in the journal when it was last compacted or loaded.
+	 */
+	private volatile int currentRecords;
+
+	/**
+	 * Whether the journal should be compacted as soon as all storages are loaded,
+	 *  because it was converted from CSV or was damaged.
+	 */
+	private boolean compactWhenLoaded = false;
+
+	/**
+	 * Whether there was an error while loading variables.
+	 * <p>
+	 * Set back to {@code false} when a backup has been made
+	 * of the file that caused the error.
+	 */
+	private boolean loadError = false;
+
+	/**
+	 * The compaction task.
+	 *
+	 * @see #compact(boolean)
+	 */
+	@Nullable
+	private Task compactionTask;
+
+	/**
+	 * Create a new binary storage of the given name.
+	 *
+	 * @param type the database type i.e. binary.
+	 */
+	BinaryFileStorage(String type) {
+		super(type);
+	}
+
+	/**
+	 * A record read from the journal.
+	 * @param type The type of the variable's value.
+	 * @param data The serialized value of the variable.
+	 */
+	record LoadedRecord(String type, byte[] data) { }
+
+	@Override
+	protected boolean load_i(SectionNode sectionNode) {
+		SkriptLogger.setNode(null);
+
+		if (file == null) {
+			assert false : this;
+			return false;
+		}
+
+		// the latest record of every variable, in the order they were first written
+		Map<String, LoadedRecord> records = new LinkedHashMap<>();
+		IOException ioException = null;
+		try {
+			if (isJournal(file)) {
+				loadJournal(records);
+			} else if (file.length() > 0) {
+				Skript.info("Converting " + file.getName() + " from CSV to the binary format...");
+				loadCSV(records);
+				// keep the CSV file, as it is replaced when compacting
+				File backup = FileUtils.backup(file);
+				Skript.info("Created a backup of " + file.getName() + " as " + backup.getName());
+				compactWhenLoaded = true;
+			}
+		} catch (IOException e) {
+			loadError = true;
+			compactWhenLoaded = true;
+			ioException = e;
+		}
+
+		int unsuccessfulVariableCount = 0;
+		StringBuilder invalid = new StringBuilder();
+		for (Entry<String, LoadedRecord> entry : records.entrySet()) {
+			LoadedRecord loadedRecord = entry.getValue();
+			Object value = Classes.deserialize(loadedRecord.type(), loadedRecord.data());
+			if (value == null) {
+				if (invalid.length() != 0)
+					invalid.append(", ");
+				invalid.append(entry.getKey());
+				unsuccessfulVariableCount++;
+				continue;
+			}
+			Variables.variableLoaded(entry.getKey(), value, this);
+		}
+		currentRecords = records.size();
+
+		if (unsuccessfulVariableCount > 0) {
+			Skript.error(unsuccessfulVariableCount + " variable" + (unsuccessfulVariableCount == 1 ? "" : "s") +
+					" could not be loaded!");
+			Skript.error("Affected variables: " + invalid);
+			loadError = true;
+		}
+		if (ioException != null) {
+			Skript.error("An I/O error occurred while loading the variables: " + ExceptionUtils.toString(ioException));
+			Skript.error("This means that some to all variables could not be loaded!");
+		}
+
+		// a converted or damaged file must not be appended to, the journal is written from scratch once all storages are loaded
+		if (!compactWhenLoaded && !connect())
+			return false;
+
+		compactionTask = new Task(Skript.getInstance(), COMPACTION_TASK_DELAY, COMPACTION_TASK_PERIOD, true) {
+			@Override
+			public void run() {
+				int changes = BinaryFileStorage.this.changes.get();
+				// only compact once most of the journal is outdated
+				if (changes >= FlatFileStorage.REQUIRED_CHANGES_FOR_RESAVE && changes >= currentRecords)
+					compact(false);
+			}
+		};
+
+		return ioException == null;
+	}
+
+	/**
+	 * @return Whether the given file starts with the header of a journal.
+	 */
+	static boolean isJournal(File file) throws IOException {
+		if (file.length() < HEADER_SIZE)
+			return false;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).getInt() == MAGIC;
+		}
+	}
+
+	/**
+	 * Reads the records of the journal into the given map, reporting a damaged end of the file.
+	 */
+	private void loadJournal(Map<String, LoadedRecord> records) throws IOException {
+		assert file != null;
+		long position = readJournal(file, records);
+		if (position < file.length()) {
+			Skript.error("The variables file " + file.getName() + " is damaged after byte " + position +
+					", the variables changed after that point could not be loaded.");
+			loadError = true;
+			compactWhenLoaded = true;
+		}
+	}
+
+	/**
+	 * Reads the records of a journal into the given map, mapping the file into memory in windows of {@link #MAP_WINDOW}.
+	 * A damaged or incomplete record, e.g. from a crash while writing, ends the journal.
+	 *
+	 * @param file the journal, which must start with the header of a journal.
+	 * @param records the map to put the latest record of every variable in.
+	 * @return the position in the file after the last record that could be read.
+	 * @throws IOException if the file could not be read, or has an unsupported format version.
+	 */
+	static long readJournal(File file, Map<String, LoadedRecord> records) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			buffer.getInt(); // magic
+			int version = buffer.getInt();
+			if (version != FORMAT_VERSION)
+				throw new IOException("Unsupported journal format version " + version + " in " + file.getName());
+
+			long position = HEADER_SIZE;
+			long windowStart = position;
+			buffer = map(channel, windowStart, size, 0);
+			while (size - position >= 4) {
+				if (position + 4 > windowStart + buffer.limit()) {
+					windowStart = position;
+					buffer = map(channel, windowStart, size, 0);
+				}
+				int length = buffer.getInt((int) (position - windowStart));
+				if (length <= 0 || length > Integer.MAX_VALUE - 4 || size - position - 4 < length)
+					break;
+				if (position + 4 + length > windowStart + buffer.limit()) {
+					// the record does not fit in the current window
+					windowStart = position;
+					buffer = map(channel, windowStart, size, 4 + length);
+				}
+
+				ByteBuffer recordData = buffer.slice((int) (position - windowStart) + 4, length);
+				try {
+					readRecord(recordData, records);
+				} catch (BufferUnderflowException | IllegalArgumentException e) {
+					break;
+				}
+				if (recordData.hasRemaining())
+					break;
+				position += 4 + length;
+			}
+			return position;
+		}
+	}
+
+	/**
+	 * Maps the part of the file starting at the given position into memory.
+	 * @param minimumLength The amount of bytes that have to be mapped, even if they exceed {@link #MAP_WINDOW}.
+	 */
+	private static MappedByteBuffer map(FileChannel channel, long position, long size, int minimumLength) throws IOException {
+		long length = Math.max(Math.min(MAP_WINDOW, size - position), minimumLength);
+		return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+	}
+
+	/**
+	 * Reads a single record, without its length, into the given map.
+	 * @throws IllegalArgumentException If the record is damaged.
+	 */
+	private static void readRecord(ByteBuffer buffer, Map<String, LoadedRecord> records) {
+		byte kind = buffer.get();
+		String name = new String(readBytes(buffer), StandardCharsets.UTF_8);
+		switch (kind) {
+			case RECORD_SET -> {
+				String type = new String(readBytes(buffer), StandardCharsets.UTF_8);
+				records.put(name, new LoadedRecord(type, readBytes(buffer)));
+			}
+			case RECORD_DELETE -> records.remove(name);
+			default -> throw new IllegalArgumentException("Unknown record kind " + kind);
+		}
+	}
+
+	private static byte[] readBytes(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0 || length > buffer.remaining())
+			throw new IllegalArgumentException("Invalid length " + length);
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Reads the variables of the CSV file of a {@link FlatFileStorage} into the given map.
+	 */
+	private void loadCSV(Map<String, LoadedRecord> records) throws IOException {
+		assert file != null;
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(Files.newInputStream(file.toPath()), FlatFileStorage.FILE_CHARSET))) {
+			String line;
+			int lineNum = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNum++;
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#"))
+					continue;
+
+				String[] split = FlatFileStorage.splitCSV(line);
+				if (split == null || split.length != 3) {
+					Skript.error("invalid amount of commas in line " + lineNum + " ('" + line + "')");
+					loadError = true;
+					continue;
+				}
+
+				if (split[1].equals("null")) {
+					records.remove(split[0]);
+				} else {
+					records.put(split[0], new LoadedRecord(split[1], FlatFileStorage.decode(split[2])));
+				}
+			}
+		}
+	}
+
+	@Override
+	protected void allLoaded() {
+		loaded = true;
+		if (compactWhenLoaded) {
+			compactWhenLoaded = false;
+			compact(false);
+		}
+	}
+
+	@Override
+	protected boolean requiresFile() {
+		return true;
+	}
+
+	@Override
+	protected File getFile(String fileName) {
+		return new File(fileName);
+	}
+
+	@Override
+	protected final boolean connect() {
+		synchronized (connectionLock) {
+			assert file != null; // file should be non-null after load
+
+			if (journal != null)
+				return true;
+
+			try {
+				OutputStream stream = new FileOutputStream(file, true);
+				journal = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024));
+				if (file.length() == 0)
+					writeHeader(journal);
+				lastFlush = System.nanoTime();
+				return true;
+			} catch (IOException e) {
+				//noinspection ThrowableNotThrown
+				Skript.exception(e);
+				return false;
+			}
+		}
+	}
+
+	@Override
+	protected final void disconnect() {
+		synchronized (connectionLock) {
+			if (journal == null)
+				return;
+			try {
+				journal.close();
+			} catch (IOException e) {
+				Skript.error("Could not write the variables to " + getUserConfigurationName() + ": " + ExceptionUtils.toString(e));
+			}
+			journal = null;
+		}
+	}
+
+	@Override
+	public void close() {
+		// all changes are in the journal already, so the final compaction is only done if it is due
+		super.close();
+		if (compactionTask != null)
+			compactionTask.cancel();
+		if (backupTask != null)
+			backupTask.cancel();
+		if (changes.get() >= FlatFileStorage.REQUIRED_CHANGES_FOR_RESAVE && changes.get() >= currentRecords) {
+			compact(true);
+		} else {
+			disconnect();
+		}
+	}
+
+	@Override
+	protected boolean save(String name, @Nullable String type, @Nullable byte[] value) {
+		synchronized (connectionLock) {
+			DataOutputStream journal = this.journal;
+			if (!loaded && (type == null || journal == null)) {
+				// nothing to delete, and if not connected yet the journal is compacted once all storages are loaded,
+				//  which writes the current value of this variable
+				return true;
+			}
+			if (journal == null)
+				return false; // closed
+
+			try {
+				writeRecord(journal, name, type, value);
+				changes.incrementAndGet();
+
+				// group commit: write all changes queued up at once
+				long now = System.nanoTime();
+				if (changesQueue.isEmpty() || now - lastFlush > TimeUnit.MILLISECONDS.toNanos(MAX_FLUSH_DELAY)) {
+					journal.flush();
+					lastFlush = now;
+				}
+				return true;
+			} catch (IOException e) {
+				Skript.error("Could not save the variable {" + name + "} to " + getUserConfigurationName() + ": " + ExceptionUtils.toString(e));
+				return false;
+			}
+		}
+	}
+
+	static void writeHeader(DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+	}
+
+	/**
+	 * Appends a length-prefixed record to a journal.
+	 *
+	 * @param out the stream to write the record to.
+	 * @param name the name of the variable.
+	 * @param type the type of the variable's value, or {@code null} to write a deletion.
+	 * @param value the serialized value of the variable, or {@code null} to write a deletion.
+	 */
+	static void writeRecord(DataOutputStream out, String name, @Nullable String type, byte @Nullable [] value) throws IOException {
+		byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+		if (type == null) {
+			out.writeInt(1 + 4 + nameBytes.length);
+			out.writeByte(RECORD_DELETE);
+			writeBytes(out, nameBytes);
+			return;
+		}
+		assert value != null;
+		byte[] typeBytes = type.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(1 + 4 + nameBytes.length + 4 + typeBytes.length + 4 + value.length);
+		out.writeByte(RECORD_SET);
+		writeBytes(out, nameBytes);
+		writeBytes(out, typeBytes);
+		writeBytes(out, value);
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Rewrites the journal with only the current value of every variable.
+	 * <p>
+	 * The {@code finalSave} argument determines if the storage should reconnect after compacting.
+	 *
+	 * @param finalSave whether this is the last compaction in this session or not.
+	 */
+	public final void compact(boolean finalSave) {
+		// the sharded map is copied one shard at a time under the locks of its shards,
+		// as its writes never take the global lock
+		ShardedVariablesMap shardedVariables = Variables.shardedVariables;
+		try {
+			// Acquire read lock
+			if (shardedVariables == null)
+				Variables.getReadLock().lock();
+
+			synchronized (connectionLock) {
+				try {
+					if (file == null) {
+						// This storage requires a file, so file should be nonnull
+						assert false : this;
+						return;
+					}
+
+					// the current values of all variables are written, including the queued changes
+					clearChangesQueue();
+					disconnect();
+
+					if (loadError) {
+						try {
+							File backup = FileUtils.backup(file);
+							Skript.info("Created a backup of the old " + file.getName() + " as " + backup.getName());
+							loadError = false;
+						} catch (IOException e) {
+							Skript.error("Could not backup the old " + file.getName() + ": " + ExceptionUtils.toString(e));
+							Skript.error("No variables are saved!");
+							return;
+						}
+					}
+
+					File tempFile = new File(file.getParentFile(), file.getName() + ".temp");
+					try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 64 * 1024))) {
+						writeHeader(out);
+						int[] written = new int[1];
+						if (shardedVariables != null) {
+							try {
+								shardedVariables.forEachShard(tree -> {
+									try {
+										written[0] += compact(out, "", tree);
+									} catch (IOException e) {
+										throw new UncheckedIOException(e);
+									}
+								});
+							} catch (UncheckedIOException e) {
+								throw e.getCause();
+							}
+						} else {
+							written[0] = compact(out, "", Variables.getVariables());
+						}
+						out.close();
+						FileUtils.move(tempFile, file, true);
+						currentRecords = written[0];
+						changes.set(0);
+					} catch (IOException e) {
+						Skript.error("Unable to compact the database '" + getUserConfigurationName() +
+								"' (no variables are lost): " + ExceptionUtils.toString(e));
+					}
+				} finally {
+					// Reconnect if needed
+					if (!finalSave)
+						connect();
+				}
+			}
+		} finally {
+			if (shardedVariables == null) {
+				Variables.getReadLock().unlock();
+				boolean gotWriteLock = Variables.variablesLock.writeLock().tryLock();
+				if (gotWriteLock) { // Only process queue now if it doesn't require us to wait
+					try {
+						Variables.processChangeQueue();
+					} finally {
+						Variables.variablesLock.writeLock().unlock();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes a record for every variable of this storage in the given map.
+	 *
+	 * @param out the stream to write the records to.
+	 * @param parent The parent's name with {@link Variable#SEPARATOR} at the end.
+	 * @param map the variables map.
+	 * @return the amount of records written.
+	 */
+	@SuppressWarnings("unchecked")
+	private int compact(DataOutputStream out, String parent, TreeMap<String, Object> map) throws IOException {
+		if (parent.startsWith(Variable.EPHEMERAL_VARIABLE_TOKEN))
+			// Skip ephemeral variables
+			return 0;
+
+		int written = 0;
+		for (Entry<String, Object> childEntry : map.entrySet()) {
+			Object childNode = childEntry.getValue();
+			String childKey = childEntry.getKey();
+
+			if (childNode == null)
+				continue; // Leaf node
+
+			if (childNode instanceof TreeMap) {
+				written += compact(out, parent + childKey + Variable.SEPARATOR, (TreeMap<String, Object>) childNode);
+				continue;
+			}
+
+			// Remove variable separator if needed
+			String name = childKey == null ? parent.substring(0, parent.length() - Variable.SEPARATOR.length()) : parent + childKey;
+			if (name.startsWith(Variable.EPHEMERAL_VARIABLE_TOKEN))
+				continue;
+
+			SerializedVariable.Value serializedValue;
+			try {
+				// Loop over storages to make sure this variable is ours to store
+				VariablesStorage owner = null;
+				for (VariablesStorage storage : Variables.STORAGES) {
+					if (storage.accept(name)) {
+						owner = storage;
+						break;
+					}
+				}
+				if (owner != this)
+					continue;
+				serializedValue = Classes.serialize(childNode);
+			} catch (Exception ex) {
+				//noinspection ThrowableNotThrown
+				Skript.exception(ex, "Error saving variable named " + name);
+				continue;
+			}
+			if (serializedValue == null)
+				continue;
+
+			writeRecord(out, name, serializedValue.type, serializedValue.data);
+			written++;
+		}
+		return written;
+	}
+
+}
@@ -0,0 +1,625 @@
+package ch.njol.skript.variables;
+
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+import org.skriptlang.skript.util.IndexTrackingTreeMap;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * The node of a list variable in a {@link VariablesMap}.
+ * <p>
+ * As long as the indices of the list are exactly {@code 1} to {@code n}, its values are stored in an array,
+ * which makes adding, getting, sizing and iterating elements cheap.
+ * As soon as any other index is set or an element other than the last one is removed,
+ * the values are moved into the tree this class extends, which is then used until the list is cleared.
+ * Operations only the tree supports, like navigating by key, move the values into the tree as well.
+ * <p>
+ * The value of the list variable itself (the {@code null} key) is stored separately and does not affect this.
+ */
+final class DenseListMap extends IndexTrackingTreeMap<Object> {
+
+	private static final Object[] EMPTY = new Object[0];
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	/**
+	 * The values at the indices {@code 1} to {@link #count}, or {@code null} once the values have been moved into the tree.
+	 */
+	private Object @Nullable [] elements = EMPTY;
+	private int count;
+
+	/**
+	 * The value of the {@code null} key, while the values are stored in {@link #elements}.
+	 */
+	private @Nullable Object ownValue;
+
+	/**
+	 * The amount of values in {@link #elements} that are lists themselves.
+	 */
+	private int mapCount;
+
+	DenseListMap() {
+		super(VariablesMap.VARIABLE_NAME_COMPARATOR);
+	}
+
+	/**
+	 * @return whether the values of this list are currently stored in an array rather than in the tree.
+	 */
+	boolean isDense() {
+		return elements != null;
+	}
+
+	/**
+	 * @return the index the given key stands for if it is a positive integer without leading zeroes, or {@code -1}.
+	 */
+	private static int index(@Nullable Object key) {
+		if (!(key instanceof String string))
+			return -1;
+		int length = string.length();
+		// longer indices could overflow, and would not be dense anyway
+		if (length == 0 || length > 9 || string.charAt(0) == '0')
+			return -1;
+		int index = 0;
+		for (int i = 0; i < length; i++) {
+			char c = string.charAt(i);
+			if (c < '0' || c > '9')
+				return -1;
+			index = index * 10 + c - '0';
+		}
+		return index;
+	}
+
+	private static @Nullable String key(int index) {
+		return index == 0 ? null : String.valueOf(index);
+	}
+
+	/**
+	 * Moves the values into the tree, after which all operations are handled by it.
+	 */
+	private void upgrade() {
+		Object[] elements = this.elements;
+		if (elements == null)
+			return;
+		this.elements = null;
+		if (ownValue != null)
+			super.put(null, ownValue);
+		for (int i = 0; i < count; i++)
+			super.put(String.valueOf(i + 1), elements[i]);
+		ownValue = null;
+		count = 0;
+		mapCount = 0;
+	}
+
+	private void append(Object[] elements, Object value) {
+		if (count == elements.length)
+			this.elements = elements = Arrays.copyOf(elements, Math.max(INITIAL_CAPACITY, count + (count >> 1)));
+		elements[count++] = value;
+		if (value instanceof Map)
+			mapCount++;
+	}
+
+	@Override
+	public @Nullable Object get(Object key) {
+		Object[] elements = this.elements;
+		if (elements == null)
+			return super.get(key);
+		if (key == null)
+			return ownValue;
+		int index = index(key);
+		return index > 0 && index <= count ? elements[index - 1] : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		if (elements == null)
+			return super.containsKey(key);
+		return get(key) != null;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		Object[] elements = this.elements;
+		if (elements == null)
+			return super.containsValue(value);
+		if (value != null && value.equals(ownValue))
+			return true;
+		for (int i = 0; i < count; i++) {
+			if (elements[i].equals(value))
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	public int size() {
+		if (elements == null)
+			return super.size();
+		return ownValue == null ? count : count + 1;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public @Nullable Object put(String key, Object value) {
+		Object[] elements = this.elements;
+		if (elements == null || value == null) {
+			upgrade();
+			return super.put(key, value);
+		}
+		if (key == null) {
+			Object previous = ownValue;
+			ownValue = value;
+			return previous;
+		}
+		int index = index(key);
+		if (index > 0 && index <= count) {
+			Object previous = elements[index - 1];
+			elements[index - 1] = value;
+			if (previous instanceof Map)
+				mapCount--;
+			if (value instanceof Map)
+				mapCount++;
+			return previous;
+		}
+		if (index == count + 1) {
+			append(elements, value);
+			return null;
+		}
+		upgrade();
+		return super.put(key, value);
+	}
+
+	@Override
+	public void add(Object value) {
+		Object[] elements = this.elements;
+		if (elements == null || value == null) {
+			super.add(value);
+			return;
+		}
+		append(elements, value);
+	}
+
+	@Override
+	public @Nullable Object remove(Object key) {
+		Object[] elements = this.elements;
+		if (elements == null)
+			return super.remove(key);
+		if (key == null) {
+			Object previous = ownValue;
+			ownValue = null;
+			return previous;
+		}
+		int index = index(key);
+		if (index <= 0 || index > count)
+			return null;
+		if (index == count) {
+			Object previous = elements[--count];
+			elements[count] = null;
+			if (previous instanceof Map)
+				mapCount--;
+			return previous;
+		}
+		upgrade();
+		return super.remove(key);
+	}
+
+	@Override
+	public void putAll(Map<? extends String, ?> map) {
+		if (elements == null) {
+			super.putAll(map);
+			return;
+		}
+		for (Map.Entry<? extends String, ?> entry : map.entrySet())
+			put(entry.getKey(), entry.getValue());
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		elements = EMPTY;
+		count = 0;
+		ownValue = null;
+		mapCount = 0;
+	}
+
+	@Override
+	public int nextOpenIndex() {
+		if (elements == null)
+			return super.nextOpenIndex();
+		return count + 1;
+	}
+
+	@Override
+	public boolean consecutive() {
+		return elements != null || super.consecutive();
+	}
+
+	@Override
+	public @UnmodifiableView Collection<String> mapIndices() {
+		Object[] elements = this.elements;
+		if (elements == null)
+			return super.mapIndices();
+		if (mapCount == 0)
+			return Collections.emptyList();
+		List<String> indices = new ArrayList<>(mapCount);
+		for (int i = 0; i < count; i++) {
+			if (elements[i] instanceof Map)
+				indices.add(String.valueOf(i + 1));
+		}
+		return Collections.unmodifiableList(indices);
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super String, ? super Object> action) {
+		Object[] elements = this.elements;
+		if (elements == null) {
+			super.forEach(action);
+			return;
+		}
+		if (ownValue != null)
+			action.accept(null, ownValue);
+		for (int i = 0; i < count; i++)
+			action.accept(String.valueOf(i + 1), elements[i]);
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		if (elements == null)
+			return super.entrySet();
+		return new AbstractSet<>() {
+			@Override
+			public Iterator<Map.Entry<String, Object>> iterator() {
+				if (elements == null)
+					return DenseListMap.super.entrySet().iterator();
+				return new DenseIterator<>() {
+					@Override
+					Map.Entry<String, Object> element(int index, Object value) {
+						return new DenseEntry(key(index), value);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return DenseListMap.this.size();
+			}
+		};
+	}
+
+	@Override
+	public Set<String> keySet() {
+		if (elements == null)
+			return super.keySet();
+		return new AbstractSet<>() {
+			@Override
+			public Iterator<String> iterator() {
+				if (elements == null)
+					return DenseListMap.super.keySet().iterator();
+				return new DenseIterator<>() {
+					@Override
+					@Nullable String element(int index, Object value) {
+						return key(index);
+					}
+				};
+			}
+
+			@Override
+			public boolean contains(Object key) {
+				return containsKey(key);
+			}
+
+			@Override
+			public boolean remove(Object key) {
+				return DenseListMap.this.remove(key) != null;
+			}
+
+			@Override
+			public int size() {
+				return DenseListMap.this.size();
+			}
+		};
+	}
+
+	@Override
+	public Collection<Object> values() {
+		if (elements == null)
+			return super.values();
+		return new AbstractCollection<>() {
+			@Override
+			public Iterator<Object> iterator() {
+				if (elements == null)
+					return DenseListMap.super.values().iterator();
+				return new DenseIterator<>() {
+					@Override
+					Object element(int index, Object value) {
+						return value;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return DenseListMap.this.size();
+			}
+		};
+	}
+
+	/**
+	 * Iterates over the values of the array as they were when the iterator was created,
+	 * starting with the value of the {@code null} key if there is one.
+	 */
+	private abstract class DenseIterator<T> implements Iterator<T> {
+
+		private final Object[] elements;
+		private final int count;
+		private final @Nullable Object ownValue;
+
+		/**
+		 * The index of the next element, where {@code 0} stands for the {@code null} key.
+		 */
+		private int next;
+		private int last = -1;
+
+		DenseIterator() {
+			assert DenseListMap.this.elements != null;
+			this.elements = DenseListMap.this.elements;
+			this.count = DenseListMap.this.count;
+			this.ownValue = DenseListMap.this.ownValue;
+			this.next = ownValue != null ? 0 : 1;
+		}
+
+		abstract T element(int index, Object value);
+
+		@Override
+		public boolean hasNext() {
+			return next <= count;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			last = next++;
+			return element(last, last == 0 ? ownValue : elements[last - 1]);
+		}
+
+		@Override
+		public void remove() {
+			if (last == -1)
+				throw new IllegalStateException();
+			DenseListMap.this.remove(key(last));
+			last = -1;
+		}
+
+	}
+
+	private final class DenseEntry extends AbstractMap.SimpleEntry<String, Object> {
+
+		DenseEntry(@Nullable String key, Object value) {
+			super(key, value);
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			put(getKey(), value);
+			return super.setValue(value);
+		}
+
+	}
+
+	// the remaining operations are only supported by the tree
+
+	@Override
+	public Object clone() {
+		upgrade();
+		return super.clone();
+	}
+
+	@Override
+	public String firstKey() {
+		upgrade();
+		return super.firstKey();
+	}
+
+	@Override
+	public String lastKey() {
+		upgrade();
+		return super.lastKey();
+	}
+
+	@Override
+	public Map.Entry<String, Object> firstEntry() {
+		upgrade();
+		return super.firstEntry();
+	}
+
+	@Override
+	public Map.Entry<String, Object> lastEntry() {
+		upgrade();
+		return super.lastEntry();
+	}
+
+	@Override
+	public Map.Entry<String, Object> pollFirstEntry() {
+		upgrade();
+		return super.pollFirstEntry();
+	}
+
+	@Override
+	public Map.Entry<String, Object> pollLastEntry() {
+		upgrade();
+		return super.pollLastEntry();
+	}
+
+	@Override
+	public Map.Entry<String, Object> lowerEntry(String key) {
+		upgrade();
+		return super.lowerEntry(key);
+	}
+
+	@Override
+	public String lowerKey(String key) {
+		upgrade();
+		return super.lowerKey(key);
+	}
+
+	@Override
+	public Map.Entry<String, Object> floorEntry(String key) {
+		upgrade();
+		return super.floorEntry(key);
+	}
+
+	@Override
+	public String floorKey(String key) {
+		upgrade();
+		return super.floorKey(key);
+	}
+
+	@Override
+	public Map.Entry<String, Object> ceilingEntry(String key) {
+		upgrade();
+		return super.ceilingEntry(key);
+	}
+
+	@Override
+	public String ceilingKey(String key) {
+		upgrade();
+		return super.ceilingKey(key);
+	}
+
+	@Override
+	public Map.Entry<String, Object> higherEntry(String key) {
+		upgrade();
+		return super.higherEntry(key);
+	}
+
+	@Override
+	public String higherKey(String key) {
+		upgrade();
+		return super.higherKey(key);
+	}
+
+	@Override
+	public NavigableSet<String> navigableKeySet() {
+		upgrade();
+		return super.navigableKeySet();
+	}
+
+	@Override
+	public NavigableSet<String> descendingKeySet() {
+		upgrade();
+		return super.descendingKeySet();
+	}
+
+	@Override
+	public NavigableMap<String, Object> descendingMap() {
+		upgrade();
+		return super.descendingMap();
+	}
+
+	@Override
+	public NavigableMap<String, Object> subMap(String fromKey, boolean fromInclusive, String toKey, boolean toInclusive) {
+		upgrade();
+		return super.subMap(fromKey, fromInclusive, toKey, toInclusive);
+	}
+
+	@Override
+	public NavigableMap<String, Object> headMap(String toKey, boolean inclusive) {
+		upgrade();
+		return super.headMap(toKey, inclusive);
+	}
+
+	@Override
+	public NavigableMap<String, Object> tailMap(String fromKey, boolean inclusive) {
+		upgrade();
+		return super.tailMap(fromKey, inclusive);
+	}
+
+	@Override
+	public SortedMap<String, Object> subMap(String fromKey, String toKey) {
+		upgrade();
+		return super.subMap(fromKey, toKey);
+	}
+
+	@Override
+	public SortedMap<String, Object> headMap(String toKey) {
+		upgrade();
+		return super.headMap(toKey);
+	}
+
+	@Override
+	public SortedMap<String, Object> tailMap(String fromKey) {
+		upgrade();
+		return super.tailMap(fromKey);
+	}
+
+	@Override
+	public Object putIfAbsent(String key, Object value) {
+		upgrade();
+		return super.putIfAbsent(key, value);
+	}
+
+	@Override
+	public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+		upgrade();
+		return super.computeIfAbsent(key, mappingFunction);
+	}
+
+	@Override
+	public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+		upgrade();
+		return super.computeIfPresent(key, remappingFunction);
+	}
+
+	@Override
+	public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+		upgrade();
+		return super.compute(key, remappingFunction);
+	}
+
+	@Override
+	public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+		upgrade();
+		return super.merge(key, value, remappingFunction);
+	}
+
+	@Override
+	public boolean replace(String key, Object oldValue, Object newValue) {
+		upgrade();
+		return super.replace(key, oldValue, newValue);
+	}
+
+	@Override
+	public Object replace(String key, Object value) {
+		upgrade();
+		return super.replace(key, value);
+	}
+
+	@Override
+	public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+		upgrade();
+		super.replaceAll(function);
+	}
+
+}
@@ -76,7 +76,7 @@ public class FlatFileStorage extends VariablesStorage {
 	 * The amount of {@link #changes} needed
 	 * for a new {@link #saveVariables(boolean) save}.
 	 */
-	private static int REQUIRED_CHANGES_FOR_RESAVE = 1000;
+	static int REQUIRED_CHANGES_FOR_RESAVE = 1000;
 
 	/**
 	 * The amount of variable changes written since the last full save.
@@ -369,9 +369,13 @@ public class FlatFileStorage extends VariablesStorage {
 				backupTask.cancel();
 		}
 
+		// the sharded map is copied one shard at a time under the locks of its shards,
+		// as its writes never take the global lock
+		ShardedVariablesMap shardedVariables = Variables.shardedVariables;
 		try {
 			// Acquire read lock
-			Variables.getReadLock().lock();
+			if (shardedVariables == null)
+				Variables.getReadLock().lock();
 
 			synchronized (connectionLock) {
 				try {
@@ -407,7 +411,11 @@ public class FlatFileStorage extends VariablesStorage {
 						pw.println("#");
 						pw.println("# version: " + Skript.getVersion());
 						pw.println();
-						save(pw, "", Variables.getVariables());
+						if (shardedVariables != null) {
+							shardedVariables.forEachShard(tree -> save(pw, "", tree));
+						} else {
+							save(pw, "", Variables.getVariables());
+						}
 						pw.println();
 						pw.flush();
 						pw.close();
@@ -425,13 +433,15 @@ public class FlatFileStorage extends VariablesStorage {
 				}
 			}
 		} finally {
-			Variables.getReadLock().unlock();
-			boolean gotWriteLock = Variables.variablesLock.writeLock().tryLock();
-			if (gotWriteLock) { // Only process queue now if it doesn't require us to wait
-				try {
-					Variables.processChangeQueue();
-				} finally {
-					Variables.variablesLock.writeLock().unlock();
+			if (shardedVariables == null) {
+				Variables.getReadLock().unlock();
+				boolean gotWriteLock = Variables.variablesLock.writeLock().tryLock();
+				if (gotWriteLock) { // Only process queue now if it doesn't require us to wait
+					try {
+						Variables.processChangeQueue();
+					} finally {
+						Variables.variablesLock.writeLock().unlock();
+					}
 				}
 			}
 		}
@@ -0,0 +1,290 @@
+package ch.njol.skript.variables;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.lang.Variable;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Loads the top-level list variables of a {@link SQLStorage} when they are first accessed,
+ * instead of loading all variables of the database when Skript starts.
+ * <p>
+ * Variables that are not in a list, and lists whose name starts with one of the preloaded prefixes, are still loaded on startup.
+ * All other lists are loaded as a whole on their first access, so iterating over a list always sees all of its elements.
+ * At most {@link #capacity} loaded lists are kept, unloading the least recently used ones
+ * whose changes have all been written to the database.
+ */
+final class LazyVariables {
+
+	/**
+	 * Whether any database loads its variables lazily. Checked before every access to a global variable.
+	 */
+	private static volatile boolean enabled = false;
+
+	/**
+	 * The lazily loaded database of each top-level list name, or an empty optional if the list is always loaded.
+	 * A list belongs to the database accepting the first variable of it that was accessed.
+	 */
+	private static final Map<String, Optional<LazyVariables>> ROUTES = new ConcurrentHashMap<>();
+
+	/**
+	 * The state of a list loaded from the database.
+	 */
+	static final class ListState {
+
+		private final LazyVariables owner;
+
+		/**
+		 * Whether the list has been loaded from the database.
+		 */
+		boolean loaded;
+
+		/**
+		 * The amount of changes to the list that have not yet been written to the database.
+		 * A list with pending changes is never unloaded, as loading it again would read outdated values.
+		 */
+		int pending;
+
+		/**
+		 * The amount of reads of the list that are in progress.
+		 * A list that is being read is never unloaded, as the read would see an empty list.
+		 */
+		int readers;
+
+		private ListState(LazyVariables owner) {
+			this.owner = owner;
+		}
+
+	}
+
+	/**
+	 * Reads all variables of a list from the database, see {@link SQLStorage#loadList(String)}.
+	 */
+	private final Function<String, @Nullable Map<String, Object>> loader;
+
+	/**
+	 * The name of the database, for errors.
+	 */
+	private final String storageName;
+
+	/**
+	 * The prefixes of the names of the lists that are loaded on startup.
+	 */
+	private final String[] preloadedPrefixes;
+
+	/**
+	 * The maximum amount of lists kept loaded.
+	 */
+	private final int capacity;
+
+	/**
+	 * The lists of the database that are or were loaded, in order of access.
+	 */
+	private final LinkedHashMap<String, ListState> lists = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * @param storage the database to load the lists from.
+	 * @param preloadedPrefixes the prefixes of the names of the lists that are loaded on startup.
+	 * @param capacity the maximum amount of lists to keep loaded.
+	 */
+	LazyVariables(SQLStorage storage, String[] preloadedPrefixes, int capacity) {
+		this(storage::loadList, storage.getUserConfigurationName(), preloadedPrefixes, capacity);
+	}
+
+	/**
+	 * @param loader reads all variables of a list from the database, or returns {@code null} if the database could not be read.
+	 * @param storageName the name of the database.
+	 * @param preloadedPrefixes the prefixes of the names of the lists that are loaded on startup.
+	 * @param capacity the maximum amount of lists to keep loaded.
+	 */
+	LazyVariables(Function<String, @Nullable Map<String, Object>> loader, String storageName, String[] preloadedPrefixes, int capacity) {
+		this.loader = loader;
+		this.storageName = storageName;
+		this.preloadedPrefixes = preloadedPrefixes;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Starts loading the lists of this database lazily. Called once all variables have been loaded on startup.
+	 */
+	void start() {
+		enabled = true;
+	}
+
+	/**
+	 * @return the prefixes of the names of the lists that are loaded on startup.
+	 */
+	String[] getPreloadedPrefixes() {
+		return preloadedPrefixes;
+	}
+
+	/**
+	 * @return whether the list of the given name is loaded on startup.
+	 */
+	boolean isPreloaded(String list) {
+		for (String prefix : preloadedPrefixes) {
+			if (list.startsWith(prefix))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Loads the list the given global variable belongs to, if it is stored lazily and not loaded yet.
+	 * Must be called before the variable is read or changed, without holding any lock on the variables.
+	 * <p>
+	 * A list that is about to be read is pinned, so that it is not unloaded by another thread before it was read.
+	 * The returned pin must be passed to {@link #afterAccess(ListState)} once the variable has been read.
+	 * A list that is about to be changed stays loaded until the change has been written.
+	 *
+	 * @param name the name of the variable.
+	 * @param change whether the variable is about to be changed.
+	 * 			Every change must be passed to {@link Variables#saveVariableChange(String, Object)} afterwards.
+	 * @return the pinned list if the variable is about to be read, or {@code null} if nothing was pinned.
+	 */
+	static @Nullable ListState beforeAccess(String name, boolean change) {
+		if (!enabled)
+			return null;
+		int end = name.indexOf(Variable.SEPARATOR);
+		if (end == -1)
+			return null;
+		return beforeAccess(name.substring(0, end), name, null, change);
+	}
+
+	/**
+	 * Like {@link #beforeAccess(String, boolean)}, for a variable name split as by {@link Variables#splitVariableName(String)}.
+	 */
+	static @Nullable ListState beforeAccess(String[] path, boolean change) {
+		if (!enabled || path.length < 2)
+			return null;
+		return beforeAccess(path[0], null, path, change);
+	}
+
+	private static @Nullable ListState beforeAccess(String list, @Nullable String name, String @Nullable [] path, boolean change) {
+		Optional<LazyVariables> route = ROUTES.get(list);
+		if (route == null) {
+			String variable = name != null ? name : Variables.joinVariableName(path);
+			route = ROUTES.computeIfAbsent(list, key -> Optional.ofNullable(findStorage(key, variable)));
+		}
+		LazyVariables lazyVariables = route.orElse(null);
+		return lazyVariables == null ? null : lazyVariables.load(list, change);
+	}
+
+	/**
+	 * Releases a list pinned by {@link #beforeAccess(String, boolean)}, allowing it to be unloaded again.
+	 *
+	 * @param pinned the pinned list, or {@code null} if nothing was pinned.
+	 */
+	static void afterAccess(@Nullable ListState pinned) {
+		if (pinned == null)
+			return;
+		synchronized (pinned.owner) {
+			pinned.readers--;
+		}
+	}
+
+	private static @Nullable LazyVariables findStorage(String list, String name) {
+		if (name.startsWith(Variable.EPHEMERAL_VARIABLE_TOKEN))
+			return null;
+		for (VariablesStorage storage : Variables.STORAGES) {
+			if (storage.accept(name)) {
+				LazyVariables lazyVariables = storage instanceof SQLStorage sqlStorage ? sqlStorage.getLazyVariables() : null;
+				if (lazyVariables == null || lazyVariables.isPreloaded(list))
+					return null;
+				return lazyVariables;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Called once a change passed to {@link Variables#saveVariableChange(String, Object)} has been written to its database,
+	 * or was replaced by a later change to the same variable.
+	 *
+	 * @param name the name of the changed variable.
+	 */
+	static void changeSettled(String name) {
+		if (!enabled)
+			return;
+		int end = name.indexOf(Variable.SEPARATOR);
+		if (end == -1)
+			return;
+		String list = name.substring(0, end);
+		Optional<LazyVariables> route = ROUTES.get(list);
+		if (route != null)
+			route.ifPresent(lazyVariables -> lazyVariables.settled(list));
+	}
+
+	synchronized void settled(String list) {
+		ListState state = lists.get(list);
+		if (state != null && state.pending > 0)
+			state.pending--;
+	}
+
+	/**
+	 * Loads the given list if it is not loaded yet, and pins it for the access.
+	 *
+	 * @return the list if it was pinned for a read.
+	 */
+	@Nullable ListState load(String list, boolean change) {
+		synchronized (this) {
+			ListState state = lists.computeIfAbsent(list, key -> new ListState(this));
+			if (state.loaded)
+				return pin(state, change);
+		}
+
+		// the database is read without holding the lock, as values may have to be deserialized on the main thread.
+		// If multiple threads load the same list at the same time, only the values read first are used.
+		Map<String, Object> values = loader.apply(list);
+
+		synchronized (this) {
+			ListState state = lists.computeIfAbsent(list, key -> new ListState(this));
+			if (!state.loaded) {
+				if (values == null) {
+					Skript.error("Could not load the list variable {" + list + "::*} from the database '"
+						+ storageName + "', its stored values will be missing until it is unloaded");
+				} else {
+					Variables.setLoadedVariables(values);
+				}
+				state.loaded = true;
+				unloadUnused(list);
+			}
+			return pin(state, change);
+		}
+	}
+
+	private static @Nullable ListState pin(ListState state, boolean change) {
+		if (change) {
+			state.pending++;
+			return null;
+		}
+		state.readers++;
+		return state;
+	}
+
+	/**
+	 * Unloads the least recently used lists without pending changes or reads until at most {@link #capacity} lists are loaded.
+	 *
+	 * @param current the list that is being accessed, which is never unloaded.
+	 */
+	private void unloadUnused(String current) {
+		int loaded = lists.size();
+		Iterator<Map.Entry<String, ListState>> iterator = lists.entrySet().iterator();
+		while (loaded > capacity && iterator.hasNext()) {
+			Map.Entry<String, ListState> entry = iterator.next();
+			ListState state = entry.getValue();
+			if (state.pending > 0 || state.readers > 0 || entry.getKey().equals(current))
+				continue;
+			iterator.remove();
+			loaded--;
+			Variables.unloadList(entry.getKey());
+		}
+	}
+
+}
@@ -0,0 +1,99 @@
+package ch.njol.skript.variables;
+
+import ch.njol.skript.lang.Variable;
+import ch.njol.skript.lang.parser.ParserInstance;
+import org.jetbrains.annotations.Nullable;
+import org.skriptlang.skript.lang.structure.Structure;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The slots of the local variables with constant names of a structure, which are assigned while the structure is parsed.
+ * <p>
+ * The local variables of an execution adopt the slots of the first variable accessed by its slot,
+ * and then store the values of these variables in an array instead of hashing their names.
+ * Variables accessed by name, e.g. those with expressions in their name or the parameters of a function,
+ * are looked up in the slots as well, so both ways of accessing a variable always see the same value.
+ * <p>
+ * All variables of a structure share the same slots: a name has one slot regardless of the section it is used in,
+ * as local variables are visible in the whole execution.
+ */
+public final class LocalVariableSlots {
+
+	static {
+		ParserInstance.registerData(SlotsData.class, SlotsData::new);
+	}
+
+	/**
+	 * The slot of each name, as stored in the {@link VariablesMap} of the local variables.
+	 */
+	private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+
+	LocalVariableSlots() { }
+
+	/**
+	 * @return the slots of the structure that is currently being parsed, or null if no structure is being parsed.
+	 */
+	public static @Nullable LocalVariableSlots current() {
+		ParserInstance parser = ParserInstance.get();
+		if (!parser.isActive())
+			return null;
+		Structure structure = parser.getCurrentStructure();
+		if (structure == null)
+			return null;
+		return parser.getData(SlotsData.class).getSlots(structure);
+	}
+
+	/**
+	 * Gets the slot of a local variable, assigning a new slot if the name doesn't have one yet.
+	 *
+	 * @param name the name of a local variable, which must not be a list variable or part of one.
+	 * 			It must be normalised like the names passed to {@link VariablesMap}, i.e. lowercase if variables are case-insensitive.
+	 * @return the slot of the variable.
+	 */
+	public synchronized int slotOf(String name) {
+		assert !name.contains(Variable.SEPARATOR) : name;
+		Integer slot = slots.get(name);
+		if (slot == null) {
+			slot = slots.size();
+			slots.put(name, slot);
+		}
+		return slot;
+	}
+
+	/**
+	 * @param name the name of a variable.
+	 * @return the slot of the variable, or -1 if it doesn't have one.
+	 */
+	int indexOf(String name) {
+		Integer slot = slots.get(name);
+		return slot != null ? slot : -1;
+	}
+
+	/**
+	 * @return the amount of slots.
+	 */
+	int size() {
+		return slots.size();
+	}
+
+	/**
+	 * The slots of the structures parsed by a {@link ParserInstance}.
+	 */
+	private static final class SlotsData extends ParserInstance.Data {
+
+		private final Map<Structure, LocalVariableSlots> slots = new WeakHashMap<>();
+
+		private SlotsData(ParserInstance parserInstance) {
+			super(parserInstance);
+		}
+
+		private LocalVariableSlots getSlots(Structure structure) {
+			return slots.computeIfAbsent(structure, key -> new LocalVariableSlots());
+		}
+
+	}
+
+}
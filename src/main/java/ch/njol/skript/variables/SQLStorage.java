@@ -1,11 +1,21 @@
 package ch.njol.skript.variables;
 
 import java.io.File;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
@@ -15,6 +25,7 @@ import ch.njol.skript.Skript;
 import ch.njol.skript.classes.ClassInfo;
 import ch.njol.skript.classes.Serializer;
 import ch.njol.skript.config.SectionNode;
+import ch.njol.skript.lang.Variable;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.registrations.Classes;
 import ch.njol.skript.util.Task;
@@ -57,6 +68,32 @@ public abstract class SQLStorage extends VariablesStorage {
 	 */
 	private final static long TRANSACTION_DELAY = 500;
 
+	/**
+	 * The default maximum amount of variable changes written in one batch.
+	 */
+	private final static int DEFAULT_BATCH_SIZE = 500;
+
+	/**
+	 * The default maximum time in milliseconds a variable change waits for more changes to write in the same batch.
+	 */
+	private final static long DEFAULT_BATCH_LATENCY = 50;
+
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private long batchLatency = DEFAULT_BATCH_LATENCY;
+
+	/**
+	 * The default maximum amount of lists kept loaded if the variables are loaded lazily.
+	 */
+	private final static int DEFAULT_LAZY_LIST_CACHE_SIZE = 1000;
+
+	/**
+	 * Loads the lists of this database when they are first accessed, or {@code null} if all variables are loaded on startup.
+	 */
+	@Nullable
+	private LazyVariables lazyVariables;
+
+	private final BatchMetrics batchMetrics = new BatchMetrics();
+
 	/**
 	 * Creates a SQLStorage with a create table query.
 	 * 
@@ -117,6 +154,60 @@ public abstract class SQLStorage extends VariablesStorage {
 			monitor = monitor_changes;
 			this.monitor_interval = monitor_interval.getAs(Timespan.TimePeriod.MILLISECOND);
 
+			// optional, as they were added later
+			if (n.get("batch size") != null) {
+				final Integer batch_size = getValue(n, "batch size", Integer.class);
+				if (batch_size == null)
+					return false;
+				if (batch_size < 1) {
+					Skript.error("The batch size of the database '" + getUserConfigurationName() + "' must be at least 1");
+					return false;
+				}
+				batchSize = batch_size;
+			}
+			if (n.get("batch latency") != null) {
+				final Timespan batch_latency = getValue(n, "batch latency", Timespan.class);
+				if (batch_latency == null)
+					return false;
+				batchLatency = batch_latency.getAs(Timespan.TimePeriod.MILLISECOND);
+			}
+			if (n.get("lazy loading") != null) {
+				final Boolean lazy_loading = getValue(n, "lazy loading", Boolean.class);
+				if (lazy_loading == null)
+					return false;
+				if (lazy_loading) {
+					if (monitor) {
+						Skript.error("The database '" + getUserConfigurationName() + "' cannot use both 'lazy loading' and 'monitor changes'");
+						return false;
+					}
+					String[] preloaded_lists = new String[0];
+					if (n.get("preloaded lists") != null) {
+						final String lists = getValue(n, "preloaded lists");
+						if (lists == null)
+							return false;
+						preloaded_lists = lists.trim().isEmpty() ? new String[0] : lists.trim().split("\\s*,\\s*");
+						for (final String list : preloaded_lists) {
+							if (list.contains(Variable.SEPARATOR)) {
+								Skript.error("The preloaded list '" + list + "' of the database '" + getUserConfigurationName() + "' must be the start of a list's name, without '" + Variable.SEPARATOR + "'");
+								return false;
+							}
+						}
+					}
+					int cache_size = DEFAULT_LAZY_LIST_CACHE_SIZE;
+					if (n.get("lazy list cache size") != null) {
+						final Integer size = getValue(n, "lazy list cache size", Integer.class);
+						if (size == null)
+							return false;
+						if (size < 1) {
+							Skript.error("The lazy list cache size of the database '" + getUserConfigurationName() + "' must be at least 1");
+							return false;
+						}
+						cache_size = size;
+					}
+					lazyVariables = new LazyVariables(this, preloaded_lists, cache_size);
+				}
+			}
+
 			final Database db;
 			try {
 				Database database = initialize(n);
@@ -161,12 +252,35 @@ public abstract class SQLStorage extends VariablesStorage {
 				// Table name support was added after the verison that used the legacy database format
 
 				// new
-				final ResultSet r2 = db.query("SELECT " + SELECT_ORDER + " FROM " + getTableName());
-				assert r2 != null;
-				try {
-					loadVariables(r2);
-				} finally {
-					r2.close();
+				final LazyVariables lazyVariables = this.lazyVariables;
+				if (lazyVariables == null) {
+					final ResultSet r2 = db.query("SELECT " + SELECT_ORDER + " FROM " + getTableName());
+					assert r2 != null;
+					try {
+						loadVariables(r2);
+					} finally {
+						r2.close();
+					}
+				} else {
+					// only load variables that are not in a list, and the preloaded lists
+					final String[] preloaded = lazyVariables.getPreloadedPrefixes();
+					final StringBuilder query = new StringBuilder("SELECT " + SELECT_ORDER + " FROM " + getTableName()
+						+ " WHERE name NOT LIKE '%" + Variable.SEPARATOR + "%'");
+					for (int i = 0; i < preloaded.length; i++)
+						query.append(" OR name LIKE ? ESCAPE '!'");
+					final PreparedStatement preloadQuery = db.prepare(query.toString());
+					try {
+						for (int i = 0; i < preloaded.length; i++)
+							preloadQuery.setString(i + 1, escapeLike(preloaded[i]) + "%");
+						final ResultSet r2 = preloadQuery.executeQuery();
+						try {
+							loadVariables(r2);
+						} finally {
+							r2.close();
+						}
+					} finally {
+						preloadQuery.close();
+					}
 				}
 
 				// store old variables in new table and delete the old table
@@ -202,6 +316,10 @@ public abstract class SQLStorage extends VariablesStorage {
 	protected void allLoaded() {
 		Skript.debug("Database " + getUserConfigurationName() + " loaded. Queue size = " + changesQueue.size());
 
+		final LazyVariables lazyVariables = this.lazyVariables;
+		if (lazyVariables != null)
+			lazyVariables.start();
+
 		// start committing thread. Its first execution will also commit the first batch of changed variables.
 		Skript.newThread(new Runnable() {
 			@Override
@@ -211,8 +329,11 @@ public abstract class SQLStorage extends VariablesStorage {
 					synchronized (db) {
 						final Database db = SQLStorage.this.db.get();
 						try {
-							if (db != null)
+							if (db != null) {
+								final long start = System.nanoTime();
 								db.getConnection().commit();
+								batchMetrics.commit(System.nanoTime() - start);
+							}
 						} catch (final SQLException e) {
 							sqlException(e);
 						}
@@ -326,6 +447,11 @@ public abstract class SQLStorage extends VariablesStorage {
 						monitorCleanUpQuery.close();
 				} catch (final SQLException e) {}
 				monitorCleanUpQuery = db.prepare("DELETE FROM " + getTableName() + " WHERE value IS NULL AND rowid < ?");
+				try {
+					if (listQuery != null)
+						listQuery.close();
+				} catch (final SQLException e) {}
+				listQuery = db.prepare("SELECT " + SELECT_ORDER + " FROM " + getTableName() + " WHERE name LIKE ? ESCAPE '!'");
 			} catch (final SQLException e) {
 				Skript.exception(e, "Could not prepare queries for the database '" + getUserConfigurationName() + "': " + e.getLocalizedMessage());
 				return false;
@@ -373,15 +499,138 @@ public abstract class SQLStorage extends VariablesStorage {
 	 */
 	@Nullable
 	PreparedStatement monitorCleanUpQuery;
+	/**
+	 * Params: name pattern
+	 * <p>
+	 * Selects the variables of a list. values in order: {@value #SELECT_ORDER}
+	 */
+	@Nullable
+	private PreparedStatement listQuery;
+
+	/**
+	 * Takes more variable changes from the queue, until {@link #batchSize} changes have been taken
+	 * or the first change has waited for {@link #batchLatency} milliseconds.
+	 */
+	@Override
+	protected void collectBatch(final List<SerializedVariable> batch) throws InterruptedException {
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchLatency);
+		while (batch.size() < batchSize) {
+			if (changesQueue.drainTo(batch, batchSize - batch.size()) > 0)
+				continue;
+			final long remaining = deadline - System.nanoTime();
+			if (remaining <= 0)
+				break;
+			final SerializedVariable variable = changesQueue.poll(remaining, TimeUnit.NANOSECONDS);
+			if (variable == null)
+				break;
+			batch.add(variable);
+		}
+	}
+
+	/**
+	 * Writes the given variable changes with one batch of writes and one batch of deletions.
+	 * Only the last change of a variable in the batch is written.
+	 */
+	@Override
+	protected boolean saveBatch(final List<SerializedVariable> batch) {
+		if (batch.size() == 1) {
+			if (!super.saveBatch(batch))
+				return false;
+			batchMetrics.batch(1, 0);
+			return true;
+		}
+
+		final Map<String, SerializedVariable> changes = new LinkedHashMap<>();
+		for (final SerializedVariable variable : batch)
+			changes.put(variable.name, variable);
+
+		synchronized (db) {
+			final Database db = this.db.get();
+			final PreparedStatement writeQuery = this.writeQuery;
+			final PreparedStatement deleteQuery = this.deleteQuery;
+			assert db != null && writeQuery != null && deleteQuery != null;
+			try {
+				writeBatch(db.getConnection(), writeQuery, deleteQuery, changes.values());
+			} catch (final SQLException e) {
+				sqlException(e);
+				return false;
+			}
+		}
+		batchMetrics.batch(changes.size(), batch.size() - changes.size());
+		return true;
+	}
+
+	/**
+	 * Writes the given variable changes with one batch of writes and one batch of deletions.
+	 * Either all changes are written or none are, and the batches of the statements are empty afterwards,
+	 * so a failed batch is never executed with a later one.
+	 *
+	 * @param connection The connection of the statements, which must not commit automatically.
+	 * @throws SQLException If the changes could not be written. None of them have been written then.
+	 */
+	static void writeBatch(final Connection connection, final PreparedStatement writeQuery, final PreparedStatement deleteQuery,
+						   final Collection<SerializedVariable> changes) throws SQLException {
+		// the changes of previous batches may not have been committed yet, so only this batch is rolled back if it fails
+		final Savepoint savepoint = connection.setSavepoint();
+		try {
+			boolean writes = false, deletes = false;
+			for (final SerializedVariable variable : changes) {
+				final SerializedVariable.Value value = variable.value;
+				checkSize(variable.name, value == null ? null : value.data);
+				if (value == null) {
+					deleteQuery.setString(1, variable.name);
+					deleteQuery.addBatch();
+					deletes = true;
+				} else {
+					int i = 1;
+					writeQuery.setString(i++, variable.name);
+					writeQuery.setString(i++, value.type);
+					writeQuery.setBytes(i++, value.data); // SQLite desn't support setBlob
+					writeQuery.setString(i++, guid);
+					writeQuery.addBatch();
+					writes = true;
+				}
+			}
+			if (writes)
+				writeQuery.executeBatch();
+			if (deletes)
+				deleteQuery.executeBatch();
+			connection.releaseSavepoint(savepoint);
+		} catch (final SQLException e) {
+			try {
+				connection.rollback(savepoint);
+			} catch (final SQLException rollbackException) {
+				e.addSuppressed(rollbackException);
+			}
+			throw e;
+		} finally {
+			// statements keep their batch if executing it failed
+			clearBatch(writeQuery);
+			clearBatch(deleteQuery);
+		}
+	}
+
+	private static void clearBatch(final PreparedStatement statement) {
+		try {
+			statement.clearBatch();
+		} catch (final SQLException ignored) {} // the statement is closed, so it won't execute the batch either
+	}
+
+	/**
+	 * Prints an error if the given variable is too large to be saved in the database.
+	 */
+	private static void checkSize(final String name, final @Nullable byte[] value) {
+		// REMIND get the actual maximum size from the database
+		if (name.length() > MAX_VARIABLE_NAME_LENGTH)
+			Skript.error("The name of the variable {" + name + "} is too long to be saved in a database (length: " + name.length() + ", maximum allowed: " + MAX_VARIABLE_NAME_LENGTH + ")! It will be truncated and won't bet available under the same name again when loaded.");
+		if (value != null && value.length > MAX_VALUE_SIZE)
+			Skript.error("The variable {" + name + "} cannot be saved in the database as its value's size (" + value.length + ") exceeds the maximum allowed size of " + MAX_VALUE_SIZE + "! An attempt to save the variable will be made nonetheless.");
+	}
 
 	@Override
 	protected boolean save(final String name, final @Nullable String type, final @Nullable byte[] value) {
 		synchronized (db) {
-			// REMIND get the actual maximum size from the database
-			if (name.length() > MAX_VARIABLE_NAME_LENGTH)
-				Skript.error("The name of the variable {" + name + "} is too long to be saved in a database (length: " + name.length() + ", maximum allowed: " + MAX_VARIABLE_NAME_LENGTH + ")! It will be truncated and won't bet available under the same name again when loaded.");
-			if (value != null && value.length > MAX_VALUE_SIZE)
-				Skript.error("The variable {" + name + "} cannot be saved in the database as its value's size (" + value.length + ") exceeds the maximum allowed size of " + MAX_VALUE_SIZE + "! An attempt to save the variable will be made nonetheless.");
+			checkSize(name, value);
 			try {
 				if (type == null) {
 					assert value == null;
@@ -409,8 +658,10 @@ public abstract class SQLStorage extends VariablesStorage {
 
 	@Override
 	public void close() {
+		// not synchronized, as the variables being written need the lock
+		super.close();
+		Skript.debug("Database " + getUserConfigurationName() + " closed. Writes: " + batchMetrics);
 		synchronized (db) {
-			super.close();
 			final Database db = this.db.get();
 			if (db != null) {
 				try {
@@ -424,6 +675,196 @@ public abstract class SQLStorage extends VariablesStorage {
 		}
 	}
 
+	/**
+	 * @return The statistics of the batches of variable changes written to this database.
+	 */
+	public BatchMetrics getBatchMetrics() {
+		return batchMetrics;
+	}
+
+	/**
+	 * Statistics of the batches of variable changes written to a database, and of the transactions committing them.
+	 */
+	public static final class BatchMetrics {
+
+		private final AtomicLong batches = new AtomicLong();
+		private final AtomicLong written = new AtomicLong();
+		private final AtomicLong coalesced = new AtomicLong();
+		private final AtomicLong largestBatch = new AtomicLong();
+		private final AtomicLong commits = new AtomicLong();
+		private final AtomicLong commitNanos = new AtomicLong();
+		private final AtomicLong longestCommitNanos = new AtomicLong();
+
+		private BatchMetrics() {}
+
+		void batch(final int size, final int coalesced) {
+			batches.incrementAndGet();
+			written.addAndGet(size);
+			this.coalesced.addAndGet(coalesced);
+			largestBatch.accumulateAndGet(size, Math::max);
+		}
+
+		void commit(final long nanos) {
+			commits.incrementAndGet();
+			commitNanos.addAndGet(nanos);
+			longestCommitNanos.accumulateAndGet(nanos, Math::max);
+		}
+
+		/**
+		 * @return The amount of batches written.
+		 */
+		public long getBatches() {
+			return batches.get();
+		}
+
+		/**
+		 * @return The amount of variable changes written.
+		 */
+		public long getWrittenChanges() {
+			return written.get();
+		}
+
+		/**
+		 * @return The amount of variable changes that were not written,
+		 * because a later change of the same variable was in the same batch.
+		 */
+		public long getCoalescedChanges() {
+			return coalesced.get();
+		}
+
+		/**
+		 * @return The average amount of variable changes written per batch.
+		 */
+		public double getAverageBatchSize() {
+			final long batches = this.batches.get();
+			return batches == 0 ? 0 : (double) written.get() / batches;
+		}
+
+		/**
+		 * @return The largest amount of variable changes written in one batch.
+		 */
+		public long getLargestBatchSize() {
+			return largestBatch.get();
+		}
+
+		/**
+		 * @return The amount of transactions committed.
+		 */
+		public long getCommits() {
+			return commits.get();
+		}
+
+		/**
+		 * @return The average time committing a transaction took, in milliseconds.
+		 */
+		public double getAverageCommitLatency() {
+			final long commits = this.commits.get();
+			return commits == 0 ? 0 : commitNanos.get() / 1_000_000.0 / commits;
+		}
+
+		/**
+		 * @return The longest time committing a transaction took, in milliseconds.
+		 */
+		public double getLongestCommitLatency() {
+			return longestCommitNanos.get() / 1_000_000.0;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ENGLISH, "%d batches (average size %.1f, largest %d, %d changes coalesced), " +
+					"%d commits (average %.2f ms, longest %.2f ms)",
+				getBatches(), getAverageBatchSize(), getLargestBatchSize(), getCoalescedChanges(),
+				getCommits(), getAverageCommitLatency(), getLongestCommitLatency());
+		}
+
+	}
+
+	/**
+	 * @return The lazy loading of the lists of this database, or {@code null} if all variables are loaded on startup.
+	 */
+	@Nullable
+	LazyVariables getLazyVariables() {
+		return lazyVariables;
+	}
+
+	/**
+	 * Escapes the wildcards of a LIKE pattern, using '!' as the escape character.
+	 */
+	private static String escapeLike(final String value) {
+		return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+	}
+
+	/**
+	 * Reads all variables of the given list from the database, for {@link LazyVariables}.
+	 * The values are deserialized on the calling thread, or on the main thread if their type requires it.
+	 *
+	 * @param list The name of the list, without the trailing '::*'.
+	 * @return The names and values of the list's variables, or null if the database could not be read.
+	 */
+	@Nullable
+	Map<String, Object> loadList(final String list) {
+		final String prefix = list + Variable.SEPARATOR;
+		final List<Object[]> rows = new ArrayList<>();
+		synchronized (db) {
+			if (closed || db.get() == null)
+				return null;
+			final PreparedStatement listQuery = this.listQuery;
+			assert listQuery != null;
+			try {
+				listQuery.setString(1, escapeLike(prefix) + "%");
+				final ResultSet r = listQuery.executeQuery();
+				try {
+					while (r.next()) {
+						final String name = r.getString(1);
+						final byte[] value = r.getBytes(3); // Blob not supported by SQLite
+						// LIKE may ignore case, which must not mix up lists whose names only differ in case
+						if (name == null || value == null || !name.startsWith(prefix))
+							continue;
+						rows.add(new Object[] {name, r.getString(2), value});
+					}
+				} finally {
+					r.close();
+				}
+			} catch (final SQLException e) {
+				sqlException(e);
+				return null;
+			}
+		}
+
+		final Callable<Map<String, Object>> deserialize = () -> {
+			final Map<String, Object> values = new LinkedHashMap<>();
+			for (final Object[] row : rows) {
+				final String name = (String) row[0];
+				final ClassInfo<?> c = Classes.getClassInfoNoError((String) row[1]);
+				if (c == null || c.getSerializer() == null) {
+					Skript.error("Cannot load the variable {" + name + "} from the database '" + getUserConfigurationName() + "', because the type '" + row[1] + "' cannot be recognised or cannot be stored in variables");
+					continue;
+				}
+				final Object d = Classes.deserialize(c, (byte[]) row[2]);
+				if (d == null) {
+					Skript.error("Cannot load the variable {" + name + "} from the database '" + getUserConfigurationName() + "', because it cannot be loaded as " + c.getName().withIndefiniteArticle());
+					continue;
+				}
+				values.put(name, d);
+			}
+			return values;
+		};
+		if (!Bukkit.isPrimaryThread()) {
+			for (final Object[] row : rows) {
+				final ClassInfo<?> c = Classes.getClassInfoNoError((String) row[1]);
+				final Serializer<?> s = c == null ? null : c.getSerializer();
+				if (s != null && s.mustSyncDeserialization())
+					return Task.callSync(deserialize);
+			}
+		}
+		try {
+			return deserialize.call();
+		} catch (final Exception e) {
+			Skript.exception(e, "Error loading the list variable {" + list + "::*} from the database '" + getUserConfigurationName() + "'");
+			return null;
+		}
+	}
+
 	long lastRowID = -1;
 
 	protected void checkDatabase() {
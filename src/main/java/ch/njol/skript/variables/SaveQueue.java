@@ -0,0 +1,107 @@
+package ch.njol.skript.variables;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The queue of serialized variable changes that have not been written to their storage yet.
+ * <p>
+ * Changes can be collected for a save window before they are saved,
+ * in which case only the latest change to each variable made within the window is saved.
+ */
+final class SaveQueue {
+
+	private final BlockingQueue<SerializedVariable> queue = new LinkedBlockingQueue<>();
+
+	/**
+	 * The amount of changes added to this queue that have not been saved or dropped yet,
+	 * including the changes that were already taken from the queue.
+	 */
+	private final AtomicInteger unsaved = new AtomicInteger();
+
+	/**
+	 * Adds a change to be saved.
+	 *
+	 * @param variable the serialized variable change.
+	 */
+	void add(SerializedVariable variable) {
+		unsaved.incrementAndGet();
+		queue.add(variable);
+	}
+
+	/**
+	 * @return the amount of changes waiting in the queue.
+	 */
+	int size() {
+		return queue.size();
+	}
+
+	/**
+	 * @return the amount of changes that have not been saved or dropped yet.
+	 */
+	int getUnsaved() {
+		return unsaved.get();
+	}
+
+	/**
+	 * Waits for the next change and saves it, together with the changes made within the given window after it.
+	 * Only the latest change to each variable is saved, in the order the variables were first changed.
+	 *
+	 * @param window how long to collect changes for, in milliseconds. Every change is saved on its own if this is not positive.
+	 * @param save saves a change.
+	 * @param coalesced called with the name of the variable of every change that was replaced by a later change.
+	 * @throws InterruptedException if interrupted while waiting for the next change.
+	 * Changes that were already collected are saved if interrupted while collecting.
+	 */
+	void saveNext(long window, Consumer<SerializedVariable> save, Consumer<String> coalesced) throws InterruptedException {
+		SerializedVariable variable = queue.take();
+		int taken = 1;
+		try {
+			if (window <= 0) {
+				save.accept(variable);
+				return;
+			}
+
+			Map<String, SerializedVariable> changes = new LinkedHashMap<>();
+			changes.put(variable.name, variable);
+			long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(window);
+			try {
+				long remaining;
+				while ((remaining = end - System.nanoTime()) > 0) {
+					variable = queue.poll(remaining, TimeUnit.NANOSECONDS);
+					if (variable == null)
+						break;
+					taken++;
+					SerializedVariable replaced = changes.put(variable.name, variable);
+					if (replaced != null)
+						coalesced.accept(replaced.name);
+				}
+			} catch (InterruptedException ignored) {} // closing, save what was collected
+
+			for (SerializedVariable change : changes.values())
+				save.accept(change);
+		} finally {
+			if (unsaved.addAndGet(-taken) == 0) {
+				synchronized (this) {
+					notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Waits until all changes added to this queue have been saved or dropped.
+	 *
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	synchronized void awaitSaved() throws InterruptedException {
+		while (unsaved.get() > 0)
+			wait();
+	}
+
+}
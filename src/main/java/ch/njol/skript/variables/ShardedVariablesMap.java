@@ -0,0 +1,217 @@
+package ch.njol.skript.variables;
+
+import ch.njol.skript.lang.Variable;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A thread-safe map for storing global variables, split into shards by the first segment of the variable name.
+ * <p>
+ * Reads of non-list variables don't lock at all, while writes only lock the shard
+ * their variable belongs to, so unrelated variables never contend with each other.
+ * Reads of list variables return the internal map of the list, like {@link VariablesMap} does,
+ * while saving copies one shard at a time so it never blocks writes to the other shards.
+ *
+ * @see VariablesMap
+ */
+final class ShardedVariablesMap {
+
+	/**
+	 * The default amount of shards, must be a power of two.
+	 */
+	static final int DEFAULT_SHARDS = 64;
+
+	/**
+	 * One part of the variables tree, guarded by its own lock.
+	 */
+	private static final class Shard {
+
+		private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+		private final VariablesMap map;
+
+		private Shard(Map<String, Object> hashMap) {
+			this.map = new VariablesMap(hashMap);
+		}
+
+	}
+
+	/**
+	 * The map that stores all non-list variables of all shards.
+	 * Each variable is only ever written by the shard it belongs to.
+	 */
+	private final ConcurrentHashMap<String, Object> hashMap = new ConcurrentHashMap<>();
+
+	private final Shard[] shards;
+
+	ShardedVariablesMap() {
+		this(DEFAULT_SHARDS);
+	}
+
+	/**
+	 * @param shards the amount of shards, must be a power of two.
+	 */
+	ShardedVariablesMap(int shards) {
+		if (shards <= 0 || Integer.bitCount(shards) != 1)
+			throw new IllegalArgumentException("The amount of shards must be a power of two, got " + shards);
+		this.shards = new Shard[shards];
+		for (int i = 0; i < shards; i++)
+			this.shards[i] = new Shard(hashMap);
+	}
+
+	/**
+	 * Gets the shard the given variable belongs to.
+	 * All variables sharing the same first name segment belong to the same shard,
+	 * which keeps list variables and their elements together.
+	 *
+	 * @param name the variable name.
+	 * @return the shard of the variable.
+	 */
+	private Shard getShard(String name) {
+		int separator = name.indexOf(Variable.SEPARATOR);
+		return getShard(name, separator == -1 ? name.length() : separator);
+	}
+
+	/**
+	 * @param path the variable name, split as by {@link Variables#splitVariableName(String)}.
+	 * @return the shard of the variable.
+	 * @see #getShard(String)
+	 */
+	private Shard getShard(String[] path) {
+		return getShard(path[0], path[0].length());
+	}
+
+	private Shard getShard(String name, int end) {
+		int hash = 0;
+		for (int i = 0; i < end; i++)
+			hash = 31 * hash + name.charAt(i);
+		hash ^= hash >>> 16;
+		return shards[hash & (shards.length - 1)];
+	}
+
+	/**
+	 * Returns the value of the requested variable.
+	 * <p>
+	 * Non-list variables are read without locking. List variables are looked up
+	 * while holding the read lock of their shard, and like {@link VariablesMap#getVariable(String)}
+	 * the internal map of the list is returned. <b>Do not modify the returned value!</b>
+	 *
+	 * @param name the name of the variable, possibly a list variable.
+	 * @return an {@link Object} for a normal variable or a
+	 * {@code Map<String, Object>} for a list variable,
+	 * or {@code null} if the variable is not set.
+	 * @see VariablesMap#getVariable(String)
+	 */
+	@Nullable
+	Object getVariable(String name) {
+		if (!name.endsWith("*"))
+			return hashMap.get(name);
+
+		Shard shard = getShard(name);
+		shard.lock.readLock().lock();
+		try {
+			return shard.map.getVariable(name);
+		} finally {
+			shard.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the value of the requested variable, like {@link #getVariable(String)}.
+	 * <b>Do not modify the returned value!</b>
+	 *
+	 * @param path the name of the variable, possibly a list variable,
+	 *                split as by {@link Variables#splitVariableName(String)}.
+	 * @return an {@link Object} for a normal variable or a
+	 * {@code Map<String, Object>} for a list variable,
+	 * or {@code null} if the variable is not set.
+	 * @see VariablesMap#getVariable(String[])
+	 */
+	@Nullable
+	Object getVariable(String[] path) {
+		if (!path[path.length - 1].equals("*"))
+			return hashMap.get(Variables.joinVariableName(path));
+
+		Shard shard = getShard(path);
+		shard.lock.readLock().lock();
+		try {
+			return shard.map.getVariable(path);
+		} finally {
+			shard.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Sets the given variable to the given value.
+	 * <p>
+	 * This method accepts list variables,
+	 * but these may only be set to {@code null}.
+	 *
+	 * @param name the variable name.
+	 * @param value the variable value, {@code null} to delete the variable.
+	 * @param onChange called with the name and value while the shard is still locked,
+	 *                 so that changes to the same variable are observed in the order they were made.
+	 * @see VariablesMap#setVariable(String, Object)
+	 */
+	void setVariable(String name, @Nullable Object value, @Nullable BiConsumer<String, @Nullable Object> onChange) {
+		setVariable(name, null, value, onChange);
+	}
+
+	/**
+	 * Sets the given variable to the given value.
+	 *
+	 * @param name the variable name.
+	 * @param path the variable name split as by {@link Variables#splitVariableName(String)},
+	 *                or {@code null} to split it when needed.
+	 * @param value the variable value, {@code null} to delete the variable.
+	 * @param onChange called with the name and value while the shard is still locked.
+	 * @see #setVariable(String, Object, BiConsumer)
+	 */
+	void setVariable(String name, String @Nullable [] path, @Nullable Object value, @Nullable BiConsumer<String, @Nullable Object> onChange) {
+		Shard shard = path != null ? getShard(path) : getShard(name);
+		shard.lock.writeLock().lock();
+		try {
+			shard.map.setVariable(name, path, value);
+			if (onChange != null)
+				onChange.accept(name, value);
+		} finally {
+			shard.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Passes a snapshot of the variable tree of each shard to the given action.
+	 * Each shard is only locked while it is copied, not while the action runs.
+	 *
+	 * @param action the action to run for each shard's tree, which contains the top-level variables of the shard.
+	 */
+	void forEachShard(Consumer<TreeMap<String, Object>> action) {
+		for (Shard shard : shards) {
+			TreeMap<String, Object> snapshot;
+			shard.lock.readLock().lock();
+			try {
+				if (shard.map.treeMap.isEmpty())
+					continue;
+				snapshot = VariablesMap.copyTreeMap(shard.map.treeMap);
+			} finally {
+				shard.lock.readLock().unlock();
+			}
+			action.accept(snapshot);
+		}
+	}
+
+	/**
+	 * @return the amount of non-list variables in this map.
+	 */
+	int size() {
+		return hashMap.size();
+	}
+
+}
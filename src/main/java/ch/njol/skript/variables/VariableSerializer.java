@@ -0,0 +1,162 @@
+package ch.njol.skript.variables;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
+import ch.njol.skript.classes.ClassInfo;
+import ch.njol.skript.registrations.Classes;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Serializes changed global variables on a pool of threads instead of the thread that changed them,
+ * if enabled with {@link SkriptConfig#variableSerializationThreads}.
+ * <p>
+ * Values of classes with {@link ClassInfo#hasThreadSafeSerialization() thread-safe serialization} are passed to the pool as they are,
+ * but not values of their subclasses,
+ * and values of classes with a {@link ClassInfo#getCloner() cloner} are cloned first.
+ * All other values may only be accessed by the thread that changed them, so they are serialized right away.
+ * <p>
+ * A change that is still waiting to be serialized is replaced by a newer change to the same variable.
+ * Each variable is always serialized by the same thread, so its changes are saved in the order they were made.
+ */
+final class VariableSerializer {
+
+	private static final ThreadLocal<Boolean> SERIALIZER_THREAD = ThreadLocal.withInitial(() -> false);
+
+	/**
+	 * A value that was already serialized by the thread that changed it.
+	 *
+	 * @param value the serialized value, or {@code null} if the variable was deleted.
+	 */
+	private record Serialized(SerializedVariable.@Nullable Value value) { }
+
+	private final class Worker {
+
+		/**
+		 * The latest values of the variables waiting to be serialized by this worker.
+		 * Either a {@link Serialized} or a value that can be serialized by this worker.
+		 */
+		private final Map<String, Object> pending = new ConcurrentHashMap<>();
+
+		/**
+		 * The single thread of this worker, which serializes the variables in the order they were first changed.
+		 */
+		private final ExecutorService executor;
+
+		private Worker(int index) {
+			executor = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = Skript.newThread(() -> {
+					SERIALIZER_THREAD.set(true);
+					runnable.run();
+				}, "Skript variable serializer " + (index + 1));
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		private void serialize(String name) {
+			Object value = pending.remove(name);
+			assert value != null : name;
+			try {
+				if (value instanceof Serialized serialized) {
+					output.accept(new SerializedVariable(name, serialized.value()));
+				} else {
+					output.accept(Variables.serialize(name, value));
+				}
+			} catch (Exception e) {
+				// the change is not settled, so its list stays loaded with the value that couldn't be saved
+				//noinspection ThrowableNotThrown
+				Skript.exception(e, "Error saving variable named " + name);
+			}
+		}
+
+	}
+
+	private final Worker[] workers;
+	private final Consumer<SerializedVariable> output;
+
+	/**
+	 * @param threads the amount of threads to serialize variables with.
+	 * @param output where to pass the serialized variables to be saved.
+	 */
+	VariableSerializer(int threads, Consumer<SerializedVariable> output) {
+		this.output = output;
+		workers = new Worker[threads];
+		for (int i = 0; i < threads; i++)
+			workers[i] = new Worker(i);
+	}
+
+	/**
+	 * @return whether the current thread is one of the threads serializing variables.
+	 */
+	static boolean isSerializerThread() {
+		return SERIALIZER_THREAD.get();
+	}
+
+	/**
+	 * Queues the given variable change to be serialized.
+	 * This must be called by the thread that changed the variable.
+	 *
+	 * @param name the name of the variable.
+	 * @param value the new value of the variable, or {@code null} if it was deleted.
+	 */
+	void submit(String name, @Nullable Object value) {
+		Object snapshot = snapshot(name, value);
+		Worker worker = workers[(name.hashCode() & Integer.MAX_VALUE) % workers.length];
+		if (worker.pending.put(name, snapshot) == null) {
+			worker.executor.execute(() -> worker.serialize(name));
+		} else {
+			Variables.changeCoalesced(name);
+		}
+	}
+
+	/**
+	 * @return the given value or a copy of it that can be serialized by another thread,
+	 * 			or a {@link Serialized} if it has to be serialized by this thread.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Object snapshot(String name, @Nullable Object value) {
+		if (value == null)
+			return new Serialized(null);
+		if (isThreadSafe(value))
+			return value;
+		ClassInfo<Object> classInfo = (ClassInfo<Object>) Classes.getSuperClassInfo(value.getClass());
+		if (classInfo.getCloner() != null)
+			return classInfo.clone(value);
+		return new Serialized(Variables.serialize(name, value).value);
+	}
+
+	/**
+	 * Only the exact class of the value is checked, as a subclass of an immutable class may be mutable,
+	 * e.g. {@link java.util.concurrent.atomic.AtomicInteger} for {@link Number}.
+	 *
+	 * @return whether the given value can be serialized by another thread while it is used by the thread that changed it.
+	 */
+	static boolean isThreadSafe(Object value) {
+		ClassInfo<?> classInfo = Classes.getExactClassInfo(value.getClass());
+		return classInfo != null && classInfo.hasThreadSafeSerialization();
+	}
+
+	/**
+	 * Waits until all queued changes have been serialized, and stops the serializer threads.
+	 */
+	void close() {
+		for (Worker worker : workers)
+			worker.executor.shutdown();
+		try {
+			for (Worker worker : workers) {
+				while (!worker.executor.awaitTermination(1, TimeUnit.MINUTES))
+					Skript.warning("Still waiting for changed variables to be serialized...");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -8,6 +8,8 @@ import ch.njol.skript.classes.ConfigurationSerializer;
 import ch.njol.skript.config.Config;
 import ch.njol.skript.config.Node;
 import ch.njol.skript.config.SectionNode;
+import ch.njol.skript.lang.ExecutionFrame;
+import ch.njol.skript.lang.TriggerItem;
 import ch.njol.skript.lang.Variable;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.registrations.Classes;
@@ -44,10 +46,9 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.TreeMap;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -86,6 +87,7 @@ public class Variables {
 	// Register some things with Yggdrasil
 	static {
 		registerStorage(FlatFileStorage.class, "csv", "file", "flatfile");
+		registerStorage(BinaryFileStorage.class, "binary");
 		registerStorage(SQLiteStorage.class, "sqlite");
 		registerStorage(MySQLStorage.class, "mysql");
 		yggdrasil.registerSingleClass(Kleenean.class, "Kleenean");
@@ -163,6 +165,7 @@ public class Variables {
 	public static boolean load() {
 		assert variables.treeMap.isEmpty();
 		assert variables.hashMap.isEmpty();
+		assert shardedVariables == null;
 		assert STORAGES.isEmpty();
 
 		Config config = SkriptConfig.getConfig();
@@ -175,6 +178,15 @@ public class Variables {
 			return false;
 		}
 
+		if (SkriptConfig.shardedGlobalVariables.value())
+			shardedVariables = new ShardedVariablesMap();
+
+		int serializationThreads = SkriptConfig.variableSerializationThreads.value();
+		if (serializationThreads > 0)
+			serializer = new VariableSerializer(serializationThreads, Variables::queueSave);
+
+		saveWindow = SkriptConfig.variableSaveWindow.value().getMilliSeconds();
+
 		Skript.closeOnDisable(Variables::close);
 
 		// reports once per second how many variables were loaded. Useful to make clear that Skript is still doing something if it's loading many variables
@@ -332,6 +344,32 @@ public class Variables {
 		return parts.toArray(String[]::new);
 	}
 
+	/**
+	 * Joins the given segments of a variable name, reversing {@link #splitVariableName(String)}.
+	 *
+	 * @param path the segments of the name.
+	 * @return the variable name.
+	 */
+	public static String joinVariableName(String[] path) {
+		if (path.length == 1)
+			return path[0];
+		int length = (path.length - 1) * Variable.SEPARATOR.length();
+		for (String segment : path)
+			length += segment.length();
+		StringBuilder builder = new StringBuilder(length);
+		builder.append(path[0]);
+		for (int i = 1; i < path.length; i++)
+			builder.append(Variable.SEPARATOR).append(path[i]);
+		return builder.toString();
+	}
+
+	private static String[] toLowerCase(String[] path) {
+		String[] lowerCase = new String[path.length];
+		for (int i = 0; i < path.length; i++)
+			lowerCase[i] = path[i].toLowerCase(Locale.ENGLISH);
+		return lowerCase;
+	}
+
 	/**
 	 * A lock for reading and writing variables.
 	 */
@@ -344,8 +382,23 @@ public class Variables {
 	static final VariablesMap variables = new VariablesMap();
 
 	/**
-	 * A map storing all local variables,
-	 * indexed by their {@link Event}.
+	 * The {@link ShardedVariablesMap} storing global variables instead of {@link #variables}
+	 * if enabled through {@link SkriptConfig#shardedGlobalVariables}, otherwise {@code null}.
+	 * Does not need to be locked with {@link #variablesLock}.
+	 * <p>
+	 * Only set once while loading, before any script can access variables.
+	 */
+	static @Nullable ShardedVariablesMap shardedVariables;
+
+	/**
+	 * The {@link VariableSerializer} serializing changed global variables
+	 * if enabled through {@link SkriptConfig#variableSerializationThreads}, otherwise {@code null}.
+	 */
+	private static @Nullable VariableSerializer serializer;
+
+	/**
+	 * A map storing the local variables of events that are executed without an {@link ExecutionFrame},
+	 * indexed by their {@link Event}. The local variables of all other events are stored in their frame.
 	 */
 	private static final Map<Event, VariablesMap> localVariables = new ConcurrentHashMap<>();
 
@@ -379,9 +432,40 @@ public class Variables {
 		return variablesLock.readLock();
 	}
 
+	/**
+	 * @param event the event.
+	 * @return the local variables of the given event, or {@code null} if it has none.
+	 */
+	private static @Nullable VariablesMap getLocals(Event event) {
+		ExecutionFrame frame = ExecutionFrame.get(event);
+		if (frame != null)
+			return (VariablesMap) frame.getLocals();
+		return localVariables.get(event);
+	}
+
+	/**
+	 * @param event the event.
+	 * @return the local variables of the given event, which are created if it has none yet.
+	 */
+	private static VariablesMap getOrCreateLocals(Event event) {
+		ExecutionFrame frame = ExecutionFrame.get(event);
+		if (frame == null)
+			return localVariables.computeIfAbsent(event, e -> new VariablesMap());
+		VariablesMap map = (VariablesMap) frame.getLocals();
+		if (map == null) {
+			map = new VariablesMap();
+			frame.setLocals(map);
+		}
+		return map;
+	}
+
 	/**
 	 * Removes local variables associated with given event and returns them,
 	 * if they exist.
+	 * <p>
+	 * If the event is executed with an {@link ExecutionFrame} on this thread, the frame is detached from the thread
+	 * and the returned map holds the whole state of the frame, so that passing it to
+	 * {@link #setLocalVariables(Event, Object)} continues the execution where it stopped, including its loops.
 	 *
 	 * @param event the event.
 	 * @return the local variables from the event,
@@ -389,7 +473,18 @@ public class Variables {
 	 */
 	@Nullable
 	public static VariablesMap removeLocals(Event event) {
-		return localVariables.remove(event);
+		ExecutionFrame frame = ExecutionFrame.get(event);
+		if (frame == null)
+			return localVariables.remove(event);
+
+		frame.exit();
+		VariablesMap map = (VariablesMap) frame.getLocals();
+		if (map == null) {
+			map = new VariablesMap();
+			frame.setLocals(map);
+		}
+		map.suspendedFrame = frame;
+		return map;
 	}
 
 	/**
@@ -398,16 +493,31 @@ public class Variables {
 	 * If the given map is {@code null}, local variables for this event
 	 * will be <b>removed</b>.
 	 * <p>
+	 * If the map was returned by {@link #removeLocals(Event)} for an event executed with an {@link ExecutionFrame},
+	 * that frame is bound to the current thread again. It is detached once {@link TriggerItem#walk(TriggerItem, Event)}
+	 * has continued the execution, or with {@link #removeLocals(Event)}.
+	 * <p>
 	 * Warning: this can overwrite local variables!
 	 *
 	 * @param event the event.
 	 * @param map the new local variables.
 	 */
 	public static void setLocalVariables(Event event, @Nullable Object map) {
-		if (map != null) {
-			localVariables.put(event, (VariablesMap) map);
+		VariablesMap locals = (VariablesMap) map;
+		if (locals != null && locals.suspendedFrame != null && locals.suspendedFrame.getEvent() == event) {
+			ExecutionFrame suspended = locals.suspendedFrame;
+			locals.suspendedFrame = null;
+			suspended.bind();
+			return;
+		}
+
+		ExecutionFrame frame = ExecutionFrame.get(event);
+		if (frame != null) {
+			frame.setLocals(locals);
+		} else if (locals != null) {
+			localVariables.put(event, locals);
 		} else {
-			removeLocals(event);
+			localVariables.remove(event);
 		}
 	}
 
@@ -419,7 +529,7 @@ public class Variables {
 	 * @return the copy.
 	 */
 	public static @Nullable Object copyLocalVariables(Event event) {
-		VariablesMap from = localVariables.get(event);
+		VariablesMap from = getLocals(event);
 		if (from == null)
 			return null;
 
@@ -429,15 +539,21 @@ public class Variables {
 	/**
 	 * Copies local variables from provider to user, runs action, then copies variables back to provider.
 	 * Removes local variables from user after action is finished.
+	 * The action is run with a new {@link ExecutionFrame} for the user.
 	 * @param provider The originator of the local variables.
 	 * @param user The event to copy the variables to and back from.
 	 * @param action The code to run while the variables are copied.
 	 */
 	public static void withLocalVariables(Event provider, Event user, @NotNull Runnable action) {
-		Variables.setLocalVariables(user, Variables.copyLocalVariables(provider));
-		action.run();
-		Variables.setLocalVariables(provider, Variables.copyLocalVariables(user));
-		Variables.removeLocals(user);
+		Object locals = Variables.copyLocalVariables(provider);
+		ExecutionFrame frame = ExecutionFrame.enter(user);
+		try {
+			frame.setLocals(locals);
+			action.run();
+			Variables.setLocalVariables(provider, Variables.copyLocalVariables(user));
+		} finally {
+			frame.exit();
+		}
 	}
 
 	/**
@@ -466,36 +582,104 @@ public class Variables {
 		}
 
 		if (local) {
-			VariablesMap map = localVariables.get(event);
+			VariablesMap map = getLocals(event);
 			if (map == null)
 				return null;
 
 			return map.getVariable(n);
 		} else {
+			// the list is pinned until it was read, so it isn't unloaded in between
+			LazyVariables.ListState pinned = LazyVariables.beforeAccess(n, false);
 			try {
-				variablesLock.readLock().lock();
-				// Prevent race conditions from returning variables with incorrect values
-				if (!changeQueue.isEmpty()) {
-					// Gets the last VariableChange made
-					VariableChange variableChange = changeQueue.stream()
-							.filter(change -> change.name.equals(n))
-							.reduce((first, second) -> second)
-									// Gets last value, as iteration is from head to tail,
-									//  and adding occurs at the tail (and we want the most recently added)
-							.orElse(null);
-
-					if (variableChange != null) {
+				ShardedVariablesMap shardedVariables = Variables.shardedVariables;
+				if (shardedVariables != null)
+					return shardedVariables.getVariable(n);
+
+				try {
+					variablesLock.readLock().lock();
+					// Prevent race conditions from returning variables with incorrect values
+					VariableChange variableChange = getQueuedChange(n);
+					if (variableChange != null)
 						return variableChange.value;
-					}
+
+					return variables.getVariable(n);
+				} finally {
+					variablesLock.readLock().unlock();
 				}
+			} finally {
+				LazyVariables.afterAccess(pinned);
+			}
+		}
+	}
+
+	/**
+	 * Returns the internal value of the requested variable, like {@link #getVariable(String, Event, boolean)}.
+	 * <p>
+	 * <b>Do not modify the returned value!</b>
+	 *
+	 * @param path the variable's name, split as by {@link #splitVariableName(String)}.
+	 *                This saves building and splitting the name when looking up list variables.
+	 * @param event if {@code local} is {@code true}, this is the event
+	 *                 the local variable resides in.
+	 * @param local if this variable is a local or global variable.
+	 * @return an {@link Object} for a normal variable
+	 * or a {@code Map<String, Object>} for a list variable,
+	 * or {@code null} if the variable is not set.
+	 */
+	public static @Nullable Object getVariable(String[] path, @Nullable Event event, boolean local) {
+		if (caseInsensitiveVariables)
+			path = toLowerCase(path);
+
+		if (local) {
+			VariablesMap map = getLocals(event);
+			if (map == null)
+				return null;
+
+			return map.getVariable(path);
+		} else {
+			// the list is pinned until it was read, so it isn't unloaded in between
+			LazyVariables.ListState pinned = LazyVariables.beforeAccess(path, false);
+			try {
+				ShardedVariablesMap shardedVariables = Variables.shardedVariables;
+				if (shardedVariables != null)
+					return shardedVariables.getVariable(path);
+
+				try {
+					variablesLock.readLock().lock();
+					if (!changeQueue.isEmpty()) {
+						VariableChange variableChange = getQueuedChange(joinVariableName(path));
+						if (variableChange != null)
+							return variableChange.value;
+					}
 
-				return variables.getVariable(n);
+					return variables.getVariable(path);
+				} finally {
+					variablesLock.readLock().unlock();
+				}
 			} finally {
-				variablesLock.readLock().unlock();
+				LazyVariables.afterAccess(pinned);
 			}
 		}
 	}
 
+	/**
+	 * Gets the most recent change to the given variable that has not been performed yet.
+	 *
+	 * @param name the variable name.
+	 * @return the change, or {@code null} if there is none.
+	 */
+	private static @Nullable VariableChange getQueuedChange(String name) {
+		if (changeQueue.isEmpty())
+			return null;
+		// Gets the last VariableChange made
+		return changeQueue.stream()
+				.filter(change -> change.name.equals(name))
+				.reduce((first, second) -> second)
+						// Gets last value, as iteration is from head to tail,
+						//  and adding occurs at the tail (and we want the most recently added)
+				.orElse(null);
+	}
+
 	/**
 	 * Returns an iterator over the values of this list variable.
 	 *
@@ -585,31 +769,88 @@ public class Variables {
 		if (caseInsensitiveVariables) {
 			name = name.toLowerCase(Locale.ENGLISH);
 		}
+		setVariable(name, null, value, event, local);
+	}
+
+	/**
+	 * Sets a variable, like {@link #setVariable(String, Object, Event, boolean)}.
+	 *
+	 * @param path the variable's name, split as by {@link #splitVariableName(String)}.
+	 *                This saves splitting the name again when it is stored.
+	 * @param value The variable's value. Use {@code null}
+	 *                 to delete the variable.
+	 * @param event if {@code local} is {@code true}, this is the event
+	 *                 the local variable resides in.
+	 * @param local if this variable is a local or global variable.
+	 */
+	public static void setVariable(String[] path, @Nullable Object value, @Nullable Event event, boolean local) {
+		if (caseInsensitiveVariables)
+			path = toLowerCase(path);
+		setVariable(joinVariableName(path), path, value, event, local);
+	}
 
-		// Check if conversion is needed due to ClassInfo#getSerializeAs
+	private static void setVariable(String name, String @Nullable [] path, @Nullable Object value, @Nullable Event event, boolean local) {
 		if (value != null) {
 			assert !name.endsWith("::*");
-
-			ClassInfo<?> ci = Classes.getSuperClassInfo(value.getClass());
-			Class<?> sas = ci.getSerializeAs();
-
-			if (sas != null) {
-				value = Converters.convert(value, sas);
-				assert value != null : ci + ", " + sas;
-			}
+			value = toStoredValue(value);
 		}
 
 		if (local) {
 			assert event != null : name;
 
 			// Get the variables map and set the variable in it
-			VariablesMap map = localVariables.computeIfAbsent(event, e -> new VariablesMap());
-			map.setVariable(name, value);
+			VariablesMap map = getOrCreateLocals(event);
+			map.setVariable(name, path, value);
 		} else {
-			setVariable(name, value);
+			setVariable(name, path, value);
 		}
 	}
 
+	/**
+	 * Returns the value of a local variable by its slot, like {@link #getVariable(String, Event, boolean)}.
+	 *
+	 * @param event the event the local variable resides in.
+	 * @param slots the slots of the structure the variable was parsed in.
+	 * @param slot the slot of the variable, as returned by {@link LocalVariableSlots#slotOf(String)}.
+	 * @param name the name of the variable, as passed to {@link LocalVariableSlots#slotOf(String)}.
+	 * @return the value of the variable, or {@code null} if it is not set.
+	 */
+	public static @Nullable Object getLocalVariable(Event event, LocalVariableSlots slots, int slot, String name) {
+		VariablesMap map = getLocals(event);
+		if (map == null)
+			return null;
+		return map.getVariable(slots, slot, name);
+	}
+
+	/**
+	 * Sets a local variable by its slot, like {@link #setVariable(String, Object, Event, boolean)}.
+	 *
+	 * @param event the event the local variable resides in.
+	 * @param slots the slots of the structure the variable was parsed in.
+	 * @param slot the slot of the variable, as returned by {@link LocalVariableSlots#slotOf(String)}.
+	 * @param name the name of the variable, as passed to {@link LocalVariableSlots#slotOf(String)}.
+	 * @param value the new value of the variable, or {@code null} to delete it.
+	 */
+	public static void setLocalVariable(Event event, LocalVariableSlots slots, int slot, String name, @Nullable Object value) {
+		if (value != null)
+			value = toStoredValue(value);
+		getOrCreateLocals(event).setVariable(slots, slot, name, value);
+	}
+
+	/**
+	 * Converts a value to the class it is stored as, if its class specifies one with {@link ClassInfo#getSerializeAs()}.
+	 */
+	private static Object toStoredValue(Object value) {
+		ClassInfo<?> ci = Classes.getSuperClassInfo(value.getClass());
+		Class<?> sas = ci.getSerializeAs();
+
+		if (sas != null) {
+			value = Converters.convert(value, sas);
+			assert value != null : ci + ", " + sas;
+		}
+		return value;
+	}
+
 	/**
 	 * Sets the given global variable name to the given value.
 	 *
@@ -617,13 +858,37 @@ public class Variables {
 	 * @param value the value, or {@code null} to delete the variable.
 	 */
 	static void setVariable(String name, @Nullable Object value) {
+		setVariable(name, null, value);
+	}
+
+	/**
+	 * Sets the given global variable name to the given value.
+	 *
+	 * @param name the variable name.
+	 * @param path the variable name split as by {@link #splitVariableName(String)}, or {@code null} to split it when needed.
+	 * @param value the value, or {@code null} to delete the variable.
+	 */
+	private static void setVariable(String name, String @Nullable [] path, @Nullable Object value) {
+		if (path != null) {
+			LazyVariables.beforeAccess(path, true);
+		} else {
+			LazyVariables.beforeAccess(name, true);
+		}
+
+		ShardedVariablesMap shardedVariables = Variables.shardedVariables;
+		if (shardedVariables != null) {
+			// Shard writes never wait for long, so there is no need to queue the change
+			shardedVariables.setVariable(name, path, value, Variables::saveVariableChange);
+			return;
+		}
+
 		if (variablesLock.writeLock().tryLock()) {
 			try {
 				if (!changeQueue.isEmpty()) { // Process older, queued changes if available
 					processChangeQueue();
 				}
 				// Process and save requested change
-				variables.setVariable(name, value);
+				variables.setVariable(name, path, value);
 				saveVariableChange(name, value);
 			} finally {
 				variablesLock.writeLock().unlock();
@@ -697,6 +962,52 @@ public class Variables {
 		}
 	}
 
+	/**
+	 * Sets the given global variables without saving them,
+	 * for variables loaded from a storage after all storages have been loaded.
+	 *
+	 * @param loaded the names and values of the loaded variables.
+	 * @see LazyVariables
+	 */
+	static void setLoadedVariables(Map<String, Object> loaded) {
+		ShardedVariablesMap shardedVariables = Variables.shardedVariables;
+		if (shardedVariables != null) {
+			for (Entry<String, Object> variable : loaded.entrySet())
+				shardedVariables.setVariable(variable.getKey(), variable.getValue(), null);
+			return;
+		}
+
+		variablesLock.writeLock().lock();
+		try {
+			for (Entry<String, Object> variable : loaded.entrySet())
+				variables.setVariable(variable.getKey(), variable.getValue());
+		} finally {
+			variablesLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes the given global list variable from memory without deleting it from its storage.
+	 *
+	 * @param name the name of the list, without the trailing {@code ::*}.
+	 * @see LazyVariables
+	 */
+	static void unloadList(String name) {
+		String list = name + Variable.SEPARATOR + "*";
+		ShardedVariablesMap shardedVariables = Variables.shardedVariables;
+		if (shardedVariables != null) {
+			shardedVariables.setVariable(list, null, null);
+			return;
+		}
+
+		variablesLock.writeLock().lock();
+		try {
+			variables.setVariable(list, null);
+		} finally {
+			variablesLock.writeLock().unlock();
+		}
+	}
+
 	/**
 	 * Stores loaded variables while variable storages are being loaded.
 	 * <p>
@@ -781,11 +1092,16 @@ public class Variables {
 			}
 		}
 
-		variablesLock.writeLock().lock();
-		try {
-			variables.setVariable(name, value);
-		} finally {
-			variablesLock.writeLock().unlock();
+		ShardedVariablesMap shardedVariables = Variables.shardedVariables;
+		if (shardedVariables != null) {
+			shardedVariables.setVariable(name, value, null);
+		} else {
+			variablesLock.writeLock().lock();
+			try {
+				variables.setVariable(name, value);
+			} finally {
+				variablesLock.writeLock().unlock();
+			}
 		}
 
 		// Move the variable to the right storage
@@ -860,14 +1176,15 @@ public class Variables {
 	 * Creates a {@link SerializedVariable} from the given variable name
 	 * and value.
 	 * <p>
-	 * Must be called from Bukkit's main thread.
+	 * Must be called from Bukkit's main thread,
+	 * or from a {@link VariableSerializer} thread owning the value.
 	 *
 	 * @param name the variable name.
 	 * @param value the value.
 	 * @return the serialized variable.
 	 */
 	public static SerializedVariable serialize(String name, @Nullable Object value) {
-		assert Bukkit.isPrimaryThread();
+		assert Bukkit.isPrimaryThread() || VariableSerializer.isSerializerThread();
 
 		// First, serialize the variable.
 		SerializedVariable.Value var;
@@ -883,19 +1200,21 @@ public class Variables {
 	/**
 	 * Serializes the given value.
 	 * <p>
-	 * Must be called from Bukkit's main thread.
+	 * Must be called from Bukkit's main thread,
+	 * or from a {@link VariableSerializer} thread owning the value.
 	 *
 	 * @param value the value to serialize.
 	 * @return the serialized value.
 	 */
 	public static SerializedVariable.@Nullable Value serialize(@Nullable Object value) {
-		assert Bukkit.isPrimaryThread();
+		assert Bukkit.isPrimaryThread() || VariableSerializer.isSerializerThread();
 
 		return Classes.serialize(value);
 	}
 
 	/**
-	 * Serializes and adds the variable change to the {@link #saveQueue}.
+	 * Serializes and adds the variable change to the {@link #saveQueue},
+	 * or passes it to the {@link #serializer} if there is one.
 	 *
 	 * @param name the variable name.
 	 * @param value the value of the variable.
@@ -903,14 +1222,40 @@ public class Variables {
 	private static void saveVariableChange(String name, @Nullable Object value) {
 		if (name.startsWith(Variable.EPHEMERAL_VARIABLE_TOKEN))
 			return;
-		saveQueue.add(serialize(name, value));
+		VariableSerializer serializer = Variables.serializer;
+		if (serializer != null) {
+			serializer.submit(name, value);
+			return;
+		}
+		queueSave(serialize(name, value));
+	}
+
+	/**
+	 * Adds the serialized variable change to the {@link #saveQueue}.
+	 *
+	 * @param variable the serialized variable change.
+	 */
+	static void queueSave(SerializedVariable variable) {
+		saveQueue.add(variable);
 	}
 
 	/**
 	 * The queue of serialized variables that have not yet been written
 	 * to the storage.
 	 */
-	static final BlockingQueue<SerializedVariable> saveQueue = new LinkedBlockingQueue<>();
+	static final SaveQueue saveQueue = new SaveQueue();
+
+	/**
+	 * How long the {@link #saveThread} collects variable changes from the {@link #saveQueue}
+	 * before saving them, in milliseconds, set from {@link SkriptConfig#variableSaveWindow}.
+	 * Only the latest change to each variable within this window is saved.
+	 */
+	private static long saveWindow;
+
+	/**
+	 * The amount of variable changes that were not saved because a later change to the same variable replaced them.
+	 */
+	private static final LongAdder coalescedWrites = new LongAdder();
 
 	/**
 	 * Whether the {@link #saveThread} should be stopped.
@@ -923,20 +1268,36 @@ public class Variables {
 	private static final Thread saveThread = Skript.newThread(() -> {
 		while (!closed) {
 			try {
-				// Save one variable change
-				SerializedVariable variable = saveQueue.take();
-
-				for (VariablesStorage variablesStorage : STORAGES) {
-					if (variablesStorage.accept(variable.name)) {
-						variablesStorage.save(variable);
-
-						break;
-					}
-				}
+				saveQueue.saveNext(saveWindow, Variables::saveToStorage, Variables::changeCoalesced);
 			} catch (InterruptedException ignored) {}
 		}
 	}, "Skript variable save thread");
 
+	/**
+	 * Saves the given variable change in the storage that accepts its name.
+	 */
+	private static void saveToStorage(SerializedVariable variable) {
+		for (VariablesStorage variablesStorage : STORAGES) {
+			if (variablesStorage.accept(variable.name)) {
+				variablesStorage.save(variable);
+
+				return;
+			}
+		}
+		LazyVariables.changeSettled(variable.name);
+	}
+
+	/**
+	 * Called when a change passed to {@link #saveVariableChange(String, Object)} is dropped,
+	 * because a later change to the same variable replaced it before it was saved.
+	 *
+	 * @param name the name of the changed variable.
+	 */
+	static void changeCoalesced(String name) {
+		coalescedWrites.increment();
+		LazyVariables.changeSettled(name);
+	}
+
 	/**
 	 * Closes the variable systems:
 	 * <ul>
@@ -952,12 +1313,18 @@ public class Variables {
 			variablesLock.writeLock().unlock();
 		}
 
-		// First, make sure all variables are saved
-		while (saveQueue.size() > 0) {
-			try {
-				Thread.sleep(10);
-			} catch (InterruptedException ignored) {}
+		// First, make sure all variables are serialized and saved
+		VariableSerializer serializer = Variables.serializer;
+		if (serializer != null)
+			serializer.close();
+		try {
+			saveQueue.awaitSaved();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 		}
+		long coalesced = coalescedWrites.sum();
+		if (coalesced > 0 && Skript.logHigh())
+			Skript.info(coalesced + " variable change" + (coalesced == 1 ? " was" : "s were") + " not saved, as they were replaced by a later change.");
 
 		// Then we can safely interrupt and stop the thread
 		closed = true;
@@ -970,6 +1337,10 @@ public class Variables {
 	 * @return the amount of variables.
 	 */
 	public static int numVariables() {
+		ShardedVariablesMap shardedVariables = Variables.shardedVariables;
+		if (shardedVariables != null)
+			return shardedVariables.size();
+
 		try {
 			variablesLock.readLock().lock();
 			return variables.hashMap.size();
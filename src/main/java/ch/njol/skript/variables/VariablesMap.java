@@ -1,12 +1,13 @@
 package ch.njol.skript.variables;
 
+import ch.njol.skript.lang.ExecutionFrame;
 import ch.njol.skript.lang.Variable;
 import ch.njol.util.StringUtils;
 import org.jetbrains.annotations.Nullable;
-import org.skriptlang.skript.util.IndexTrackingTreeMap;
 
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
@@ -159,12 +160,45 @@ final class VariablesMap {
 	/**
 	 * The map that stores all non-list variables.
 	 */
-	final HashMap<String, Object> hashMap = new HashMap<>();
+	final Map<String, Object> hashMap;
 	/**
 	 * The tree of variables, branched by the list structure of the variables.
+	 * Every list in it is a {@link DenseListMap}.
 	 */
 	final TreeMap<String, Object> treeMap = new TreeMap<>();
 
+	/**
+	 * The frame these local variables belong to, if it was detached by {@link Variables#removeLocals(org.bukkit.event.Event)}
+	 * and has not been continued yet.
+	 */
+	@Nullable ExecutionFrame suspendedFrame;
+
+	/**
+	 * The slots of the variables stored in {@link #slotValues} instead of {@link #hashMap} and {@link #treeMap},
+	 * or {@code null} if all variables are stored by name. Only used for local variables.
+	 */
+	private @Nullable LocalVariableSlots slots;
+
+	/**
+	 * The values of the variables that have a slot in {@link #slots}, indexed by their slot.
+	 */
+	private Object @Nullable [] slotValues;
+
+	VariablesMap() {
+		this(new HashMap<>());
+	}
+
+	/**
+	 * Creates a new map that stores its non-list variables in the given map.
+	 * This allows multiple maps holding disjoint variables to share one map for point lookups.
+	 *
+	 * @param hashMap the map to store non-list variables in.
+	 * @see ShardedVariablesMap
+	 */
+	VariablesMap(Map<String, Object> hashMap) {
+		this.hashMap = hashMap;
+	}
+
 	/**
 	 * Returns the internal value of the requested variable.
 	 * <p>
@@ -175,43 +209,83 @@ final class VariablesMap {
 	 * {@code Map<String, Object>} for a list variable,
 	 * or {@code null} if the variable is not set.
 	 */
-	@SuppressWarnings("unchecked")
 	@Nullable
 	Object getVariable(String name) {
 		if (!name.endsWith("*")) {
+			if (slots != null) {
+				int slot = slots.indexOf(name);
+				if (slot != -1)
+					return getSlotValue(slot);
+			}
 			// Not a list variable, quick access from the hash map
 			return hashMap.get(name);
 		} else {
-			// List variable, search the tree branches
-			String[] split = Variables.splitVariableName(name);
-			Map<String, Object> parent = treeMap;
-
-			// Iterate over the parts of the variable name
-			for (int i = 0; i < split.length; i++) {
-				String n = split[i];
-				if (n.equals("*")) {
-					// End of variable name, return map
-					assert i == split.length - 1;
-					return parent;
-				}
+			return getList(Variables.splitVariableName(name));
+		}
+	}
 
-				// Check if the current (sub-)tree has the expected child node
-				Object childNode = parent.get(n);
-				if (childNode == null)
-					return null;
+	/**
+	 * Returns the internal value of the requested variable.
+	 * <p>
+	 * <b>Do not modify the returned value!</b>
+	 *
+	 * @param path the name of the variable, possibly a list variable,
+	 *                split as by {@link Variables#splitVariableName(String)}.
+	 * @return an {@link Object} for a normal variable or a
+	 * {@code Map<String, Object>} for a list variable,
+	 * or {@code null} if the variable is not set.
+	 * @see #getVariable(String)
+	 */
+	@Nullable
+	Object getVariable(String[] path) {
+		if (!path[path.length - 1].equals("*")) {
+			if (slots != null && path.length == 1) {
+				int slot = slots.indexOf(path[0]);
+				if (slot != -1)
+					return getSlotValue(slot);
+			}
+			// Not a list variable, hashing the whole name is faster than walking the tree
+			return hashMap.get(Variables.joinVariableName(path));
+		} else {
+			return getList(path);
+		}
+	}
 
-				// Continue the iteration if the child node is a tree itself
-				if (childNode instanceof Map) {
-					// Continue iterating with the subtree
-					parent = (Map<String, Object>) childNode;
-					assert i != split.length - 1;
-				} else {
-					// ..., otherwise the list variable doesn't exist here
-					return null;
-				}
+	/**
+	 * Searches the tree branches for a list variable.
+	 *
+	 * @param split the parts of the list variable's name, the last of which is {@code *}.
+	 * @return the map of the list, or {@code null} if it does not exist.
+	 */
+	@SuppressWarnings("unchecked")
+	private @Nullable Object getList(String[] split) {
+		Map<String, Object> parent = treeMap;
+
+		// Iterate over the parts of the variable name
+		for (int i = 0; i < split.length; i++) {
+			String n = split[i];
+			if (n.equals("*")) {
+				// End of variable name, return map
+				assert i == split.length - 1;
+				return parent;
+			}
+
+			// Check if the current (sub-)tree has the expected child node
+			Object childNode = parent.get(n);
+			if (childNode == null)
+				return null;
+
+			// Continue the iteration if the child node is a tree itself
+			if (childNode instanceof Map) {
+				// Continue iterating with the subtree
+				parent = (Map<String, Object>) childNode;
+				assert i != split.length - 1;
+			} else {
+				// ..., otherwise the list variable doesn't exist here
+				return null;
 			}
-			return null;
 		}
+		return null;
 	}
 
 	/**
@@ -223,8 +297,31 @@ final class VariablesMap {
 	 * @param name the variable name.
 	 * @param value the variable value, {@code null} to delete the variable.
 	 */
-	@SuppressWarnings("unchecked")
 	void setVariable(String name, @Nullable Object value) {
+		setVariable(name, null, value);
+	}
+
+	/**
+	 * Sets the given variable to the given value.
+	 * <p>
+	 * This method accepts list variables,
+	 * but these may only be set to {@code null}.
+	 *
+	 * @param name the variable name.
+	 * @param path the variable name split as by {@link Variables#splitVariableName(String)},
+	 *                or {@code null} to split it here.
+	 * @param value the variable value, {@code null} to delete the variable.
+	 */
+	@SuppressWarnings("unchecked")
+	void setVariable(String name, String @Nullable [] path, @Nullable Object value) {
+		if (slots != null && !name.endsWith("*")) {
+			int slot = slots.indexOf(name);
+			if (slot != -1) {
+				setSlotValue(slot, value);
+				return;
+			}
+		}
+
 		// First update the hash map easily
 		if (!name.endsWith("*")) {
 			if (value == null)
@@ -234,7 +331,7 @@ final class VariablesMap {
 		}
 
 		// Then update the tree map by going down the branches
-		String[] split = Variables.splitVariableName(name);
+		String[] split = path != null ? path : Variables.splitVariableName(name);
 		TreeMap<String, Object> parent = treeMap;
 
 		// Iterate over the parts of the variable name
@@ -252,7 +349,7 @@ final class VariablesMap {
 					break;
 				} else if (value != null) {
 					// Create child node, add it to parent and continue iteration
-					childNode = new IndexTrackingTreeMap<>(VARIABLE_NAME_COMPARATOR);
+					childNode = new DenseListMap();
 
 					parent.put(childNodeName, childNode);
 					parent = (TreeMap<String, Object>) childNode;
@@ -305,7 +402,7 @@ final class VariablesMap {
 					break;
 				} else if (value != null) {
 					// Need to continue iteration, create new child node and put old value in it
-					TreeMap<String, Object> newChildNodeMap = new IndexTrackingTreeMap<>(VARIABLE_NAME_COMPARATOR);
+					TreeMap<String, Object> newChildNodeMap = new DenseListMap();
 					newChildNodeMap.put(null, childNode);
 
 					// Add new child node to parent
@@ -318,6 +415,89 @@ final class VariablesMap {
 		}
 	}
 
+	/**
+	 * Returns the value of a variable by its slot, like {@link #getVariable(String)}.
+	 * If this map doesn't use slots yet, it starts using the given slots.
+	 *
+	 * @param slots the slots of the variable.
+	 * @param slot the slot of the variable in the given slots.
+	 * @param name the name of the variable, used if this map uses other slots.
+	 * @return the value of the variable, or {@code null} if it is not set.
+	 */
+	@Nullable Object getVariable(LocalVariableSlots slots, int slot, String name) {
+		if (this.slots != slots && !useSlots(slots))
+			return getVariable(name);
+		return getSlotValue(slot);
+	}
+
+	/**
+	 * Sets a variable by its slot, like {@link #setVariable(String, Object)}.
+	 * If this map doesn't use slots yet, it starts using the given slots.
+	 *
+	 * @param slots the slots of the variable.
+	 * @param slot the slot of the variable in the given slots.
+	 * @param name the name of the variable, used if this map uses other slots.
+	 * @param value the variable value, {@code null} to delete the variable.
+	 */
+	void setVariable(LocalVariableSlots slots, int slot, String name, @Nullable Object value) {
+		if (this.slots != slots && !useSlots(slots)) {
+			setVariable(name, value);
+			return;
+		}
+		setSlotValue(slot, value);
+	}
+
+	/**
+	 * Starts storing the variables that have a slot in the given slots in {@link #slotValues},
+	 * moving the values of these variables that are already set.
+	 *
+	 * @return whether this map now uses the given slots, which is false if it already used other slots.
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean useSlots(LocalVariableSlots slots) {
+		if (this.slots != null)
+			return false;
+		this.slots = slots;
+		if (hashMap.isEmpty())
+			return true;
+		Iterator<Entry<String, Object>> iterator = hashMap.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Entry<String, Object> entry = iterator.next();
+			int slot = slots.indexOf(entry.getKey());
+			if (slot == -1)
+				continue;
+			setSlotValue(slot, entry.getValue());
+			iterator.remove();
+			// the variable is either a leaf of the tree, or the value of the list with the same name
+			Object node = treeMap.get(entry.getKey());
+			if (node instanceof TreeMap<?, ?> list) {
+				((TreeMap<String, Object>) list).remove(null);
+			} else {
+				treeMap.remove(entry.getKey());
+			}
+		}
+		return true;
+	}
+
+	private @Nullable Object getSlotValue(int slot) {
+		Object[] slotValues = this.slotValues;
+		return slotValues != null && slot < slotValues.length ? slotValues[slot] : null;
+	}
+
+	private void setSlotValue(int slot, @Nullable Object value) {
+		Object[] slotValues = this.slotValues;
+		if (slotValues == null || slot >= slotValues.length) {
+			if (value == null)
+				return;
+			assert slots != null;
+			slotValues = new Object[Math.max(slot + 1, slots.size())];
+			if (this.slotValues != null)
+				System.arraycopy(this.slotValues, 0, slotValues, 0, this.slotValues.length);
+			this.slotValues = slotValues;
+		}
+		slotValues[slot] = value;
+	}
+
 	/**
 	 * Deletes all indices of a list variable from the {@link #hashMap}.
 	 *
@@ -353,6 +533,10 @@ final class VariablesMap {
 
 		copy.hashMap.putAll(hashMap);
 
+		copy.slots = slots;
+		if (slotValues != null)
+			copy.slotValues = slotValues.clone();
+
 		TreeMap<String, Object> treeMapCopy = copyTreeMap(treeMap);
 		copy.treeMap.putAll(treeMapCopy);
 
@@ -369,8 +553,8 @@ final class VariablesMap {
 	 * @return the copy.
 	 */
 	@SuppressWarnings("unchecked")
-	private static TreeMap<String, Object> copyTreeMap(TreeMap<String, Object> original) {
-		TreeMap<String, Object> copy = new IndexTrackingTreeMap<>(VARIABLE_NAME_COMPARATOR);
+	static TreeMap<String, Object> copyTreeMap(TreeMap<String, Object> original) {
+		TreeMap<String, Object> copy = new DenseListMap();
 
 		for (Entry<String, Object> child : original.entrySet()) {
 			String key = child.getKey();
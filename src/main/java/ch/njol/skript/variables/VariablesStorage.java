@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.regex.Pattern;
@@ -44,6 +45,11 @@ public abstract class VariablesStorage implements Closeable {
 	 * after which a warning will be sent.
 	 */
 	private static final int FIRST_WARNING = 300;
+	/**
+	 * The maximum time in milliseconds to wait for the {@link #writeThread}
+	 * to save the variables it is saving when closing.
+	 */
+	private static final long CLOSE_TIMEOUT = 10_000;
 
 	final LinkedBlockingQueue<SerializedVariable> changesQueue = new LinkedBlockingQueue<>(QUEUE_SIZE);
 
@@ -95,20 +101,29 @@ public abstract class VariablesStorage implements Closeable {
 		databaseType = type;
 
 		writeThread = Skript.newThread(() -> {
+			List<SerializedVariable> batch = new ArrayList<>();
 			while (!closed) {
 				try {
-					// Take a variable from the queue and process it
-					SerializedVariable variable = changesQueue.take();
-					Value value = variable.value;
-
-					// Actually save the variable
-					if (value != null)
-						save(variable.name, value.type, value.data);
-					else
-						save(variable.name, null, null);
+					// Take a variable from the queue
+					batch.add(changesQueue.take());
 				} catch (InterruptedException ignored) {
 					// Ignored as the `closed` field will indicate whether the thread actually needs to stop
+					continue;
+				}
+
+				try {
+					collectBatch(batch);
+				} catch (InterruptedException ignored) {
+					// The variables already taken from the queue are saved below
 				}
+
+				// Actually save the variables
+				// if saving failed, the changes stay pending so their lists aren't unloaded and read back without them
+				if (saveBatch(batch)) {
+					for (SerializedVariable variable : batch)
+						LazyVariables.changeSettled(variable.name);
+				}
+				batch.clear();
 			}
 		}, "Skript variable save thread for database '" + type + "'");
 	}
@@ -480,6 +495,11 @@ public abstract class VariablesStorage implements Closeable {
 		// Now safely close storage and interrupt thread
 		closed = true;
 		writeThread.interrupt();
+
+		// Wait for the variables that were already taken from the queue to be saved
+		try {
+			writeThread.join(CLOSE_TIMEOUT);
+		} catch (InterruptedException ignored) {}
 	}
 
 	/**
@@ -492,6 +512,39 @@ public abstract class VariablesStorage implements Closeable {
 		changesQueue.clear();
 	}
 
+	/**
+	 * Called by the {@link #writeThread} after taking a variable from the {@link #changesQueue queue},
+	 * to take more variables from the queue to save at once with {@link #saveBatch(List)}.
+	 * <p>
+	 * The default implementation does not take any more variables,
+	 * i.e. every variable is saved on its own.
+	 *
+	 * @param batch the variables taken from the queue so far, to add more variables to.
+	 * @throws InterruptedException if the thread was interrupted while waiting for more variables.
+	 * The variables in the batch are still saved.
+	 */
+	protected void collectBatch(List<SerializedVariable> batch) throws InterruptedException {}
+
+	/**
+	 * Saves the variables taken from the {@link #changesQueue queue} by the {@link #writeThread}, in order.
+	 * <p>
+	 * The default implementation saves them one by one with {@link #save(String, String, byte[])}.
+	 *
+	 * @param batch the variables to save.
+	 * @return Whether all variables were saved.
+	 */
+	protected boolean saveBatch(List<SerializedVariable> batch) {
+		boolean saved = true;
+		for (SerializedVariable variable : batch) {
+			Value value = variable.value;
+			if (value != null)
+				saved &= save(variable.name, value.type, value.data);
+			else
+				saved &= save(variable.name, null, null);
+		}
+		return saved;
+	}
+
 	/**
 	 * Saves a variable.
 	 * <p>
@@ -61,17 +61,13 @@ public class EffBroadcast extends Effect {
 	@Override
 	protected void execute(Event event) {
 		if (worlds == null) { // use native method if possible
-			for (Component component : messages.getArray(event)) {
-				Bukkit.broadcast(component);
-			}
+			messages.forEach(event, component -> Bukkit.broadcast(component));
 			return;
 		}
 
 		// determine recipients
 		ImmutableSet.Builder<CommandSender> recipientsBuilder = ImmutableSet.builder();
-		for (World world : worlds.getArray(event)) {
-			recipientsBuilder.addAll(world.getPlayers());
-		}
+		worlds.forEach(event, world -> recipientsBuilder.addAll(world.getPlayers()));
 		Set<CommandSender> recipients = recipientsBuilder.build();
 
 		Audience audience = Audience.audience(recipients);
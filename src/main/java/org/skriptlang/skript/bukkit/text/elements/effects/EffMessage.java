@@ -60,9 +60,7 @@ public class EffMessage extends Effect {
 	@Override
 	protected void execute(Event event) {
 		Audience audience = Audience.audience(recipients.getArray(event));
-		for (Component component : messages.getArray(event)) {
-			audience.sendMessage(component);
-		}
+		messages.forEach(event, component -> audience.sendMessage(component));
 	}
 
 	@Override
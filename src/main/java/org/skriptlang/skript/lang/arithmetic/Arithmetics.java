@@ -5,8 +5,10 @@ import ch.njol.skript.SkriptAPIException;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 import org.jetbrains.annotations.UnmodifiableView;
+import org.skriptlang.skript.util.ClassPairCache;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -17,20 +19,28 @@ public final class Arithmetics {
 
 	private static final Map<Operator, List<OperationInfo<?, ?, ?>>> OPERATIONS
 		= Collections.synchronizedMap(new HashMap<>());
-	private static final Map<Operator, Map<OperandTypes, OperationInfo<?, ?, ?>>> CACHED_OPERATIONS
-		= Collections.synchronizedMap(new HashMap<>());
-	private static final Map<Operator, Map<OperandTypes, OperationInfo<?, ?, ?>>> CACHED_CONVERTED_OPERATIONS
-		= Collections.synchronizedMap(new HashMap<>());
+	private static final Map<Operator, ClassPairCache<OperationInfo<?, ?, ?>>> CACHED_OPERATIONS
+		= new ConcurrentHashMap<>();
+	private static final Map<Operator, ClassPairCache<OperationInfo<?, ?, ?>>> CACHED_CONVERTED_OPERATIONS
+		= new ConcurrentHashMap<>();
 
 	private static final Map<Class<?>, DifferenceInfo<?, ?>> DIFFERENCES
 		= Collections.synchronizedMap(new HashMap<>());
-	private static final Map<Class<?>, DifferenceInfo<?, ?>> CACHED_DIFFERENCES
-		= Collections.synchronizedMap(new HashMap<>());
+	private static final ClassValue<Optional<DifferenceInfo<?, ?>>> CACHED_DIFFERENCES = new ClassValue<>() {
+		@Override
+		protected Optional<DifferenceInfo<?, ?>> computeValue(Class<?> type) {
+			return Optional.ofNullable(findDifferenceInfo(type));
+		}
+	};
 
 	private static final Map<Class<?>, Supplier<?>> DEFAULT_VALUES
 		= Collections.synchronizedMap(new HashMap<>());
-	private static final Map<Class<?>, Supplier<?>> CACHED_DEFAULT_VALUES
-		= Collections.synchronizedMap(new HashMap<>());
+	private static final ClassValue<Optional<Supplier<?>>> CACHED_DEFAULT_VALUES = new ClassValue<>() {
+		@Override
+		protected Optional<Supplier<?>> computeValue(Class<?> type) {
+			return Optional.ofNullable(findDefaultValue(type));
+		}
+	};
 
 	/**
 	 * Registers a binary operation where both left and right operands are of the same type,
@@ -264,15 +274,15 @@ public final class Arithmetics {
 	public static <L, R> @Nullable OperationInfo<L, R, ?> getOperationInfo(Operator operator,
 			Class<L> leftClass, Class<R> rightClass) {
 		assertIsOperationsDoneLoading();
-		OperandTypes operandTypes = new OperandTypes(leftClass, rightClass);
-		Map<OperandTypes, OperationInfo<?, ?, ?>> operations = CACHED_OPERATIONS
-			.computeIfAbsent(operator, o -> Collections.synchronizedMap(new HashMap<>()));
-		OperationInfo<L, R, ?> operationInfo = (OperationInfo<L, R, ?>) operations.get(operandTypes);
 		// we also cache null values for non-existing operations
-		if (operations.containsKey(operandTypes))
-			return operationInfo;
+		return (OperationInfo<L, R, ?>) CACHED_OPERATIONS
+			.computeIfAbsent(operator, op -> new ClassPairCache<>((left, right) -> findOperationInfo(op, left, right)))
+			.get(leftClass, rightClass);
+	}
 
-		operationInfo = (OperationInfo<L, R, ?>) getOperations(operator).stream()
+	private static @Nullable OperationInfo<?, ?, ?> findOperationInfo(Operator operator,
+			Class<?> leftClass, Class<?> rightClass) {
+		return getOperations(operator).stream()
 			.filter(info ->
 				info.left().isAssignableFrom(leftClass) && info.right().isAssignableFrom(rightClass))
 			.reduce((info, info2) -> {
@@ -281,8 +291,6 @@ public final class Arithmetics {
 				return info;
 			})
 			.orElse(null);
-		operations.put(operandTypes, operationInfo);
-		return operationInfo;
 	}
 
 	/**
@@ -358,24 +366,20 @@ public final class Arithmetics {
 		if (operationInfo != null)
 			return operationInfo;
 
-		OperandTypes operandTypes = new OperandTypes(leftClass, rightClass);
-		Map<OperandTypes, OperationInfo<?, ?, ?>> operations = CACHED_CONVERTED_OPERATIONS
-			.computeIfAbsent(operator, o -> Collections.synchronizedMap(new HashMap<>()));
-		operationInfo = (OperationInfo<L, R, ?>) operations.get(operandTypes);
 		// we also cache null values for non-existing operations
-		if (operations.containsKey(operandTypes))
-			return operationInfo;
+		return (OperationInfo<L, R, ?>) CACHED_CONVERTED_OPERATIONS
+			.computeIfAbsent(operator, op -> new ClassPairCache<>((left, right) -> findConvertedOperationInfo(op, left, right)))
+			.get(leftClass, rightClass);
+	}
 
+	private static @Nullable OperationInfo<?, ?, ?> findConvertedOperationInfo(Operator operator,
+			Class<?> leftClass, Class<?> rightClass) {
 		for (OperationInfo<?, ?, ?> info : getOperations(operator)) {
-			OperationInfo<L, R, ?> convertedInfo = info.getConverted(
+			OperationInfo<?, ?, ?> convertedInfo = info.getConverted(
 				leftClass, rightClass, info.returnType());
-			if (convertedInfo == null)
-				continue;
-			operations.put(operandTypes, convertedInfo);
-			return convertedInfo;
+			if (convertedInfo != null)
+				return convertedInfo;
 		}
-
-		operations.put(operandTypes, null);
 		return null;
 	}
 
@@ -499,26 +503,21 @@ public final class Arithmetics {
 			throw new SkriptAPIException("Differences cannot be retrieved until Skript " +
 				"has finished registrations.");
 		// we also cache null values
-		if (CACHED_DIFFERENCES.containsKey(type))
-			return (DifferenceInfo<T, ?>) CACHED_DIFFERENCES.get(type);
-
-		DifferenceInfo<T, ?> difference = null;
+		return (DifferenceInfo<T, ?>) CACHED_DIFFERENCES.get(type).orElse(null);
+	}
 
-		if (DIFFERENCES.containsKey(type)) {
-			difference = (DifferenceInfo<T, ?>) DIFFERENCES.get(type);
-			CACHED_DIFFERENCES.put(type, difference);
+	private static @Nullable DifferenceInfo<?, ?> findDifferenceInfo(Class<?> type) {
+		DifferenceInfo<?, ?> difference = DIFFERENCES.get(type);
+		if (difference != null)
 			return difference;
-		}
 
-		for (Map.Entry<Class<?>, DifferenceInfo<?, ?>> entry : DIFFERENCES.entrySet()) {
-			if (!entry.getKey().isAssignableFrom(type))
-				continue;
-			difference = (DifferenceInfo<T, ?>) entry.getValue();
-			break;
+		synchronized (DIFFERENCES) {
+			for (Map.Entry<Class<?>, DifferenceInfo<?, ?>> entry : DIFFERENCES.entrySet()) {
+				if (entry.getKey().isAssignableFrom(type))
+					return entry.getValue();
+			}
 		}
-
-		CACHED_DIFFERENCES.put(type, difference);
-		return difference;
+		return null;
 	}
 
 	/**
@@ -612,27 +611,22 @@ public final class Arithmetics {
 			throw new SkriptAPIException("Default values cannot be retrieved until Skript has " +
 				"finished registrations.");
 
-		Supplier<R> supplier = null;
-
-		if (CACHED_DEFAULT_VALUES.containsKey(type)) {
-			supplier = (Supplier<R>) CACHED_DEFAULT_VALUES.get(type);
-			return supplier != null ? supplier.get() : null;
-		}
+		Supplier<R> supplier = (Supplier<R>) CACHED_DEFAULT_VALUES.get(type).orElse(null);
+		return supplier != null ? supplier.get() : null;
+	}
 
-		if (DEFAULT_VALUES.containsKey(type)) {
-			supplier = (Supplier<R>) DEFAULT_VALUES.get(type);
-			CACHED_DEFAULT_VALUES.put(type, supplier);
-			return supplier.get();
-		}
+	private static @Nullable Supplier<?> findDefaultValue(Class<?> type) {
+		Supplier<?> supplier = DEFAULT_VALUES.get(type);
+		if (supplier != null)
+			return supplier;
 
-		for (Map.Entry<Class<?>, Supplier<?>> entry : DEFAULT_VALUES.entrySet()) {
-			if (!entry.getKey().isAssignableFrom(type)) continue;
-			supplier = (Supplier<R>) entry.getValue();
-			break;
+		synchronized (DEFAULT_VALUES) {
+			for (Map.Entry<Class<?>, Supplier<?>> entry : DEFAULT_VALUES.entrySet()) {
+				if (entry.getKey().isAssignableFrom(type))
+					return entry.getValue();
+			}
 		}
-
-		CACHED_DEFAULT_VALUES.put(type, supplier);
-		return supplier != null ? supplier.get() : null;
+		return null;
 	}
 
 	private static void assertIsOperationsDoneLoading() {
@@ -675,6 +669,4 @@ public final class Arithmetics {
 		throw new UnsupportedOperationException();
 	}
 
-	private record OperandTypes(Class<?> left, Class<?> right) {}
-
 }
@@ -0,0 +1,45 @@
+package org.skriptlang.skript.lang.comparator;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A Runtime Comparator compares objects whose types are only known at runtime, such as the values of variables.
+ * It compares objects like {@link Comparators#compare(Object, Object)},
+ *  but remembers the comparator found for the types of the last compared objects.
+ * The comparator is only looked up again when the types of the compared objects change.
+ *
+ * Each place comparing objects should use its own instance, so that the types it compares rarely change.
+ */
+public final class RuntimeComparator implements Comparator<Object, Object> {
+
+	/**
+	 * The comparator found for two types. Only has final fields, so it can be shared between threads without synchronization.
+	 */
+	private record Resolved(Class<?> first, Class<?> second, @Nullable Comparator<Object, Object> comparator) { }
+
+	private @Nullable Resolved last;
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Relation compare(@Nullable Object first, @Nullable Object second) {
+		if (first == null || second == null) {
+			return Relation.NOT_EQUAL;
+		}
+
+		if (first == second) {
+			return Relation.EQUAL;
+		}
+
+		Class<Object> firstType = (Class<Object>) first.getClass();
+		Class<Object> secondType = (Class<Object>) second.getClass();
+		Resolved resolved = last;
+		if (resolved == null || resolved.first() != firstType || resolved.second() != secondType) {
+			resolved = new Resolved(firstType, secondType, Comparators.getComparator(firstType, secondType));
+			last = resolved;
+		}
+
+		Comparator<Object, Object> comparator = resolved.comparator();
+		return comparator != null ? comparator.compare(first, second) : Relation.NOT_EQUAL;
+	}
+
+}
@@ -2,9 +2,9 @@ package org.skriptlang.skript.lang.converter;
 
 import ch.njol.skript.Skript;
 import ch.njol.skript.SkriptAPIException;
-import ch.njol.util.Pair;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
+import org.skriptlang.skript.util.ClassPairCache;
 
 import java.lang.reflect.Array;
 import java.util.*;
@@ -35,11 +35,12 @@ public final class Converters {
 	}
 
 	/**
-	 * A map for quickly access converters that have already been resolved.
-	 * Some pairs may point to a null value, indicating that no converter exists between the two types.
+	 * A cache for quickly accessing converters that have already been resolved.
+	 * Pairs without a converter are cached as well, indicating that no converter exists between the two types.
 	 * This is useful for skipping complex lookups that may require chaining.
 	 */
-	private static final Map<Pair<Class<?>, Class<?>>, ConverterInfo<?, ?>> QUICK_ACCESS_CONVERTERS = new HashMap<>(50);
+	private static final ClassPairCache<ConverterInfo<?, ?>> QUICK_ACCESS_CONVERTERS =
+		new ClassPairCache<>((fromType, toType) -> getConverterInfo_i(fromType, toType));
 
 	/**
 	 * Registers a new Converter with Skript's collection of Converters.
@@ -220,20 +221,7 @@ public final class Converters {
 	@SuppressWarnings("unchecked")
 	public static <F, T> ConverterInfo<F, T> getConverterInfo(Class<F> fromType, Class<T> toType) {
 		assertIsDoneLoading();
-
-		Pair<Class<?>, Class<?>> pair = new Pair<>(fromType, toType);
-		ConverterInfo<F, T> converter;
-
-		synchronized (QUICK_ACCESS_CONVERTERS) {
-			if (QUICK_ACCESS_CONVERTERS.containsKey(pair)) {
-				converter = (ConverterInfo<F, T>) QUICK_ACCESS_CONVERTERS.get(pair);
-			} else { // Compute QUICK_ACCESS for provided types
-				converter = getConverterInfo_i(fromType, toType);
-				QUICK_ACCESS_CONVERTERS.put(pair, converter);
-			}
-		}
-
-		return converter;
+		return (ConverterInfo<F, T>) QUICK_ACCESS_CONVERTERS.get(fromType, toType);
 	}
 
 	/**
@@ -275,7 +263,7 @@ public final class Converters {
 		// Instead, we should just try and convert during runtime when we have a better idea of the fromType
 		if (fromType == Object.class) {
 			return new ConverterInfo<>(
-				fromType, toType, fromObject -> Converters.convert(fromObject, toType), Converter.NO_LEFT_CHAINING
+				fromType, toType, (Converter<F, T>) new RuntimeConverter<>(toType), Converter.NO_LEFT_CHAINING
 			);
 		}
 
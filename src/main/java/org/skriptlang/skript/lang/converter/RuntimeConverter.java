@@ -0,0 +1,60 @@
+package org.skriptlang.skript.lang.converter;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A Runtime Converter converts objects whose type is only known at runtime, such as the values of variables.
+ * It converts objects like {@link Converters#convert(Object, Class)},
+ *  but remembers the converter found for the type of the last converted object.
+ * The converter is only looked up again when the type of the converted objects changes.
+ *
+ * Each place converting objects should use its own instance, so that the types it converts rarely change.
+ *
+ * @param <T> The type to convert to.
+ */
+public final class RuntimeConverter<T> implements Converter<Object, T> {
+
+	/**
+	 * The converter found for a type. Only has final fields, so it can be shared between threads without synchronization.
+	 */
+	private record Resolved<T>(Class<?> from, @Nullable Converter<Object, T> converter) { }
+
+	private final Class<T> to;
+
+	private @Nullable Resolved<T> last;
+
+	public RuntimeConverter(Class<T> to) {
+		this.to = to;
+	}
+
+	/**
+	 * @return The type this converter converts to.
+	 */
+	public Class<T> getTo() {
+		return to;
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public T convert(@Nullable Object from) {
+		if (from == null) {
+			return null;
+		}
+
+		if (to.isInstance(from)) {
+			return (T) from;
+		}
+
+		Class<Object> fromType = (Class<Object>) from.getClass();
+		Resolved<T> resolved = last;
+		if (resolved == null || resolved.from() != fromType) {
+			resolved = new Resolved<>(fromType, Converters.getConverter(fromType, to));
+			last = resolved;
+		}
+
+		Converter<Object, T> converter = resolved.converter();
+		return converter != null ? converter.convert(from) : null;
+	}
+
+}
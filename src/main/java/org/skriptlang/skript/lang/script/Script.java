@@ -22,7 +22,7 @@ import java.util.function.Supplier;
  */
 public final class Script implements Validated, AnyNamed {
 
-	private final Config config;
+	private Config config;
 
 	private final List<Structure> structures;
 
@@ -53,6 +53,20 @@ public final class Script implements Validated, AnyNamed {
 		return Collections.unmodifiableList(structures);
 	}
 
+	/**
+	 * Replaces the contents of this Script with a newer version of its file,
+	 *  after only some of its Structures were reloaded.
+	 * This must be called on the main thread, where the Structures of a loaded Script are accessed.
+	 * @param config The Config containing the new contents of this Script.
+	 * @param structures The Structures of this Script, in the order of the new contents.
+	 */
+	@ApiStatus.Internal
+	public void update(Config config, List<Structure> structures) {
+		this.config = config;
+		this.structures.clear();
+		this.structures.addAll(structures);
+	}
+
 	// Warning Suppressions
 
 	private final Set<ScriptWarning> suppressedWarnings = new HashSet<>(ScriptWarning.values().length);
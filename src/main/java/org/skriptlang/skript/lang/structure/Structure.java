@@ -156,6 +156,19 @@ public abstract class Structure implements SyntaxElement, Debuggable {
 		return true;
 	}
 
+	/**
+	 * Whether {@link #load()} may be called on another thread, at the same time as other structures
+	 *  of the same {@link #getPriority() priority} are loaded.
+	 * Every loading thread has its own {@link ParserInstance}.
+	 * Structures should only return true if their {@link #load()} does not modify anything
+	 *  other than themselves and the parser, as registering e.g. triggers belongs in {@link #postLoad()}.
+	 * This is only used if parallel script loading is enabled.
+	 * @return Whether this structure can be loaded in parallel with other structures.
+	 */
+	public boolean supportsParallelLoading() {
+		return false;
+	}
+
 	/**
 	 * Called when this structure is unloaded.
 	 */
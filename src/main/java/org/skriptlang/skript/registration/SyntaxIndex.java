@@ -0,0 +1,130 @@
+package org.skriptlang.skript.registration;
+
+import ch.njol.skript.patterns.MalformedPatternException;
+import ch.njol.skript.patterns.PatternCompiler;
+import com.google.common.collect.ImmutableList;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of the syntaxes of a {@link SyntaxRegister} by the start of the inputs they can match.
+ * <p>
+ * Every pattern whose keywords require inputs to start with specific strings
+ * (see {@link ch.njol.skript.patterns.SkriptPattern#getRequiredPrefixes()}) is indexed by the first one or two
+ * characters of those strings. A syntax is only indexed if all of its patterns are, otherwise it is a candidate for every input.
+ * @param <I> The type of syntax in this index.
+ */
+final class SyntaxIndex<I extends SyntaxInfo<?>> {
+
+	private static final int KEY_LENGTH = 2;
+
+	private final List<I> syntaxes;
+
+	/**
+	 * The positions of the syntaxes in {@link #syntaxes}, indexed by the first characters of their required prefixes.
+	 */
+	private final Map<String, int[]> indexed;
+
+	/**
+	 * The positions of the syntaxes that may match any input.
+	 */
+	private final int[] unindexed;
+
+	SyntaxIndex(Collection<I> syntaxes) {
+		this.syntaxes = ImmutableList.copyOf(syntaxes);
+
+		Map<String, List<Integer>> indexed = new HashMap<>();
+		List<Integer> unindexed = new ArrayList<>();
+		for (int position = 0; position < this.syntaxes.size(); position++) {
+			Set<String> keys = keys(this.syntaxes.get(position));
+			if (keys == null) {
+				unindexed.add(position);
+				continue;
+			}
+			for (String key : keys)
+				indexed.computeIfAbsent(key, k -> new ArrayList<>()).add(position);
+		}
+
+		this.indexed = new HashMap<>();
+		indexed.forEach((key, positions) -> this.indexed.put(key, toArray(positions)));
+		this.unindexed = toArray(unindexed);
+	}
+
+	private static @Nullable Set<String> keys(SyntaxInfo<?> info) {
+		Set<String> keys = new HashSet<>();
+		for (String pattern : info.patterns()) {
+			Set<String> prefixes;
+			try {
+				prefixes = PatternCompiler.compileCached(pattern).getRequiredPrefixes();
+			} catch (MalformedPatternException e) {
+				return null; // reported when parsing
+			}
+			if (prefixes == null)
+				return null;
+			for (String prefix : prefixes) {
+				if (prefix.isEmpty())
+					return null;
+				keys.add(prefix.substring(0, Math.min(KEY_LENGTH, prefix.length())));
+			}
+		}
+		return keys;
+	}
+
+	private static int[] toArray(List<Integer> positions) {
+		int[] array = new int[positions.size()];
+		for (int i = 0; i < array.length; i++)
+			array[i] = positions.get(i);
+		return array;
+	}
+
+	/**
+	 * @param input The input to find candidates for.
+	 * @return The syntaxes that may match <code>input</code>, in the order of the register.
+	 */
+	List<I> candidates(String input) {
+		String lowerInput = input.trim().toLowerCase(Locale.ENGLISH);
+		if (lowerInput.isEmpty())
+			return select(unindexed, null, null);
+		int[] first = indexed.get(lowerInput.substring(0, 1));
+		int[] second = lowerInput.length() >= KEY_LENGTH ? indexed.get(lowerInput.substring(0, KEY_LENGTH)) : null;
+		return select(unindexed, first, second);
+	}
+
+	/**
+	 * Merges the given sorted position arrays and returns the syntaxes at the distinct positions.
+	 */
+	private List<I> select(int[] a, int @Nullable [] b, int @Nullable [] c) {
+		if (b == null)
+			b = new int[0];
+		if (c == null)
+			c = new int[0];
+		List<I> candidates = new ArrayList<>(a.length + b.length + c.length);
+		int i = 0, j = 0, k = 0;
+		while (i < a.length || j < b.length || k < c.length) {
+			int next = Integer.MAX_VALUE;
+			if (i < a.length)
+				next = a[i];
+			if (j < b.length)
+				next = Math.min(next, b[j]);
+			if (k < c.length)
+				next = Math.min(next, c[k]);
+			if (i < a.length && a[i] == next)
+				i++;
+			if (j < b.length && b[j] == next)
+				j++;
+			if (k < c.length && c[k] == next)
+				k++;
+			candidates.add(syntaxes.get(next));
+		}
+		return candidates;
+	}
+
+}
@@ -5,6 +5,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListSet;
 
@@ -70,6 +71,7 @@ final class SyntaxRegister<I extends SyntaxInfo<?>> {
 
 	final Set<I> syntaxes = new ConcurrentSkipListSet<>(SET_COMPARATOR);
 	private volatile @Nullable Set<I> cache = null;
+	private volatile @Nullable SyntaxIndex<I> index = null;
 
 	public Collection<I> syntaxes() {
 		if (cache == null) {
@@ -78,14 +80,26 @@ final class SyntaxRegister<I extends SyntaxInfo<?>> {
 		return cache;
 	}
 
+	public List<I> candidates(String input) {
+		SyntaxIndex<I> index = this.index;
+		if (index == null) {
+			// built once registrations are done and parsing starts, and again only if syntaxes are (un)registered later
+			index = new SyntaxIndex<>(syntaxes());
+			this.index = index;
+		}
+		return index.candidates(input);
+	}
+
 	public void add(I info) {
 		syntaxes.add(info);
 		cache = null;
+		index = null;
 	}
 
 	public void remove(I info) {
 		syntaxes.remove(info);
 		cache = null;
+		index = null;
 	}
 
 }
@@ -79,6 +79,19 @@ public interface SyntaxRegistry extends ViewProvider<SyntaxRegistry>, Registry<S
 	 */
 	<I extends SyntaxInfo<?>> @Unmodifiable Collection<I> syntaxes(Key<I> key);
 
+	/**
+	 * A method to obtain the syntaxes registered under a certain key that may be able to match an input.
+	 * Syntaxes which cannot match the input, as determined by the literal text their patterns have to start with,
+	 *  may be left out. The remaining syntaxes are in the same order as in {@link #syntaxes(Key)}.
+	 * @param key The key to obtain syntaxes from.
+	 * @param input The input that is going to be parsed.
+	 * @return An unmodifiable collection of the syntaxes registered under <code>key</code> that may match <code>input</code>.
+	 * @param <I> The syntax type.
+	 */
+	default <I extends SyntaxInfo<?>> @Unmodifiable Collection<I> candidates(Key<I> key, String input) {
+		return syntaxes(key);
+	}
+
 	/**
 	 * Registers a new syntax under a provided key.
 	 * @param key The key to register <code>info</code> under.
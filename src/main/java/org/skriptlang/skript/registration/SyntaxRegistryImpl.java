@@ -6,6 +6,7 @@ import org.jetbrains.annotations.Unmodifiable;
 import org.skriptlang.skript.docs.Origin;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -21,6 +22,12 @@ final class SyntaxRegistryImpl implements SyntaxRegistry {
 		return register(key).syntaxes();
 	}
 
+	@Override
+	@Unmodifiable
+	public <I extends SyntaxInfo<?>> Collection<I> candidates(Key<I> key, String input) {
+		return Collections.unmodifiableList(register(key).candidates(input));
+	}
+
 	@Override
 	public <I extends SyntaxInfo<?>> void register(Key<I> key, I info) {
 		register(key).add(info);
@@ -76,6 +83,11 @@ final class SyntaxRegistryImpl implements SyntaxRegistry {
 			return syntaxRegistry.syntaxes(key);
 		}
 
+		@Override
+		public @Unmodifiable <I extends SyntaxInfo<?>> Collection<I> candidates(Key<I> key, String input) {
+			return syntaxRegistry.candidates(key, input);
+		}
+
 		@Override
 		public <I extends SyntaxInfo<?>> void register(Key<I> key, I info) {
 			if (info.origin() == Origin.UNKNOWN) { // when origin is unspecified, add one
@@ -120,6 +132,11 @@ final class SyntaxRegistryImpl implements SyntaxRegistry {
 			return registry.syntaxes(key);
 		}
 
+		@Override
+		public @Unmodifiable <I extends SyntaxInfo<?>> Collection<I> candidates(Key<I> key, String input) {
+			return registry.candidates(key, input);
+		}
+
 		@Override
 		public <I extends SyntaxInfo<?>> void register(Key<I> key, I info) {
 			throw new UnsupportedOperationException("Cannot register syntax infos with an unmodifiable syntax registry.");
@@ -8,11 +8,15 @@ import com.google.common.reflect.ClassPath.ResourceInfo;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Set;
 import java.util.TreeSet;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -22,9 +26,27 @@ import java.util.stream.Collectors;
 
 /**
  * A utility class for loading classes contained in specific packages.
+ * <p>
+ * If a jar contains a class index (see {@link #CLASS_INDEX}), the classes are looked up in the index instead of the entries of the jar.
  */
 public class ClassLoader {
 
+	/**
+	 * The path of the class index within a jar, which is generated by the <code>classIndex</code> task of the build script.
+	 * Each line of the index is the path of a class within the jar.
+	 * Paths of classes that declare a static initializer, or whose superclass within the jar does, are prefixed with <code>*</code>.
+	 * <p>
+	 * Other classes are skipped when classes should only be initialized,
+	 * as initializing them has no effect and they will be loaded once they are used.
+	 * Jars without an index, such as those of most addons, are scanned for classes instead.
+	 */
+	public static final String CLASS_INDEX = "META-INF/skript/classes.index";
+
+	/**
+	 * The prefix of classes that have to be initialized in the {@link #CLASS_INDEX}.
+	 */
+	private static final char STATIC_INITIALIZER_MARKER = '*';
+
 	/**
 	 * @return A builder for creating a loader.
 	 */
@@ -127,8 +149,29 @@ public class ClassLoader {
 	 */
 	public void loadClasses(Class<?> source, @Nullable JarFile jar) {
 		final Collection<String> classPaths;
+		// the classes whose initialization has an effect, if only these have to be loaded
+		Set<String> staticInitializers = null;
 		try {
-			if (jar != null) { // load from jar if available
+			JarEntry index = jar != null ? jar.getJarEntry(CLASS_INDEX) : null;
+			if (index != null) { // load from the index if available
+				classPaths = new HashSet<>();
+				boolean onlyInitialize = this.initialize && this.forEachClass == null;
+				if (onlyInitialize)
+					staticInitializers = new HashSet<>();
+				try (BufferedReader reader = new BufferedReader(new InputStreamReader(jar.getInputStream(index), StandardCharsets.UTF_8))) {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						if (line.isEmpty())
+							continue;
+						if (line.charAt(0) == STATIC_INITIALIZER_MARKER) {
+							line = line.substring(1);
+							if (onlyInitialize)
+								staticInitializers.add(line);
+						}
+						classPaths.add(line);
+					}
+				}
+			} else if (jar != null) { // load from jar if available
 				classPaths = jar.stream()
 						.map(JarEntry::getName)
 						.collect(Collectors.toSet());
@@ -176,6 +219,9 @@ public class ClassLoader {
 				}
 			}
 
+			if (load && staticInitializers != null && !staticInitializers.contains(name))
+				load = false;
+
 			if (load) {
 				// replace separators and .class extension
 				name = name.replace('/', '.').substring(0, name.length() - 6);
@@ -0,0 +1,60 @@
+package org.skriptlang.skript.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * A thread-safe cache of values that are resolved from a pair of classes, such as converters between two types.
+ * Looking up a value that was already resolved doesn't take a lock or allocate any objects.
+ * Pairs without a value are cached as well, so they are only resolved once.
+ * <p>
+ * The values of each first class are attached to it with a {@link ClassValue}, which is faster to look up than a map keyed by class.
+ *
+ * @param <V> the type of the cached values.
+ */
+public final class ClassPairCache<V> {
+
+	/**
+	 * Stored for pairs of classes that don't have a value.
+	 */
+	private static final Object NONE = new Object();
+
+	private final BiFunction<Class<?>, Class<?>, @Nullable V> resolver;
+
+	private final ClassValue<Map<Class<?>, Object>> values = new ClassValue<>() {
+		@Override
+		protected Map<Class<?>, Object> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	/**
+	 * @param resolver resolves the value of a pair of classes that is not cached yet, or returns null if the pair has no value.
+	 * 			It may be called multiple times for the same pair if it is looked up by multiple threads at the same time,
+	 * 			in which case the value resolved first is used.
+	 */
+	public ClassPairCache(BiFunction<Class<?>, Class<?>, @Nullable V> resolver) {
+		this.resolver = resolver;
+	}
+
+	/**
+	 * @param first the first class of the pair.
+	 * @param second the second class of the pair.
+	 * @return the value of the given pair of classes, or null if it has no value.
+	 */
+	@SuppressWarnings("unchecked")
+	public @Nullable V get(Class<?> first, Class<?> second) {
+		Map<Class<?>, Object> firstValues = values.get(first);
+		Object value = firstValues.get(second);
+		if (value == null) {
+			V resolved = resolver.apply(first, second);
+			Object previous = firstValues.putIfAbsent(second, resolved != null ? resolved : NONE);
+			value = previous != null ? previous : (resolved != null ? resolved : NONE);
+		}
+		return value != NONE ? (V) value : null;
+	}
+
+}
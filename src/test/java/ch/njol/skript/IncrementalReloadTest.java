@@ -0,0 +1,118 @@
+package ch.njol.skript;
+
+import ch.njol.skript.ScriptLoader.ScriptInfo;
+import ch.njol.skript.config.Config;
+import ch.njol.skript.test.runner.SkriptAsyncJUnitTest;
+import ch.njol.util.OpenCloseable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.skriptlang.skript.lang.script.Script;
+import org.skriptlang.skript.lang.structure.Structure;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Reloads a script on another thread than the main one, as <code>/sk reload</code> does with asynchronous loading.
+ */
+public class IncrementalReloadTest extends SkriptAsyncJUnitTest {
+
+	private static final String SCRIPT = """
+		on join:
+			set {_a} to 1
+
+		on quit:
+			set {_b} to 1
+		""";
+
+	private boolean previous;
+	private File file;
+
+	private static void setIncrementalReloading(boolean enabled) throws IOException {
+		String option = "incremental script reloading: " + enabled;
+		Config config = new Config(new ByteArrayInputStream(option.getBytes(StandardCharsets.UTF_8)),
+			"config.sk", false, false, ":");
+		SkriptConfig.incrementalScriptReloading.set(config, "");
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		previous = SkriptConfig.incrementalScriptReloading.value();
+		setIncrementalReloading(true);
+		file = new File(Skript.getInstance().getScriptsFolder(), "IncrementalReloadTest.sk").getCanonicalFile();
+		Files.writeString(file.toPath(), SCRIPT);
+		ScriptLoader.loadScripts(file, OpenCloseable.EMPTY).join();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Script script = ScriptLoader.getScript(file);
+		if (script != null)
+			ScriptLoader.unloadScript(script);
+		Files.delete(file.toPath());
+		setIncrementalReloading(previous);
+	}
+
+	private Script script() {
+		Script script = ScriptLoader.getScript(file);
+		assertNotNull(script);
+		return script;
+	}
+
+	@Test
+	public void testChangedEventIsReloaded() throws IOException {
+		Script script = script();
+		Config config = script.getConfig();
+		List<Structure> structures = List.copyOf(script.getStructures());
+		assertEquals(2, structures.size());
+
+		Files.writeString(file.toPath(), SCRIPT.replace("set {_b} to 1", "set {_b} to 2"));
+		ScriptInfo info = ScriptLoader.reloadScript(script, OpenCloseable.EMPTY).join();
+
+		assertSame(script, script());
+		assertEquals(1, info.reused);
+		assertEquals(2, info.structures);
+		List<Structure> reloaded = script.getStructures();
+		assertEquals(2, reloaded.size());
+		assertSame(structures.get(0), reloaded.get(0));
+		assertNotSame(structures.get(1), reloaded.get(1));
+		assertNotSame(config, script.getConfig());
+	}
+
+	@Test
+	public void testAddedAndRemovedEvents() throws IOException {
+		Script script = script();
+		Structure join = script.getStructures().get(0);
+
+		Files.writeString(file.toPath(), SCRIPT.replace("on quit:\n\tset {_b} to 1\n", "on respawn:\n\tset {_c} to 1\n")
+			+ "\non death:\n\tset {_d} to 1\n");
+		ScriptInfo info = ScriptLoader.reloadScript(script, OpenCloseable.EMPTY).join();
+
+		assertEquals(1, info.reused);
+		List<Structure> reloaded = script.getStructures();
+		assertEquals(3, reloaded.size());
+		assertSame(join, reloaded.get(0));
+	}
+
+	@Test
+	public void testChangedFunctionReloadsCompletely() throws IOException {
+		Files.writeString(file.toPath(), SCRIPT + "\nfunction incrementalReloadTest():\n\tset {_e} to 1\n");
+		ScriptLoader.reloadScript(script(), OpenCloseable.EMPTY).join();
+		Structure join = script().getStructures().get(0);
+
+		Files.writeString(file.toPath(), SCRIPT + "\nfunction incrementalReloadTest():\n\tset {_e} to 2\n");
+		ScriptInfo info = ScriptLoader.reloadScript(script(), OpenCloseable.EMPTY).join();
+
+		assertEquals(0, info.reused);
+		assertEquals(3, script().getStructures().size());
+		assertNotSame(join, script().getStructures().get(0));
+	}
+
+}
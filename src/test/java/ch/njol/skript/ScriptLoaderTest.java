@@ -0,0 +1,63 @@
+package ch.njol.skript;
+
+import ch.njol.skript.lang.Literal;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnknownNullability;
+import org.junit.Test;
+import org.skriptlang.skript.lang.entry.EntryContainer;
+import org.skriptlang.skript.lang.structure.Structure;
+
+import static org.junit.Assert.*;
+
+public class ScriptLoaderTest {
+
+	private static Structure structure(int priority, boolean parallel) {
+		Structure.Priority structurePriority = new Structure.Priority(priority);
+		return new Structure() {
+			@Override
+			public boolean init(Literal<?>[] args, int matchedPattern, ParseResult parseResult,
+								@UnknownNullability EntryContainer entryContainer) {
+				return true;
+			}
+
+			@Override
+			public boolean load() {
+				return true;
+			}
+
+			@Override
+			public Priority getPriority() {
+				return structurePriority;
+			}
+
+			@Override
+			public boolean supportsParallelLoading() {
+				return parallel;
+			}
+
+			@Override
+			public String toString(@Nullable Event event, boolean debug) {
+				return "test structure";
+			}
+		};
+	}
+
+	@Test
+	public void testParallelLoadingRuns() {
+		Structure first = structure(1000, true);
+		assertTrue(ScriptLoader.canLoadInParallel(first, first));
+		// structures of the same class share their priority, but equal priorities are enough
+		assertTrue(ScriptLoader.canLoadInParallel(first, structure(1000, true)));
+
+		// a structure of another priority must wait for the structures before it, even if they're loaded in parallel
+		assertFalse(ScriptLoader.canLoadInParallel(first, structure(500, true)));
+		assertFalse(ScriptLoader.canLoadInParallel(first, structure(1500, true)));
+
+		assertFalse(ScriptLoader.canLoadInParallel(first, structure(1000, false)));
+		Structure sequential = structure(1000, false);
+		assertFalse(ScriptLoader.canLoadInParallel(sequential, sequential));
+	}
+
+}
@@ -0,0 +1,127 @@
+package ch.njol.skript;
+
+import ch.njol.skript.SkriptEventHandler.TriggerIndex;
+import ch.njol.skript.aliases.ItemType;
+import ch.njol.skript.entity.EntityData;
+import ch.njol.skript.events.EvtBlock;
+import ch.njol.skript.events.EvtClick;
+import ch.njol.skript.events.EvtDamage;
+import ch.njol.skript.events.EvtEntity;
+import ch.njol.skript.lang.Literal;
+import ch.njol.skript.lang.SkriptEvent;
+import ch.njol.skript.lang.SkriptParser;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.Trigger;
+import ch.njol.skript.lang.util.SimpleLiteral;
+import ch.njol.skript.test.runner.SkriptJUnitTest;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.damage.DamageSource;
+import org.bukkit.damage.DamageType;
+import org.bukkit.entity.Cow;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Pig;
+import org.bukkit.event.Event;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+import org.bukkit.event.entity.EntitySpawnEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SkriptEventHandlerTest extends SkriptJUnitTest {
+
+	private final List<Trigger> triggers = new ArrayList<>();
+
+	@SafeVarargs
+	private static <T> Literal<T> literal(Class<T> type, T... values) {
+		return new SimpleLiteral<>(values, type, false);
+	}
+
+	private static ParseResult parseResult(String expr, int mark) {
+		ParseResult parseResult = new ParseResult(new SkriptParser(expr), "");
+		parseResult.mark = mark;
+		return parseResult;
+	}
+
+	private Trigger trigger(SkriptEvent event, String expr, int mark, Literal<?>... args) {
+		assertTrue(event.init(args, 0, parseResult(expr, mark)));
+		Trigger trigger = new Trigger(null, expr, event, List.of());
+		triggers.add(trigger);
+		return trigger;
+	}
+
+	private List<Trigger> dispatch(Event event) {
+		return List.of(new TriggerIndex(triggers).get(event));
+	}
+
+	@Test
+	public void testBlockDispatch() {
+		Trigger stone = trigger(new EvtBlock(), "burn of stone", 0, literal(ItemType.class, new ItemType(Material.STONE)));
+		trigger(new EvtBlock(), "burn of dirt", 0, literal(ItemType.class, new ItemType(Material.DIRT)));
+		Trigger any = trigger(new EvtBlock(), "burn", 0, (Literal<?>) null);
+		// matches no material, so it can't be indexed
+		Trigger empty = trigger(new EvtBlock(), "burn of nothing", 0, literal(ItemType.class, new ItemType()));
+
+		assertEquals(List.of(stone, any, empty), dispatch(new BlockBurnEvent(setBlock(Material.STONE), null)));
+		assertEquals(List.of(any, empty), dispatch(new BlockBurnEvent(setBlock(Material.GLASS), null)));
+	}
+
+	@Test
+	@SuppressWarnings("rawtypes")
+	public void testClickDispatch() {
+		Trigger stone = trigger(new EvtClick(), "right click on stone", 1, literal(ItemType.class, new ItemType(Material.STONE)), null);
+		trigger(new EvtClick(), "right click on dirt", 1, literal(ItemType.class, new ItemType(Material.DIRT)), null);
+		// entity datas aren't materials, so they can't be indexed
+		Trigger pig = trigger(new EvtClick(), "right click on pig", 1, literal(EntityData.class, EntityData.fromClass(Pig.class)), null);
+
+		assertEquals(List.of(stone, pig), dispatch(click(setBlock(Material.STONE))));
+		assertEquals(List.of(pig), dispatch(click(setBlock(Material.GLASS))));
+		assertEquals(triggers, dispatch(click(null)));
+	}
+
+	private static PlayerInteractEvent click(@Nullable Block block) {
+		return new PlayerInteractEvent(null, block == null ? Action.RIGHT_CLICK_AIR : Action.RIGHT_CLICK_BLOCK, null, block, BlockFace.UP);
+	}
+
+	@Test
+	@SuppressWarnings("rawtypes")
+	public void testEntityDispatch() {
+		Trigger pig = trigger(new EvtEntity(), "spawn of pig", 0, literal(EntityData.class, EntityData.fromClass(Pig.class)));
+		Trigger cow = trigger(new EvtEntity(), "spawn of cow", 0, literal(EntityData.class, EntityData.fromClass(Cow.class)));
+		Trigger any = trigger(new EvtEntity(), "spawn", 0, (Literal<?>) null);
+		// matches no entity type, so it can't be indexed
+		Trigger empty = trigger(new EvtEntity(), "spawn of nothing", 0, literal(EntityData.class));
+
+		assertEquals(List.of(pig, any, empty), dispatch(new EntitySpawnEvent(spawnTestPig())));
+		assertEquals(List.of(cow, any, empty), dispatch(new EntitySpawnEvent(spawnTestEntity(EntityType.COW))));
+		assertEquals(List.of(any, empty), dispatch(new EntitySpawnEvent(spawnTestEntity(EntityType.SHEEP))));
+	}
+
+	@Test
+	@SuppressWarnings("rawtypes")
+	public void testDamageDispatch() {
+		Trigger pig = trigger(new EvtDamage(), "damage of pig", 0, literal(EntityData.class, EntityData.fromClass(Pig.class)), null);
+		trigger(new EvtDamage(), "damage of cow", 0, literal(EntityData.class, EntityData.fromClass(Cow.class)), null);
+		Trigger any = trigger(new EvtDamage(), "damage", 0, null, null);
+		// matches no entity type, so it can't be indexed
+		Trigger empty = trigger(new EvtDamage(), "damage of nothing", 0, literal(EntityData.class), null);
+
+		assertEquals(List.of(pig, any, empty), dispatch(damage(spawnTestPig())));
+		assertEquals(List.of(any, empty), dispatch(damage(spawnTestEntity(EntityType.SHEEP))));
+	}
+
+	private static EntityDamageEvent damage(Entity entity) {
+		return new EntityDamageEvent(entity, DamageCause.CUSTOM, DamageSource.builder(DamageType.GENERIC).build(), 1);
+	}
+
+}
@@ -0,0 +1,124 @@
+package ch.njol.skript.aliases;
+
+import ch.njol.skript.aliases.AliasesProvider.AliasName;
+import ch.njol.skript.aliases.AliasesSnapshot.Entry;
+import ch.njol.skript.test.runner.SkriptJUnitTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class AliasesSnapshotTest extends SkriptJUnitTest {
+
+	private Path directory;
+	private Path aliases;
+	private Path snapshot;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("aliases");
+		aliases = Files.createDirectory(directory.resolve("aliases"));
+		snapshot = directory.resolve("aliases-snapshot.dat");
+		Files.writeString(aliases.resolve("blocks.sk"), "blocks:\n\tstone = minecraft:stone\n");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			for (Path file : files.sorted(Comparator.reverseOrder()).toList())
+				Files.delete(file);
+		}
+	}
+
+	private String fingerprint() throws IOException {
+		return AliasesSnapshot.fingerprint(List.of(aliases));
+	}
+
+	@Test
+	public void testFingerprint() throws IOException {
+		String fingerprint = fingerprint();
+		assertEquals(fingerprint, fingerprint());
+
+		Files.writeString(aliases.resolve("blocks.sk"), "blocks:\n\tstone = minecraft:cobblestone\n");
+		String changed = fingerprint();
+		assertNotEquals(fingerprint, changed);
+
+		Files.createDirectory(aliases.resolve("more"));
+		Files.writeString(aliases.resolve("more").resolve("items.sk"), "items:\n\tstick = minecraft:stick\n");
+		String added = fingerprint();
+		assertNotEquals(changed, added);
+
+		// files that aren't alias files are ignored
+		Files.writeString(aliases.resolve("readme.txt"), "not aliases");
+		assertEquals(added, fingerprint());
+
+		Files.move(aliases.resolve("more").resolve("items.sk"), aliases.resolve("items.sk"));
+		assertNotEquals(added, fingerprint());
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		Map<String, Object> tags = new HashMap<>();
+		tags.put("Damage", 5);
+		tags.put("components", "[custom_name='\"name\"']");
+		List<Entry> entries = List.of(
+			new Entry(new AliasName("stone", "stones", 1), "minecraft:stone", null, Map.of()),
+			new Entry(new AliasName("oak log", "oak logs", 0), "minecraft:oak_log", null, Map.of("axis", "y")),
+			new Entry(new AliasName("damaged sword", "damaged swords", 2), "minecraft:iron_sword", tags, Map.of()),
+			new Entry(new AliasName("oak log", "oak logs", 0), "minecraft:oak_log", null, Map.of("axis", "x", "deduplicate", "false"))
+		);
+		String fingerprint = fingerprint();
+		AliasesSnapshot.write(snapshot, fingerprint, entries);
+
+		List<Entry> read = AliasesSnapshot.read(snapshot, fingerprint);
+		assertNotNull(read);
+		assertEquals(entries.size(), read.size());
+		for (int i = 0; i < entries.size(); i++) {
+			Entry expected = entries.get(i);
+			Entry actual = read.get(i);
+			assertEquals(expected.name().singular, actual.name().singular);
+			assertEquals(expected.name().plural, actual.name().plural);
+			assertEquals(expected.name().gender, actual.name().gender);
+			assertEquals(expected.id(), actual.id());
+			assertEquals(expected.tags(), actual.tags());
+			assertEquals(expected.blockStates(), actual.blockStates());
+		}
+		// the damage is an integer, not the double Gson reads numbers as
+		assertEquals(5, read.get(2).tags().get("Damage"));
+	}
+
+	@Test
+	public void testOutdatedSnapshot() throws IOException {
+		AliasesSnapshot.write(snapshot, fingerprint(), List.of(
+			new Entry(new AliasName("stone", "stones", 1), "minecraft:stone", null, Map.of())));
+
+		Files.writeString(aliases.resolve("blocks.sk"), "blocks:\n\tstone = minecraft:cobblestone\n");
+		assertNull(AliasesSnapshot.read(snapshot, fingerprint()));
+		assertNull(AliasesSnapshot.read(directory.resolve("missing.dat"), fingerprint()));
+	}
+
+	@Test
+	public void testCorruptSnapshot() throws IOException {
+		String fingerprint = fingerprint();
+		AliasesSnapshot.write(snapshot, fingerprint, List.of(
+			new Entry(new AliasName("stone", "stones", 1), "minecraft:stone", null, Map.of())));
+		byte[] content = Files.readAllBytes(snapshot);
+		try (OutputStream out = Files.newOutputStream(snapshot)) {
+			out.write(content, 0, content.length - 2);
+		}
+
+		assertThrows(IOException.class, () -> AliasesSnapshot.read(snapshot, fingerprint));
+	}
+
+}
@@ -0,0 +1,144 @@
+package ch.njol.skript.aliases;
+
+import ch.njol.skript.test.runner.SkriptJUnitTest;
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ItemMatcherTest extends SkriptJUnitTest {
+
+	private static final List<Material> MATERIALS = List.of(Material.STONE, Material.DIRT, Material.DIAMOND_SWORD,
+		Material.OAK_LOG, Material.WATER, Material.AIR);
+
+	private static ItemStack named(Material material) {
+		ItemStack stack = new ItemStack(material);
+		ItemMeta meta = stack.getItemMeta();
+		meta.setDisplayName("named");
+		stack.setItemMeta(meta);
+		return stack;
+	}
+
+	private static ItemStack damaged(Material material) {
+		ItemStack stack = new ItemStack(material);
+		Damageable meta = (Damageable) stack.getItemMeta();
+		meta.setDamage(10);
+		stack.setItemMeta(meta);
+		return stack;
+	}
+
+	private static List<ItemType> itemTypes() {
+		ItemType namedSword = new ItemType(Material.DIAMOND_SWORD);
+		namedSword.setItemMeta(named(Material.DIAMOND_SWORD).getItemMeta());
+		return List.of(
+			new ItemType(Material.STONE),
+			new ItemType(Material.STONE, Material.DIRT),
+			new ItemType(Material.DIAMOND_SWORD),
+			namedSword,
+			new ItemType(damaged(Material.DIAMOND_SWORD)),
+			new ItemType(Material.OAK_LOG),
+			new ItemType(Material.OAK_LOG.createBlockData("[axis=x]")),
+			new ItemType(Material.WATER),
+			new ItemType()
+		);
+	}
+
+	private static List<ItemStack> items() {
+		return List.of(
+			new ItemStack(Material.STONE),
+			new ItemStack(Material.DIRT),
+			new ItemStack(Material.GLASS),
+			new ItemStack(Material.DIAMOND_SWORD),
+			named(Material.DIAMOND_SWORD),
+			damaged(Material.DIAMOND_SWORD),
+			named(Material.STONE),
+			new ItemStack(Material.OAK_LOG)
+		);
+	}
+
+	/**
+	 * How {@link ItemType#isOfType(ItemData)} compared items before the matcher.
+	 */
+	private static boolean compare(ItemType type, ItemData data) {
+		for (ItemData entry : type.getTypes()) {
+			if (entry.equals(data))
+				return true;
+		}
+		return false;
+	}
+
+	@Test
+	public void testItemStacks() {
+		for (ItemType type : itemTypes()) {
+			for (ItemStack item : items())
+				assertEquals(type + " and " + item, compare(type, new ItemData(item)), type.isOfType(item));
+		}
+	}
+
+	@Test
+	public void testMaterials() {
+		for (ItemType type : itemTypes()) {
+			for (Material material : MATERIALS)
+				assertEquals(type + " and " + material, compare(type, new ItemData(material, (String) null)), type.isOfType(material));
+		}
+	}
+
+	@Test
+	public void testBlockData() {
+		List<BlockData> blocks = List.of(Material.STONE.createBlockData(), Material.OAK_LOG.createBlockData(),
+			Material.OAK_LOG.createBlockData("[axis=x]"), Material.WATER.createBlockData(), Material.GLASS.createBlockData());
+		for (ItemType type : itemTypes()) {
+			for (BlockData blockData : blocks)
+				assertEquals(type + " and " + blockData, compare(type, new ItemData(blockData)), type.isOfType(blockData));
+		}
+	}
+
+	@Test
+	public void testItemData() {
+		for (ItemType type : itemTypes()) {
+			for (ItemType other : itemTypes()) {
+				for (ItemData data : other)
+					assertEquals(type + " and " + data, compare(type, data), type.isOfType(data));
+			}
+		}
+	}
+
+	@Test
+	public void testMatcherIsReset() {
+		ItemType type = new ItemType(Material.STONE);
+		ItemStack dirt = new ItemStack(Material.DIRT);
+		assertFalse(type.isOfType(dirt));
+
+		type.add(new ItemData(Material.DIRT));
+		assertTrue(type.isOfType(dirt));
+
+		type.remove(new ItemData(Material.DIRT));
+		assertFalse(type.isOfType(dirt));
+
+		type.addAll(List.of(new ItemData(Material.DIRT)));
+		assertTrue(type.isOfType(Material.DIRT));
+
+		Iterator<ItemData> iterator = type.iterator();
+		iterator.next();
+		iterator.next();
+		iterator.remove();
+		assertFalse(type.isOfType(Material.DIRT));
+
+		type.setTo(new ItemType(Material.DIRT));
+		assertTrue(type.isOfType(dirt));
+		assertFalse(type.isOfType(Material.STONE));
+
+		ItemType clone = type.clone();
+		clone.add(new ItemData(Material.STONE));
+		assertTrue(clone.isOfType(Material.STONE));
+		assertFalse(type.isOfType(Material.STONE));
+	}
+
+}
@@ -0,0 +1,94 @@
+package ch.njol.skript.entity;
+
+import ch.njol.skript.test.runner.SkriptJUnitTest;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Cow;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Pig;
+import org.bukkit.entity.Player;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class EntityQueryTest extends SkriptJUnitTest {
+
+	private Pig pig;
+	private Cow cow;
+
+	@Before
+	public void spawn() {
+		pig = spawnTestPig();
+		cow = spawnTestEntity(EntityType.COW);
+		cow.teleport(getTestLocation().add(5, 0, 0));
+	}
+
+	@After
+	public void remove() {
+		pig.remove();
+		cow.remove();
+	}
+
+	private static <E extends Entity> EntityQuery<E> query(Class<E> type, Class<?>... entityClasses) {
+		EntityData<?>[] types = new EntityData[entityClasses.length];
+		for (int i = 0; i < entityClasses.length; i++)
+			types[i] = EntityData.fromClass(entityClasses[i].asSubclass(Entity.class));
+		return EntityQuery.of(types, type);
+	}
+
+	private static Set<Entity> collect(Iterator<? extends Entity> entities) {
+		Set<Entity> set = new HashSet<>();
+		entities.forEachRemaining(set::add);
+		return set;
+	}
+
+	@Test
+	public void testWorldQuery() {
+		assertEquals(Set.of(pig), collect(query(Entity.class, Pig.class).in(getTestWorld())));
+		assertEquals(Set.of(pig, cow), collect(query(Entity.class, Pig.class, Cow.class).in(getTestWorld())));
+		// no worlds means all worlds
+		assertEquals(Set.of(cow), collect(query(Entity.class, Cow.class).in((World[]) null)));
+		assertTrue(collect(query(LivingEntity.class, LivingEntity.class).in(getTestWorld())).containsAll(Set.of(pig, cow)));
+
+		assertTrue(query(Entity.class, Pig.class).matches(pig));
+		assertFalse(query(Entity.class, Pig.class).matches(cow));
+	}
+
+	@Test
+	public void testPlayerWorldQuery() {
+		Set<Entity> players = new HashSet<>();
+		for (Player player : Bukkit.getOnlinePlayers()) {
+			if (player.getWorld().equals(getTestWorld()))
+				players.add(player);
+		}
+		// all online players of the worlds are returned, like EntityData#getAll
+		assertEquals(players, collect(query(Player.class, Player.class).in(getTestWorld())));
+		assertEquals(Set.copyOf(Bukkit.getOnlinePlayers()), collect(query(Player.class, Player.class).in((World[]) null)));
+	}
+
+	@Test
+	public void testRadiusQuery() {
+		Location center = getTestLocation();
+		assertEquals(Set.of(pig), collect(query(Entity.class, Pig.class, Cow.class).inRadius(center, 2)));
+		assertEquals(Set.of(pig, cow), collect(query(Entity.class, Pig.class, Cow.class).inRadius(center, 10)));
+		assertEquals(Set.of(cow), collect(query(Entity.class, Cow.class).inRadius(center, 10)));
+		assertEquals(Set.of(), collect(query(Entity.class, Pig.class).inRadius(center.clone().add(100, 0, 0), 10)));
+	}
+
+	@Test
+	public void testCuboidQuery() {
+		Location center = getTestLocation();
+		assertEquals(Set.of(pig), collect(query(Entity.class, Pig.class, Cow.class).within(center.clone().add(-2, -2, -2), center.clone().add(2, 2, 2))));
+		assertEquals(Set.of(pig, cow), collect(query(Entity.class, Pig.class, Cow.class).within(center.clone().add(-2, -2, -2), center.clone().add(8, 2, 2))));
+	}
+
+}
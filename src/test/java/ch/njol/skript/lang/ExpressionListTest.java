@@ -0,0 +1,66 @@
+package ch.njol.skript.lang;
+
+import ch.njol.skript.lang.util.SimpleLiteral;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ExpressionListTest {
+
+	private static final Event EVENT = new Event() {
+		@Override
+		public HandlerList getHandlers() {
+			throw new UnsupportedOperationException();
+		}
+	};
+
+	@SafeVarargs
+	private static <T> ExpressionList<T> list(Class<T> type, boolean and, Expression<? extends T>... expressions) {
+		return new ExpressionList<>(expressions, type, and);
+	}
+
+	private static SimpleLiteral<String> literal(boolean and, String... values) {
+		return new SimpleLiteral<>(values, String.class, and);
+	}
+
+	private static <T> List<T> forEach(Expression<T> expression) {
+		List<T> values = new ArrayList<>();
+		expression.forEach(EVENT, values::add);
+		return values;
+	}
+
+	@Test
+	public void testAndList() {
+		ExpressionList<String> list = list(String.class, true,
+			literal(true, "a"), literal(true, "b", "c"), literal(false, "d", "e"),
+			list(String.class, false, literal(true, "f"), literal(true, "g")));
+
+		assertEquals(List.of("a", "b", "c", "d", "e", "f", "g"), forEach(list));
+		assertEquals(List.of(list.getArray(EVENT)), forEach(list));
+	}
+
+	@Test
+	public void testNestedAndList() {
+		ExpressionList<String> list = list(String.class, true,
+			literal(true, "a"), list(String.class, true, literal(true, "b"), literal(true, "c", "d")));
+
+		assertEquals(List.of(list.getArray(EVENT)), forEach(list));
+	}
+
+	@Test
+	public void testOrList() {
+		ExpressionList<String> list = list(String.class, false, literal(true, "a"), literal(true, "b"));
+
+		for (int i = 0; i < 10; i++) {
+			List<String> values = forEach(list);
+			assertEquals(1, values.size());
+			assertTrue(values.get(0).equals("a") || values.get(0).equals("b"));
+		}
+	}
+
+}
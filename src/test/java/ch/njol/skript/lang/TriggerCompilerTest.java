@@ -0,0 +1,143 @@
+package ch.njol.skript.lang;
+
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.test.runner.SkriptJUnitTest;
+import ch.njol.util.Kleenean;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TriggerCompilerTest extends SkriptJUnitTest {
+
+	private final List<String> trace = new ArrayList<>();
+
+	private final Event event = new Event() {
+		@Override
+		public HandlerList getHandlers() {
+			throw new UnsupportedOperationException();
+		}
+	};
+
+	@Before
+	public void requireCompiler() {
+		Assume.assumeTrue(Runtime.version().feature() >= 24);
+	}
+
+	private Effect effect(String name) {
+		return new Effect() {
+			@Override
+			protected void execute(Event event) {
+				trace.add(name);
+			}
+
+			@Override
+			public boolean init(Expression<?>[] expressions, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+				return true;
+			}
+
+			@Override
+			public String toString(@Nullable Event event, boolean debug) {
+				return name;
+			}
+		};
+	}
+
+	/**
+	 * An effect overriding {@link TriggerItem#walk(Event)}, at which compilation stops.
+	 */
+	private Effect walkingEffect(String name) {
+		return new Effect() {
+			@Override
+			protected @Nullable TriggerItem walk(Event event) {
+				trace.add(name);
+				return super.walk(event);
+			}
+
+			@Override
+			protected void execute(Event event) { }
+
+			@Override
+			public boolean init(Expression<?>[] expressions, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+				return true;
+			}
+
+			@Override
+			public String toString(@Nullable Event event, boolean debug) {
+				return name;
+			}
+		};
+	}
+
+	private Condition condition(String name, boolean result) {
+		return new Condition() {
+			@Override
+			public boolean check(Event event) {
+				trace.add(name);
+				return result;
+			}
+
+			@Override
+			public boolean init(Expression<?>[] expressions, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+				return true;
+			}
+
+			@Override
+			public String toString(@Nullable Event event, boolean debug) {
+				return name;
+			}
+		};
+	}
+
+	/**
+	 * Runs the trigger interpreted and compiled, and checks that both give the same results.
+	 * @return The items run
+	 */
+	private List<String> assertSameExecution(Trigger trigger) {
+		trace.clear();
+		boolean interpreted = TriggerItem.walk(trigger, event);
+		List<String> interpretedTrace = new ArrayList<>(trace);
+
+		TriggerCompiler.CompiledTriggerItem compiled = TriggerCompiler.compile(trigger);
+		assertNotNull(compiled);
+		trace.clear();
+		assertEquals(interpreted, TriggerItem.walk(compiled, event));
+		assertEquals(interpretedTrace, trace);
+		return interpretedTrace;
+	}
+
+	@Test
+	public void testEffectsAndConditions() {
+		Trigger trigger = new Trigger(null, "test", null, List.of(
+			effect("a"), condition("b", true), effect("c"), walkingEffect("d"), effect("e")));
+		assertEquals(List.of("a", "b", "c", "d", "e"), assertSameExecution(trigger));
+	}
+
+	@Test
+	public void testFailedCondition() {
+		Trigger trigger = new Trigger(null, "test", null, List.of(
+			effect("a"), condition("b", false), effect("c"), walkingEffect("d")));
+		assertEquals(List.of("a", "b"), assertSameExecution(trigger));
+	}
+
+	@Test
+	public void testFailedConditionAfterCompiledItems() {
+		Trigger trigger = new Trigger(null, "test", null, List.of(
+			effect("a"), walkingEffect("b"), condition("c", false), effect("d")));
+		assertEquals(List.of("a", "b", "c"), assertSameExecution(trigger));
+	}
+
+	@Test
+	public void testNothingCompilable() {
+		Trigger trigger = new Trigger(null, "test", null, List.of(walkingEffect("a"), effect("b")));
+		assertNull(TriggerCompiler.compile(trigger));
+	}
+
+}
@@ -0,0 +1,138 @@
+package ch.njol.skript.lang;
+
+import ch.njol.skript.test.runner.SkriptJUnitTest;
+import ch.njol.skript.util.StringMode;
+import ch.njol.skript.variables.Variables;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.Nullable;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class VariablePathTest extends SkriptJUnitTest {
+
+	private static final Event EVENT = new Event() {
+		@Override
+		public HandlerList getHandlers() {
+			throw new UnsupportedOperationException();
+		}
+	};
+
+	/**
+	 * Names whose segments are split at different places depending on the values of {_a} and {_b}.
+	 */
+	private static final List<String> NAMES = List.of(
+		"list::%{_a}%", "list::%{_a}%::b", "list:%{_a}%::b", "list:::%{_a}%", "list::%{_a}%:::b",
+		"%{_a}%::%{_b}%", "%{_a}%:%{_b}%", "%{_a}%%{_b}%::c", "x%{_a}%x::%{_b}%x", "list::%{_a}%::*"
+	);
+
+	private static final List<String> VALUES = List.of("", "x", ":", "x:", ":x", "::", "x::y", ":::", "x:::y");
+
+	@After
+	public void cleanUp() {
+		Variables.removeLocals(EVENT);
+	}
+
+	private static VariablePath path(String name) {
+		return VariablePath.compile(string(name));
+	}
+
+	private static VariableString string(String name) {
+		VariableString string = VariableString.newInstance(name, StringMode.VARIABLE_NAME);
+		assertNotNull(string);
+		return string;
+	}
+
+	private static String @Nullable [] resolve(String name, String a, String b) {
+		Variables.setVariable("_a", a, EVENT, true);
+		Variables.setVariable("_b", b, EVENT, true);
+		return path(name).resolve(EVENT);
+	}
+
+	@Test
+	public void testConstantPath() {
+		assertArrayEquals(new String[]{"list", "a", "b"}, path("list::a::b").resolve(EVENT));
+		assertArrayEquals(new String[]{"list", ":a"}, path("list:::a").resolve(EVENT));
+		assertArrayEquals(new String[]{"list", "*"}, path("list::*").resolve(EVENT));
+	}
+
+	@Test
+	public void testResolve() {
+		assertArrayEquals(new String[]{"list", "x", "b"}, resolve("list::%{_a}%::b", "x", ""));
+		// a colon at the start of a segment stays part of it
+		assertArrayEquals(new String[]{"list", ":x", "b"}, resolve("list::%{_a}%::b", ":x", ""));
+		assertArrayEquals(new String[]{"list", ":x"}, resolve("list:::%{_a}%", "x", ""));
+		// a colon at the end of the last segment can't be followed by a separator
+		assertArrayEquals(new String[]{"list", "x:"}, resolve("list::%{_a}%", "x:", ""));
+	}
+
+	@Test
+	public void testAmbiguousSegments() {
+		// a separator in a value splits the segment
+		assertNull(resolve("list::%{_a}%::b", "x::y", ""));
+		// a colon at the end of a segment forms a separator with the following one
+		assertNull(resolve("list::%{_a}%::b", "x:", ""));
+		// a colon in a value forms a separator with a colon next to it
+		assertNull(resolve("list:%{_a}%::b", ":x", ""));
+		assertNull(resolve("%{_a}%:%{_b}%", "x", ":y"));
+	}
+
+	@Test
+	public void testResolveMatchesSplit() {
+		int resolved = 0;
+		for (String name : NAMES) {
+			for (String a : VALUES) {
+				for (String b : VALUES) {
+					String[] path = resolve(name, a, b);
+					if (path == null)
+						continue;
+					resolved++;
+					String rendered = string(name).toString(EVENT);
+					assertArrayEquals(name + " with " + a + ", " + b, Variables.splitVariableName(rendered), path);
+				}
+			}
+		}
+		assertTrue(resolved > NAMES.size() * VALUES.size());
+	}
+
+	@Test
+	public void testLocalPathAccess() {
+		Variables.setVariable(new String[]{"path test", "a"}, "1", EVENT, true);
+		Variables.setVariable("path test::b::c", "2", EVENT, true);
+
+		assertEquals("1", Variables.getVariable("path test::a", EVENT, true));
+		assertEquals("1", Variables.getVariable(new String[]{"path test", "a"}, EVENT, true));
+		assertEquals("2", Variables.getVariable(new String[]{"path test", "b", "c"}, EVENT, true));
+		Map<?, ?> list = (Map<?, ?>) Variables.getVariable(new String[]{"path test", "*"}, EVENT, true);
+		assertNotNull(list);
+		assertEquals(2, list.size());
+		assertEquals(list, Variables.getVariable("path test::*", EVENT, true));
+
+		Variables.setVariable(new String[]{"path test", "a"}, null, EVENT, true);
+		assertNull(Variables.getVariable("path test::a", EVENT, true));
+		assertNull(Variables.getVariable(new String[]{"path test", "a"}, EVENT, true));
+	}
+
+	@Test
+	public void testGlobalPathAccess() {
+		try {
+			Variables.setVariable(new String[]{"variable path test", "a"}, "1", null, false);
+			Variables.setVariable("variable path test::b", "2", null, false);
+
+			assertEquals("1", Variables.getVariable("variable path test::a", null, false));
+			assertEquals("2", Variables.getVariable(new String[]{"variable path test", "b"}, null, false));
+			Map<?, ?> list = (Map<?, ?>) Variables.getVariable(new String[]{"variable path test", "*"}, null, false);
+			assertNotNull(list);
+			assertEquals(2, list.size());
+		} finally {
+			Variables.setVariable("variable path test::*", null, null, false);
+		}
+		assertNull(Variables.getVariable(new String[]{"variable path test", "a"}, null, false));
+	}
+
+}
@@ -0,0 +1,146 @@
+package ch.njol.skript.lang.parser;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.config.Config;
+import ch.njol.skript.config.Node;
+import ch.njol.skript.lang.function.Function;
+import ch.njol.skript.lang.function.FunctionRegistry;
+import ch.njol.skript.lang.function.Parameter;
+import ch.njol.skript.lang.function.SimpleJavaFunction;
+import ch.njol.skript.registrations.DefaultClasses;
+import ch.njol.skript.test.runner.SkriptJUnitTest;
+import org.jetbrains.annotations.Nullable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.skriptlang.skript.lang.script.Script;
+import org.skriptlang.skript.registration.SyntaxInfo;
+import org.skriptlang.skript.registration.SyntaxRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ParseCacheTest extends SkriptJUnitTest {
+
+	private static final String LINE = "parse cache test";
+
+	private static final Function<Boolean> OTHER_SCRIPT_FUNCTION = new SimpleJavaFunction<>("parseCacheTestFunction", new Parameter[0],
+		DefaultClasses.BOOLEAN, true) {
+		@Override
+		public Boolean @Nullable [] executeSimple(Object[][] params) {
+			return new Boolean[]{true};
+		}
+	};
+
+	private @Nullable ParseCache previous;
+	private File cacheFile;
+	private File scriptFile;
+
+	private List<SyntaxInfo<?>> candidates;
+
+	@Before
+	public void setUp() throws IOException {
+		previous = ParseCache.instance;
+		cacheFile = File.createTempFile("parse-cache", ".dat");
+		//noinspection ResultOfMethodCallIgnored
+		cacheFile.delete();
+		scriptFile = File.createTempFile("parse-cache-test", ".sk");
+		ParseCache.load(cacheFile);
+
+		candidates = new ArrayList<>();
+		for (SyntaxInfo<?> info : Skript.instance().syntaxRegistry().syntaxes(SyntaxRegistry.STATEMENT)) {
+			if (candidates.stream().noneMatch(candidate -> candidate.type() == info.type()))
+				candidates.add(info);
+			if (candidates.size() == 3)
+				break;
+		}
+	}
+
+	@After
+	public void tearDown() {
+		ParseCache.instance = previous;
+		//noinspection ResultOfMethodCallIgnored
+		cacheFile.delete();
+		//noinspection ResultOfMethodCallIgnored
+		scriptFile.delete();
+	}
+
+	/**
+	 * Loads the script file, as a new script instance like a reload does.
+	 */
+	private Script load(String content) throws IOException {
+		Files.writeString(scriptFile.toPath(), content);
+		return new Script(new Config(scriptFile, true, false, ":"), new ArrayList<>());
+	}
+
+	private static Node node(Script script) {
+		return script.getConfig().getMainNode().iterator().next();
+	}
+
+	/**
+	 * Parses the line of the given script as the last candidate.
+	 */
+	private void parse(Script script) {
+		assertEquals(candidates, List.copyOf(ParseCache.order(script, node(script), LINE, candidates)));
+		ParseCache.record(script, node(script), LINE, candidates.get(2));
+	}
+
+	/**
+	 * @return the candidate the line of the given script is tried as first.
+	 */
+	private SyntaxInfo<?> first(Script script) {
+		return ParseCache.order(script, node(script), LINE, candidates).iterator().next();
+	}
+
+	@Test
+	public void testDecisionIsReused() throws IOException {
+		String content = "on load:\n\tbroadcast \"a\"\n";
+		parse(load(content));
+
+		Script script = load(content);
+		assertSame(candidates.get(2), first(script));
+		// the same line at another position wasn't parsed before
+		assertSame(candidates.get(0), ParseCache.order(script, script.getConfig().getMainNode(), LINE, candidates).iterator().next());
+	}
+
+	@Test
+	public void testChangedContentDiscardsDecisions() throws IOException {
+		parse(load("on load:\n\tbroadcast \"a\"\n"));
+
+		assertSame(candidates.get(0), first(load("on load:\n\tbroadcast \"b\"\n")));
+	}
+
+	@Test
+	public void testChangedFunctionsDiscardDecisions() throws IOException {
+		String content = "on load:\n\tbroadcast \"a\"\n";
+		parse(load(content));
+
+		// a function declared by another script may let an earlier candidate match now
+		FunctionRegistry.getRegistry().register(null, OTHER_SCRIPT_FUNCTION);
+		try {
+			Script script = load(content);
+			assertSame(candidates.get(0), first(script));
+			ParseCache.record(script, node(script), LINE, candidates.get(1));
+			assertSame(candidates.get(1), first(load(content)));
+		} finally {
+			FunctionRegistry.getRegistry().remove(OTHER_SCRIPT_FUNCTION.getSignature());
+		}
+		assertSame(candidates.get(0), first(load(content)));
+	}
+
+	@Test
+	public void testDecisionsAreSaved() throws IOException {
+		String content = "on load:\n\tbroadcast \"a\"\n";
+		parse(load(content));
+		ParseCache.save();
+
+		ParseCache.load(cacheFile);
+		assertSame(candidates.get(2), first(load(content)));
+	}
+
+}
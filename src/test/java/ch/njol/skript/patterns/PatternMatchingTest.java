@@ -6,6 +6,7 @@ import ch.njol.skript.lang.SkriptParser;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import org.junit.Test;
 
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
@@ -152,6 +153,30 @@ public class PatternMatchingTest {
 		assertEquals(1, Keyword.computeMinLength(element));
 	}
 
+	// ---- required prefix tests ----
+
+	@Test
+	public void testRequiredPrefixLiteral() {
+		assertEquals(Set.of("set"), compilePattern("set %objects% to %objects%").getRequiredPrefixes());
+	}
+
+	@Test
+	public void testRequiredPrefixChoice() {
+		assertEquals(Set.of("add", "give"), compilePattern("(add|give) %objects% to %objects%").getRequiredPrefixes());
+	}
+
+	@Test
+	public void testRequiredPrefixOptionalStart() {
+		assertNull(compilePattern("[the] name of %objects%").getRequiredPrefixes());
+		assertNull(compilePattern("%objects% is set").getRequiredPrefixes());
+	}
+
+	@Test
+	public void testRequiredPrefixChoiceWithOptional() {
+		// the second choice can start with anything
+		assertNull(compilePattern("(hello|[the] world) test").getRequiredPrefixes());
+	}
+
 	// ---- SkriptPattern.match() basic tests (literal-only patterns, no type registration needed) ----
 
 	@Test
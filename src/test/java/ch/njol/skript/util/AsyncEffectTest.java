@@ -0,0 +1,116 @@
+package ch.njol.skript.util;
+
+import ch.njol.skript.lang.ExecutionFrame;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.test.runner.SkriptJUnitTest;
+import ch.njol.skript.variables.Variables;
+import ch.njol.util.Kleenean;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class AsyncEffectTest extends SkriptJUnitTest {
+
+	private static final Event EVENT = new Event() {
+		@Override
+		public HandlerList getHandlers() {
+			throw new UnsupportedOperationException();
+		}
+	};
+
+	private static class TestEffect extends AsyncEffect {
+
+		private final boolean fail;
+		private @Nullable Object value;
+		private @Nullable ExecutionFrame frame;
+
+		private TestEffect(boolean fail) {
+			this.fail = fail;
+		}
+
+		@Override
+		public boolean init(Expression<?>[] expressions, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+			return true;
+		}
+
+		@Override
+		protected void execute(Event event) {
+			value = Variables.getVariable("async", event, true);
+			frame = ExecutionFrame.get(event);
+			if (fail)
+				throw new IllegalStateException("intentional failure");
+		}
+
+		@Override
+		public String toString(@Nullable Event event, boolean debug) {
+			return "test async effect";
+		}
+
+	}
+
+	/**
+	 * Suspends a new execution of {@link #EVENT} like {@link AsyncEffect#walk(Event)} does.
+	 * @return the local variables to continue the execution with.
+	 */
+	private static Object suspend() {
+		Variables.setVariable("async", "value", EVENT, true);
+		Object locals = Variables.removeLocals(EVENT);
+		assertNull(ExecutionFrame.get(EVENT));
+		assertNotNull(locals);
+		return locals;
+	}
+
+	/**
+	 * Runs the async part of the effect on another thread, like the async pool does.
+	 * @return the frame still bound to that thread afterwards, if any.
+	 */
+	private static @Nullable ExecutionFrame runAsync(TestEffect effect, Object locals) throws InterruptedException {
+		AtomicReference<@Nullable ExecutionFrame> bound = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			try {
+				effect.runAsync(EVENT, locals);
+			} catch (IllegalStateException ignored) {
+				// the failure of the effect
+			} finally {
+				bound.set(ExecutionFrame.get(EVENT));
+			}
+		});
+		thread.start();
+		thread.join();
+		return bound.get();
+	}
+
+	@Test
+	public void testLastEffect() throws InterruptedException {
+		ExecutionFrame frame = ExecutionFrame.enter(EVENT);
+		Object locals = suspend();
+
+		TestEffect effect = new TestEffect(false);
+		assertNull(runAsync(effect, locals));
+		assertSame(frame, effect.frame);
+		assertEquals("value", effect.value);
+		assertTrue(frame.isDelayed());
+
+		// the execution can be continued by another thread
+		Variables.setLocalVariables(EVENT, locals);
+		assertSame(frame, ExecutionFrame.get(EVENT));
+		frame.exit();
+	}
+
+	@Test
+	public void testFailingEffect() throws InterruptedException {
+		ExecutionFrame frame = ExecutionFrame.enter(EVENT);
+		Object locals = suspend();
+
+		TestEffect effect = new TestEffect(true);
+		assertNull(runAsync(effect, locals));
+		assertSame(frame, effect.frame);
+	}
+
+}
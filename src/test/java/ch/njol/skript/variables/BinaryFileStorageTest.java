@@ -0,0 +1,161 @@
+package ch.njol.skript.variables;
+
+import ch.njol.skript.variables.BinaryFileStorage.LoadedRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BinaryFileStorageTest {
+
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("variables", ".dat");
+	}
+
+	@After
+	public void tearDown() {
+		//noinspection ResultOfMethodCallIgnored
+		file.delete();
+	}
+
+	private static void set(DataOutputStream out, String name, String value) throws IOException {
+		BinaryFileStorage.writeRecord(out, name, "string", value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void delete(DataOutputStream out, String name) throws IOException {
+		BinaryFileStorage.writeRecord(out, name, null, null);
+	}
+
+	private DataOutputStream journal() throws IOException {
+		DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+		BinaryFileStorage.writeHeader(out);
+		return out;
+	}
+
+	/**
+	 * Reads the journal, checking that it ends at the given position.
+	 * @return The values of the variables read
+	 */
+	private Map<String, String> read(long end) throws IOException {
+		Map<String, LoadedRecord> records = new LinkedHashMap<>();
+		assertEquals(end, BinaryFileStorage.readJournal(file, records));
+		Map<String, String> values = new LinkedHashMap<>();
+		for (Map.Entry<String, LoadedRecord> entry : records.entrySet()) {
+			assertEquals("string", entry.getValue().type());
+			values.put(entry.getKey(), new String(entry.getValue().data(), StandardCharsets.UTF_8));
+		}
+		return values;
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		try (DataOutputStream out = journal()) {
+			set(out, "a", "1");
+			set(out, "b", "2");
+			set(out, "list::ü", "3");
+			set(out, "a", "4");
+			delete(out, "b");
+			set(out, "empty", "");
+		}
+
+		assertTrue(BinaryFileStorage.isJournal(file));
+		Map<String, String> values = read(file.length());
+		assertEquals(Map.of("a", "4", "list::ü", "3", "empty", ""), values);
+		// variables keep the position they were first written at
+		assertEquals(List.of("a", "list::ü", "empty"), List.copyOf(values.keySet()));
+	}
+
+	@Test
+	public void testDeletedVariablesStayDeleted() throws IOException {
+		try (DataOutputStream out = journal()) {
+			set(out, "a", "1");
+			delete(out, "a");
+			delete(out, "never set");
+		}
+
+		assertEquals(Map.of(), read(file.length()));
+	}
+
+	@Test
+	public void testTruncatedFile() throws IOException {
+		long end;
+		try (DataOutputStream out = journal()) {
+			set(out, "a", "1");
+			out.flush();
+			end = out.size();
+			set(out, "b", "2");
+		}
+		try (RandomAccessFile truncated = new RandomAccessFile(file, "rw")) {
+			truncated.setLength(file.length() - 3);
+		}
+
+		// the incomplete record is dropped, but the ones before it are kept
+		assertEquals(Map.of("a", "1"), read(end));
+	}
+
+	@Test
+	public void testCorruptRecord() throws IOException {
+		long end;
+		try (DataOutputStream out = journal()) {
+			set(out, "a", "1");
+			out.flush();
+			end = out.size();
+			// a record of an unknown kind
+			out.writeInt(5);
+			out.writeByte(7);
+			out.writeInt(0);
+			set(out, "b", "2");
+		}
+
+		// nothing after a damaged record can be trusted
+		assertEquals(Map.of("a", "1"), read(end));
+	}
+
+	@Test
+	public void testInvalidLength() throws IOException {
+		long end;
+		try (DataOutputStream out = journal()) {
+			set(out, "a", "1");
+			out.flush();
+			end = out.size();
+			// a record claiming to be longer than the file
+			out.writeInt(Integer.MAX_VALUE - 4);
+			out.writeByte(0);
+		}
+
+		assertEquals(Map.of("a", "1"), read(end));
+	}
+
+	@Test
+	public void testUnsupportedVersion() throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+			out.writeInt(0x534B564A);
+			out.writeInt(Integer.MAX_VALUE);
+		}
+
+		assertTrue(BinaryFileStorage.isJournal(file));
+		assertThrows(IOException.class, () -> BinaryFileStorage.readJournal(file, new LinkedHashMap<>()));
+	}
+
+	@Test
+	public void testCSVIsNotAJournal() throws IOException {
+		Files.writeString(file.toPath(), "# === Skript's variable storage ===\na, string, 80B0\n");
+		assertFalse(BinaryFileStorage.isJournal(file));
+	}
+
+}
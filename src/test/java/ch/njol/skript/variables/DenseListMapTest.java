@@ -0,0 +1,145 @@
+package ch.njol.skript.variables;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class DenseListMapTest {
+
+	private static DenseListMap filled(int size) {
+		DenseListMap map = new DenseListMap();
+		for (int i = 1; i <= size; i++)
+			map.put(String.valueOf(i), "value " + i);
+		return map;
+	}
+
+	@Test
+	public void consecutiveIndicesStayDense() {
+		DenseListMap map = filled(100);
+		map.add("value 101");
+
+		assertTrue(map.isDense());
+		assertEquals(101, map.size());
+		assertEquals("value 50", map.get("50"));
+		assertEquals("value 101", map.get("101"));
+		assertNull(map.get("102"));
+		assertNull(map.get("050"));
+		assertNull(map.get("abc"));
+		assertEquals(102, map.nextOpenIndex());
+	}
+
+	@Test
+	public void ownValueDoesNotAffectIndices() {
+		DenseListMap map = filled(3);
+		map.put(null, "own");
+
+		assertTrue(map.isDense());
+		assertEquals(4, map.size());
+		assertEquals("own", map.get(null));
+		assertEquals(Arrays.asList(null, "1", "2", "3"), new ArrayList<>(map.keySet()));
+
+		map.remove(null);
+		assertEquals(3, map.size());
+		assertFalse(map.containsKey(null));
+	}
+
+	@Test
+	public void removingLastElementStaysDense() {
+		DenseListMap map = filled(3);
+
+		assertEquals("value 3", map.remove("3"));
+		assertTrue(map.isDense());
+		assertEquals(2, map.size());
+		assertEquals(3, map.nextOpenIndex());
+	}
+
+	@Test
+	public void sparseIndicesUpgradeToTree() {
+		DenseListMap map = filled(3);
+		map.put("5", "value 5");
+
+		assertFalse(map.isDense());
+		assertEquals(4, map.size());
+		assertEquals("value 2", map.get("2"));
+		assertEquals(4, map.nextOpenIndex());
+		assertEquals(Arrays.asList("1", "2", "3", "5"), new ArrayList<>(map.keySet()));
+	}
+
+	@Test
+	public void removingMiddleElementUpgradesToTree() {
+		DenseListMap map = filled(3);
+		map.remove("2");
+
+		assertFalse(map.isDense());
+		assertEquals(Arrays.asList("1", "3"), new ArrayList<>(map.keySet()));
+		assertEquals(2, map.nextOpenIndex());
+	}
+
+	@Test
+	public void textIndicesUpgradeToTree() {
+		DenseListMap map = filled(2);
+		map.put("b", "b");
+		map.put("a", "a");
+
+		assertFalse(map.isDense());
+		assertEquals(Arrays.asList("1", "2", "a", "b"), new ArrayList<>(map.keySet()));
+	}
+
+	@Test
+	public void clearMakesDenseAgain() {
+		DenseListMap map = filled(2);
+		map.put("x", "x");
+		map.clear();
+
+		assertTrue(map.isDense());
+		assertTrue(map.isEmpty());
+		assertEquals(1, map.nextOpenIndex());
+	}
+
+	@Test
+	public void iterationMatchesTree() {
+		DenseListMap map = filled(20);
+		map.put(null, "own");
+		TreeMap<String, Object> tree = new TreeMap<>(VariablesMap.VARIABLE_NAME_COMPARATOR);
+		for (int i = 1; i <= 20; i++)
+			tree.put(String.valueOf(i), "value " + i);
+		tree.put(null, "own");
+
+		assertEquals(new ArrayList<>(tree.entrySet()), new ArrayList<>(map.entrySet()));
+		assertEquals(new ArrayList<>(tree.values()), new ArrayList<>(map.values()));
+		assertEquals(tree, map);
+	}
+
+	@Test
+	public void iteratorRemoveWritesThrough() {
+		DenseListMap map = filled(3);
+		Iterator<String> keys = map.keySet().iterator();
+		keys.next();
+		keys.next();
+		keys.remove();
+
+		assertEquals(Arrays.asList("1", "3"), new ArrayList<>(map.keySet()));
+		assertEquals("value 3", map.get("3"));
+	}
+
+	@Test
+	public void mapIndicesTrackSublists() {
+		DenseListMap map = filled(2);
+		DenseListMap sublist = filled(1);
+		map.put("3", sublist);
+
+		assertTrue(map.isDense());
+		List<String> indices = new ArrayList<>(map.mapIndices());
+		assertEquals(List.of("3"), indices);
+
+		map.put("3", "value 3");
+		assertTrue(map.mapIndices().isEmpty());
+	}
+
+}
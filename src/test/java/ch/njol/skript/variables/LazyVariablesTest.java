@@ -0,0 +1,125 @@
+package ch.njol.skript.variables;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class LazyVariablesTest {
+
+	private static final List<String> LISTS = List.of("lazy test 1", "lazy test 2", "lazy test 3", "lazy test 4");
+
+	/**
+	 * The values stored in the fake database, by list name and index.
+	 */
+	private final Map<String, Map<String, Object>> database = new HashMap<>();
+	private final Map<String, Integer> loads = new HashMap<>();
+
+	private final LazyVariables lazyVariables = new LazyVariables(this::loadList, "test", new String[0], 2);
+
+	private @Nullable Map<String, Object> loadList(String list) {
+		loads.merge(list, 1, Integer::sum);
+		Map<String, Object> values = new HashMap<>();
+		database.getOrDefault(list, Map.of()).forEach((index, value) -> values.put(list + "::" + index, value));
+		return values;
+	}
+
+	private void store(String list, String index, Object value) {
+		database.computeIfAbsent(list, key -> new HashMap<>()).put(index, value);
+	}
+
+	private void read(String list) {
+		LazyVariables.afterAccess(lazyVariables.load(list, false));
+	}
+
+	private static @Nullable Object get(String name) {
+		return Variables.getVariable(name, null, false);
+	}
+
+	@After
+	public void cleanUp() {
+		for (String list : LISTS)
+			Variables.unloadList(list);
+	}
+
+	@Test
+	public void listIsLoadedOnAccess() {
+		store("lazy test 1", "a", "1");
+		store("lazy test 1", "b", "2");
+		assertNull(get("lazy test 1::a"));
+
+		read("lazy test 1");
+		assertEquals("1", get("lazy test 1::a"));
+		assertEquals(2, ((Map<?, ?>) get("lazy test 1::*")).size());
+
+		read("lazy test 1");
+		assertEquals(1, (int) loads.get("lazy test 1"));
+	}
+
+	@Test
+	public void leastRecentlyUsedListIsUnloaded() {
+		for (String list : LISTS)
+			store(list, "a", "value");
+
+		read("lazy test 1");
+		read("lazy test 2");
+		read("lazy test 1");
+		read("lazy test 3");
+
+		assertEquals("value", get("lazy test 1::a"));
+		assertNull(get("lazy test 2::a"));
+		assertEquals("value", get("lazy test 3::a"));
+
+		read("lazy test 2");
+		assertEquals("value", get("lazy test 2::a"));
+		assertEquals(2, (int) loads.get("lazy test 2"));
+	}
+
+	@Test
+	public void listBeingReadIsNotUnloaded() {
+		for (String list : LISTS)
+			store(list, "a", "value");
+
+		LazyVariables.ListState pinned = lazyVariables.load("lazy test 1", false);
+		assertNotNull(pinned);
+		read("lazy test 2");
+		read("lazy test 3");
+
+		// the least recently used list is still being read, so the next one is unloaded instead
+		assertEquals("value", get("lazy test 1::a"));
+		assertNull(get("lazy test 2::a"));
+
+		LazyVariables.afterAccess(pinned);
+		read("lazy test 4");
+		assertNull(get("lazy test 1::a"));
+	}
+
+	@Test
+	public void changedListKeepsItsChanges() {
+		for (String list : LISTS)
+			store(list, "a", "old");
+
+		// the change is made in memory, but not written to the database yet
+		assertNull(lazyVariables.load("lazy test 1", true));
+		Variables.setLoadedVariables(Map.of("lazy test 1::a", "new"));
+		read("lazy test 2");
+		read("lazy test 3");
+		assertEquals("new", get("lazy test 1::a"));
+
+		// once written, the list can be unloaded, and is loaded with the change again
+		store("lazy test 1", "a", "new");
+		lazyVariables.settled("lazy test 1");
+		read("lazy test 2");
+		read("lazy test 3");
+		assertNull(get("lazy test 1::a"));
+
+		read("lazy test 1");
+		assertEquals("new", get("lazy test 1::a"));
+	}
+
+}
@@ -0,0 +1,91 @@
+package ch.njol.skript.variables;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class LocalVariableSlotsTest {
+
+	@Test
+	public void namesKeepTheirSlot() {
+		LocalVariableSlots slots = new LocalVariableSlots();
+		int a = slots.slotOf("a");
+		int b = slots.slotOf("b");
+
+		assertNotEquals(a, b);
+		assertEquals(a, slots.slotOf("a"));
+		assertEquals(b, slots.indexOf("b"));
+		assertEquals(-1, slots.indexOf("c"));
+		assertEquals(2, slots.size());
+	}
+
+	@Test
+	public void slotAndNameAccessShareValues() {
+		LocalVariableSlots slots = new LocalVariableSlots();
+		int a = slots.slotOf("a");
+		VariablesMap map = new VariablesMap();
+
+		map.setVariable(slots, a, "a", "by slot");
+		assertEquals("by slot", map.getVariable("a"));
+
+		map.setVariable("a", "by name");
+		assertEquals("by name", map.getVariable(slots, a, "a"));
+
+		map.setVariable("a", null);
+		assertNull(map.getVariable(slots, a, "a"));
+	}
+
+	@Test
+	public void existingVariablesMoveToSlots() {
+		LocalVariableSlots slots = new LocalVariableSlots();
+		int a = slots.slotOf("a");
+		VariablesMap map = new VariablesMap();
+		map.setVariable("a", "value");
+		map.setVariable("a::1", "element");
+		map.setVariable("b", "other");
+
+		assertEquals("value", map.getVariable(slots, a, "a"));
+		assertEquals("other", map.getVariable("b"));
+
+		// the list with the same name doesn't contain the value of the variable anymore, but keeps its elements
+		Map<?, ?> list = (Map<?, ?>) map.getVariable("a::*");
+		assertNotNull(list);
+		assertFalse(list.containsKey(null));
+		assertEquals("element", list.get("1"));
+
+		map.setVariable("a::*", null);
+		assertEquals("value", map.getVariable("a"));
+	}
+
+	@Test
+	public void otherSlotsUseNames() {
+		LocalVariableSlots slots = new LocalVariableSlots();
+		LocalVariableSlots otherSlots = new LocalVariableSlots();
+		int a = slots.slotOf("a");
+		int otherA = otherSlots.slotOf("a");
+		VariablesMap map = new VariablesMap();
+
+		map.setVariable(slots, a, "a", "value");
+		assertEquals("value", map.getVariable(otherSlots, otherA, "a"));
+
+		map.setVariable(otherSlots, otherA, "a", "changed");
+		assertEquals("changed", map.getVariable(slots, a, "a"));
+	}
+
+	@Test
+	public void copiesAreIndependent() {
+		LocalVariableSlots slots = new LocalVariableSlots();
+		int a = slots.slotOf("a");
+		VariablesMap map = new VariablesMap();
+		map.setVariable(slots, a, "a", "original");
+
+		VariablesMap copy = map.copy();
+		copy.setVariable(slots, a, "a", "changed");
+
+		assertEquals("original", map.getVariable(slots, a, "a"));
+		assertEquals("changed", copy.getVariable("a"));
+	}
+
+}
@@ -0,0 +1,130 @@
+package ch.njol.skript.variables;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SQLStorageTest {
+
+	/**
+	 * The committed and uncommitted rows of the fake database, by variable name.
+	 */
+	private Map<String, String> table;
+	private final List<Map<String, String>> savepoints = new ArrayList<>();
+
+	private PreparedStatement writeQuery;
+	private PreparedStatement deleteQuery;
+	private Connection connection;
+
+	private boolean failDeletes;
+
+	@Before
+	public void setUp() {
+		table = new HashMap<>();
+		savepoints.clear();
+		failDeletes = false;
+		writeQuery = statement(false);
+		deleteQuery = statement(true);
+		connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class}, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "setSavepoint" -> {
+					savepoints.add(new HashMap<>(table));
+					int index = savepoints.size() - 1;
+					return Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Savepoint.class},
+						(savepoint, savepointMethod, savepointArgs) -> savepointMethod.getName().equals("getSavepointId") ? index : null);
+				}
+				case "rollback" -> table = savepoints.get(((Savepoint) args[0]).getSavepointId());
+				case "releaseSavepoint" -> { }
+				default -> throw new UnsupportedOperationException(method.getName());
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * A statement that keeps its batch if executing it fails, like many JDBC drivers.
+	 */
+	private PreparedStatement statement(boolean delete) {
+		List<String[]> batch = new ArrayList<>();
+		String[] parameters = new String[4];
+		return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{PreparedStatement.class}, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "setString" -> parameters[(int) args[0] - 1] = (String) args[1];
+				case "setBytes" -> parameters[(int) args[0] - 1] = new String((byte[]) args[1], StandardCharsets.UTF_8);
+				case "addBatch" -> batch.add(parameters.clone());
+				case "clearBatch" -> batch.clear();
+				case "executeBatch" -> {
+					if (delete && failDeletes)
+						throw new SQLException("deleting failed");
+					for (String[] row : batch) {
+						if (delete) {
+							table.remove(row[0]);
+						} else {
+							table.put(row[0], row[2]);
+						}
+					}
+					int[] counts = new int[batch.size()];
+					batch.clear();
+					return counts;
+				}
+				default -> throw new UnsupportedOperationException(method.getName());
+			}
+			return null;
+		});
+	}
+
+	private static SerializedVariable write(String name, String value) {
+		return new SerializedVariable(name, new SerializedVariable.Value("string", value.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static SerializedVariable delete(String name) {
+		return new SerializedVariable(name, null);
+	}
+
+	@Test
+	public void batchIsWritten() throws SQLException {
+		SQLStorage.writeBatch(connection, writeQuery, deleteQuery, List.of(write("a", "1"), write("b", "2")));
+		SQLStorage.writeBatch(connection, writeQuery, deleteQuery, List.of(write("c", "3"), delete("a")));
+
+		assertEquals(Map.of("b", "2", "c", "3"), table);
+	}
+
+	@Test
+	public void failedBatchIsRolledBack() throws SQLException {
+		SQLStorage.writeBatch(connection, writeQuery, deleteQuery, List.of(write("a", "1"), write("b", "2")));
+
+		failDeletes = true;
+		assertThrows(SQLException.class,
+			() -> SQLStorage.writeBatch(connection, writeQuery, deleteQuery, List.of(write("a", "old"), delete("b"))));
+
+		// the writes of the failed batch are undone, but not the ones of the previous batch
+		assertEquals(Map.of("a", "1", "b", "2"), table);
+	}
+
+	@Test
+	public void failedBatchIsNotReplayed() throws SQLException {
+		failDeletes = true;
+		assertThrows(SQLException.class,
+			() -> SQLStorage.writeBatch(connection, writeQuery, deleteQuery, List.of(write("a", "old"), delete("b"))));
+
+		failDeletes = false;
+		table.put("b", "new");
+		SQLStorage.writeBatch(connection, writeQuery, deleteQuery, List.of(write("a", "new"), delete("c")));
+
+		// neither the write nor the deletion of the failed batch is executed with the next batch
+		assertEquals(Map.of("a", "new", "b", "new"), table);
+	}
+
+}
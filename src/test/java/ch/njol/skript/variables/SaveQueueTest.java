@@ -0,0 +1,100 @@
+package ch.njol.skript.variables;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SaveQueueTest {
+
+	private final SaveQueue queue = new SaveQueue();
+	private final List<String> saved = new ArrayList<>();
+	private final List<String> coalesced = new ArrayList<>();
+
+	private static SerializedVariable change(String name, String value) {
+		return new SerializedVariable(name, new SerializedVariable.Value("string", value.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private void save(SerializedVariable variable) {
+		assert variable.value != null;
+		saved.add(variable.name + "=" + new String(variable.value.data, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void withoutWindowEveryChangeIsSaved() throws InterruptedException {
+		queue.add(change("a", "1"));
+		queue.add(change("a", "2"));
+		assertEquals(2, queue.getUnsaved());
+
+		queue.saveNext(0, this::save, coalesced::add);
+		assertEquals(List.of("a=1"), saved);
+		assertEquals(1, queue.getUnsaved());
+
+		queue.saveNext(0, this::save, coalesced::add);
+		assertEquals(List.of("a=1", "a=2"), saved);
+		assertEquals(List.of(), coalesced);
+		assertEquals(0, queue.getUnsaved());
+	}
+
+	@Test
+	public void windowKeepsLatestChanges() throws InterruptedException {
+		queue.add(change("a", "1"));
+		queue.add(change("b", "1"));
+		queue.add(change("a", "2"));
+		queue.add(change("a", "3"));
+
+		queue.saveNext(50, this::save, coalesced::add);
+
+		// the variables are saved in the order they were first changed
+		assertEquals(List.of("a=3", "b=1"), saved);
+		assertEquals(List.of("a", "a"), coalesced);
+		assertEquals(0, queue.size());
+		assertEquals(0, queue.getUnsaved());
+	}
+
+	@Test
+	public void takenChangesAreUnsavedUntilSaved() throws InterruptedException {
+		queue.add(change("a", "1"));
+		queue.add(change("b", "1"));
+		List<Integer> unsavedWhileSaving = new ArrayList<>();
+
+		queue.saveNext(50, variable -> unsavedWhileSaving.add(queue.getUnsaved()), coalesced::add);
+
+		// the changes are no longer queued, but still count as unsaved until all of them are saved
+		assertEquals(List.of(2, 2), unsavedWhileSaving);
+		assertEquals(0, queue.getUnsaved());
+	}
+
+	@Test
+	public void failedSaveIsNotCountedAsUnsaved() {
+		queue.add(change("a", "1"));
+
+		assertThrows(IllegalStateException.class, () -> queue.saveNext(0, variable -> {
+			throw new IllegalStateException();
+		}, coalesced::add));
+		assertEquals(0, queue.getUnsaved());
+	}
+
+	@Test(timeout = 10_000)
+	public void awaitSavedWaitsForSaveThread() throws InterruptedException {
+		for (int i = 0; i < 100; i++)
+			queue.add(change("a" + i, "1"));
+
+		Thread saveThread = new Thread(() -> {
+			try {
+				while (queue.getUnsaved() > 0)
+					queue.saveNext(1, this::save, coalesced::add);
+			} catch (InterruptedException ignored) {}
+		});
+		saveThread.start();
+		queue.awaitSaved();
+
+		assertEquals(0, queue.getUnsaved());
+		saveThread.join();
+		assertEquals(100, saved.size());
+	}
+
+}
@@ -0,0 +1,132 @@
+package ch.njol.skript.variables;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class ShardedVariablesMapTest {
+
+	@Test
+	public void variablesAreReadBack() {
+		ShardedVariablesMap map = new ShardedVariablesMap(4);
+		map.setVariable("a", "1", null);
+		map.setVariable("b::c", "2", null);
+
+		assertEquals("1", map.getVariable("a"));
+		assertEquals("2", map.getVariable("b::c"));
+		assertEquals("2", map.getVariable(new String[]{"b", "c"}));
+		assertNull(map.getVariable("c"));
+		assertEquals(2, map.size());
+
+		map.setVariable("a", null, null);
+		assertNull(map.getVariable("a"));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	public void listsAreNotCopied() {
+		ShardedVariablesMap map = new ShardedVariablesMap(4);
+		map.setVariable("list::1", "a", null);
+		map.setVariable("list::2", "b", null);
+
+		Map<?, ?> list = (Map<?, ?>) map.getVariable("list::*");
+		assertNotNull(list);
+		assertEquals(Map.of("1", "a", "2", "b"), list);
+		// the list itself is returned, like the unsharded map does
+		assertSame(list, map.getVariable(new String[]{"list", "*"}));
+
+		map.setVariable("list::3", "c", null);
+		assertEquals("c", list.get("3"));
+
+		map.setVariable("list::*", null, null);
+		assertNull(map.getVariable("list::*"));
+		assertNull(map.getVariable("list::1"));
+	}
+
+	@Test
+	public void shardsAreSnapshot() {
+		ShardedVariablesMap map = new ShardedVariablesMap(4);
+		Map<String, Object> expected = new HashMap<>();
+		for (int i = 0; i < 32; i++) {
+			map.setVariable("var" + i, i, null);
+			map.setVariable("list" + i + "::element", i, null);
+			expected.put("var" + i, i);
+			expected.put("list" + i, i);
+		}
+
+		List<TreeMap<String, Object>> snapshots = new ArrayList<>();
+		map.forEachShard(snapshots::add);
+
+		Map<String, Object> found = new HashMap<>();
+		for (TreeMap<String, Object> snapshot : snapshots) {
+			for (Map.Entry<String, Object> entry : snapshot.entrySet()) {
+				Object value = entry.getValue();
+				// only the element of each list is collected
+				found.put(entry.getKey(), value instanceof Map<?, ?> list ? list.get("element") : value);
+			}
+		}
+		assertEquals(expected, found);
+
+		// later writes don't change the snapshots
+		map.setVariable("var0", "changed", null);
+		map.setVariable("list0::element", "changed", null);
+		for (TreeMap<String, Object> snapshot : snapshots) {
+			assertNotEquals("changed", snapshot.get("var0"));
+			if (snapshot.get("list0") instanceof Map<?, ?> list)
+				assertEquals(0, list.get("element"));
+		}
+	}
+
+	@Test
+	public void changesAreReportedInOrder() {
+		ShardedVariablesMap map = new ShardedVariablesMap(4);
+		List<String> changes = new ArrayList<>();
+		map.setVariable("a", "1", (name, value) -> changes.add(name + "=" + value));
+		map.setVariable("a", null, (name, value) -> changes.add(name + "=" + value));
+
+		assertEquals(List.of("a=1", "a=null"), changes);
+	}
+
+	@Test
+	public void concurrentWritesAreKept() throws Exception {
+		ShardedVariablesMap map = new ShardedVariablesMap(8);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int thread = 0; thread < 4; thread++) {
+				int id = thread;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 1000; i++) {
+						map.setVariable("list" + id + "::" + i, i, null);
+						map.setVariable("shared::" + id + "-" + i, i, null);
+					}
+				}));
+			}
+			for (Future<?> future : futures)
+				future.get();
+		} finally {
+			executor.shutdown();
+		}
+
+		for (int thread = 0; thread < 4; thread++)
+			assertEquals(1000, ((Map<?, ?>) map.getVariable("list" + thread + "::*")).size());
+		assertEquals(4000, ((Map<?, ?>) map.getVariable("shared::*")).size());
+		assertEquals(8000, map.size());
+	}
+
+	@Test
+	public void shardsMustBeAPowerOfTwo() {
+		assertThrows(IllegalArgumentException.class, () -> new ShardedVariablesMap(3));
+		assertThrows(IllegalArgumentException.class, () -> new ShardedVariablesMap(0));
+	}
+
+}
@@ -0,0 +1,90 @@
+package ch.njol.skript.variables;
+
+import ch.njol.skript.registrations.Classes;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class VariableSerializerTest {
+
+	private final Map<String, List<@Nullable String>> values = new ConcurrentHashMap<>();
+	private final Map<String, Set<Thread>> threads = new ConcurrentHashMap<>();
+
+	private void record(SerializedVariable variable) {
+		SerializedVariable.Value value = variable.value;
+		values.computeIfAbsent(variable.name, name -> Collections.synchronizedList(new ArrayList<>()))
+			.add(value == null ? null : (String) Classes.deserialize(value.type, value.data));
+		threads.computeIfAbsent(variable.name, name -> ConcurrentHashMap.newKeySet())
+			.add(Thread.currentThread());
+	}
+
+	@Test
+	public void variablesStayOnTheirThread() {
+		VariableSerializer serializer = new VariableSerializer(4, this::record);
+		for (int i = 0; i < 100; i++) {
+			for (char name = 'a'; name <= 't'; name++)
+				serializer.submit(String.valueOf(name), String.valueOf(i));
+		}
+		serializer.close();
+
+		for (char name = 'a'; name <= 't'; name++) {
+			assertEquals(1, threads.get(String.valueOf(name)).size());
+			// changes may be coalesced, but are never reordered
+			List<String> changes = values.get(String.valueOf(name));
+			for (int i = 1; i < changes.size(); i++)
+				assertTrue(changes.toString(), Integer.parseInt(changes.get(i - 1)) < Integer.parseInt(changes.get(i)));
+			assertEquals("99", changes.get(changes.size() - 1));
+		}
+	}
+
+	@Test
+	public void pendingChangesAreCoalesced() {
+		CountDownLatch release = new CountDownLatch(1);
+		VariableSerializer serializer = new VariableSerializer(1, variable -> {
+			if (variable.name.equals("blocker")) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			}
+			record(variable);
+		});
+
+		// the only worker is busy until released, so the other changes wait
+		serializer.submit("blocker", "value");
+		serializer.submit("a", "1");
+		serializer.submit("a", "2");
+		serializer.submit("a", "3");
+		serializer.submit("b", "1");
+		serializer.submit("b", null);
+		release.countDown();
+		serializer.close();
+
+		assertEquals(List.of("3"), values.get("a"));
+		assertEquals(Collections.singletonList(null), values.get("b"));
+	}
+
+	@Test
+	public void onlyImmutableValuesArePassedOn() {
+		assertTrue(VariableSerializer.isThreadSafe("text"));
+		assertTrue(VariableSerializer.isThreadSafe(5L));
+		assertTrue(VariableSerializer.isThreadSafe(2.5));
+
+		// numbers, but mutable ones, so they are serialized by the thread changing them
+		assertFalse(VariableSerializer.isThreadSafe(new AtomicInteger(5)));
+		assertFalse(VariableSerializer.isThreadSafe(new AtomicLong(5)));
+	}
+
+}
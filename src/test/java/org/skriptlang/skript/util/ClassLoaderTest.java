@@ -2,9 +2,15 @@ package org.skriptlang.skript.util;
 
 import org.junit.Test;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 
 import static org.junit.Assert.*;
 
@@ -78,4 +84,45 @@ public class ClassLoaderTest {
 		assertTrue(classes.contains(ClassLoaderTest.class));
 	}
 
+	private static boolean initialized;
+
+	private static final class StaticInitializer {
+
+		static {
+			initialized = true;
+		}
+
+	}
+
+	@Test
+	public void testIndex() throws IOException {
+		File jar = File.createTempFile("index", ".jar");
+		jar.deleteOnExit();
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+			out.putNextEntry(new JarEntry(ClassLoader.CLASS_INDEX));
+			String index = "org/skriptlang/skript/util/ClassLoader.class\n"
+				+ "*org/skriptlang/skript/util/ClassLoaderTest$StaticInitializer.class\n";
+			out.write(index.getBytes(StandardCharsets.UTF_8));
+			out.closeEntry();
+		}
+
+		// only the indexed classes are loaded
+		Set<Class<?>> classes = new HashSet<>();
+		ClassLoader.builder()
+				.basePackage("org.skriptlang.skript.util")
+				.forEachClass(classes::add)
+				.build()
+				.loadClasses(ClassLoaderTest.class, jar);
+		assertEquals(Set.of(ClassLoader.class, StaticInitializer.class), classes);
+
+		// classes with a static initializer are initialized
+		assertFalse(initialized);
+		ClassLoader.builder()
+				.basePackage("org.skriptlang.skript.util")
+				.initialize(true)
+				.build()
+				.loadClasses(ClassLoaderTest.class, jar);
+		assertTrue(initialized);
+	}
+
 }
@@ -0,0 +1,31 @@
+package org.skriptlang.skript.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ClassPairCacheTest {
+
+	@Test
+	public void testGet() {
+		AtomicInteger resolved = new AtomicInteger();
+		ClassPairCache<String> cache = new ClassPairCache<>((first, second) -> {
+			resolved.incrementAndGet();
+			return first.isAssignableFrom(second) ? first.getSimpleName() + " <- " + second.getSimpleName() : null;
+		});
+
+		assertEquals("Number <- Integer", cache.get(Number.class, Integer.class));
+		assertEquals("Number <- Integer", cache.get(Number.class, Integer.class));
+		assertEquals(1, resolved.get());
+
+		assertNull(cache.get(Integer.class, Number.class));
+		assertNull(cache.get(Integer.class, Number.class));
+		assertEquals(2, resolved.get());
+
+		assertEquals("Number <- Double", cache.get(Number.class, Double.class));
+		assertEquals(3, resolved.get());
+	}
+
+}